@@ -7,13 +7,18 @@ import com.minecraft.nftplugin.commands.NFTHelpCommand;
 import com.minecraft.nftplugin.commands.NFTInfoCommand;
 import com.minecraft.nftplugin.commands.NFTInvCommand;
 import com.minecraft.nftplugin.commands.NFTListCommand;
+import com.minecraft.nftplugin.commands.NFTStatsCommand;
 import com.minecraft.nftplugin.commands.ResetNFTCommand;
 import com.minecraft.nftplugin.commands.TestCommand;
+import com.minecraft.nftplugin.database.AsyncDatabase;
 import com.minecraft.nftplugin.database.DatabaseManager;
+import com.minecraft.nftplugin.database.PlayerSessionManager;
+import com.minecraft.nftplugin.database.ProgressLedger;
 
 import com.minecraft.nftplugin.integration.SolanaLoginIntegration;
 import com.minecraft.nftplugin.enchants.CustomEnchantManager;
 import com.minecraft.nftplugin.buffs.BuffManager;
+import com.minecraft.nftplugin.buffs.BuffRefreshScheduler;
 import com.minecraft.nftplugin.listeners.BuffListener;
 import com.minecraft.nftplugin.listeners.CustomEnchantListener;
 import com.minecraft.nftplugin.listeners.InventoryListener;
@@ -28,6 +33,9 @@ import org.bukkit.Bukkit;
 import org.bukkit.plugin.java.JavaPlugin;
 
 import java.io.File;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Set;
 import java.util.logging.Level;
 
 public class NFTPlugin extends JavaPlugin {
@@ -35,6 +43,9 @@ public class NFTPlugin extends JavaPlugin {
     private static NFTPlugin instance;
     private ConfigManager configManager;
     private DatabaseManager databaseManager;
+    private AsyncDatabase asyncDatabase;
+    private ProgressLedger progressLedger;
+    private PlayerSessionManager playerSessionManager;
     private SolanaService solanaService;
     private ItemManager itemManager;
     private SolanaLoginIntegration solanaLoginIntegration;
@@ -42,6 +53,7 @@ public class NFTPlugin extends JavaPlugin {
     private MetadataManager metadataManager;
     private CustomEnchantManager customEnchantManager;
     private BuffManager buffManager;
+    private BuffRefreshScheduler buffRefreshScheduler;
     private SimpleNFTInventory simpleNFTInventory;
 
 
@@ -61,6 +73,11 @@ public class NFTPlugin extends JavaPlugin {
             Bukkit.getPluginManager().disablePlugin(this);
             return;
         }
+        asyncDatabase = new AsyncDatabase(this, databaseManager);
+        progressLedger = new ProgressLedger(this);
+        progressLedger.start();
+        playerSessionManager = new PlayerSessionManager(this);
+        playerSessionManager.loadOnlinePlayers();
 
         // Initialize SolanaLogin integration
         solanaLoginIntegration = new SolanaLoginIntegration(this);
@@ -85,6 +102,8 @@ public class NFTPlugin extends JavaPlugin {
 
         // Initialize buff manager
         buffManager = new BuffManager(this);
+        buffRefreshScheduler = new BuffRefreshScheduler(this);
+        buffRefreshScheduler.start();
 
         // Initialize simple NFT inventory
         simpleNFTInventory = new SimpleNFTInventory(this);
@@ -93,6 +112,9 @@ public class NFTPlugin extends JavaPlugin {
         achievementManager = new AchievementManager(this);
         achievementManager.initializeAchievements();
 
+        // Resume mints left in the outbox and start dispatching
+        solanaService.startMintDispatcher();
+
         // Register commands
         getLogger().info("Registering commands...");
         try {
@@ -121,6 +143,9 @@ public class NFTPlugin extends JavaPlugin {
 
             getCommand("nfthelp").setExecutor(new NFTHelpCommand(this));
             getLogger().info("Registered nfthelp command");
+
+            getCommand("nftstats").setExecutor(new NFTStatsCommand(this));
+            getLogger().info("Registered nftstats command");
         } catch (Exception e) {
             getLogger().severe("Error registering commands: " + e.getMessage());
             e.printStackTrace();
@@ -138,6 +163,26 @@ public class NFTPlugin extends JavaPlugin {
 
     @Override
     public void onDisable() {
+        // Stop refreshing buffs
+        if (buffRefreshScheduler != null) {
+            buffRefreshScheduler.shutdown();
+        }
+
+        // Stop the Solana backend
+        if (solanaService != null) {
+            solanaService.shutdown();
+        }
+
+        // Let queued queries finish before closing the pool
+        if (asyncDatabase != null) {
+            asyncDatabase.shutdown();
+        }
+
+        // Write buffered achievement progress
+        if (progressLedger != null) {
+            progressLedger.shutdown();
+        }
+
         // Close database connections
         if (databaseManager != null) {
             databaseManager.close();
@@ -170,6 +215,30 @@ public class NFTPlugin extends JavaPlugin {
         return databaseManager;
     }
 
+    /**
+     * Get the asynchronous database access for the main thread
+     * @return The asynchronous database access
+     */
+    public AsyncDatabase getAsyncDatabase() {
+        return asyncDatabase;
+    }
+
+    /**
+     * Get the buffered achievement progress
+     * @return The progress ledger
+     */
+    public ProgressLedger getProgressLedger() {
+        return progressLedger;
+    }
+
+    /**
+     * Get the cached data of online players
+     * @return The player session manager
+     */
+    public PlayerSessionManager getPlayerSessionManager() {
+        return playerSessionManager;
+    }
+
     /**
      * Get the Solana service
      * @return The Solana service
@@ -226,6 +295,14 @@ public class NFTPlugin extends JavaPlugin {
         return buffManager;
     }
 
+    /**
+     * Get the scheduler that coalesces buff refreshes
+     * @return The buff refresh scheduler
+     */
+    public BuffRefreshScheduler getBuffRefreshScheduler() {
+        return buffRefreshScheduler;
+    }
+
 
     /**
      * Get the simple NFT inventory
@@ -258,16 +335,32 @@ public class NFTPlugin extends JavaPlugin {
         // List of files to extract
         String[] files = {
             "mint-nft.js",
+            "mock-backend.js",
             "package.json",
+            "package-lock.json",
             "README.md",
             ".env.example",
             "setup-backend.sh",
             "setup-backend.bat"
         };
 
+        // Scripts and their dependency manifests are always replaced so the backend matches the plugin version
+        Set<String> scripts = new HashSet<>(Arrays.asList(
+            "mint-nft.js",
+            "mock-backend.js",
+            "package.json",
+            "package-lock.json"
+        ));
+
         for (String fileName : files) {
             File file = new File(backendDir, fileName);
-            if (!file.exists()) {
+            if (scripts.contains(fileName) && file.exists()) {
+                try {
+                    saveResource("solana-backend/" + fileName, true);
+                } catch (Exception e) {
+                    getLogger().warning("Failed to update " + fileName + ": " + e.getMessage());
+                }
+            } else if (!file.exists()) {
                 try {
                     saveResource("solana-backend/" + fileName, false);
                     getLogger().info("Extracted " + fileName + " to solana-backend directory");
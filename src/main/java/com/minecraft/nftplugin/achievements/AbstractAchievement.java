@@ -5,6 +5,8 @@ import com.google.gson.JsonArray;
 import com.google.gson.JsonElement;
 import com.google.gson.JsonObject;
 import com.minecraft.nftplugin.NFTPlugin;
+import com.minecraft.nftplugin.database.NFTData;
+import org.bukkit.Bukkit;
 import org.bukkit.Material;
 import org.bukkit.NamespacedKey;
 import org.bukkit.Sound;
@@ -22,6 +24,9 @@ import java.io.Reader;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.RejectedExecutionException;
 
 /**
  * Abstract base class for all achievements
@@ -78,34 +83,34 @@ public abstract class AbstractAchievement implements Achievement {
     }
 
     @Override
-    public int getCurrentProgress(Player player) {
-        return plugin.getDatabaseManager().getAchievementProgress(player.getUniqueId(), key);
+    public CompletableFuture<Integer> getCurrentProgress(Player player) {
+        return plugin.getProgressLedger().getProgress(player.getUniqueId(), key);
     }
 
     @Override
-    public boolean updateProgress(Player player, int progress) {
+    public CompletableFuture<Boolean> updateProgress(Player player, int progress) {
         UUID playerUuid = player.getUniqueId();
-        int currentProgress = getCurrentProgress(player);
 
-        // Don't update if already completed
-        if (currentProgress >= requiredProgress) {
-            return false;
-        }
-
-        // Update progress in database
-        boolean updated = plugin.getDatabaseManager().updateAchievementProgress(playerUuid, key, progress);
-
-        // Check if achievement is completed
-        if (updated && progress >= requiredProgress) {
-            onAchievementCompleted(player);
-        }
+        return getCurrentProgress(player).thenCompose(currentProgress -> {
+            // Don't update if already completed
+            if (currentProgress >= requiredProgress) {
+                return CompletableFuture.completedFuture(false);
+            }
 
-        return updated;
+            // Buffer the progress; a completion is written to the database before the NFT is minted,
+            // and the NFT is minted once that write succeeds, even if it only succeeds on a retry
+            return plugin.getProgressLedger().setProgress(playerUuid, key, progress, progress >= requiredProgress, () -> {
+                Player online = Bukkit.getPlayer(playerUuid);
+                if (online != null) {
+                    onAchievementCompleted(online);
+                }
+            });
+        });
     }
 
     @Override
-    public boolean isCompleted(Player player) {
-        return getCurrentProgress(player) >= requiredProgress;
+    public CompletableFuture<Boolean> isCompleted(Player player) {
+        return getCurrentProgress(player).thenApply(progress -> progress >= requiredProgress);
     }
 
     @Override
@@ -134,30 +139,45 @@ public abstract class AbstractAchievement implements Achievement {
 
         // Mint NFT
         plugin.getSolanaService().mintNft(player, key)
-                .thenAccept(transactionId -> {
-                    // Send mint success message
-                    player.sendMessage(plugin.getConfigManager().getMessage("prefix") +
-                            plugin.getConfigManager().getMessage("nft_minted")
-                                    .replace("%tx_id%", transactionId));
-
-                    // Create and give reward item to player
-                    createAndGiveRewardItem(player, transactionId);
-                })
+                .thenAccept(nft -> deliverReward(player, nft))
                 .exceptionally(e -> {
-                    plugin.getLogger().severe("Failed to mint NFT: " + e.getMessage());
+                    Throwable cause = e instanceof CompletionException && e.getCause() != null ? e.getCause() : e;
+                    if (cause instanceof RejectedExecutionException) {
+                        plugin.getLogger().warning("Mint queue full, could not mint " + key + " for " + player.getName());
+                        player.sendMessage(plugin.getConfigManager().getMessage("prefix") +
+                                plugin.getConfigManager().getMessage("nft_mint_queue_full"));
+                        return null;
+                    }
+
+                    plugin.getLogger().severe("Failed to mint NFT: " + cause.getMessage());
                     player.sendMessage(plugin.getConfigManager().getMessage("prefix") +
                             plugin.getConfigManager().getMessage("nft_mint_failed"));
                     return null;
                 });
     }
 
+    /**
+     * Tell the player their NFT was minted and give them the reward item
+     * @param player The player
+     * @param nft The minted NFT
+     */
+    public void deliverReward(Player player, NFTData nft) {
+        // Send mint success message
+        player.sendMessage(plugin.getConfigManager().getMessage("prefix") +
+                plugin.getConfigManager().getMessage("nft_minted")
+                        .replace("%tx_id%", nft.getTransactionId()));
+
+        // Create and give reward item to player
+        createAndGiveRewardItem(player, nft);
+    }
+
     /**
      * Create and give reward item to player
      * @param player The player
-     * @param transactionId The transaction ID
+     * @param nft The minted NFT
      */
-    private void createAndGiveRewardItem(Player player, String transactionId) {
-        plugin.getLogger().info("Creating and giving reward item to player " + player.getName() + " for achievement " + key + " with transaction ID " + transactionId);
+    private void createAndGiveRewardItem(Player player, NFTData nft) {
+        plugin.getLogger().info("Creating and giving reward item to player " + player.getName() + " for achievement " + key + " with transaction ID " + nft.getTransactionId());
 
         // Run on main thread since inventory operations must be sync
         plugin.getServer().getScheduler().runTask(plugin, () -> {
@@ -170,7 +190,7 @@ public abstract class AbstractAchievement implements Achievement {
                     plugin.getLogger().warning("Metadata file not found: " + getMetadataFilePath());
                     // Use default item creation
                     plugin.getLogger().info("Using default item creation instead");
-                    giveDefaultRewardItem(player, transactionId);
+                    giveDefaultRewardItem(player, nft);
                     return;
                 }
 
@@ -187,7 +207,7 @@ public abstract class AbstractAchievement implements Achievement {
                     plugin.getLogger().warning("Metadata file does not have reward section: " + getMetadataFilePath());
                     // Use default item creation
                     plugin.getLogger().info("Using default item creation instead");
-                    giveDefaultRewardItem(player, transactionId);
+                    giveDefaultRewardItem(player, nft);
                     return;
                 }
 
@@ -196,7 +216,7 @@ public abstract class AbstractAchievement implements Achievement {
                 plugin.getLogger().info("Found reward section in metadata, creating item");
 
                 // Create item
-                ItemStack item = createRewardItemFromMetadata(reward, transactionId);
+                ItemStack item = createRewardItemFromMetadata(reward, nft);
                 plugin.getLogger().info("Created reward item: " + item.getType() +
                         " with name: " + (item.hasItemMeta() && item.getItemMeta().hasDisplayName() ?
                         item.getItemMeta().getDisplayName() : "<no name>"));
@@ -223,7 +243,7 @@ public abstract class AbstractAchievement implements Achievement {
                 e.printStackTrace();
                 // Fallback to default item
                 plugin.getLogger().info("Using default item creation due to error");
-                giveDefaultRewardItem(player, transactionId);
+                giveDefaultRewardItem(player, nft);
             }
         });
     }
@@ -231,10 +251,10 @@ public abstract class AbstractAchievement implements Achievement {
     /**
      * Create reward item from metadata
      * @param reward The reward JSON object
-     * @param transactionId The transaction ID
+     * @param nft The minted NFT
      * @return The reward item
      */
-    private ItemStack createRewardItemFromMetadata(JsonObject reward, String transactionId) {
+    private ItemStack createRewardItemFromMetadata(JsonObject reward, NFTData nft) {
         // Get item material
         String materialName = reward.has("item") ? reward.get("item").getAsString() : "PAPER";
         Material material = Material.valueOf(materialName);
@@ -255,7 +275,7 @@ public abstract class AbstractAchievement implements Achievement {
                 lore.add(loreElement.getAsString());
             }
             // Add transaction ID to lore
-            lore.add("§8NFT Transaction: §7" + transactionId);
+            lore.add("§8NFT Transaction: §7" + nft.getTransactionId());
             meta.setLore(lore);
         }
 
@@ -296,7 +316,7 @@ public abstract class AbstractAchievement implements Achievement {
         NamespacedKey achievementKey = new NamespacedKey(plugin, "achievement_key");
 
         container.set(nftKey, PersistentDataType.BYTE, (byte) 1);
-        container.set(nftIdKey, PersistentDataType.STRING, transactionId);
+        container.set(nftIdKey, PersistentDataType.STRING, nft.getNftId());
         container.set(achievementKey, PersistentDataType.STRING, key);
 
         // Apply meta to item
@@ -348,13 +368,13 @@ public abstract class AbstractAchievement implements Achievement {
     /**
      * Give default reward item to player
      * @param player The player
-     * @param transactionId The transaction ID
+     * @param nft The minted NFT
      */
-    private void giveDefaultRewardItem(Player player, String transactionId) {
+    private void giveDefaultRewardItem(Player player, NFTData nft) {
         plugin.getLogger().info("Creating default NFT item for player " + player.getName() + " for achievement " + key);
 
         // Create default NFT item
-        ItemStack item = plugin.getItemManager().createNftItem(transactionId, key);
+        ItemStack item = plugin.getItemManager().createNftItem(nft.getNftId(), key);
         plugin.getLogger().info("Created default NFT item: " + item.getType() +
                 " with name: " + (item.hasItemMeta() && item.getItemMeta().hasDisplayName() ?
                 item.getItemMeta().getDisplayName() : "<no name>"));
@@ -2,6 +2,8 @@ package com.minecraft.nftplugin.achievements;
 
 import org.bukkit.entity.Player;
 
+import java.util.concurrent.CompletableFuture;
+
 /**
  * Interface for all achievements
  */
@@ -34,24 +36,24 @@ public interface Achievement {
     /**
      * Get the current progress for a player
      * @param player The player
-     * @return The current progress
+     * @return A CompletableFuture that completes on the main thread with the current progress
      */
-    int getCurrentProgress(Player player);
+    CompletableFuture<Integer> getCurrentProgress(Player player);
     
     /**
      * Update the progress for a player
      * @param player The player
      * @param progress The new progress
-     * @return True if the progress was updated, false otherwise
+     * @return A CompletableFuture that completes on the main thread with true if the progress was updated
      */
-    boolean updateProgress(Player player, int progress);
+    CompletableFuture<Boolean> updateProgress(Player player, int progress);
     
     /**
      * Check if a player has completed the achievement
      * @param player The player
-     * @return True if the player has completed the achievement, false otherwise
+     * @return A CompletableFuture that completes on the main thread with true if the player has completed the achievement
      */
-    boolean isCompleted(Player player);
+    CompletableFuture<Boolean> isCompleted(Player player);
     
     /**
      * Get the NFT metadata file path
@@ -14,6 +14,7 @@ import java.util.HashMap;
 import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
 
 /**
  * Manager for all achievements
@@ -63,11 +64,14 @@ public class AchievementManager {
      * @param player The player
      * @param key The achievement key
      * @param progress The new progress
-     * @return True if the progress was updated, false otherwise
+     * @return A CompletableFuture that completes on the main thread with true if the progress was updated
      */
-    public boolean updateProgress(Player player, String key, int progress) {
+    public CompletableFuture<Boolean> updateProgress(Player player, String key, int progress) {
         Optional<Achievement> achievement = getAchievement(key);
-        return achievement.isPresent() && achievement.get().updateProgress(player, progress);
+        if (!achievement.isPresent()) {
+            return CompletableFuture.completedFuture(false);
+        }
+        return achievement.get().updateProgress(player, progress);
     }
 
     /**
@@ -75,26 +79,29 @@ public class AchievementManager {
      * @param player The player
      * @param key The achievement key
      * @param amount The amount to increment
-     * @return True if the progress was updated, false otherwise
+     * @return A CompletableFuture that completes on the main thread with true if the progress was updated
      */
-    public boolean incrementProgress(Player player, String key, int amount) {
+    public CompletableFuture<Boolean> incrementProgress(Player player, String key, int amount) {
         Optional<Achievement> achievement = getAchievement(key);
-        if (achievement.isPresent()) {
-            int currentProgress = achievement.get().getCurrentProgress(player);
-            return achievement.get().updateProgress(player, currentProgress + amount);
+        if (!achievement.isPresent()) {
+            return CompletableFuture.completedFuture(false);
         }
-        return false;
+        return achievement.get().getCurrentProgress(player)
+                .thenCompose(currentProgress -> achievement.get().updateProgress(player, currentProgress + amount));
     }
 
     /**
      * Check if a player has completed an achievement
      * @param player The player
      * @param key The achievement key
-     * @return True if the player has completed the achievement, false otherwise
+     * @return A CompletableFuture that completes on the main thread with true if the player has completed the achievement
      */
-    public boolean isAchievementCompleted(Player player, String key) {
+    public CompletableFuture<Boolean> isAchievementCompleted(Player player, String key) {
         Optional<Achievement> achievement = getAchievement(key);
-        return achievement.isPresent() && achievement.get().isCompleted(player);
+        if (!achievement.isPresent()) {
+            return CompletableFuture.completedFuture(false);
+        }
+        return achievement.get().isCompleted(player);
     }
 
     /**
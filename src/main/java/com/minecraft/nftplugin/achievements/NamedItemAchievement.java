@@ -15,7 +15,6 @@ import org.bukkit.persistence.PersistentDataContainer;
 import org.bukkit.persistence.PersistentDataType;
 
 import java.io.File;
-import java.util.UUID;
 
 /**
  * Achievement for holding a specific named item
@@ -114,7 +113,6 @@ public class NamedItemAchievement extends AbstractAchievement implements Listene
     }
 
     private void checkPlayerHoldingItem(Player player) {
-        UUID uuid = player.getUniqueId();
         ItemStack item = player.getInventory().getItemInMainHand();
 
         // Debug info about the item
@@ -126,14 +124,15 @@ public class NamedItemAchievement extends AbstractAchievement implements Listene
             plugin.getLogger().info("Player " + player.getName() + " is holding the named item: " + targetItemName);
 
             // Check if player has already completed this achievement
-            boolean hasCompleted = plugin.getDatabaseManager().hasCompletedAchievement(uuid, key);
-            plugin.getLogger().info("Player " + player.getName() + " has completed achievement " + key + ": " + hasCompleted);
+            int slot = player.getInventory().getHeldItemSlot();
+            isCompleted(player).thenAccept(hasCompleted -> {
+                plugin.getLogger().info("Player " + player.getName() + " has completed achievement " + key + ": " + hasCompleted);
 
-            if (!hasCompleted) {
-                // Complete the achievement immediately
-                plugin.getLogger().info("Updating progress for player " + player.getName() + " for achievement " + key);
-                boolean updated = updateProgress(player, REQUIRED_PROGRESS);
-                plugin.getLogger().info("Progress updated: " + updated);
+                // The player may have logged out or switched items while the database was queried
+                if (hasCompleted || !player.isOnline() || player.getInventory().getHeldItemSlot() != slot
+                        || !isTargetItem(player.getInventory().getItemInMainHand())) {
+                    return;
+                }
 
                 // Send message
                 player.sendMessage(plugin.getConfigManager().getMessage("prefix") +
@@ -147,12 +146,13 @@ public class NamedItemAchievement extends AbstractAchievement implements Listene
                         ChatColor.YELLOW + " will be replaced with an NFT item.");
 
                 // Remove the original item
-                int slot = player.getInventory().getHeldItemSlot();
                 player.getInventory().setItem(slot, null);
 
-                // Mint the NFT - this will create and give the new NFT item
-                onAchievementCompleted(player);
-            }
+                // Complete the achievement; this mints the NFT, which creates and gives the new NFT item
+                plugin.getLogger().info("Updating progress for player " + player.getName() + " for achievement " + key);
+                updateProgress(player, REQUIRED_PROGRESS)
+                        .thenAccept(updated -> plugin.getLogger().info("Progress updated: " + updated));
+            });
         }
     }
 
@@ -0,0 +1,117 @@
+package com.minecraft.nftplugin.buffs;
+
+import java.util.Arrays;
+
+/**
+ * The buffs an NFT provides, parsed once and shared by every evaluation of that NFT
+ */
+public final class BuffDescriptor {
+
+    // values() copies the array on every call
+    private static final BuffType[] BUFF_TYPES = BuffType.values();
+
+    /**
+     * An NFT without buffs
+     */
+    public static final BuffDescriptor NONE = new BuffDescriptor(new int[BUFF_TYPES.length]);
+
+    private final int[] values;
+
+    private BuffDescriptor(int[] values) {
+        this.values = values;
+    }
+
+    /**
+     * Create a descriptor from buff values
+     * @param values The buff values by buff type ordinal, copied
+     * @return The descriptor, NONE if every value is 0
+     */
+    public static BuffDescriptor of(int[] values) {
+        for (int value : values) {
+            if (value != 0) {
+                return new BuffDescriptor(Arrays.copyOf(values, BUFF_TYPES.length));
+            }
+        }
+        return NONE;
+    }
+
+    /**
+     * Create a descriptor for a single buff
+     * @param buffType The type of buff
+     * @param value The value of the buff
+     * @return The descriptor
+     */
+    public static BuffDescriptor of(BuffType buffType, int value) {
+        int[] values = new int[BUFF_TYPES.length];
+        values[buffType.ordinal()] = value;
+        return of(values);
+    }
+
+    /**
+     * Get the value of a buff
+     * @param buffType The type of buff
+     * @return The value, 0 if the NFT does not provide the buff
+     */
+    public int getValue(BuffType buffType) {
+        return values[buffType.ordinal()];
+    }
+
+    /**
+     * Check if the NFT provides no buffs
+     * @return True if every value is 0
+     */
+    public boolean isEmpty() {
+        return this == NONE;
+    }
+
+    /**
+     * Get the only buff the NFT provides, which is what the item's persistent data can hold
+     * @return The buff type, or null if the NFT provides no buff or more than one
+     */
+    public BuffType getSingleType() {
+        BuffType single = null;
+        for (BuffType buffType : BUFF_TYPES) {
+            if (values[buffType.ordinal()] != 0) {
+                if (single != null) {
+                    return null;
+                }
+                single = buffType;
+            }
+        }
+        return single;
+    }
+
+    /**
+     * Add the buff values to totals
+     * @param totals The totals by buff type ordinal
+     */
+    public void addTo(int[] totals) {
+        for (int i = 0; i < values.length; i++) {
+            totals[i] += values[i];
+        }
+    }
+
+    /**
+     * Subtract the buff values from totals
+     * @param totals The totals by buff type ordinal
+     */
+    public void subtractFrom(int[] totals) {
+        for (int i = 0; i < values.length; i++) {
+            totals[i] -= values[i];
+        }
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder builder = new StringBuilder("BuffDescriptor{");
+        for (BuffType buffType : BUFF_TYPES) {
+            if (values[buffType.ordinal()] != 0) {
+                if (builder.length() > "BuffDescriptor{".length()) {
+                    builder.append(", ");
+                }
+                builder.append(buffType.name()).append('=').append(values[buffType.ordinal()]);
+            }
+        }
+        return builder.append('}').toString();
+    }
+}
@@ -1,6 +1,10 @@
 package com.minecraft.nftplugin.buffs;
 
 import com.minecraft.nftplugin.NFTPlugin;
+import com.minecraft.nftplugin.database.NFTData;
+import com.minecraft.nftplugin.database.PlayerSession;
+import org.bukkit.Bukkit;
+import org.bukkit.Material;
 import org.bukkit.NamespacedKey;
 import org.bukkit.entity.Player;
 import org.bukkit.inventory.ItemStack;
@@ -8,12 +12,18 @@ import org.bukkit.inventory.meta.ItemMeta;
 import org.bukkit.persistence.PersistentDataContainer;
 import org.bukkit.persistence.PersistentDataType;
 
-import com.minecraft.nftplugin.database.NFTData;
-
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Arrays;
+import java.util.EnumMap;
 import java.util.HashMap;
+import java.util.Iterator;
 import java.util.Map;
+import java.util.Objects;
 import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.logging.Level;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
@@ -31,8 +41,22 @@ public class BuffManager {
     private final Pattern luckyCharmPattern = Pattern.compile("Lucky Charm \\+(\\d+)%");
     private final Pattern luckyCharmSimplePattern = Pattern.compile("\\+(\\d+)%");
 
-    // Map to store player buffs
-    private final Map<UUID, Map<BuffType, Integer>> playerBuffs = new HashMap<>();
+    // values() copies the array on every call
+    private static final BuffType[] BUFF_TYPES = BuffType.values();
+
+    // Buff totals by player, indexed by buff type ordinal. Only the main thread writes them;
+    // other threads may read a value that is one update behind.
+    private final Map<UUID, int[]> playerBuffs = new ConcurrentHashMap<>();
+    private final Map<UUID, Map<BuffType, Integer>> playerBuffsView = new PlayerBuffsView();
+
+    // Last seen slot contents and per-slot buff contributions, so only changed slots are evaluated again
+    private final Map<UUID, SlotState> slotStates = new HashMap<>();
+
+    // Compiled buffs by NFT ID, so an NFT's persistent data and lore are only parsed once
+    private final Map<String, BuffDescriptor> descriptors = new ConcurrentHashMap<>();
+
+    // Bumped whenever cached buffs are dropped; slot states from an older generation are evaluated again
+    private long descriptorGeneration;
 
     public BuffManager(NFTPlugin plugin) {
         this.plugin = plugin;
@@ -41,65 +65,173 @@ public class BuffManager {
     }
 
     /**
-     * Get the total buff value for a player
+     * Get the total buff value for a player. Does not allocate, so it is safe to call from hot listeners.
      * @param player The player
      * @param buffType The type of buff
      * @return The total buff value
      */
     public int getPlayerBuffValue(Player player, BuffType buffType) {
-        Map<BuffType, Integer> buffs = playerBuffs.getOrDefault(player.getUniqueId(), new HashMap<>());
-        return buffs.getOrDefault(buffType, 0);
+        return getPlayerBuffValue(player.getUniqueId(), buffType);
     }
 
     /**
-     * Update buffs for a player based on their inventory
+     * Get the total buff value for a player. Does not allocate, so it is safe to call from hot listeners.
+     * @param uuid The player's UUID
+     * @param buffType The type of buff
+     * @return The total buff value
+     */
+    public int getPlayerBuffValue(UUID uuid, BuffType buffType) {
+        int[] buffs = playerBuffs.get(uuid);
+        return buffs == null ? 0 : buffs[buffType.ordinal()];
+    }
+
+    /**
+     * Get the active buffs of a player
+     * @param player The player
+     * @return A copy of the player's non-zero buffs
+     */
+    public Map<BuffType, Integer> getPlayerBuffs(Player player) {
+        return toMap(playerBuffs.get(player.getUniqueId()));
+    }
+
+    /**
+     * Update buffs for a player based on their inventory.
+     * Each slot is identified by its item type, amount and NFT ID; only slots where one of them changed
+     * since the last update are evaluated again, and their old contribution is replaced by the new one.
      * @param player The player
      */
     public void updatePlayerBuffs(Player player) {
-        // Clear existing buffs for this player
-        playerBuffs.put(player.getUniqueId(), new HashMap<>());
+        UUID uuid = player.getUniqueId();
+        SlotState state = slotStates.get(uuid);
+        int[] buffs = playerBuffs.get(uuid);
+        if (state == null || buffs == null) {
+            state = new SlotState();
+            slotStates.put(uuid, state);
+            buffs = new int[BUFF_TYPES.length];
+            playerBuffs.put(uuid, buffs);
+        }
 
-        // Check only items in the player's main inventory and armor slots
+        // Check only items in the player's main inventory, armor and off hand slots
         // This excludes items in ender chest, chests, etc.
-        for (ItemStack item : player.getInventory().getContents()) {
-            if (item != null && plugin.getItemManager().isNftItem(item)) {
-                addBuffFromItem(player, item);
-            }
-        }
+        ItemStack[] contents = player.getInventory().getContents();
+        state.ensureCapacity(contents.length);
+        boolean stale = state.generation != descriptorGeneration;
+        state.generation = descriptorGeneration;
+        for (int slot = 0; slot < contents.length; slot++) {
+            ItemStack item = contents[slot];
+            Material type = item == null ? Material.AIR : item.getType();
+            int amount = type == Material.AIR ? 0 : item.getAmount();
+
+            // Only items with metadata can be NFTs, and only they need a copy of it
+            ItemMeta meta = type != Material.AIR && item.hasItemMeta() ? item.getItemMeta() : null;
+            PersistentDataContainer container = meta != null && isNft(meta) ? meta.getPersistentDataContainer() : null;
+            String nftId = container != null ? container.get(plugin.getItemManager().getNftIdKey(), PersistentDataType.STRING) : null;
 
-        // Also check armor slots
-        for (ItemStack item : player.getInventory().getArmorContents()) {
-            if (item != null && plugin.getItemManager().isNftItem(item)) {
-                addBuffFromItem(player, item);
+            // NFTs without an ID can only be told apart by their metadata, so they are always evaluated
+            boolean unidentified = container != null && nftId == null;
+            if (!stale && !unidentified && type == state.types[slot] && amount == state.amounts[slot]
+                    && Objects.equals(nftId, state.nftIds[slot])) {
+                continue;
             }
+
+            BuffDescriptor descriptor = container != null ? getItemDescriptor(item, meta, nftId) : null;
+            applyDelta(buffs, state.contributions[slot], descriptor);
+            state.types[slot] = type;
+            state.amounts[slot] = amount;
+            state.nftIds[slot] = nftId;
+            state.contributions[slot] = descriptor;
         }
 
         // Check equipped NFTs from NFTInventoryCommand
+        BuffDescriptor equipped = null;
         if (player.hasMetadata("nft_equipped_nfts")) {
             try {
                 @SuppressWarnings("unchecked")
                 Set<String> equippedNFTs = (Set<String>) player.getMetadata("nft_equipped_nfts").get(0).value();
                 if (equippedNFTs != null && !equippedNFTs.isEmpty()) {
-                    addBuffsFromEquippedNFTs(player, equippedNFTs);
+                    equipped = getEquippedDescriptor(player, equippedNFTs);
                 }
             } catch (Exception e) {
                 plugin.getLogger().warning("Failed to get equipped NFTs for player " + player.getName() + ": " + e.getMessage());
             }
         }
+        applyDelta(buffs, state.equipped, equipped);
+        state.equipped = equipped;
     }
 
     /**
-     * Add a buff from an item to a player
+     * Forget the buffs of a player, e.g. when they leave the server
      * @param player The player
-     * @param item The item
      */
-    private void addBuffFromItem(Player player, ItemStack item) {
-        if (item == null || !item.hasItemMeta()) {
+    public void clearPlayerBuffs(Player player) {
+        playerBuffs.remove(player.getUniqueId());
+        slotStates.remove(player.getUniqueId());
+    }
+
+    /**
+     * Check if an item is an NFT
+     * @param meta The item's metadata
+     * @return True if the item is marked as an NFT
+     */
+    private boolean isNft(ItemMeta meta) {
+        return meta.getPersistentDataContainer()
+                .getOrDefault(plugin.getItemManager().getNftKey(), PersistentDataType.BYTE, (byte) 0) == (byte) 1;
+    }
+
+    /**
+     * Replace a contribution in a player's buff totals
+     * @param buffs The player's buff totals
+     * @param oldContribution The contribution to remove, or null
+     * @param newContribution The contribution to add, or null
+     */
+    private void applyDelta(int[] buffs, BuffDescriptor oldContribution, BuffDescriptor newContribution) {
+        if (oldContribution == newContribution) {
             return;
         }
 
-        ItemMeta meta = item.getItemMeta();
+        if (oldContribution != null) {
+            oldContribution.subtractFrom(buffs);
+        }
+        if (newContribution != null) {
+            newContribution.addTo(buffs);
+        }
+    }
 
+    /**
+     * Get the buffs of an NFT item.
+     * Items with an NFT ID are parsed once and then served from the cache.
+     * @param item The item
+     * @param meta The item's metadata, read once by the caller since every getItemMeta call copies it
+     * @param nftId The NFT ID stored on the item, or null
+     * @return The buffs
+     */
+    private BuffDescriptor getItemDescriptor(ItemStack item, ItemMeta meta, String nftId) {
+        if (nftId != null) {
+            BuffDescriptor cached = descriptors.get(nftId);
+            if (cached != null) {
+                return cached;
+            }
+        }
+
+        BuffDescriptor descriptor = compileDescriptor(meta);
+        if (nftId != null) {
+            descriptors.put(nftId, descriptor);
+        }
+
+        // Inventory contents are mirrors of the live items, so this updates the item in the inventory.
+        // Its NFT ID stays the same, so the slot is not evaluated again.
+        if (upgradeLegacyItem(meta, descriptor)) {
+            item.setItemMeta(meta);
+        }
+        return descriptor;
+    }
+
+    /**
+     * Parse the buffs of an NFT item
+     * @param meta The item's metadata
+     * @return The buffs
+     */
+    private BuffDescriptor compileDescriptor(ItemMeta meta) {
         // First check persistent data
         PersistentDataContainer container = meta.getPersistentDataContainer();
         String buffTypeStr = container.get(buffTypeKey, PersistentDataType.STRING);
@@ -107,98 +239,151 @@ public class BuffManager {
 
         if (buffTypeStr != null && buffValue != null) {
             try {
-                BuffType buffType = BuffType.valueOf(buffTypeStr);
-                addBuff(player, buffType, buffValue);
-                return;
+                return BuffDescriptor.of(BuffType.valueOf(buffTypeStr), buffValue);
             } catch (IllegalArgumentException e) {
                 // Invalid buff type, continue to check lore
             }
         }
 
         // Check if this is a Lucky Charm item by achievement key
-        String achievementKey = plugin.getItemManager().getAchievementKey(item);
-        if (achievementKey != null && achievementKey.startsWith("lucky_charm_")) {
-            try {
-                // Extract the number from lucky_charm_X
-                int value = Integer.parseInt(achievementKey.substring("lucky_charm_".length()));
-                plugin.getLogger().info("Found Lucky Charm with value: " + value + " for player " + player.getName());
-                addBuff(player, BuffType.LUCK, value);
-                return;
-            } catch (NumberFormatException e) {
-                plugin.getLogger().warning("Invalid Lucky Charm format: " + achievementKey);
-            }
+        String achievementKey = container.get(plugin.getItemManager().getAchievementNamespacedKey(), PersistentDataType.STRING);
+        BuffDescriptor charm = compileDescriptor(achievementKey);
+        if (charm != null) {
+            return charm;
         }
 
         // If not found in persistent data or achievement key, check lore
+        int[] values = new int[BUFF_TYPES.length];
         if (meta.hasLore()) {
             for (String line : meta.getLore()) {
                 // Check for luck buff in standard format
                 Matcher luckMatcher = luckPattern.matcher(line);
                 if (luckMatcher.find()) {
-                    int value = Integer.parseInt(luckMatcher.group(1));
-                    addBuff(player, BuffType.LUCK, value);
+                    values[BuffType.LUCK.ordinal()] += Integer.parseInt(luckMatcher.group(1));
                     continue;
                 }
 
                 // Check for Lucky Charm format
                 Matcher charmMatcher = luckyCharmPattern.matcher(line);
                 if (charmMatcher.find()) {
-                    int value = Integer.parseInt(charmMatcher.group(1));
-                    addBuff(player, BuffType.LUCK, value);
+                    values[BuffType.LUCK.ordinal()] += Integer.parseInt(charmMatcher.group(1));
                     continue;
                 }
 
                 // Check for simple +X% format
                 Matcher simpleMatcher = luckyCharmSimplePattern.matcher(line);
                 if (simpleMatcher.find() && line.toLowerCase().contains("luck")) {
-                    int value = Integer.parseInt(simpleMatcher.group(1));
-                    addBuff(player, BuffType.LUCK, value);
+                    values[BuffType.LUCK.ordinal()] += Integer.parseInt(simpleMatcher.group(1));
                 }
             }
         }
+        return BuffDescriptor.of(values);
+    }
+
+    /**
+     * Parse the buffs of an NFT from its achievement key
+     * @param achievementKey The achievement key
+     * @return The buffs, or null if the achievement key does not define any
+     */
+    private BuffDescriptor compileDescriptor(String achievementKey) {
+        if (achievementKey == null || !achievementKey.startsWith("lucky_charm_")) {
+            return null;
+        }
+
+        try {
+            // Extract the number from lucky_charm_X
+            int value = Integer.parseInt(achievementKey.substring("lucky_charm_".length()));
+            if (plugin.getLogger().isLoggable(Level.FINE)) {
+                plugin.getLogger().fine("Found Lucky Charm with value: " + value);
+            }
+            return BuffDescriptor.of(BuffType.LUCK, value);
+        } catch (NumberFormatException e) {
+            plugin.getLogger().warning("Invalid Lucky Charm format: " + achievementKey);
+            return null;
+        }
     }
 
     /**
-     * Add buffs from equipped NFTs
+     * Store the buff of an item in its persistent data if it was only described by its lore or achievement key,
+     * so the item never has to be parsed again
+     * @param meta The item's metadata
+     * @param descriptor The item's buffs
+     * @return True if the metadata was changed
+     */
+    private boolean upgradeLegacyItem(ItemMeta meta, BuffDescriptor descriptor) {
+        BuffType buffType = descriptor.getSingleType();
+        if (buffType == null) {
+            return false;
+        }
+
+        PersistentDataContainer container = meta.getPersistentDataContainer();
+        if (container.has(buffTypeKey, PersistentDataType.STRING) && container.has(buffValueKey, PersistentDataType.INTEGER)) {
+            return false;
+        }
+
+        container.set(buffTypeKey, PersistentDataType.STRING, buffType.name());
+        container.set(buffValueKey, PersistentDataType.INTEGER, descriptor.getValue(buffType));
+        return true;
+    }
+
+    /**
+     * Get the combined buffs of equipped NFTs.
+     * Equipped NFTs are resolved from the player's session; NFTs the player no longer owns provide no buffs.
      * @param player The player
      * @param equippedNFTs The set of equipped NFT IDs
+     * @return The combined buffs
      */
-    public void addBuffsFromEquippedNFTs(Player player, Set<String> equippedNFTs) {
-        if (equippedNFTs == null || equippedNFTs.isEmpty()) {
-            return;
+    private BuffDescriptor getEquippedDescriptor(Player player, Set<String> equippedNFTs) {
+        PlayerSession session = plugin.getPlayerSessionManager().getSession(player.getUniqueId());
+        if (session == null) {
+            return BuffDescriptor.NONE;
         }
 
+        int[] values = new int[BUFF_TYPES.length];
         for (String nftId : equippedNFTs) {
-            NFTData nftData = plugin.getDatabaseManager().getNFTById(nftId);
-            if (nftData != null) {
-                String achievementKey = nftData.getAchievementKey();
-
-                // Check if it's a Lucky Charm
-                if (achievementKey != null && achievementKey.startsWith("lucky_charm_")) {
-                    try {
-                        // Extract the number from lucky_charm_X
-                        int value = Integer.parseInt(achievementKey.substring("lucky_charm_".length()));
-                        plugin.getLogger().info("Adding buff from equipped Lucky Charm: " + value + " for player " + player.getName());
-                        addBuff(player, BuffType.LUCK, value);
-                    } catch (NumberFormatException e) {
-                        plugin.getLogger().warning("Invalid Lucky Charm format: " + achievementKey);
-                    }
-                }
+            NFTData nft = session.getNft(nftId);
+            if (nft == null) {
+                continue;
             }
+
+            BuffDescriptor descriptor = descriptors.get(nftId);
+            if (descriptor == null) {
+                descriptor = cacheEquippedDescriptor(nftId, nft.getAchievementKey());
+            }
+            descriptor.addTo(values);
         }
+        return BuffDescriptor.of(values);
     }
 
     /**
-     * Add a buff to a player
-     * @param player The player
-     * @param buffType The type of buff
-     * @param value The value of the buff
+     * Drop the cached buffs of NFTs that were minted, reset or revoked, and refresh the owner's buffs.
+     * Must be called on the main thread.
+     * @param uuid The owner's UUID
+     * @param nftIds The changed NFT IDs
+     */
+    public void invalidateNfts(UUID uuid, Set<String> nftIds) {
+        descriptors.keySet().removeAll(nftIds);
+        descriptorGeneration++;
+
+        Player player = Bukkit.getPlayer(uuid);
+        if (player != null) {
+            plugin.getBuffRefreshScheduler().markDirty(player);
+        }
+    }
+
+    /**
+     * Cache the buffs of an NFT that is known only by its achievement key
+     * @param nftId The NFT ID
+     * @param achievementKey The achievement key
+     * @return The buffs
      */
-    private void addBuff(Player player, BuffType buffType, int value) {
-        Map<BuffType, Integer> buffs = playerBuffs.getOrDefault(player.getUniqueId(), new HashMap<>());
-        int currentValue = buffs.getOrDefault(buffType, 0);
-        buffs.put(buffType, currentValue + value);
-        playerBuffs.put(player.getUniqueId(), buffs);
+    private BuffDescriptor cacheEquippedDescriptor(String nftId, String achievementKey) {
+        BuffDescriptor descriptor = compileDescriptor(achievementKey);
+        if (descriptor == null) {
+            descriptor = BuffDescriptor.NONE;
+        }
+        descriptors.put(nftId, descriptor);
+        return descriptor;
     }
 
     /**
@@ -220,16 +405,42 @@ public class BuffManager {
         container.set(buffTypeKey, PersistentDataType.STRING, buffType.name());
         container.set(buffValueKey, PersistentDataType.INTEGER, value);
 
+        // The cached buffs of this NFT are out of date
+        String nftId = container.get(plugin.getItemManager().getNftIdKey(), PersistentDataType.STRING);
+        if (nftId != null) {
+            descriptors.remove(nftId);
+        }
+        descriptorGeneration++;
+
         item.setItemMeta(meta);
         return item;
     }
 
     /**
-     * Get a map of all player buffs
+     * Get a map of all player buffs.
+     * The map is a read-only view; a player's buffs are only copied when they are looked up.
      * @return A map of player UUIDs to their buffs
      */
     public Map<UUID, Map<BuffType, Integer>> getAllPlayerBuffs() {
-        return new HashMap<>(playerBuffs);
+        return playerBuffsView;
+    }
+
+    /**
+     * Copy buff totals into a map
+     * @param buffs The buff totals by buff type ordinal, or null
+     * @return The non-zero buffs
+     */
+    private static Map<BuffType, Integer> toMap(int[] buffs) {
+        Map<BuffType, Integer> map = new EnumMap<>(BuffType.class);
+        if (buffs != null) {
+            for (BuffType buffType : BUFF_TYPES) {
+                int value = buffs[buffType.ordinal()];
+                if (value != 0) {
+                    map.put(buffType, value);
+                }
+            }
+        }
+        return map;
     }
 
     /**
@@ -238,4 +449,78 @@ public class BuffManager {
     public void updateAllPlayerBuffs() {
         plugin.getServer().getOnlinePlayers().forEach(this::updatePlayerBuffs);
     }
+
+    /**
+     * The last seen contents of a player's slots and what each slot contributes
+     */
+    private static class SlotState {
+        private Material[] types = new Material[0];
+        private int[] amounts = new int[0];
+        private String[] nftIds = new String[0];
+        private BuffDescriptor[] contributions = new BuffDescriptor[0];
+        private BuffDescriptor equipped;
+        private long generation;
+
+        /**
+         * Make room for a number of slots
+         * @param size The number of slots
+         */
+        private void ensureCapacity(int size) {
+            if (types.length < size) {
+                types = Arrays.copyOf(types, size);
+                amounts = Arrays.copyOf(amounts, size);
+                nftIds = Arrays.copyOf(nftIds, size);
+                contributions = Arrays.copyOf(contributions, size);
+            }
+        }
+    }
+
+    /**
+     * Read-only view of the buff totals that copies a player's buffs only when they are read
+     */
+    private class PlayerBuffsView extends AbstractMap<UUID, Map<BuffType, Integer>> {
+
+        @Override
+        public Map<BuffType, Integer> get(Object key) {
+            int[] buffs = playerBuffs.get(key);
+            return buffs == null ? null : toMap(buffs);
+        }
+
+        @Override
+        public boolean containsKey(Object key) {
+            return playerBuffs.containsKey(key);
+        }
+
+        @Override
+        public int size() {
+            return playerBuffs.size();
+        }
+
+        @Override
+        public Set<Entry<UUID, Map<BuffType, Integer>>> entrySet() {
+            return new AbstractSet<Entry<UUID, Map<BuffType, Integer>>>() {
+                @Override
+                public Iterator<Entry<UUID, Map<BuffType, Integer>>> iterator() {
+                    Iterator<Entry<UUID, int[]>> iterator = playerBuffs.entrySet().iterator();
+                    return new Iterator<Entry<UUID, Map<BuffType, Integer>>>() {
+                        @Override
+                        public boolean hasNext() {
+                            return iterator.hasNext();
+                        }
+
+                        @Override
+                        public Entry<UUID, Map<BuffType, Integer>> next() {
+                            Entry<UUID, int[]> entry = iterator.next();
+                            return new SimpleImmutableEntry<>(entry.getKey(), toMap(entry.getValue()));
+                        }
+                    };
+                }
+
+                @Override
+                public int size() {
+                    return playerBuffs.size();
+                }
+            };
+        }
+    }
 }
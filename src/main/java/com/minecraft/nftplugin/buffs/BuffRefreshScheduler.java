@@ -0,0 +1,155 @@
+package com.minecraft.nftplugin.buffs;
+
+import com.minecraft.nftplugin.NFTPlugin;
+import org.bukkit.Bukkit;
+import org.bukkit.entity.Player;
+import org.bukkit.scheduler.BukkitTask;
+
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Coalesces buff refreshes.
+ * Events only mark a player as dirty; dirty players are refreshed once on the next run of a timer,
+ * no matter how many events they caused. Each run stops after a time budget and leaves the remaining
+ * players for the next run, oldest first. All methods must be called on the main thread.
+ */
+public class BuffRefreshScheduler {
+
+    private final NFTPlugin plugin;
+    private final Set<UUID> dirtyPlayers = new LinkedHashSet<>();
+    private BukkitTask refreshTask;
+    private long budgetNanos;
+
+    private long requested;
+    private long coalesced;
+    private long refreshed;
+    private long deferred;
+    private int maxBacklog;
+
+    /**
+     * Constructor
+     * @param plugin The NFTPlugin instance
+     */
+    public BuffRefreshScheduler(NFTPlugin plugin) {
+        this.plugin = plugin;
+    }
+
+    /**
+     * Start refreshing dirty players on a timer
+     */
+    public void start() {
+        long interval = Math.max(1, plugin.getConfigManager().getBuffRefreshInterval());
+        budgetNanos = (long) (plugin.getConfigManager().getBuffRefreshBudget() * 1000000L);
+        refreshTask = Bukkit.getScheduler().runTaskTimer(plugin, this::refresh, interval, interval);
+    }
+
+    /**
+     * Stop the timer
+     */
+    public void shutdown() {
+        if (refreshTask != null) {
+            refreshTask.cancel();
+            refreshTask = null;
+        }
+        dirtyPlayers.clear();
+    }
+
+    /**
+     * Mark a player's buffs as out of date
+     * @param player The player
+     */
+    public void markDirty(Player player) {
+        requested++;
+        if (!dirtyPlayers.add(player.getUniqueId())) {
+            coalesced++;
+        }
+    }
+
+    /**
+     * Drop a pending refresh, e.g. when the player leaves the server
+     * @param uuid The player's UUID
+     */
+    public void forget(UUID uuid) {
+        dirtyPlayers.remove(uuid);
+    }
+
+    /**
+     * Refresh dirty players until the budget is used up. At least one player is refreshed per run.
+     */
+    private void refresh() {
+        if (dirtyPlayers.isEmpty()) {
+            return;
+        }
+
+        maxBacklog = Math.max(maxBacklog, dirtyPlayers.size());
+        long start = System.nanoTime();
+        Iterator<UUID> iterator = dirtyPlayers.iterator();
+        while (iterator.hasNext()) {
+            UUID uuid = iterator.next();
+            iterator.remove();
+
+            Player player = Bukkit.getPlayer(uuid);
+            if (player == null) {
+                continue;
+            }
+            plugin.getBuffManager().updatePlayerBuffs(player);
+            refreshed++;
+
+            if (budgetNanos > 0 && System.nanoTime() - start >= budgetNanos) {
+                deferred += dirtyPlayers.size();
+                return;
+            }
+        }
+    }
+
+    /**
+     * Get the number of players waiting for a refresh
+     * @return The number of dirty players
+     */
+    public int getPendingCount() {
+        return dirtyPlayers.size();
+    }
+
+    /**
+     * Get the number of refresh requests since startup
+     * @return The number of requests
+     */
+    public long getRequestedCount() {
+        return requested;
+    }
+
+    /**
+     * Get the number of requests for players that were already waiting for a refresh
+     * @return The number of coalesced requests
+     */
+    public long getCoalescedCount() {
+        return coalesced;
+    }
+
+    /**
+     * Get the number of refreshes since startup
+     * @return The number of refreshes
+     */
+    public long getRefreshedCount() {
+        return refreshed;
+    }
+
+    /**
+     * Get the number of refreshes pushed to a later run because the budget was used up
+     * @return The number of deferred refreshes
+     */
+    public long getDeferredCount() {
+        return deferred;
+    }
+
+    /**
+     * Get the highest number of players waiting at the start of a run
+     * @return The largest backlog
+     */
+    public int getMaxBacklog() {
+        return maxBacklog;
+    }
+}
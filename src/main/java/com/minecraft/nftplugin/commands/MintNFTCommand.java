@@ -5,6 +5,7 @@ import com.google.gson.JsonArray;
 import com.google.gson.JsonElement;
 import com.google.gson.JsonObject;
 import com.minecraft.nftplugin.NFTPlugin;
+import com.minecraft.nftplugin.database.NFTData;
 import org.bukkit.Bukkit;
 import org.bukkit.ChatColor;
 import org.bukkit.Material;
@@ -29,7 +30,9 @@ import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
 
 /**
  * Command to mint an NFT directly to a specified player
@@ -123,20 +126,20 @@ public class MintNFTCommand implements CommandExecutor {
         plugin.getConfigManager().getNftImageUrl(metadataKey);
 
         // Mint NFT
-        CompletableFuture<String> future = plugin.getSolanaService().mintNft(targetPlayer, metadataKey);
+        CompletableFuture<NFTData> future = plugin.getSolanaService().mintNft(targetPlayer, metadataKey);
 
         // Handle result
-        future.thenAccept(transactionId -> {
+        future.thenAccept(nft -> {
             Bukkit.getScheduler().runTask(plugin, () -> {
                 // Send success message only to admin
                 String successMessage = plugin.getConfigManager().getMessage("nft_minted")
-                        .replace("%tx_id%", transactionId);
+                        .replace("%tx_id%", nft.getTransactionId());
                 player.sendMessage(plugin.getConfigManager().getMessage("prefix") + ChatColor.GREEN +
                         "Successfully minted NFT for " + targetPlayer.getName() + "!");
                 player.sendMessage(plugin.getConfigManager().getMessage("prefix") + successMessage);
 
                 // Create NFT item using the same method as achievements
-                ItemStack nftItem = createNftItemFromMetadata(transactionId, metadataKey);
+                ItemStack nftItem = createNftItemFromMetadata(nft, metadataKey);
 
                 // Add NFT to player's NFT inventory
                 addNftToPlayerInventory(targetPlayer, nftItem);
@@ -149,10 +152,22 @@ public class MintNFTCommand implements CommandExecutor {
 
                 // Log the mint
                 plugin.getLogger().info("Admin " + player.getName() + " minted NFT for player " + targetPlayer.getName());
-                plugin.getLogger().info("Transaction ID: " + transactionId);
+                plugin.getLogger().info("Transaction ID: " + nft.getTransactionId());
                 plugin.getLogger().info("Metadata key: " + metadataKey);
             });
         }).exceptionally(ex -> {
+            Throwable cause = ex instanceof CompletionException && ex.getCause() != null ? ex.getCause() : ex;
+            if (cause instanceof RejectedExecutionException) {
+                // Mint queue is full, nothing was minted
+                Bukkit.getScheduler().runTask(plugin, () -> {
+                    player.sendMessage(plugin.getConfigManager().getMessage("prefix") +
+                            ChatColor.RED + "Could not mint NFT for " + targetPlayer.getName() + ": " + cause.getMessage());
+                    plugin.getLogger().warning("Mint queue full, admin mint of " + metadataKey + " for " +
+                            targetPlayer.getName() + " was rejected");
+                });
+                return null;
+            }
+
             // Handle exception
             Bukkit.getScheduler().runTask(plugin, () -> {
                 player.sendMessage(plugin.getConfigManager().getMessage("prefix") +
@@ -170,11 +185,11 @@ public class MintNFTCommand implements CommandExecutor {
 
     /**
      * Create an NFT item from metadata file (optimized with caching)
-     * @param transactionId The transaction ID
+     * @param nft The minted NFT
      * @param achievementKey The achievement key
      * @return The NFT item
      */
-    private ItemStack createNftItemFromMetadata(String transactionId, String achievementKey) {
+    private ItemStack createNftItemFromMetadata(NFTData nft, String achievementKey) {
         try {
             // Check if we already have the reward in cache
             JsonObject reward = rewardCache.get(achievementKey);
@@ -187,7 +202,7 @@ public class MintNFTCommand implements CommandExecutor {
                 if (!metadataFile.exists()) {
                     plugin.getLogger().warning("Metadata file not found: " + metadataPath);
                     // Fallback to ItemManager
-                    return plugin.getItemManager().createNftItem(transactionId, achievementKey);
+                    return plugin.getItemManager().createNftItem(nft.getNftId(), achievementKey);
                 }
 
                 // Check if we have the metadata in cache
@@ -216,7 +231,7 @@ public class MintNFTCommand implements CommandExecutor {
                 if (reward == null) {
                     plugin.getLogger().warning("Metadata file does not have reward section: " + metadataPath);
                     // Fallback to ItemManager
-                    return plugin.getItemManager().createNftItem(transactionId, achievementKey);
+                    return plugin.getItemManager().createNftItem(nft.getNftId(), achievementKey);
                 }
 
                 // Store reward in cache for future use
@@ -224,11 +239,11 @@ public class MintNFTCommand implements CommandExecutor {
             }
 
             // Create item
-            return createItemFromReward(reward, transactionId, achievementKey);
+            return createItemFromReward(reward, nft, achievementKey);
         } catch (Exception e) {
             plugin.getLogger().severe("Error creating NFT item from metadata: " + e.getMessage());
             // Fallback to ItemManager without stack trace for speed
-            return plugin.getItemManager().createNftItem(transactionId, achievementKey);
+            return plugin.getItemManager().createNftItem(nft.getNftId(), achievementKey);
         }
     }
 
@@ -266,11 +281,11 @@ public class MintNFTCommand implements CommandExecutor {
     /**
      * Create an item from reward JSON (optimized)
      * @param reward The reward JSON object
-     * @param transactionId The transaction ID
+     * @param nft The minted NFT
      * @param achievementKey The achievement key
      * @return The item
      */
-    private ItemStack createItemFromReward(JsonObject reward, String transactionId, String achievementKey) {
+    private ItemStack createItemFromReward(JsonObject reward, NFTData nft, String achievementKey) {
         try {
             // Get material (with fallback)
             Material material;
@@ -321,7 +336,7 @@ public class MintNFTCommand implements CommandExecutor {
 
                 // Add transaction ID to lore
                 lore.add("");
-                lore.add(ChatColor.GRAY + "Transaction: " + ChatColor.WHITE + transactionId);
+                lore.add(ChatColor.GRAY + "Transaction: " + ChatColor.WHITE + nft.getTransactionId());
 
                 // Set the lore
                 meta.setLore(lore);
@@ -403,7 +418,7 @@ public class MintNFTCommand implements CommandExecutor {
                 NamespacedKey achievementKeyNS = new NamespacedKey(plugin, "achievement_key");
 
                 container.set(nftKey, PersistentDataType.BYTE, (byte) 1);
-                container.set(nftIdKey, PersistentDataType.STRING, transactionId);
+                container.set(nftIdKey, PersistentDataType.STRING, nft.getNftId());
                 container.set(achievementKeyNS, PersistentDataType.STRING, achievementKey);
 
                 // Apply meta to item
@@ -419,7 +434,7 @@ public class MintNFTCommand implements CommandExecutor {
                 meta.setDisplayName(ChatColor.GOLD + "NFT " + ChatColor.AQUA + achievementKey);
                 List<String> lore = new ArrayList<>();
                 lore.add(ChatColor.GRAY + "A special NFT item");
-                lore.add(ChatColor.GRAY + "Transaction: " + ChatColor.WHITE + transactionId);
+                lore.add(ChatColor.GRAY + "Transaction: " + ChatColor.WHITE + nft.getTransactionId());
                 meta.setLore(lore);
                 meta.setUnbreakable(true);
                 meta.addItemFlags(ItemFlag.HIDE_ATTRIBUTES, ItemFlag.HIDE_UNBREAKABLE);
@@ -443,7 +458,7 @@ public class MintNFTCommand implements CommandExecutor {
                 NamespacedKey achievementKeyNS = new NamespacedKey(plugin, "achievement_key");
 
                 container.set(nftKey, PersistentDataType.BYTE, (byte) 1);
-                container.set(nftIdKey, PersistentDataType.STRING, transactionId);
+                container.set(nftIdKey, PersistentDataType.STRING, nft.getNftId());
                 container.set(achievementKeyNS, PersistentDataType.STRING, achievementKey);
 
                 item.setItemMeta(meta);
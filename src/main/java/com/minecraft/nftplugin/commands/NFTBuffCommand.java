@@ -8,7 +8,6 @@ import org.bukkit.command.CommandExecutor;
 import org.bukkit.command.CommandSender;
 import org.bukkit.entity.Player;
 
-import java.util.HashMap;
 import java.util.Map;
 
 /**
@@ -67,8 +66,7 @@ public class NFTBuffCommand implements CommandExecutor {
      * @param player The player
      */
     private void showPlayerBuffs(Player player) {
-        Map<BuffType, Integer> playerBuffs = plugin.getBuffManager().getAllPlayerBuffs()
-                .getOrDefault(player.getUniqueId(), new HashMap<>());
+        Map<BuffType, Integer> playerBuffs = plugin.getBuffManager().getPlayerBuffs(player);
 
         player.sendMessage(ChatColor.GOLD + "===== Your NFT Buffs =====");
 
@@ -94,8 +92,7 @@ public class NFTBuffCommand implements CommandExecutor {
         // Force update player buffs to ensure we have the latest data
         plugin.getBuffManager().updatePlayerBuffs(targetPlayer);
 
-        Map<BuffType, Integer> playerBuffs = plugin.getBuffManager().getAllPlayerBuffs()
-                .getOrDefault(targetPlayer.getUniqueId(), new HashMap<>());
+        Map<BuffType, Integer> playerBuffs = plugin.getBuffManager().getPlayerBuffs(targetPlayer);
 
         // Debug: Log the player's buffs
         plugin.getLogger().info("Player " + targetPlayer.getName() + " has buffs: " + playerBuffs);
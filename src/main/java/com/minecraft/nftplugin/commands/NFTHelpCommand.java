@@ -78,6 +78,8 @@ public class NFTHelpCommand implements CommandExecutor {
         player.sendMessage(ChatColor.WHITE + "  Mint an NFT for a player");
         player.sendMessage(ChatColor.RED + "/nftbuff <player>");
         player.sendMessage(ChatColor.WHITE + "  View a player's active NFT buffs");
+        player.sendMessage(ChatColor.RED + "/nftstats [reset|buffs|db [reset|dump]]");
+        player.sendMessage(ChatColor.WHITE + "  View mint, database and buff refresh metrics");
         player.sendMessage(ChatColor.RED + "/test");
         player.sendMessage(ChatColor.WHITE + "  Test command for debugging");
     }
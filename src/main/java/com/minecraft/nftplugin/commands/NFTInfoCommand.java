@@ -1,6 +1,8 @@
 package com.minecraft.nftplugin.commands;
 
 import com.minecraft.nftplugin.NFTPlugin;
+import com.minecraft.nftplugin.database.NFTData;
+import com.minecraft.nftplugin.database.PlayerSession;
 
 import org.bukkit.command.Command;
 import org.bukkit.command.CommandExecutor;
@@ -117,7 +119,11 @@ public class NFTInfoCommand implements CommandExecutor {
                     player.sendMessage("§8§m-----------------------------------------------------");
 
                     // Display Solana Explorer link with only the functional button
-                    String explorerUrl = "https://explorer.solana.com/address/" + nftId + "?cluster=devnet";
+                    // The item holds the NFT ID; the explorer needs the mint address
+                    PlayerSession session = plugin.getPlayerSessionManager().getSession(player.getUniqueId());
+                    NFTData nft = session != null ? session.getNft(nftId) : null;
+                    String address = nft != null && nft.getMintAddress() != null ? nft.getMintAddress() : nftId;
+                    String explorerUrl = "https://explorer.solana.com/address/" + address + "?cluster=devnet";
                     player.sendMessage("§7View on Solana Explorer: ");
 
                     // Use Spigot's JSON message API to create clickable links
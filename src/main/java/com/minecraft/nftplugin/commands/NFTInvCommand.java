@@ -2,6 +2,8 @@ package com.minecraft.nftplugin.commands;
 
 import com.minecraft.nftplugin.NFTPlugin;
 
+import com.minecraft.nftplugin.database.NFTData;
+import com.minecraft.nftplugin.database.PlayerSession;
 import com.minecraft.nftplugin.storage.SimpleNFTInventory;
 import org.bukkit.Bukkit;
 import org.bukkit.ChatColor;
@@ -28,6 +30,7 @@ import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.UUID;
 
 /**
  * Command to display a paginated NFT inventory
@@ -445,6 +448,8 @@ public class NFTInvCommand implements CommandExecutor, Listener {
 
         // Create a map to track which slots in the current page have items
         boolean[] slotHasItem = new boolean[ITEMS_PER_PAGE];
+        Map<Integer, String> pageNftIds = new HashMap<>();
+        PlayerSession playerSession = plugin.getPlayerSessionManager().getSession(player.getUniqueId());
 
         // First, mark which slots in the current page have items in the inventory
         for (int slot = 0; slot < ITEMS_PER_PAGE; slot++) {
@@ -461,6 +466,11 @@ public class NFTInvCommand implements CommandExecutor, Listener {
                 if (meta != null) {
                     PersistentDataContainer container = meta.getPersistentDataContainer();
                     String nftId = container.get(plugin.getItemManager().getNftIdKey(), PersistentDataType.STRING);
+                    if (nftId != null) {
+                        // Older items hold the transaction ID; the database is keyed by the NFT ID
+                        NFTData nft = playerSession != null ? playerSession.getNft(nftId) : null;
+                        pageNftIds.put(globalIndex, nft != null ? nft.getNftId() : nftId);
+                    }
                     plugin.getLogger().info("Saved NFT " + nftId + " to global index " + globalIndex);
                 }
             }
@@ -485,6 +495,20 @@ public class NFTInvCommand implements CommandExecutor, Listener {
         // Save to file
         storage.saveInventory(player);
         plugin.getLogger().info("Saved inventory contents for " + player.getName() + " with " + existingItems.size() + " items");
+
+        // Record the NFT placement of this page in the database
+        UUID uuid = player.getUniqueId();
+        plugin.getAsyncDatabase().saveInventoryPage(uuid, startIndex, ITEMS_PER_PAGE, pageNftIds).thenAccept(saved -> {
+            if (!saved) {
+                plugin.getLogger().warning("Failed to save NFT inventory page " + currentPage + " for " + player.getName());
+                return;
+            }
+
+            PlayerSession session = plugin.getPlayerSessionManager().getSession(uuid);
+            if (session != null) {
+                session.setInventoryPage(startIndex, ITEMS_PER_PAGE, pageNftIds);
+            }
+        });
     }
 
     /**
@@ -3,6 +3,7 @@ package com.minecraft.nftplugin.commands;
 import com.google.gson.JsonObject;
 import com.minecraft.nftplugin.NFTPlugin;
 import com.minecraft.nftplugin.database.NFTData;
+import com.minecraft.nftplugin.database.PlayerSession;
 import org.bukkit.Bukkit;
 import org.bukkit.ChatColor;
 import org.bukkit.Material;
@@ -26,6 +27,7 @@ import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
 
 /**
  * Command to display a list of NFTs owned by a player
@@ -34,7 +36,7 @@ public class NFTListCommand implements CommandExecutor, Listener {
 
     private final NFTPlugin plugin;
     private final Map<String, Integer> playerPages = new HashMap<>();
-    private final Map<UUID, List<NFTData>> playerNFTs = new HashMap<>();
+    private final Map<UUID, NFTCollection> playerCollections = new HashMap<>();
     private final SimpleDateFormat dateFormat = new SimpleDateFormat("dd/MM/yyyy HH:mm");
 
     private static final int ITEMS_PER_PAGE = 45; // 9x5 grid, leaving bottom row for navigation
@@ -63,24 +65,42 @@ public class NFTListCommand implements CommandExecutor, Listener {
 
         Player player = (Player) sender;
 
-        // Get player's NFTs from database
-        List<NFTData> nfts = plugin.getDatabaseManager().getPlayerNFTs(player.getUniqueId());
+        // Page through the player's session if it is loaded, otherwise query the database one page at a time
+        PlayerSession session = plugin.getPlayerSessionManager().getSession(player.getUniqueId());
+        if (session != null) {
+            List<NFTData> nfts = session.getNfts();
+            showNFTs(player, new NFTCollection(player.getUniqueId(), nfts.size(), nfts));
+            return true;
+        }
+
+        plugin.getAsyncDatabase().countPlayerNFTs(player.getUniqueId()).thenAccept(count -> {
+            if (player.isOnline()) {
+                showNFTs(player, new NFTCollection(player.getUniqueId(), count, null));
+            }
+        });
 
-        if (nfts.isEmpty()) {
+        return true;
+    }
+
+    /**
+     * Open the first page of a player's NFTs
+     * @param player The player
+     * @param collection The player's NFT collection
+     */
+    private void showNFTs(Player player, NFTCollection collection) {
+        if (collection.total == 0) {
             player.sendMessage(plugin.getConfigManager().getMessage("prefix") + ChatColor.YELLOW + "You don't have any NFTs yet.");
-            return true;
+            return;
         }
 
-        // Store NFTs for this player
-        playerNFTs.put(player.getUniqueId(), nfts);
+        // Store the collection for this player
+        playerCollections.put(player.getUniqueId(), collection);
 
         // Set current page to 0 (first page)
         playerPages.put(player.getName(), 0);
 
         // Open the first page of the inventory
         openInventoryPage(player, 0);
-
-        return true;
     }
 
     /**
@@ -89,14 +109,14 @@ public class NFTListCommand implements CommandExecutor, Listener {
      * @param page The page number (0-based)
      */
     private void openInventoryPage(Player player, int page) {
-        List<NFTData> nfts = playerNFTs.get(player.getUniqueId());
-        if (nfts == null || nfts.isEmpty()) {
+        NFTCollection collection = playerCollections.get(player.getUniqueId());
+        if (collection == null || collection.total == 0) {
             player.sendMessage(plugin.getConfigManager().getMessage("prefix") + ChatColor.YELLOW + "You don't have any NFTs yet.");
             return;
         }
 
         // Calculate total pages
-        int totalPages = (int) Math.ceil((double) nfts.size() / ITEMS_PER_PAGE);
+        int totalPages = (int) Math.ceil((double) collection.total / ITEMS_PER_PAGE);
 
         // Validate page number
         if (page < 0) {
@@ -108,31 +128,34 @@ public class NFTListCommand implements CommandExecutor, Listener {
         // Update player's current page
         playerPages.put(player.getName(), page);
 
-        // Create inventory with 54 slots (6 rows)
-        Inventory inventory = Bukkit.createInventory(player, 54, INVENTORY_TITLE + " - Page " + (page + 1) + "/" + totalPages);
-
-        // Calculate start and end indices for this page
-        int startIndex = page * ITEMS_PER_PAGE;
-        int endIndex = Math.min(startIndex + ITEMS_PER_PAGE, nfts.size());
+        int currentPage = page;
+        collection.getPage(currentPage).thenAccept(nfts -> {
+            // Skip if the player left or ran /nftlist again while the page was loading
+            if (!player.isOnline() || playerCollections.get(player.getUniqueId()) != collection) {
+                return;
+            }
 
-        // Add NFT items to inventory
-        int slot = 0;
-        for (int i = startIndex; i < endIndex; i++) {
-            NFTData nft = nfts.get(i);
+            // Create inventory with 54 slots (6 rows)
+            Inventory inventory = Bukkit.createInventory(player, 54, INVENTORY_TITLE + " - Page " + (currentPage + 1) + "/" + totalPages);
 
-            // Create NFT item
-            ItemStack item = createNFTItem(nft);
+            // Add NFT items to inventory
+            int slot = 0;
+            for (NFTData nft : nfts) {
+                inventory.setItem(slot, createNFTItem(nft));
+                slot++;
+            }
 
-            // Add to inventory
-            inventory.setItem(slot, item);
-            slot++;
-        }
+            // Add navigation buttons in the bottom row
+            addNavigationButtons(inventory, currentPage, totalPages, collection.total);
 
-        // Add navigation buttons in the bottom row
-        addNavigationButtons(inventory, page, totalPages);
+            // Open inventory for player
+            player.openInventory(inventory);
 
-        // Open inventory for player
-        player.openInventory(inventory);
+            // Load the next page while the player looks at this one
+            if (currentPage + 1 < totalPages) {
+                collection.getPage(currentPage + 1);
+            }
+        });
     }
 
     /**
@@ -249,8 +272,9 @@ public class NFTListCommand implements CommandExecutor, Listener {
      * @param inventory The inventory
      * @param currentPage The current page number
      * @param totalPages The total number of pages
+     * @param totalNFTs The total number of NFTs
      */
-    private void addNavigationButtons(Inventory inventory, int currentPage, int totalPages) {
+    private void addNavigationButtons(Inventory inventory, int currentPage, int totalPages, int totalNFTs) {
         // Fill bottom row with glass panes for better UI
         ItemStack glassPaneBorder = new ItemStack(Material.BLACK_STAINED_GLASS_PANE);
         ItemMeta glassMeta = glassPaneBorder.getItemMeta();
@@ -301,24 +325,6 @@ public class NFTListCommand implements CommandExecutor, Listener {
             List<String> lore = new ArrayList<>();
             lore.add(ChatColor.GRAY + "Current Page: " + ChatColor.WHITE + (currentPage + 1));
             lore.add(ChatColor.GRAY + "Total Pages: " + ChatColor.WHITE + totalPages);
-
-            // Get total NFTs count from the owner of the inventory
-            int totalNFTs = 0;
-            if (inventory.getHolder() instanceof Player) {
-                Player owner = (Player) inventory.getHolder();
-                List<NFTData> nfts = playerNFTs.get(owner.getUniqueId());
-                if (nfts != null) {
-                    totalNFTs = nfts.size();
-                }
-            } else if (!inventory.getViewers().isEmpty()) {
-                // Fallback to first viewer if holder is not a player
-                UUID viewerUUID = inventory.getViewers().get(0).getUniqueId();
-                List<NFTData> nfts = playerNFTs.get(viewerUUID);
-                if (nfts != null) {
-                    totalNFTs = nfts.size();
-                }
-            }
-
             lore.add(ChatColor.GRAY + "Total NFTs: " + ChatColor.GOLD + totalNFTs);
             lore.add("");
             lore.add(ChatColor.YELLOW + "Click on an NFT to view details");
@@ -423,88 +429,152 @@ public class NFTListCommand implements CommandExecutor, Listener {
      */
     private void displayNFTDetails(Player player, String nftId) {
         // Get NFT data from database
-        NFTData nft = plugin.getDatabaseManager().getNFTByNftId(nftId);
+        plugin.getAsyncDatabase().getNFTById(nftId).thenAccept(nft -> {
+            if (nft == null) {
+                player.sendMessage(plugin.getConfigManager().getMessage("prefix") + ChatColor.RED + "NFT information not found.");
+                return;
+            }
 
-        if (nft == null) {
-            player.sendMessage(plugin.getConfigManager().getMessage("prefix") + ChatColor.RED + "NFT information not found.");
-            return;
-        }
+            // Get achievement details
+            String achievementName = getFormattedAchievementName(nft.getAchievementKey());
+            String description = plugin.getConfigManager().getNftDescription(nft.getAchievementKey());
 
-        // Get achievement details
-        String achievementName = getFormattedAchievementName(nft.getAchievementKey());
-        String description = plugin.getConfigManager().getNftDescription(nft.getAchievementKey());
+            // Display detailed NFT information with improved formatting
+            player.sendMessage("§8§m-----------------------------------------------------");
+            player.sendMessage("§e§lNFT Details: §r§6" + achievementName);
+            player.sendMessage("§8§m-----------------------------------------------------");
 
-        // Display detailed NFT information with improved formatting
-        player.sendMessage("§8§m-----------------------------------------------------");
-        player.sendMessage("§e§lNFT Details: §r§6" + achievementName);
-        player.sendMessage("§8§m-----------------------------------------------------");
+            // Item name with NFT tag
+            player.sendMessage("§7Item: §b" + achievementName + " §a<NFT Item>");
 
-        // Item name with NFT tag
-        player.sendMessage("§7Item: §b" + achievementName + " §a<NFT Item>");
+            // Description with better formatting
+            if (description != null && !description.isEmpty()) {
+                player.sendMessage("§7Description: §f" + description);
+            }
 
-        // Description with better formatting
-        if (description != null && !description.isEmpty()) {
-            player.sendMessage("§7Description: §f" + description);
-        }
+            // Transaction ID with extremely shortened display
+            String shortNftId = nft.getNftId();
+            if (shortNftId.length() > 12) {
+                shortNftId = shortNftId.substring(0, 4) + "..." + shortNftId.substring(shortNftId.length() - 4);
+            }
+            player.sendMessage("§7NFT ID: §f" + shortNftId);
 
-        // Transaction ID with extremely shortened display
-        String shortNftId = nft.getNftId();
-        if (shortNftId.length() > 12) {
-            shortNftId = shortNftId.substring(0, 4) + "..." + shortNftId.substring(shortNftId.length() - 4);
-        }
-        player.sendMessage("§7NFT ID: §f" + shortNftId);
+            // Transaction ID with extremely shortened display
+            String transactionId = nft.getTransactionId();
+            if (transactionId != null && transactionId.length() > 12) {
+                transactionId = transactionId.substring(0, 4) + "..." + transactionId.substring(transactionId.length() - 4);
+            }
+            player.sendMessage("§7TX ID: §f" + (transactionId != null ? transactionId : "N/A"));
 
-        // Transaction ID with extremely shortened display
-        String transactionId = nft.getTransactionId();
-        if (transactionId != null && transactionId.length() > 12) {
-            transactionId = transactionId.substring(0, 4) + "..." + transactionId.substring(transactionId.length() - 4);
-        }
-        player.sendMessage("§7TX ID: §f" + (transactionId != null ? transactionId : "N/A"));
+            // Achievement with colored text
+            player.sendMessage("§7Achievement: §6" + achievementName);
 
-        // Achievement with colored text
-        player.sendMessage("§7Achievement: §6" + achievementName);
+            // Network with colored text
+            player.sendMessage("§7Network: §3Solana DevNet");
 
-        // Network with colored text
-        player.sendMessage("§7Network: §3Solana DevNet");
+            // Display date received with better formatting
+            if (nft.getMintedAt() != null) {
+                player.sendMessage("§7Date Received: §f" + dateFormat.format(nft.getMintedAt()));
+            }
 
-        // Display date received with better formatting
-        if (nft.getMintedAt() != null) {
-            player.sendMessage("§7Date Received: §f" + dateFormat.format(nft.getMintedAt()));
-        }
+            player.sendMessage("§8§m-----------------------------------------------------");
+
+            // Display Solana Explorer link with only the functional button
+            String explorerUrl;
+            if (nft.getMintAddress() != null && !nft.getMintAddress().isEmpty()) {
+                // Use mint address if available (preferred)
+                explorerUrl = plugin.getConfigManager().getSolanaExplorerAddressUrl(nft.getMintAddress());
+            } else if (nft.getTransactionId() != null && !nft.getTransactionId().isEmpty()) {
+                // Fallback to transaction ID
+                explorerUrl = plugin.getConfigManager().getSolanaExplorerTransactionUrl(nft.getTransactionId());
+            } else {
+                // Last resort, use NFT ID (though this may not work correctly)
+                explorerUrl = plugin.getConfigManager().getSolanaExplorerAddressUrl(nft.getNftId());
+            }
 
-        player.sendMessage("§8§m-----------------------------------------------------");
+            player.sendMessage("§7View on Solana Explorer: ");
 
-        // Display Solana Explorer link with only the functional button
-        String explorerUrl;
-        if (nft.getMintAddress() != null && !nft.getMintAddress().isEmpty()) {
-            // Use mint address if available (preferred)
-            explorerUrl = plugin.getConfigManager().getSolanaExplorerAddressUrl(nft.getMintAddress());
-        } else if (nft.getTransactionId() != null && !nft.getTransactionId().isEmpty()) {
-            // Fallback to transaction ID
-            explorerUrl = plugin.getConfigManager().getSolanaExplorerTransactionUrl(nft.getTransactionId());
-        } else {
-            // Last resort, use NFT ID (though this may not work correctly)
-            explorerUrl = plugin.getConfigManager().getSolanaExplorerAddressUrl(nft.getNftId());
-        }
+            // Use Spigot's JSON message API to create clickable links
+            plugin.getServer().dispatchCommand(plugin.getServer().getConsoleSender(),
+                "tellraw " + player.getName() + " {\"text\":\"§7[§a§lClick to Open Explorer§7]\",\"clickEvent\":{\"action\":\"open_url\",\"value\":\"" + explorerUrl + "\"},\"hoverEvent\":{\"action\":\"show_text\",\"value\":\"§7Click to open Solana Explorer\"}}"
+            );
 
-        player.sendMessage("§7View on Solana Explorer: ");
+            // Display detail link with only the functional button
+            // Get detail link from config manager (falls back to image URL if not configured)
+            String detailLink = plugin.getConfigManager().getNftDetailLink(nft.getAchievementKey());
+            if (detailLink != null && !detailLink.isEmpty()) {
+                player.sendMessage("§7Detail: ");
+                plugin.getServer().dispatchCommand(plugin.getServer().getConsoleSender(),
+                    "tellraw " + player.getName() + " {\"text\":\"§7[§a§lOpen Detail in Browser§7]\",\"clickEvent\":{\"action\":\"open_url\",\"value\":\"" + detailLink + "\"},\"hoverEvent\":{\"action\":\"show_text\",\"value\":\"§7Click to view NFT details\"}}"
+                );
+            }
 
-        // Use Spigot's JSON message API to create clickable links
-        plugin.getServer().dispatchCommand(plugin.getServer().getConsoleSender(),
-            "tellraw " + player.getName() + " {\"text\":\"§7[§a§lClick to Open Explorer§7]\",\"clickEvent\":{\"action\":\"open_url\",\"value\":\"" + explorerUrl + "\"},\"hoverEvent\":{\"action\":\"show_text\",\"value\":\"§7Click to open Solana Explorer\"}}"
-        );
+            player.sendMessage("§8§m-----------------------------------------------------");
+        });
+    }
 
-        // Display detail link with only the functional button
-        // Get detail link from config manager (falls back to image URL if not configured)
-        String detailLink = plugin.getConfigManager().getNftDetailLink(nft.getAchievementKey());
-        if (detailLink != null && !detailLink.isEmpty()) {
-            player.sendMessage("§7Detail: ");
-            plugin.getServer().dispatchCommand(plugin.getServer().getConsoleSender(),
-                "tellraw " + player.getName() + " {\"text\":\"§7[§a§lOpen Detail in Browser§7]\",\"clickEvent\":{\"action\":\"open_url\",\"value\":\"" + detailLink + "\"},\"hoverEvent\":{\"action\":\"show_text\",\"value\":\"§7Click to view NFT details\"}}"
-            );
+    /**
+     * A player's NFT collection as shown by /nftlist.
+     * Pages come from the player's session when it is loaded, otherwise they are queried one at a time
+     * and each page starts after the last NFT of the previous one.
+     */
+    private class NFTCollection {
+        private final UUID uuid;
+        private final int total;
+        private final List<NFTData> nfts;
+        private final Map<Integer, CompletableFuture<List<NFTData>>> pages = new HashMap<>();
+
+        /**
+         * Constructor
+         * @param uuid The owner's UUID
+         * @param total The number of NFTs
+         * @param nfts All NFTs, newest first, or null to query pages from the database
+         */
+        private NFTCollection(UUID uuid, int total, List<NFTData> nfts) {
+            this.uuid = uuid;
+            this.total = total;
+            this.nfts = nfts;
         }
 
-        player.sendMessage("§8§m-----------------------------------------------------");
+        /**
+         * Get the NFTs in a page
+         * @param page The page number (0-based)
+         * @return A CompletableFuture that completes on the main thread with the page's NFTs
+         */
+        private CompletableFuture<List<NFTData>> getPage(int page) {
+            if (nfts != null) {
+                int startIndex = Math.min(page * ITEMS_PER_PAGE, nfts.size());
+                int endIndex = Math.min(startIndex + ITEMS_PER_PAGE, nfts.size());
+                return CompletableFuture.completedFuture(nfts.subList(startIndex, endIndex));
+            }
+
+            CompletableFuture<List<NFTData>> cached = pages.get(page);
+            if (cached != null) {
+                return cached;
+            }
+
+            CompletableFuture<NFTData> after = page == 0
+                    ? CompletableFuture.completedFuture(null)
+                    : getPage(page - 1).thenApply(previous -> previous.isEmpty() ? null : previous.get(previous.size() - 1));
+
+            CompletableFuture<List<NFTData>> future = after.thenCompose(last -> {
+                if (page > 0 && last == null) {
+                    return CompletableFuture.completedFuture(new ArrayList<NFTData>());
+                }
+                return plugin.getAsyncDatabase().getPlayerNFTPage(uuid, last, ITEMS_PER_PAGE);
+            }).thenApply(result -> {
+                // Don't keep empty pages so a failed query is retried
+                if (result.isEmpty()) {
+                    pages.remove(page);
+                }
+                return result;
+            });
+
+            if (!future.isDone()) {
+                pages.put(page, future);
+            }
+            return future;
+        }
     }
 
     /**
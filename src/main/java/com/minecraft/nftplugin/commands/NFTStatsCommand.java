@@ -0,0 +1,332 @@
+package com.minecraft.nftplugin.commands;
+
+import com.minecraft.nftplugin.NFTPlugin;
+import com.minecraft.nftplugin.buffs.BuffRefreshScheduler;
+import com.minecraft.nftplugin.database.QueryMetrics;
+import com.minecraft.nftplugin.solana.CircuitBreaker;
+import com.minecraft.nftplugin.solana.MintMetrics;
+import com.minecraft.nftplugin.solana.MintQueue;
+import com.minecraft.nftplugin.solana.SolanaService;
+import com.minecraft.nftplugin.utils.LatencyHistogram;
+import com.zaxxer.hikari.HikariPoolMXBean;
+import org.bukkit.Bukkit;
+import org.bukkit.ChatColor;
+import org.bukkit.command.Command;
+import org.bukkit.command.CommandExecutor;
+import org.bukkit.command.CommandSender;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.text.SimpleDateFormat;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Command to display mint latency and outcome metrics, database statement timings and buff refresh counters
+ */
+public class NFTStatsCommand implements CommandExecutor {
+
+    private static final int MAX_OPERATIONS_SHOWN = 10;
+
+    private final NFTPlugin plugin;
+
+    public NFTStatsCommand(NFTPlugin plugin) {
+        this.plugin = plugin;
+    }
+
+    @Override
+    public boolean onCommand(CommandSender sender, Command command, String label, String[] args) {
+        if (!sender.hasPermission("nftplugin.admin")) {
+            sender.sendMessage(plugin.getConfigManager().getMessage("prefix") + ChatColor.RED + "You don't have permission to use this command.");
+            return true;
+        }
+
+        if (args.length > 0 && args[0].equalsIgnoreCase("db")) {
+            handleDatabaseStats(sender, args);
+            return true;
+        }
+
+        if (args.length > 0 && args[0].equalsIgnoreCase("buffs")) {
+            showBuffStats(sender, plugin.getBuffRefreshScheduler());
+            return true;
+        }
+
+        SolanaService solanaService = plugin.getSolanaService();
+        if (solanaService == null) {
+            sender.sendMessage(plugin.getConfigManager().getMessage("prefix") + ChatColor.RED + "Solana service is not available.");
+            return true;
+        }
+
+        MintMetrics metrics = solanaService.getMintMetrics();
+
+        if (args.length > 0 && args[0].equalsIgnoreCase("reset")) {
+            metrics.reset();
+            sender.sendMessage(plugin.getConfigManager().getMessage("prefix") + ChatColor.GREEN + "Mint metrics have been reset.");
+            return true;
+        }
+
+        showStats(sender, solanaService.isBackendReady(), solanaService.getMintQueue(), solanaService.getMintDispatcher().getCircuitBreaker(), metrics.snapshot());
+        return true;
+    }
+
+    /**
+     * Show the mint metrics
+     * @param sender The command sender
+     * @param backendReady Whether the backend has finished installing its dependencies
+     * @param queue The mint queue
+     * @param circuitBreaker The mint circuit breaker
+     * @param snapshot The metrics snapshot
+     */
+    private void showStats(CommandSender sender, boolean backendReady, MintQueue queue, CircuitBreaker circuitBreaker, MintMetrics.Snapshot snapshot) {
+        sender.sendMessage(ChatColor.GOLD + "===== NFT Mint Stats (last " + formatDuration(snapshot.getPeriodMillis()) + ") =====");
+
+        if (!backendReady) {
+            sender.sendMessage(ChatColor.YELLOW + "Backend: " + ChatColor.GOLD + "installing dependencies" +
+                    ChatColor.WHITE + " (mints wait in the outbox until it is ready)");
+        }
+
+        sender.sendMessage(ChatColor.YELLOW + "Queue: " + ChatColor.WHITE + queue.getActiveCount() + "/" + queue.getParallelism() +
+                " running, " + queue.getQueueDepth() + " waiting, " + queue.getParkedCount() + " parked, " +
+                queue.getRejectedCount() + " rejected");
+
+        CircuitBreaker.State state = circuitBreaker.getState();
+        ChatColor stateColor = state == CircuitBreaker.State.CLOSED ? ChatColor.GREEN :
+                state == CircuitBreaker.State.OPEN ? ChatColor.RED : ChatColor.GOLD;
+        String breakerInfo = state == CircuitBreaker.State.OPEN ?
+                " (resumes in " + formatMillis(circuitBreaker.getRemainingOpenMillis()) + ")" :
+                " (" + circuitBreaker.getFailureRate() + "% recent failures)";
+        sender.sendMessage(ChatColor.YELLOW + "Circuit breaker: " + stateColor + state.name().toLowerCase().replace('_', '-') +
+                ChatColor.WHITE + breakerInfo);
+
+        sender.sendMessage(ChatColor.YELLOW + "Phases " + ChatColor.GRAY + "(count / avg / p50 / p95 / p99 / max)");
+        if (snapshot.getPhases().isEmpty()) {
+            sender.sendMessage(ChatColor.GRAY + "  No mints recorded yet.");
+        }
+        for (String phase : new String[] {MintMetrics.PHASE_QUEUE_WAIT, MintMetrics.PHASE_DISPATCH, MintMetrics.PHASE_UPLOAD,
+                MintMetrics.PHASE_SEND, MintMetrics.PHASE_CONFIRM, MintMetrics.PHASE_TRANSFER,
+                MintMetrics.PHASE_DB_RECORD, MintMetrics.PHASE_TOTAL}) {
+            LatencyHistogram.Snapshot histogram = snapshot.getPhases().get(phase);
+            if (histogram != null) {
+                sender.sendMessage(ChatColor.AQUA + "  " + phase + ": " + ChatColor.WHITE + formatHistogram(histogram));
+            }
+        }
+
+        if (!snapshot.getAchievements().isEmpty()) {
+            sender.sendMessage(ChatColor.YELLOW + "Achievements " + ChatColor.GRAY + "(ok / failed / retried / p50 / p95)");
+            for (Map.Entry<String, MintMetrics.AchievementStats> entry : snapshot.getAchievements().entrySet()) {
+                MintMetrics.AchievementStats stats = entry.getValue();
+                sender.sendMessage(ChatColor.AQUA + "  " + entry.getKey() + ": " + ChatColor.GREEN + stats.getSuccesses() +
+                        ChatColor.WHITE + " / " + ChatColor.RED + stats.getFailures() + ChatColor.WHITE + " / " +
+                        stats.getRetries() + " / " + formatMillis(stats.getLatency().getPercentile(50)) + " / " +
+                        formatMillis(stats.getLatency().getPercentile(95)));
+            }
+        }
+
+        if (!snapshot.getErrorCodes().isEmpty()) {
+            StringBuilder errors = new StringBuilder();
+            for (Map.Entry<String, Long> entry : snapshot.getErrorCodes().entrySet()) {
+                if (errors.length() > 0) {
+                    errors.append(", ");
+                }
+                errors.append(entry.getKey()).append(": ").append(entry.getValue());
+            }
+            sender.sendMessage(ChatColor.YELLOW + "Errors: " + ChatColor.WHITE + errors);
+        }
+    }
+
+    /**
+     * Show, reset or dump the database statement timings
+     * @param sender The command sender
+     * @param args The command arguments, starting with "db"
+     */
+    private void handleDatabaseStats(CommandSender sender, String[] args) {
+        if (plugin.getDatabaseManager() == null) {
+            sender.sendMessage(plugin.getConfigManager().getMessage("prefix") + ChatColor.RED + "Database is not available.");
+            return;
+        }
+
+        QueryMetrics metrics = plugin.getDatabaseManager().getQueryMetrics();
+        HikariPoolMXBean pool = plugin.getDatabaseManager().getPoolStats();
+
+        if (args.length > 1 && args[1].equalsIgnoreCase("reset")) {
+            metrics.reset();
+            sender.sendMessage(plugin.getConfigManager().getMessage("prefix") + ChatColor.GREEN + "Database metrics have been reset.");
+            return;
+        }
+
+        if (args.length > 1 && args[1].equalsIgnoreCase("dump")) {
+            dumpDatabaseStats(sender, metrics.snapshot(), pool, metrics.getSlowThresholdMillis());
+            return;
+        }
+
+        showDatabaseStats(sender, metrics.snapshot(), pool);
+    }
+
+    /**
+     * Show the buff refresh counters
+     * @param sender The command sender
+     * @param scheduler The buff refresh scheduler
+     */
+    private void showBuffStats(CommandSender sender, BuffRefreshScheduler scheduler) {
+        sender.sendMessage(ChatColor.GOLD + "===== NFT Buff Refresh Stats =====");
+        sender.sendMessage(ChatColor.YELLOW + "Requests: " + ChatColor.WHITE + scheduler.getRequestedCount() +
+                ChatColor.GRAY + " (" + scheduler.getCoalescedCount() + " coalesced)");
+        sender.sendMessage(ChatColor.YELLOW + "Refreshes: " + ChatColor.WHITE + scheduler.getRefreshedCount());
+        sender.sendMessage(ChatColor.YELLOW + "Deferred: " + ChatColor.WHITE + scheduler.getDeferredCount() +
+                ChatColor.GRAY + " (largest backlog " + scheduler.getMaxBacklog() + ")");
+        sender.sendMessage(ChatColor.YELLOW + "Pending: " + ChatColor.WHITE + scheduler.getPendingCount());
+    }
+
+    /**
+     * Show the database statement timings, slowest operations first
+     * @param sender The command sender
+     * @param snapshot The metrics snapshot
+     * @param pool The pool statistics, or null if the pool is not running
+     */
+    private void showDatabaseStats(CommandSender sender, QueryMetrics.Snapshot snapshot, HikariPoolMXBean pool) {
+        sender.sendMessage(ChatColor.GOLD + "===== NFT Database Stats (last " + formatDuration(snapshot.getPeriodMillis()) + ") =====");
+
+        if (pool != null) {
+            sender.sendMessage(ChatColor.YELLOW + "Pool: " + ChatColor.WHITE + formatPool(pool));
+        }
+        sender.sendMessage(ChatColor.YELLOW + "Connection wait: " + ChatColor.WHITE + formatMicrosHistogram(snapshot.getAcquire()));
+
+        sender.sendMessage(ChatColor.YELLOW + "Operations " + ChatColor.GRAY + "(count / avg / p50 / p95 / p99 / max)");
+        List<Map.Entry<String, QueryMetrics.OperationStats>> operations = sortByTotalTime(snapshot);
+        if (operations.isEmpty()) {
+            sender.sendMessage(ChatColor.GRAY + "  No queries recorded yet.");
+        }
+        for (int i = 0; i < operations.size() && i < MAX_OPERATIONS_SHOWN; i++) {
+            Map.Entry<String, QueryMetrics.OperationStats> entry = operations.get(i);
+            QueryMetrics.OperationStats stats = entry.getValue();
+            sender.sendMessage(ChatColor.AQUA + "  " + entry.getKey() + ": " + ChatColor.WHITE + formatMicrosHistogram(stats.getLatency()) +
+                    (stats.getErrors() > 0 ? ChatColor.RED + " (" + stats.getErrors() + " errors)" : ""));
+        }
+        if (operations.size() > MAX_OPERATIONS_SHOWN) {
+            sender.sendMessage(ChatColor.GRAY + "  ... " + (operations.size() - MAX_OPERATIONS_SHOWN) + " more, use /nftstats db dump");
+        }
+
+        sender.sendMessage(ChatColor.YELLOW + "Slow queries: " + ChatColor.WHITE + snapshot.getSlowQueries().size());
+    }
+
+    /**
+     * Write the database statement timings and the recent slow queries to a file in the plugin folder
+     * @param sender The command sender
+     * @param snapshot The metrics snapshot
+     * @param pool The pool statistics, or null if the pool is not running
+     * @param slowThresholdMillis The slow query threshold in milliseconds
+     */
+    private void dumpDatabaseStats(CommandSender sender, QueryMetrics.Snapshot snapshot, HikariPoolMXBean pool, long slowThresholdMillis) {
+        SimpleDateFormat timeFormat = new SimpleDateFormat("yyyy-MM-dd HH:mm:ss");
+        List<String> lines = new ArrayList<>();
+        lines.add("NFT database stats, " + timeFormat.format(new Date()) + ", covering " + formatDuration(snapshot.getPeriodMillis()));
+        lines.add("");
+        if (pool != null) {
+            lines.add("Pool: " + formatPool(pool));
+        }
+        lines.add("Connection wait (count / avg / p50 / p95 / p99 / max): " + formatMicrosHistogram(snapshot.getAcquire()));
+        lines.add("");
+
+        lines.add("Operations (count / avg / p50 / p95 / p99 / max / errors / total)");
+        for (Map.Entry<String, QueryMetrics.OperationStats> entry : sortByTotalTime(snapshot)) {
+            QueryMetrics.OperationStats stats = entry.getValue();
+            lines.add("  " + entry.getKey() + ": " + formatMicrosHistogram(stats.getLatency()) + " / " +
+                    stats.getErrors() + " / " + formatMicros(stats.getTotalMicros()));
+        }
+        lines.add("");
+
+        lines.add("Slow queries (threshold " + (slowThresholdMillis > 0 ? slowThresholdMillis + "ms" : "disabled") + "), newest first");
+        for (QueryMetrics.SlowQuery query : snapshot.getSlowQueries()) {
+            lines.add("  " + timeFormat.format(new Date(query.getTimestamp())) + " " + query.getOperation() + " " +
+                    formatMicros(query.getMicros()) + ": " + query.getSql());
+        }
+
+        File file = new File(plugin.getDataFolder(), "db-stats-" + new SimpleDateFormat("yyyyMMdd-HHmmss").format(new Date()) + ".txt");
+        Bukkit.getScheduler().runTaskAsynchronously(plugin, () -> {
+            try {
+                Files.write(file.toPath(), lines, StandardCharsets.UTF_8);
+                Bukkit.getScheduler().runTask(plugin, () -> sender.sendMessage(plugin.getConfigManager().getMessage("prefix") +
+                        ChatColor.GREEN + "Database stats written to " + file.getName()));
+            } catch (IOException e) {
+                plugin.getLogger().warning("Failed to write database stats: " + e.getMessage());
+                Bukkit.getScheduler().runTask(plugin, () -> sender.sendMessage(plugin.getConfigManager().getMessage("prefix") +
+                        ChatColor.RED + "Failed to write database stats. Check the console."));
+            }
+        });
+    }
+
+    /**
+     * Sort the operations by the total time spent in them, highest first
+     * @param snapshot The metrics snapshot
+     * @return The sorted operations
+     */
+    private List<Map.Entry<String, QueryMetrics.OperationStats>> sortByTotalTime(QueryMetrics.Snapshot snapshot) {
+        List<Map.Entry<String, QueryMetrics.OperationStats>> operations = new ArrayList<>(snapshot.getOperations().entrySet());
+        operations.sort((a, b) -> Long.compare(b.getValue().getTotalMicros(), a.getValue().getTotalMicros()));
+        return operations;
+    }
+
+    /**
+     * Format the connection pool statistics
+     * @param pool The pool statistics
+     * @return The formatted statistics
+     */
+    private String formatPool(HikariPoolMXBean pool) {
+        return pool.getActiveConnections() + " active, " + pool.getIdleConnections() + " idle, " +
+                pool.getTotalConnections() + " total, " + pool.getThreadsAwaitingConnection() + " waiting";
+    }
+
+    /**
+     * Format a histogram in microseconds as count / avg / p50 / p95 / p99 / max
+     * @param histogram The histogram
+     * @return The formatted histogram
+     */
+    private String formatMicrosHistogram(LatencyHistogram.Snapshot histogram) {
+        return histogram.getCount() + " / " + formatMicros(histogram.getMean()) + " / " +
+                formatMicros(histogram.getPercentile(50)) + " / " + formatMicros(histogram.getPercentile(95)) + " / " +
+                formatMicros(histogram.getPercentile(99)) + " / " + formatMicros(histogram.getMax());
+    }
+
+    /**
+     * Format a duration in microseconds
+     * @param micros The duration in microseconds
+     * @return The formatted duration
+     */
+    private String formatMicros(long micros) {
+        return micros < 10000 ? String.format("%.2fms", micros / 1000.0) : formatMillis(micros / 1000);
+    }
+
+    /**
+     * Format a histogram as count / avg / p50 / p95 / p99 / max
+     * @param histogram The histogram
+     * @return The formatted histogram
+     */
+    private String formatHistogram(LatencyHistogram.Snapshot histogram) {
+        return histogram.getCount() + " / " + formatMillis(histogram.getMean()) + " / " +
+                formatMillis(histogram.getPercentile(50)) + " / " + formatMillis(histogram.getPercentile(95)) + " / " +
+                formatMillis(histogram.getPercentile(99)) + " / " + formatMillis(histogram.getMax());
+    }
+
+    /**
+     * Format a duration in milliseconds
+     * @param millis The duration in milliseconds
+     * @return The formatted duration
+     */
+    private String formatMillis(long millis) {
+        return millis < 1000 ? millis + "ms" : String.format("%.1fs", millis / 1000.0);
+    }
+
+    /**
+     * Format a longer duration
+     * @param millis The duration in milliseconds
+     * @return The formatted duration
+     */
+    private String formatDuration(long millis) {
+        long minutes = millis / 60000;
+        return minutes < 60 ? minutes + "m" : (minutes / 60) + "h " + (minutes % 60) + "m";
+    }
+}
@@ -1,6 +1,9 @@
 package com.minecraft.nftplugin.commands;
 
 import com.minecraft.nftplugin.NFTPlugin;
+import com.minecraft.nftplugin.database.BulkResetFilter;
+import com.minecraft.nftplugin.database.BulkResetJob;
+import com.minecraft.nftplugin.database.PlayerSession;
 import org.bukkit.Bukkit;
 import org.bukkit.ChatColor;
 import org.bukkit.command.Command;
@@ -8,11 +11,22 @@ import org.bukkit.command.CommandExecutor;
 import org.bukkit.command.CommandSender;
 import org.bukkit.entity.Player;
 
+import java.sql.Timestamp;
+import java.text.ParseException;
+import java.text.SimpleDateFormat;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import java.util.UUID;
+import java.util.logging.Level;
 
 public class ResetNFTCommand implements CommandExecutor {
 
     private final NFTPlugin plugin;
+    private BulkResetJob bulkJob;
 
     public ResetNFTCommand(NFTPlugin plugin) {
         this.plugin = plugin;
@@ -32,59 +46,83 @@ public class ResetNFTCommand implements CommandExecutor {
             sender.sendMessage(plugin.getConfigManager().getMessage("prefix") + ChatColor.YELLOW + "Updating dependencies" +
                     (clean ? " (clean install)" : "") + "...");
 
-            // Run dependency update in a separate thread
-            Bukkit.getScheduler().runTaskAsynchronously(plugin, () -> {
-                try {
-                    plugin.getSolanaService().updateDependencies(clean);
+            // The backend provisioner runs npm on its own thread
+            plugin.getSolanaService().updateDependencies(clean).whenComplete((ok, error) -> {
+                if (Boolean.TRUE.equals(ok)) {
                     sender.sendMessage(plugin.getConfigManager().getMessage("prefix") + ChatColor.GREEN + "Dependencies updated successfully!");
-                } catch (Exception e) {
-                    sender.sendMessage(plugin.getConfigManager().getMessage("prefix") + ChatColor.RED + "Error updating dependencies: " + e.getMessage());
+                } else {
+                    sender.sendMessage(plugin.getConfigManager().getMessage("prefix") + ChatColor.RED + "Error updating dependencies. Check the server log for details.");
                 }
             });
 
             return true;
         }
 
+        if (args.length > 0 && args[0].equalsIgnoreCase("bulk")) {
+            handleBulk(sender, args);
+            return true;
+        }
+
         // Check parameter count
         if (args.length < 1) {
-            sender.sendMessage(plugin.getConfigManager().getMessage("prefix") + ChatColor.RED + "Usage: /resetnft <player|update-dependencies> [achievement_key|--clean]");
+            sender.sendMessage(plugin.getConfigManager().getMessage("prefix") + ChatColor.RED + "Usage: /resetnft <player|update-dependencies|bulk> [achievement_key|--clean]");
             return true;
         }
 
         // Get player name
         String playerName = args[0];
         Player targetPlayer = Bukkit.getPlayer(playerName);
-        UUID playerUUID = null;
+
+        // Determine achievement key
+        String achievementKey = args.length > 1 ? args[1] : "wood_chopper";
 
         if (targetPlayer != null) {
-            playerUUID = targetPlayer.getUniqueId();
-        } else {
-            // Find UUID from player name (if player is offline)
-            try {
-                playerUUID = plugin.getDatabaseManager().getUUIDFromName(playerName);
-                if (playerUUID == null) {
-                    sender.sendMessage(plugin.getConfigManager().getMessage("prefix") + ChatColor.RED + "Player not found: " + playerName);
-                    return true;
-                }
-            } catch (Exception e) {
-                sender.sendMessage(plugin.getConfigManager().getMessage("prefix") + ChatColor.RED + "Error finding player UUID: " + e.getMessage());
-                return true;
-            }
+            resetPlayer(sender, playerName, targetPlayer.getUniqueId(), achievementKey);
+            return true;
         }
 
-        // Determine achievement key
-        String achievementKey = args.length > 1 ? args[1] : "wood_chopper";
+        // Find UUID from player name (if player is offline)
+        plugin.getAsyncDatabase().getUUIDFromName(playerName).whenComplete((playerUUID, error) -> {
+            if (error != null) {
+                sender.sendMessage(plugin.getConfigManager().getMessage("prefix") + ChatColor.RED + "Error finding player UUID: " + error.getMessage());
+            } else if (playerUUID == null) {
+                sender.sendMessage(plugin.getConfigManager().getMessage("prefix") + ChatColor.RED + "Player not found: " + playerName);
+            } else {
+                resetPlayer(sender, playerName, playerUUID, achievementKey);
+            }
+        });
+
+        return true;
+    }
+
+    /**
+     * Reset a player's NFT and progress for an achievement
+     * @param sender The command sender
+     * @param playerName The player name
+     * @param playerUUID The player UUID
+     * @param achievementKey The achievement key
+     */
+    private void resetPlayer(CommandSender sender, String playerName, UUID playerUUID, String achievementKey) {
+        plugin.getAsyncDatabase().resetNFTAndProgress(playerUUID, achievementKey).whenComplete((reset, error) -> {
+            if (error != null) {
+                sender.sendMessage(plugin.getConfigManager().getMessage("prefix") + ChatColor.RED + "Error resetting NFT: " + error.getMessage());
+                plugin.getLogger().log(Level.SEVERE, "Error resetting NFT", error);
+                return;
+            }
 
-        // Reset NFT and progress
-        try {
-            boolean resetNFT = plugin.getDatabaseManager().resetNFT(playerUUID, achievementKey);
-            boolean resetProgress = plugin.getDatabaseManager().resetAchievementProgress(playerUUID, achievementKey);
+            // Drop the cached state so it is not written back
+            plugin.getProgressLedger().forget(playerUUID, achievementKey);
+            PlayerSession session = plugin.getPlayerSessionManager().getSession(playerUUID);
+            if (session != null) {
+                plugin.getBuffManager().invalidateNfts(playerUUID, session.reset(achievementKey));
+            }
 
-            if (resetNFT || resetProgress) {
+            if (reset) {
                 sender.sendMessage(plugin.getConfigManager().getMessage("prefix") + ChatColor.GREEN + "Reset NFT and progress for " +
                         playerName + " for achievement " + achievementKey);
 
                 // Notify player if they are online
+                Player targetPlayer = Bukkit.getPlayer(playerUUID);
                 if (targetPlayer != null) {
                     targetPlayer.sendMessage(plugin.getConfigManager().getMessage("prefix") + ChatColor.YELLOW +
                             "Your NFT and achievement progress for " + achievementKey + " has been reset by an admin.");
@@ -93,13 +131,175 @@ public class ResetNFTCommand implements CommandExecutor {
                 sender.sendMessage(plugin.getConfigManager().getMessage("prefix") + ChatColor.YELLOW +
                         "No NFT or progress found to reset for " + playerName);
             }
+        });
+    }
 
-            return true;
-        } catch (Exception e) {
-            sender.sendMessage(plugin.getConfigManager().getMessage("prefix") + ChatColor.RED + "Error resetting NFT: " + e.getMessage());
-            plugin.getLogger().severe("Error resetting NFT: " + e.getMessage());
-            e.printStackTrace();
-            return true;
+    /**
+     * Handle /resetnft bulk: start, check or cancel a bulk reset
+     * @param sender The command sender
+     * @param args The command arguments, starting with "bulk"
+     */
+    private void handleBulk(CommandSender sender, String[] args) {
+        String prefix = plugin.getConfigManager().getMessage("prefix");
+        if (args.length < 2) {
+            sender.sendMessage(prefix + ChatColor.RED + "Usage: /resetnft bulk <achievement_key|status|cancel> " +
+                    "[--since=yyyy-MM-dd] [--until=yyyy-MM-dd] [--players=name,name] [--revoke] [--confirm]");
+            return;
+        }
+
+        if (args[1].equalsIgnoreCase("status")) {
+            if (bulkJob == null) {
+                sender.sendMessage(prefix + ChatColor.YELLOW + "No bulk reset has been run.");
+            } else {
+                sendBulkProgress(sender, bulkJob);
+            }
+            return;
+        }
+
+        if (args[1].equalsIgnoreCase("cancel")) {
+            if (bulkJob == null || !bulkJob.isRunning()) {
+                sender.sendMessage(prefix + ChatColor.YELLOW + "No bulk reset is running.");
+            } else {
+                bulkJob.cancel();
+                sender.sendMessage(prefix + ChatColor.YELLOW + "Bulk reset will stop after the current chunk.");
+            }
+            return;
         }
+
+        if (bulkJob != null && bulkJob.isRunning()) {
+            sender.sendMessage(prefix + ChatColor.RED + "A bulk reset is already running. Use /resetnft bulk status or /resetnft bulk cancel.");
+            return;
+        }
+
+        String achievementKey = args[1];
+        Timestamp since = null;
+        Timestamp until = null;
+        List<String> playerNames = new ArrayList<>();
+        boolean revokeOnly = false;
+        boolean confirm = false;
+
+        SimpleDateFormat dateFormat = new SimpleDateFormat("yyyy-MM-dd");
+        dateFormat.setLenient(false);
+        for (int i = 2; i < args.length; i++) {
+            String option = args[i];
+            try {
+                if (option.startsWith("--since=")) {
+                    since = new Timestamp(dateFormat.parse(option.substring("--since=".length())).getTime());
+                } else if (option.startsWith("--until=")) {
+                    until = new Timestamp(dateFormat.parse(option.substring("--until=".length())).getTime());
+                } else if (option.startsWith("--players=")) {
+                    for (String name : option.substring("--players=".length()).split(",")) {
+                        if (!name.trim().isEmpty()) {
+                            playerNames.add(name.trim());
+                        }
+                    }
+                } else if (option.equalsIgnoreCase("--revoke")) {
+                    revokeOnly = true;
+                } else if (option.equalsIgnoreCase("--confirm")) {
+                    confirm = true;
+                } else {
+                    sender.sendMessage(prefix + ChatColor.RED + "Unknown option: " + option);
+                    return;
+                }
+            } catch (ParseException e) {
+                sender.sendMessage(prefix + ChatColor.RED + "Invalid date in " + option + ", use yyyy-MM-dd.");
+                return;
+            }
+        }
+
+        Timestamp sinceDate = since;
+        Timestamp untilDate = until;
+        boolean revoke = revokeOnly;
+        boolean confirmed = confirm;
+
+        // Resolve the player names in one query
+        plugin.getAsyncDatabase().supply(() -> plugin.getDatabaseManager().getUUIDsFromNames(playerNames)).whenComplete((uuids, error) -> {
+            if (error != null) {
+                sender.sendMessage(prefix + ChatColor.RED + "Error finding players: " + error.getMessage());
+                return;
+            }
+
+            Set<UUID> players = new LinkedHashSet<>();
+            List<String> unknown = new ArrayList<>();
+            for (String name : playerNames) {
+                Player online = Bukkit.getPlayerExact(name);
+                UUID uuid = online != null ? online.getUniqueId() : uuids.get(name.toLowerCase());
+                if (uuid == null) {
+                    unknown.add(name);
+                } else {
+                    players.add(uuid);
+                }
+            }
+            if (!unknown.isEmpty()) {
+                sender.sendMessage(prefix + ChatColor.RED + "Players not found: " + String.join(", ", unknown));
+                return;
+            }
+
+            BulkResetFilter filter = new BulkResetFilter(achievementKey, sinceDate, untilDate, players, revoke);
+            if (confirmed) {
+                startBulkReset(sender, filter);
+            } else {
+                previewBulkReset(sender, filter, args);
+            }
+        });
+    }
+
+    /**
+     * Show how many rows a bulk reset would remove
+     * @param sender The command sender
+     * @param filter The bulk reset filter
+     * @param args The command arguments, repeated in the confirmation hint
+     */
+    private void previewBulkReset(CommandSender sender, BulkResetFilter filter, String[] args) {
+        boolean progressPass = !filter.isRevokeOnly() && !filter.hasDateRange();
+        plugin.getAsyncDatabase().supply(() -> new int[] {
+                plugin.getDatabaseManager().countBulkResetNFTs(filter),
+                progressPass ? plugin.getDatabaseManager().countBulkResetProgress(filter) : 0
+        }).thenAccept(counts -> {
+            String prefix = plugin.getConfigManager().getMessage("prefix");
+            if (counts[0] < 0 || counts[1] < 0) {
+                sender.sendMessage(prefix + ChatColor.RED + "Failed to count the rows to remove. Check the server log for details.");
+                return;
+            }
+
+            sender.sendMessage(prefix + ChatColor.YELLOW + "Bulk " + filter.describe() + " would remove " + counts[0] + " NFTs" +
+                    (progressPass ? " and " + counts[1] + " progress rows" : filter.isRevokeOnly() ? "" : " and their owners' progress") + ".");
+            sender.sendMessage(prefix + ChatColor.YELLOW + "Run " + ChatColor.WHITE + "/resetnft " +
+                    String.join(" ", Arrays.asList(args)) + " --confirm" + ChatColor.YELLOW + " to start it.");
+        });
+    }
+
+    /**
+     * Start a bulk reset in the background
+     * @param sender The command sender, who receives the progress reports
+     * @param filter The bulk reset filter
+     */
+    private void startBulkReset(CommandSender sender, BulkResetFilter filter) {
+        if (bulkJob != null && bulkJob.isRunning()) {
+            sender.sendMessage(plugin.getConfigManager().getMessage("prefix") + ChatColor.RED + "A bulk reset is already running.");
+            return;
+        }
+
+        bulkJob = new BulkResetJob(plugin, filter, job -> sendBulkProgress(sender, job));
+        bulkJob.start();
+        sender.sendMessage(plugin.getConfigManager().getMessage("prefix") + ChatColor.GREEN + "Started bulk " + filter.describe() +
+                ". Use /resetnft bulk status to follow it.");
+    }
+
+    /**
+     * Send the progress of a bulk reset
+     * @param sender The command sender
+     * @param job The bulk reset job
+     */
+    private void sendBulkProgress(CommandSender sender, BulkResetJob job) {
+        long total = job.getTotal();
+        String percent = total > 0 ? " (" + Math.min(100, job.getRemoved() * 100 / total) + "%)" : "";
+        ChatColor color = job.getState() == BulkResetJob.State.FAILED ? ChatColor.RED :
+                job.getState() == BulkResetJob.State.DONE ? ChatColor.GREEN : ChatColor.YELLOW;
+
+        sender.sendMessage(plugin.getConfigManager().getMessage("prefix") + color + "Bulk " + job.getFilter().describe() + ": " +
+                job.getState().name().toLowerCase() + ChatColor.WHITE + " - " + job.getNftsRemoved() + " NFTs and " +
+                job.getProgressRemoved() + " progress rows removed of " + total + percent + ", " +
+                job.getAffectedPlayerCount() + " players, " + (job.getDurationMillis() / 1000) + "s");
     }
 }
@@ -0,0 +1,60 @@
+package com.minecraft.nftplugin.database;
+
+import java.util.UUID;
+
+/**
+ * A player's progress for one achievement, as written to the achievements table
+ */
+public class AchievementProgress {
+
+    private final UUID uuid;
+    private final String achievementKey;
+    private final int progress;
+    private final boolean completed;
+
+    /**
+     * Constructor
+     * @param uuid The player's UUID
+     * @param achievementKey The achievement key
+     * @param progress The progress
+     * @param completed Whether the achievement is completed
+     */
+    public AchievementProgress(UUID uuid, String achievementKey, int progress, boolean completed) {
+        this.uuid = uuid;
+        this.achievementKey = achievementKey;
+        this.progress = progress;
+        this.completed = completed;
+    }
+
+    /**
+     * Get the player's UUID
+     * @return The player's UUID
+     */
+    public UUID getUuid() {
+        return uuid;
+    }
+
+    /**
+     * Get the achievement key
+     * @return The achievement key
+     */
+    public String getAchievementKey() {
+        return achievementKey;
+    }
+
+    /**
+     * Get the progress
+     * @return The progress
+     */
+    public int getProgress() {
+        return progress;
+    }
+
+    /**
+     * Check whether the achievement is completed
+     * @return True if the achievement is completed
+     */
+    public boolean isCompleted() {
+        return completed;
+    }
+}
@@ -0,0 +1,232 @@
+package com.minecraft.nftplugin.database;
+
+import com.minecraft.nftplugin.NFTPlugin;
+import org.bukkit.Bukkit;
+
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Asynchronous access to the database for code running on the main server thread.
+ * Queries run on a dedicated executor and the returned futures complete on the main thread,
+ * so callbacks attached with thenAccept can use the Bukkit API directly.
+ * Code that already runs off the main thread can keep using DatabaseManager.
+ */
+public class AsyncDatabase {
+
+    private final NFTPlugin plugin;
+    private final DatabaseManager databaseManager;
+    private final ExecutorService executor;
+
+    /**
+     * Constructor
+     * @param plugin The NFTPlugin instance
+     * @param databaseManager The database manager
+     */
+    public AsyncDatabase(NFTPlugin plugin, DatabaseManager databaseManager) {
+        this.plugin = plugin;
+        this.databaseManager = databaseManager;
+
+        int threads = Math.max(1, plugin.getConfigManager().getDatabaseExecutorThreads());
+        AtomicInteger threadNumber = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(threads, threads, 60L, TimeUnit.SECONDS,
+                new LinkedBlockingQueue<>(), runnable -> {
+                    Thread thread = new Thread(runnable, "NFTPlugin-DB-" + threadNumber.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+    }
+
+    /**
+     * Run a query on the database executor
+     * @param query The blocking query
+     * @param <T> The result type
+     * @return A CompletableFuture that completes on the main thread with the query result
+     */
+    public <T> CompletableFuture<T> supply(Supplier<T> query) {
+        CompletableFuture<T> future = new CompletableFuture<>();
+
+        try {
+            executor.execute(() -> {
+                try {
+                    T result = query.get();
+                    runOnMainThread(() -> future.complete(result));
+                } catch (Throwable e) {
+                    runOnMainThread(() -> future.completeExceptionally(e));
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            future.completeExceptionally(e);
+        }
+
+        return future;
+    }
+
+    /**
+     * Run a task on the main thread, or right away if the plugin is being disabled
+     * @param task The task
+     */
+    private void runOnMainThread(Runnable task) {
+        if (!plugin.isEnabled() || Bukkit.isPrimaryThread()) {
+            task.run();
+            return;
+        }
+
+        Bukkit.getScheduler().runTask(plugin, task);
+    }
+
+    /**
+     * Check if a player has a registered wallet
+     * @param uuid The player UUID
+     * @return A CompletableFuture that completes with true if the player has a registered wallet
+     */
+    public CompletableFuture<Boolean> hasWallet(UUID uuid) {
+        return supply(() -> databaseManager.hasWallet(uuid));
+    }
+
+    /**
+     * Get a player's wallet address
+     * @param uuid The player UUID
+     * @return A CompletableFuture that completes with the wallet address, or null if not found
+     */
+    public CompletableFuture<String> getWalletAddress(UUID uuid) {
+        return supply(() -> databaseManager.getWalletAddress(uuid));
+    }
+
+    /**
+     * Get a player's progress for an achievement
+     * @param uuid The player UUID
+     * @param achievementKey The achievement key
+     * @return A CompletableFuture that completes with the progress
+     */
+    public CompletableFuture<Integer> getAchievementProgress(UUID uuid, String achievementKey) {
+        return supply(() -> databaseManager.getAchievementProgress(uuid, achievementKey));
+    }
+
+    /**
+     * Check if a player has completed an achievement
+     * @param uuid The player UUID
+     * @param achievementKey The achievement key
+     * @return A CompletableFuture that completes with true if the achievement is completed
+     */
+    public CompletableFuture<Boolean> hasCompletedAchievement(UUID uuid, String achievementKey) {
+        return supply(() -> databaseManager.hasCompletedAchievement(uuid, achievementKey));
+    }
+
+    /**
+     * Check if a player has an NFT for an achievement
+     * @param uuid The player UUID
+     * @param achievementKey The achievement key
+     * @return A CompletableFuture that completes with true if the player has the NFT
+     */
+    public CompletableFuture<Boolean> hasNft(UUID uuid, String achievementKey) {
+        return supply(() -> databaseManager.hasNft(uuid, achievementKey));
+    }
+
+    /**
+     * Get a player's UUID from their name
+     * @param playerName The player name
+     * @return A CompletableFuture that completes with the UUID, or null if not found
+     */
+    public CompletableFuture<UUID> getUUIDFromName(String playerName) {
+        return supply(() -> databaseManager.getUUIDFromName(playerName));
+    }
+
+    /**
+     * Reset a player's NFT and achievement progress for an achievement
+     * @param uuid The player UUID
+     * @param achievementKey The achievement key
+     * @return A CompletableFuture that completes with true if anything was reset
+     */
+    public CompletableFuture<Boolean> resetNFTAndProgress(UUID uuid, String achievementKey) {
+        return supply(() -> {
+            boolean resetNft = databaseManager.resetNFT(uuid, achievementKey);
+            boolean resetProgress = databaseManager.resetAchievementProgress(uuid, achievementKey);
+            return resetNft || resetProgress;
+        });
+    }
+
+    /**
+     * Get all NFTs owned by a player
+     * @param uuid The player UUID
+     * @return A CompletableFuture that completes with the player's NFTs
+     */
+    public CompletableFuture<List<NFTData>> getPlayerNFTs(UUID uuid) {
+        return supply(() -> databaseManager.getPlayerNFTs(uuid));
+    }
+
+    /**
+     * Get one page of a player's NFTs, newest first
+     * @param uuid The player UUID
+     * @param after The last NFT of the previous page, or null for the first page
+     * @param limit The maximum number of NFTs to return
+     * @return A CompletableFuture that completes with the NFTs in the page
+     */
+    public CompletableFuture<List<NFTData>> getPlayerNFTPage(UUID uuid, NFTData after, int limit) {
+        return supply(() -> databaseManager.getPlayerNFTPage(uuid, after, limit));
+    }
+
+    /**
+     * Count the NFTs owned by a player
+     * @param uuid The player UUID
+     * @return A CompletableFuture that completes with the number of NFTs
+     */
+    public CompletableFuture<Integer> countPlayerNFTs(UUID uuid) {
+        return supply(() -> databaseManager.countPlayerNFTs(uuid));
+    }
+
+    /**
+     * Get an NFT by its ID
+     * @param nftId The NFT ID
+     * @return A CompletableFuture that completes with the NFT data, or null if not found
+     */
+    public CompletableFuture<NFTData> getNFTById(String nftId) {
+        return supply(() -> databaseManager.getNFTById(nftId));
+    }
+
+    /**
+     * Get the NFTs in a player's NFT inventory
+     * @param uuid The player UUID
+     * @return A CompletableFuture that completes with the NFTs by slot
+     */
+    public CompletableFuture<Map<Integer, NFTData>> getPlayerInventoryNFTs(UUID uuid) {
+        return supply(() -> databaseManager.getPlayerInventoryNFTs(uuid));
+    }
+
+    /**
+     * Save one page of a player's NFT inventory in a single transaction
+     * @param uuid The player UUID
+     * @param firstSlot The first slot of the page
+     * @param slotCount The number of slots in the page
+     * @param slots The NFT ID in each filled slot
+     * @return A CompletableFuture that completes with true if the page was saved
+     */
+    public CompletableFuture<Boolean> saveInventoryPage(UUID uuid, int firstSlot, int slotCount, Map<Integer, String> slots) {
+        return supply(() -> databaseManager.saveInventoryPage(uuid, firstSlot, slotCount, slots));
+    }
+
+    /**
+     * Stop accepting queries and wait for queued ones to finish
+     */
+    public void shutdown() {
+        executor.shutdown();
+        try {
+            if (!executor.awaitTermination(10, TimeUnit.SECONDS)) {
+                plugin.getLogger().warning("Database queries were still running at shutdown.");
+                executor.shutdownNow();
+            }
+        } catch (InterruptedException e) {
+            executor.shutdownNow();
+            Thread.currentThread().interrupt();
+        }
+    }
+}
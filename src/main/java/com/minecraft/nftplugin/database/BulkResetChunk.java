@@ -0,0 +1,63 @@
+package com.minecraft.nftplugin.database;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * The rows removed by one chunk of a bulk reset
+ */
+public class BulkResetChunk {
+
+    private final long lastId;
+    private final int rowCount;
+    private final Map<UUID, Set<String>> revokedNfts;
+    private final Set<UUID> resetPlayers;
+
+    /**
+     * Constructor
+     * @param lastId The highest row ID in the chunk, the start of the next chunk
+     * @param rowCount The number of rows the chunk removed
+     * @param revokedNfts The removed NFT IDs and transaction IDs by owner
+     * @param resetPlayers The players whose progress was reset
+     */
+    public BulkResetChunk(long lastId, int rowCount, Map<UUID, Set<String>> revokedNfts, Set<UUID> resetPlayers) {
+        this.lastId = lastId;
+        this.rowCount = rowCount;
+        this.revokedNfts = Collections.unmodifiableMap(revokedNfts);
+        this.resetPlayers = Collections.unmodifiableSet(resetPlayers);
+    }
+
+    /**
+     * Get the highest row ID in the chunk
+     * @return The row ID
+     */
+    public long getLastId() {
+        return lastId;
+    }
+
+    /**
+     * Get the number of rows the chunk removed
+     * @return The number of rows, 0 when there is nothing left
+     */
+    public int getRowCount() {
+        return rowCount;
+    }
+
+    /**
+     * Get the removed NFT IDs and their transaction IDs
+     * @return The IDs by owner
+     */
+    public Map<UUID, Set<String>> getRevokedNfts() {
+        return revokedNfts;
+    }
+
+    /**
+     * Get the players whose progress was reset
+     * @return The players
+     */
+    public Set<UUID> getResetPlayers() {
+        return resetPlayers;
+    }
+}
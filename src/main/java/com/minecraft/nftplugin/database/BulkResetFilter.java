@@ -0,0 +1,102 @@
+package com.minecraft.nftplugin.database;
+
+import java.sql.Timestamp;
+import java.text.SimpleDateFormat;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Selects the NFTs and achievement progress a bulk reset removes
+ */
+public class BulkResetFilter {
+
+    private final String achievementKey;
+    private final Timestamp since;
+    private final Timestamp until;
+    private final Set<UUID> players;
+    private final boolean revokeOnly;
+
+    /**
+     * Constructor
+     * @param achievementKey The achievement key
+     * @param since Only NFTs minted at or after this time, or null for no lower bound
+     * @param until Only NFTs minted before this time, or null for no upper bound
+     * @param players Only these players, or an empty set for all players
+     * @param revokeOnly Whether to remove only the NFTs and keep the achievement progress
+     */
+    public BulkResetFilter(String achievementKey, Timestamp since, Timestamp until, Set<UUID> players, boolean revokeOnly) {
+        this.achievementKey = achievementKey;
+        this.since = since;
+        this.until = until;
+        this.players = Collections.unmodifiableSet(new LinkedHashSet<>(players));
+        this.revokeOnly = revokeOnly;
+    }
+
+    /**
+     * Get the achievement key
+     * @return The achievement key
+     */
+    public String getAchievementKey() {
+        return achievementKey;
+    }
+
+    /**
+     * Get the lower bound of the mint date
+     * @return The inclusive lower bound, or null
+     */
+    public Timestamp getSince() {
+        return since;
+    }
+
+    /**
+     * Get the upper bound of the mint date
+     * @return The exclusive upper bound, or null
+     */
+    public Timestamp getUntil() {
+        return until;
+    }
+
+    /**
+     * Get the players the reset is limited to
+     * @return The players, empty for all players
+     */
+    public Set<UUID> getPlayers() {
+        return players;
+    }
+
+    /**
+     * Check if only the NFTs are removed
+     * @return True if achievement progress is kept
+     */
+    public boolean isRevokeOnly() {
+        return revokeOnly;
+    }
+
+    /**
+     * Check if the reset is limited to a mint date range.
+     * Progress is then only reset for players who lose an NFT, since progress has no mint date.
+     * @return True if a date bound is set
+     */
+    public boolean hasDateRange() {
+        return since != null || until != null;
+    }
+
+    /**
+     * Describe the filter for messages and logs
+     * @return The description
+     */
+    public String describe() {
+        SimpleDateFormat dateFormat = new SimpleDateFormat("yyyy-MM-dd");
+        StringBuilder description = new StringBuilder(revokeOnly ? "revoke " : "reset ").append(achievementKey);
+        if (since != null) {
+            description.append(" since ").append(dateFormat.format(since));
+        }
+        if (until != null) {
+            description.append(" until ").append(dateFormat.format(until));
+        }
+        description.append(players.isEmpty() ? " for all players" : " for " + players.size() + " players");
+        return description.toString();
+    }
+}
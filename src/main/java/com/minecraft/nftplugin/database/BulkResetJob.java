@@ -0,0 +1,313 @@
+package com.minecraft.nftplugin.database;
+
+import com.minecraft.nftplugin.NFTPlugin;
+import com.minecraft.nftplugin.commands.NFTInvCommand;
+import org.bukkit.Bukkit;
+import org.bukkit.ChatColor;
+import org.bukkit.entity.Player;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+/**
+ * Resets or revokes an achievement for many players in the background.
+ * NFTs are removed first, then (for a reset without a date range) the remaining progress rows.
+ * Each chunk is its own short transaction, with a pause between chunks so other queries keep flowing.
+ * After each chunk the affected online players' sessions, cached progress and NFT inventories are updated
+ * on the main thread.
+ */
+public class BulkResetJob {
+
+    private static final long REPORT_INTERVAL_MILLIS = 5000;
+
+    /**
+     * Job state
+     */
+    public enum State {
+        PENDING,
+        RUNNING,
+        DONE,
+        CANCELLED,
+        FAILED
+    }
+
+    private final NFTPlugin plugin;
+    private final BulkResetFilter filter;
+    private final int chunkSize;
+    private final long pauseMillis;
+    private final Consumer<BulkResetJob> progressListener;
+    private final Set<UUID> affectedPlayers = ConcurrentHashMap.newKeySet();
+    private final AtomicLong nftsRemoved = new AtomicLong();
+    private final AtomicLong progressRemoved = new AtomicLong();
+    private volatile State state = State.PENDING;
+    private volatile boolean cancelled;
+    private volatile long total;
+    private volatile long startedAt;
+    private volatile long finishedAt;
+    private volatile long lastReportAt;
+
+    /**
+     * Constructor
+     * @param plugin The NFTPlugin instance
+     * @param filter The rows to remove
+     * @param progressListener Called on the main thread every few seconds and when the job ends
+     */
+    public BulkResetJob(NFTPlugin plugin, BulkResetFilter filter, Consumer<BulkResetJob> progressListener) {
+        this.plugin = plugin;
+        this.filter = filter;
+        this.chunkSize = Math.max(1, plugin.getConfigManager().getBulkResetChunkSize());
+        this.pauseMillis = Math.max(0, plugin.getConfigManager().getBulkResetChunkPause());
+        this.progressListener = progressListener;
+    }
+
+    /**
+     * Start the job on a background thread
+     */
+    public void start() {
+        startedAt = System.currentTimeMillis();
+        lastReportAt = startedAt;
+        state = State.RUNNING;
+        Bukkit.getScheduler().runTaskAsynchronously(plugin, this::run);
+    }
+
+    /**
+     * Stop the job after the current chunk. Chunks that were already removed stay removed.
+     */
+    public void cancel() {
+        cancelled = true;
+    }
+
+    /**
+     * Run the job on the calling thread
+     */
+    private void run() {
+        DatabaseManager databaseManager = plugin.getDatabaseManager();
+        boolean progressPass = !filter.isRevokeOnly() && !filter.hasDateRange();
+
+        int nftCount = databaseManager.countBulkResetNFTs(filter);
+        int progressCount = progressPass ? databaseManager.countBulkResetProgress(filter) : 0;
+        if (nftCount < 0 || progressCount < 0) {
+            finish(State.FAILED);
+            return;
+        }
+        total = nftCount + progressCount;
+        plugin.getLogger().info("Bulk " + filter.describe() + ": " + nftCount + " NFTs" +
+                (progressPass ? ", " + progressCount + " progress rows" : ""));
+
+        // Pending and in-flight mints would add NFTs back after they were removed
+        List<String> cancelledMints = databaseManager.cancelBulkResetMints(filter);
+        if (cancelledMints == null) {
+            finish(State.FAILED);
+            return;
+        }
+        if (!cancelledMints.isEmpty()) {
+            plugin.getLogger().info("Bulk " + filter.describe() + ": cancelled " + cancelledMints.size() + " pending or in-flight mints");
+            if (plugin.isEnabled()) {
+                Bukkit.getScheduler().runTask(plugin, () -> plugin.getSolanaService().getMintDispatcher().cancel(cancelledMints));
+            }
+        }
+
+        if (!runPass(afterId -> databaseManager.deleteBulkResetNFTs(filter, afterId, chunkSize), nftsRemoved)) {
+            return;
+        }
+        if (progressPass && !runPass(afterId -> databaseManager.deleteBulkResetProgress(filter, afterId, chunkSize), progressRemoved)) {
+            return;
+        }
+
+        finish(cancelled ? State.CANCELLED : State.DONE);
+    }
+
+    /**
+     * Remove chunks until there are none left
+     * @param chunks Removes the chunk after a row ID
+     * @param removed The counter of removed rows
+     * @return True if the next pass should run
+     */
+    private boolean runPass(ChunkRemover chunks, AtomicLong removed) {
+        long afterId = 0;
+        while (!cancelled) {
+            if (!plugin.isEnabled()) {
+                cancelled = true;
+                break;
+            }
+
+            BulkResetChunk chunk = chunks.removeAfter(afterId);
+            if (chunk == null) {
+                finish(State.FAILED);
+                return false;
+            }
+            if (chunk.getRowCount() == 0) {
+                return true;
+            }
+
+            afterId = chunk.getLastId();
+            removed.addAndGet(chunk.getRowCount());
+            affectedPlayers.addAll(chunk.getRevokedNfts().keySet());
+            affectedPlayers.addAll(chunk.getResetPlayers());
+            if (plugin.isEnabled()) {
+                Bukkit.getScheduler().runTask(plugin, () -> invalidate(chunk));
+            }
+
+            if (pauseMillis > 0) {
+                try {
+                    Thread.sleep(pauseMillis);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    cancelled = true;
+                }
+            }
+        }
+
+        finish(State.CANCELLED);
+        return false;
+    }
+
+    /**
+     * Update the cached state of the online players in a removed chunk
+     * @param chunk The removed chunk
+     */
+    private void invalidate(BulkResetChunk chunk) {
+        String achievementKey = filter.getAchievementKey();
+
+        for (UUID uuid : chunk.getResetPlayers()) {
+            // Drop the cached progress so it is not written back
+            plugin.getProgressLedger().forget(uuid, achievementKey);
+            PlayerSession session = plugin.getPlayerSessionManager().getSession(uuid);
+            if (session != null) {
+                session.resetProgress(achievementKey);
+            }
+        }
+
+        for (Map.Entry<UUID, Set<String>> entry : chunk.getRevokedNfts().entrySet()) {
+            PlayerSession session = plugin.getPlayerSessionManager().getSession(entry.getKey());
+            if (session != null) {
+                session.removeNfts(entry.getValue());
+            }
+            plugin.getBuffManager().invalidateNfts(entry.getKey(), entry.getValue());
+
+            Player player = Bukkit.getPlayer(entry.getKey());
+            if (player == null) {
+                continue;
+            }
+
+            // Close the NFT inventory first, closing saves its contents
+            if (player.getOpenInventory().getTitle().startsWith(NFTInvCommand.INVENTORY_TITLE_PREFIX)) {
+                player.closeInventory();
+            }
+            plugin.getSimpleNFTInventory().removeNfts(player, entry.getValue());
+
+            player.sendMessage(plugin.getConfigManager().getMessage("prefix") + ChatColor.YELLOW +
+                    "Your NFT for " + achievementKey + " has been " + (filter.isRevokeOnly() ? "revoked" : "reset") + " by an admin.");
+        }
+
+        long now = System.currentTimeMillis();
+        if (now - lastReportAt >= REPORT_INTERVAL_MILLIS && state == State.RUNNING) {
+            lastReportAt = now;
+            progressListener.accept(this);
+        }
+    }
+
+    /**
+     * End the job and report it
+     * @param endState The final state
+     */
+    private void finish(State endState) {
+        if (state != State.RUNNING) {
+            return;
+        }
+
+        state = endState;
+        finishedAt = System.currentTimeMillis();
+        plugin.getLogger().info("Bulk " + filter.describe() + " " + endState.name().toLowerCase() + ": " +
+                nftsRemoved.get() + " NFTs and " + progressRemoved.get() + " progress rows removed for " +
+                affectedPlayers.size() + " players in " + getDurationMillis() + "ms");
+
+        if (plugin.isEnabled()) {
+            Bukkit.getScheduler().runTask(plugin, () -> progressListener.accept(this));
+        }
+    }
+
+    /**
+     * Get the filter of the job
+     * @return The filter
+     */
+    public BulkResetFilter getFilter() {
+        return filter;
+    }
+
+    /**
+     * Get the job state
+     * @return The state
+     */
+    public State getState() {
+        return state;
+    }
+
+    /**
+     * Check if the job is still running
+     * @return True if the job has not ended
+     */
+    public boolean isRunning() {
+        return state == State.PENDING || state == State.RUNNING;
+    }
+
+    /**
+     * Get the number of rows the job removes
+     * @return The number of rows counted when the job started
+     */
+    public long getTotal() {
+        return total;
+    }
+
+    /**
+     * Get the number of rows removed so far
+     * @return The number of NFTs and progress rows removed
+     */
+    public long getRemoved() {
+        return nftsRemoved.get() + progressRemoved.get();
+    }
+
+    /**
+     * Get the number of NFTs removed so far
+     * @return The number of NFTs
+     */
+    public long getNftsRemoved() {
+        return nftsRemoved.get();
+    }
+
+    /**
+     * Get the number of progress rows removed so far
+     * @return The number of progress rows
+     */
+    public long getProgressRemoved() {
+        return progressRemoved.get();
+    }
+
+    /**
+     * Get the number of players affected so far
+     * @return The number of players
+     */
+    public int getAffectedPlayerCount() {
+        return affectedPlayers.size();
+    }
+
+    /**
+     * Get how long the job has been running
+     * @return The duration in milliseconds
+     */
+    public long getDurationMillis() {
+        return (finishedAt > 0 ? finishedAt : System.currentTimeMillis()) - startedAt;
+    }
+
+    /**
+     * Removes one chunk
+     */
+    private interface ChunkRemover {
+        BulkResetChunk removeAfter(long afterId);
+    }
+}
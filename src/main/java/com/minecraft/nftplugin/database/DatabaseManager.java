@@ -3,22 +3,30 @@ package com.minecraft.nftplugin.database;
 import com.minecraft.nftplugin.NFTPlugin;
 import com.zaxxer.hikari.HikariConfig;
 import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.HikariPoolMXBean;
 
 import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
+import java.sql.Timestamp;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Date;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
 import java.util.UUID;
 import java.util.logging.Level;
 
 public class DatabaseManager {
 
     private final NFTPlugin plugin;
+    private final SqlDialect dialect;
+    private final QueryMetrics queryMetrics;
     private HikariDataSource dataSource;
 
     // Table names
@@ -27,6 +35,7 @@ public class DatabaseManager {
     private final String nftTable;
     private final String nftStorageTable;
     private final String nftInventoryTable;
+    private final String mintOutboxTable;
 
     public DatabaseManager(NFTPlugin plugin) {
         this.plugin = plugin;
@@ -38,6 +47,10 @@ public class DatabaseManager {
         this.nftTable = prefix + "nfts";
         this.nftStorageTable = prefix + "nft_storage";
         this.nftInventoryTable = prefix + "nft_inventory";
+        this.mintOutboxTable = prefix + "mint_outbox";
+
+        this.dialect = SqlDialect.forType(plugin, plugin.getConfigManager().getDatabaseType());
+        this.queryMetrics = new QueryMetrics(plugin);
     }
 
     /**
@@ -48,8 +61,12 @@ public class DatabaseManager {
         try {
             setupDataSource();
             createTables();
-            // Fix the NFT inventory table if needed
-            fixNftInventoryTable();
+
+            // Bring tables created by older versions up to date
+            SchemaMigrator migrator = new SchemaMigrator(plugin, this, plugin.getConfigManager().getDatabaseTablePrefix());
+            if (!migrator.migrate()) {
+                plugin.getLogger().warning("The database schema could not be fully migrated. Check the errors above; mints and some queries may not work.");
+            }
             return true;
         } catch (SQLException e) {
             plugin.log(Level.SEVERE, "Failed to initialize database: " + e.getMessage());
@@ -57,43 +74,6 @@ public class DatabaseManager {
         }
     }
 
-    /**
-     * Fix the NFT inventory table by removing the unique_nft_id constraint
-     */
-    private void fixNftInventoryTable() {
-        try (Connection conn = getConnection()) {
-            // Check if the constraint exists
-            boolean constraintExists = false;
-            try (PreparedStatement stmt = conn.prepareStatement(
-                    "SELECT COUNT(*) FROM information_schema.TABLE_CONSTRAINTS " +
-                    "WHERE CONSTRAINT_SCHEMA = DATABASE() " +
-                    "AND TABLE_NAME = ? " +
-                    "AND CONSTRAINT_NAME = 'unique_nft_id'")) {
-
-                stmt.setString(1, nftInventoryTable);
-
-                try (ResultSet rs = stmt.executeQuery()) {
-                    if (rs.next() && rs.getInt(1) > 0) {
-                        constraintExists = true;
-                    }
-                }
-            }
-
-            // If the constraint exists, drop it
-            if (constraintExists) {
-                plugin.getLogger().info("Removing unique_nft_id constraint from " + nftInventoryTable);
-                try (PreparedStatement stmt = conn.prepareStatement(
-                        "ALTER TABLE " + nftInventoryTable + " DROP INDEX unique_nft_id")) {
-                    stmt.executeUpdate();
-                    plugin.getLogger().info("Successfully removed unique_nft_id constraint");
-                }
-            }
-        } catch (SQLException e) {
-            plugin.getLogger().warning("Failed to fix NFT inventory table: " + e.getMessage());
-            // Not critical, so we don't throw the exception
-        }
-    }
-
     /**
      * Set up the HikariCP data source
      * @throws SQLException If an error occurs
@@ -101,37 +81,20 @@ public class DatabaseManager {
     private void setupDataSource() throws SQLException {
         HikariConfig config = new HikariConfig();
 
-        // Get database configuration from config
-        String host = plugin.getConfigManager().getDatabaseHost();
-        int port = plugin.getConfigManager().getDatabasePort();
-        String database = plugin.getConfigManager().getDatabaseName();
-        String username = plugin.getConfigManager().getDatabaseUsername();
-        String password = plugin.getConfigManager().getDatabasePassword();
-
-        // Configure HikariCP
-        config.setJdbcUrl("jdbc:mysql://" + host + ":" + port + "/" + database);
-        config.setUsername(username);
-        config.setPassword(password);
-        config.setDriverClassName("com.mysql.cj.jdbc.Driver");
+        // Connection URL, driver and driver settings depend on the backend
+        dialect.configure(config);
 
         // Connection pool settings
-        config.setMaximumPoolSize(10);
-        config.setMinimumIdle(2);
-        config.setIdleTimeout(30000);
-        config.setConnectionTimeout(10000);
-        config.setMaxLifetime(1800000);
-
-        // Additional MySQL settings
-        config.addDataSourceProperty("cachePrepStmts", "true");
-        config.addDataSourceProperty("prepStmtCacheSize", "250");
-        config.addDataSourceProperty("prepStmtCacheSqlLimit", "2048");
-        config.addDataSourceProperty("useServerPrepStmts", "true");
-        config.addDataSourceProperty("useLocalSessionState", "true");
-        config.addDataSourceProperty("rewriteBatchedStatements", "true");
-        config.addDataSourceProperty("cacheResultSetMetadata", "true");
-        config.addDataSourceProperty("cacheServerConfiguration", "true");
-        config.addDataSourceProperty("elideSetAutoCommits", "true");
-        config.addDataSourceProperty("maintainTimeStats", "false");
+        int poolSize = Math.max(1, plugin.getConfigManager().getDatabasePoolSize());
+        int minimumIdle = plugin.getConfigManager().getDatabaseMinimumIdle();
+        config.setPoolName("NFTPlugin-Pool");
+        config.setMaximumPoolSize(poolSize);
+        config.setMinimumIdle(minimumIdle < 0 ? poolSize : Math.min(minimumIdle, poolSize));
+        config.setConnectionTimeout(plugin.getConfigManager().getDatabaseConnectionTimeout());
+        config.setIdleTimeout(plugin.getConfigManager().getDatabaseIdleTimeout());
+        config.setMaxLifetime(plugin.getConfigManager().getDatabaseMaxLifetime());
+        config.setKeepaliveTime(plugin.getConfigManager().getDatabaseKeepaliveTime());
+        config.setLeakDetectionThreshold(plugin.getConfigManager().getDatabaseLeakDetectionThreshold());
 
         // Create the data source
         dataSource = new HikariDataSource(config);
@@ -142,6 +105,24 @@ public class DatabaseManager {
                 throw new SQLException("Could not establish database connection.");
             }
         }
+
+        plugin.getLogger().info("Using " + dialect.getName() + " storage.");
+        logPoolSettings(config);
+    }
+
+    /**
+     * Log the effective connection pool and driver settings
+     * @param config The pool configuration
+     */
+    private void logPoolSettings(HikariConfig config) {
+        plugin.getLogger().info("Database pool: " + config.getMaximumPoolSize() + " connections (" +
+                config.getMinimumIdle() + " kept idle), connection timeout " + config.getConnectionTimeout() + "ms, " +
+                "idle timeout " + config.getIdleTimeout() + "ms, max lifetime " + config.getMaxLifetime() + "ms, " +
+                "keepalive " + config.getKeepaliveTime() + "ms, leak detection " + config.getLeakDetectionThreshold() + "ms");
+
+        if (!config.getDataSourceProperties().isEmpty()) {
+            plugin.getLogger().info("Database driver properties: " + new TreeMap<>(config.getDataSourceProperties()));
+        }
     }
 
     /**
@@ -149,7 +130,7 @@ public class DatabaseManager {
      * @throws SQLException If an error occurs
      */
     private void createTables() throws SQLException {
-        try (Connection conn = getConnection()) {
+        try (Connection conn = getConnection("createTables")) {
             // Create wallets table
             try (PreparedStatement stmt = conn.prepareStatement(
                     "CREATE TABLE IF NOT EXISTS " + walletTable + " (" +
@@ -157,7 +138,7 @@ public class DatabaseManager {
                             "player_name VARCHAR(16) NOT NULL, " +
                             "wallet_address VARCHAR(44) NOT NULL, " +
                             "registered_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP" +
-                            ") ENGINE=InnoDB DEFAULT CHARSET=utf8mb4;")) {
+                            ")" + dialect.getTableOptions())) {
                 stmt.executeUpdate();
             }
 
@@ -171,7 +152,7 @@ public class DatabaseManager {
                             "completed BOOLEAN NOT NULL DEFAULT FALSE, " +
                             "completed_at TIMESTAMP NULL, " +
                             "UNIQUE KEY unique_player_achievement (uuid, achievement_key)" +
-                            ") ENGINE=InnoDB DEFAULT CHARSET=utf8mb4;")) {
+                            ")" + dialect.getTableOptions())) {
                 stmt.executeUpdate();
             }
 
@@ -185,7 +166,7 @@ public class DatabaseManager {
                             "mint_address VARCHAR(44) NOT NULL, " +
                             "transaction_id VARCHAR(88) NOT NULL, " +
                             "minted_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP" +
-                            ") ENGINE=InnoDB DEFAULT CHARSET=utf8mb4;")) {
+                            ")" + dialect.getTableOptions())) {
                 stmt.executeUpdate();
             }
 
@@ -198,19 +179,65 @@ public class DatabaseManager {
                             "slot INT NOT NULL, " +
                             "added_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP, " +
                             "UNIQUE KEY unique_player_nft_slot (uuid, slot)" +
-                            ") ENGINE=InnoDB DEFAULT CHARSET=utf8mb4;")) {
+                            ")" + dialect.getTableOptions())) {
+                stmt.executeUpdate();
+            }
+
+            // Create mint outbox table
+            try (PreparedStatement stmt = conn.prepareStatement(
+                    "CREATE TABLE IF NOT EXISTS " + mintOutboxTable + " (" +
+                            "id BIGINT AUTO_INCREMENT PRIMARY KEY, " +
+                            "request_id VARCHAR(36) NOT NULL, " +
+                            "uuid VARCHAR(36) NOT NULL, " +
+                            "player_name VARCHAR(16) NOT NULL, " +
+                            "achievement_key VARCHAR(32) NOT NULL, " +
+                            "wallet_address VARCHAR(44) NOT NULL, " +
+                            "state VARCHAR(16) NOT NULL DEFAULT 'pending', " +
+                            "attempts INT NOT NULL DEFAULT 0, " +
+                            "claim_token VARCHAR(36) NULL, " +
+                            "claimed_at TIMESTAMP NULL, " +
+                            "mint_address VARCHAR(44) NULL, " +
+                            "transaction_id VARCHAR(88) NULL, " +
+                            "last_error VARCHAR(512) NULL, " +
+                            "next_attempt_at TIMESTAMP NULL, " +
+                            "created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP, " +
+                            "updated_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP, " +
+                            "UNIQUE KEY unique_request_id (request_id), " +
+                            "KEY idx_state (state, id)" +
+                            ")" + dialect.getTableOptions())) {
                 stmt.executeUpdate();
             }
         }
     }
 
     /**
-     * Get a database connection from the pool
+     * Get a database connection from the pool. Statements executed on it are timed and
+     * recorded under the operation name.
+     * @param operation The operation name, usually the calling method
      * @return A database connection
      * @throws SQLException If an error occurs
      */
-    public Connection getConnection() throws SQLException {
-        return dataSource.getConnection();
+    public Connection getConnection(String operation) throws SQLException {
+        long start = System.nanoTime();
+        Connection conn = dataSource.getConnection();
+        queryMetrics.recordAcquire((System.nanoTime() - start) / 1000);
+        return queryMetrics.wrap(operation, conn);
+    }
+
+    /**
+     * Get the wallet table name
+     * @return The wallet table name
+     */
+    public String getWalletTable() {
+        return walletTable;
+    }
+
+    /**
+     * Get the achievement table name
+     * @return The achievement table name
+     */
+    public String getAchievementTable() {
+        return achievementTable;
     }
 
     /**
@@ -237,6 +264,38 @@ public class DatabaseManager {
         return nftInventoryTable;
     }
 
+    /**
+     * Get the mint outbox table name
+     * @return The mint outbox table name
+     */
+    public String getMintOutboxTable() {
+        return mintOutboxTable;
+    }
+
+    /**
+     * Get the SQL dialect of the storage backend
+     * @return The dialect
+     */
+    public SqlDialect getDialect() {
+        return dialect;
+    }
+
+    /**
+     * Get the statement timings
+     * @return The query metrics
+     */
+    public QueryMetrics getQueryMetrics() {
+        return queryMetrics;
+    }
+
+    /**
+     * Get the connection pool statistics
+     * @return The pool statistics, or null if the pool is not running
+     */
+    public HikariPoolMXBean getPoolStats() {
+        return dataSource != null && !dataSource.isClosed() ? dataSource.getHikariPoolMXBean() : null;
+    }
+
     /**
      * Close the data source
      */
@@ -254,7 +313,7 @@ public class DatabaseManager {
      * @return True if successful, false otherwise
      */
     public boolean registerWallet(UUID uuid, String playerName, String walletAddress) {
-        try (Connection conn = getConnection();
+        try (Connection conn = getConnection("registerWallet");
              PreparedStatement stmt = conn.prepareStatement(
                      "INSERT INTO " + walletTable + " (uuid, player_name, wallet_address) VALUES (?, ?, ?) " +
                              "ON DUPLICATE KEY UPDATE player_name = ?, wallet_address = ?")) {
@@ -278,7 +337,7 @@ public class DatabaseManager {
      * @return True if the player has a registered wallet, false otherwise
      */
     public boolean hasWallet(UUID uuid) {
-        try (Connection conn = getConnection();
+        try (Connection conn = getConnection("hasWallet");
              PreparedStatement stmt = conn.prepareStatement(
                      "SELECT 1 FROM " + walletTable + " WHERE uuid = ?")) {
 
@@ -299,7 +358,7 @@ public class DatabaseManager {
      * @return The wallet address, or null if not found
      */
     public String getWalletAddress(UUID uuid) {
-        try (Connection conn = getConnection();
+        try (Connection conn = getConnection("getWalletAddress");
              PreparedStatement stmt = conn.prepareStatement(
                      "SELECT wallet_address FROM " + walletTable + " WHERE uuid = ?")) {
 
@@ -324,7 +383,7 @@ public class DatabaseManager {
      * @return The progress, or 0 if not found
      */
     public int getAchievementProgress(UUID uuid, String achievementKey) {
-        try (Connection conn = getConnection();
+        try (Connection conn = getConnection("getAchievementProgress");
              PreparedStatement stmt = conn.prepareStatement(
                      "SELECT progress FROM " + achievementTable + " WHERE uuid = ? AND achievement_key = ?")) {
 
@@ -380,7 +439,7 @@ public class DatabaseManager {
      */
     private boolean updateAchievementProgress(UUID uuid, String achievementKey, int progress, boolean completed) {
 
-        try (Connection conn = getConnection();
+        try (Connection conn = getConnection("updateAchievementProgress");
              PreparedStatement stmt = conn.prepareStatement(
                      "INSERT INTO " + achievementTable + " (uuid, achievement_key, progress, completed, completed_at) " +
                              "VALUES (?, ?, ?, ?, " + (completed ? "CURRENT_TIMESTAMP" : "NULL") + ") " +
@@ -401,6 +460,40 @@ public class DatabaseManager {
         }
     }
 
+    /**
+     * Write several achievement progress updates in one batch
+     * @param updates The progress updates
+     * @return True if successful, false otherwise
+     */
+    public boolean updateAchievementProgressBatch(List<AchievementProgress> updates) {
+        if (updates.isEmpty()) {
+            return true;
+        }
+
+        try (Connection conn = getConnection("updateAchievementProgressBatch");
+             PreparedStatement stmt = conn.prepareStatement(
+                     "INSERT INTO " + achievementTable + " (uuid, achievement_key, progress, completed, completed_at) " +
+                             "VALUES (?, ?, ?, ?, CASE WHEN ? THEN CURRENT_TIMESTAMP END) " +
+                             "ON DUPLICATE KEY UPDATE progress = VALUES(progress), completed = VALUES(completed), " +
+                             "completed_at = CASE WHEN VALUES(completed) THEN COALESCE(completed_at, CURRENT_TIMESTAMP) ELSE completed_at END")) {
+
+            for (AchievementProgress update : updates) {
+                stmt.setString(1, update.getUuid().toString());
+                stmt.setString(2, update.getAchievementKey());
+                stmt.setInt(3, update.getProgress());
+                stmt.setBoolean(4, update.isCompleted());
+                stmt.setBoolean(5, update.isCompleted());
+                stmt.addBatch();
+            }
+
+            stmt.executeBatch();
+            return true;
+        } catch (SQLException e) {
+            plugin.log(Level.SEVERE, "Failed to update achievement progress: " + e.getMessage());
+            return false;
+        }
+    }
+
     /**
      * Check if a player has completed an achievement
      * @param uuid The player's UUID
@@ -408,7 +501,7 @@ public class DatabaseManager {
      * @return True if the player has completed the achievement, false otherwise
      */
     public boolean hasCompletedAchievement(UUID uuid, String achievementKey) {
-        try (Connection conn = getConnection();
+        try (Connection conn = getConnection("hasCompletedAchievement");
              PreparedStatement stmt = conn.prepareStatement(
                      "SELECT completed FROM " + achievementTable + " WHERE uuid = ? AND achievement_key = ?")) {
 
@@ -437,7 +530,7 @@ public class DatabaseManager {
      * @return True if successful, false otherwise
      */
     public boolean recordNft(UUID uuid, String achievementKey, String nftId, String mintAddress, String transactionId) {
-        try (Connection conn = getConnection();
+        try (Connection conn = getConnection("recordNft");
              PreparedStatement stmt = conn.prepareStatement(
                      "INSERT INTO " + nftTable + " (uuid, achievement_key, nft_id, mint_address, transaction_id) " +
                              "VALUES (?, ?, ?, ?, ?)")) {
@@ -462,7 +555,7 @@ public class DatabaseManager {
      * @return True if the player has an NFT for the achievement, false otherwise
      */
     public boolean hasNft(UUID uuid, String achievementKey) {
-        try (Connection conn = getConnection();
+        try (Connection conn = getConnection("hasNft");
              PreparedStatement stmt = conn.prepareStatement(
                      "SELECT 1 FROM " + nftTable + " WHERE uuid = ? AND achievement_key = ?")) {
 
@@ -485,7 +578,7 @@ public class DatabaseManager {
      * @return The NFT ID, or null if not found
      */
     public String getNftId(UUID uuid, String achievementKey) {
-        try (Connection conn = getConnection();
+        try (Connection conn = getConnection("getNftId");
              PreparedStatement stmt = conn.prepareStatement(
                      "SELECT nft_id FROM " + nftTable + " WHERE uuid = ? AND achievement_key = ?")) {
 
@@ -510,7 +603,7 @@ public class DatabaseManager {
      * @return The UUID, or null if not found
      */
     public UUID getUUIDFromName(String playerName) {
-        try (Connection conn = getConnection();
+        try (Connection conn = getConnection("getUUIDFromName");
              PreparedStatement stmt = conn.prepareStatement(
                      "SELECT uuid FROM " + walletTable + " WHERE player_name = ?")) {
 
@@ -535,7 +628,7 @@ public class DatabaseManager {
      * @return True if successful, false otherwise
      */
     public boolean resetNFT(UUID uuid, String achievementKey) {
-        try (Connection conn = getConnection();
+        try (Connection conn = getConnection("resetNFT");
              PreparedStatement stmt = conn.prepareStatement(
                      "DELETE FROM " + nftTable + " WHERE uuid = ? AND achievement_key = ?")) {
 
@@ -557,7 +650,7 @@ public class DatabaseManager {
      * @return True if successful, false otherwise
      */
     public boolean resetAchievementProgress(UUID uuid, String achievementKey) {
-        try (Connection conn = getConnection();
+        try (Connection conn = getConnection("resetAchievementProgress");
              PreparedStatement stmt = conn.prepareStatement(
                      "DELETE FROM " + achievementTable + " WHERE uuid = ? AND achievement_key = ?")) {
 
@@ -572,6 +665,341 @@ public class DatabaseManager {
         }
     }
 
+    /**
+     * Get the UUIDs of several players from their names
+     * @param playerNames The player names
+     * @return The UUIDs by lowercase player name; unknown names are missing
+     */
+    public Map<String, UUID> getUUIDsFromNames(Collection<String> playerNames) {
+        Map<String, UUID> uuids = new HashMap<>();
+        if (playerNames.isEmpty()) {
+            return uuids;
+        }
+
+        try (Connection conn = getConnection("getUUIDsFromNames");
+             PreparedStatement stmt = conn.prepareStatement(
+                     "SELECT uuid, player_name FROM " + walletTable + " WHERE player_name IN (" + placeholders(playerNames.size()) + ")")) {
+
+            int index = 1;
+            for (String playerName : playerNames) {
+                stmt.setString(index++, playerName);
+            }
+
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    uuids.put(rs.getString("player_name").toLowerCase(), UUID.fromString(rs.getString("uuid")));
+                }
+            }
+        } catch (SQLException e) {
+            plugin.log(Level.SEVERE, "Failed to get UUIDs from names: " + e.getMessage());
+        }
+
+        return uuids;
+    }
+
+    /**
+     * Count the NFTs a bulk reset removes
+     * @param filter The bulk reset filter
+     * @return The number of NFTs, or -1 if the query failed
+     */
+    public int countBulkResetNFTs(BulkResetFilter filter) {
+        try (Connection conn = getConnection("countBulkResetNFTs");
+             PreparedStatement stmt = conn.prepareStatement(
+                     "SELECT COUNT(*) FROM " + nftTable + " WHERE " + bulkResetCondition(filter, true))) {
+
+            bindBulkResetCondition(stmt, filter, true, 1);
+
+            try (ResultSet rs = stmt.executeQuery()) {
+                return rs.next() ? rs.getInt(1) : 0;
+            }
+        } catch (SQLException e) {
+            plugin.log(Level.SEVERE, "Failed to count NFTs for bulk reset: " + e.getMessage());
+            return -1;
+        }
+    }
+
+    /**
+     * Count the achievement progress rows a bulk reset removes in its progress pass
+     * @param filter The bulk reset filter
+     * @return The number of rows, or -1 if the query failed
+     */
+    public int countBulkResetProgress(BulkResetFilter filter) {
+        try (Connection conn = getConnection("countBulkResetProgress");
+             PreparedStatement stmt = conn.prepareStatement(
+                     "SELECT COUNT(*) FROM " + achievementTable + " WHERE " + bulkResetCondition(filter, false))) {
+
+            bindBulkResetCondition(stmt, filter, false, 1);
+
+            try (ResultSet rs = stmt.executeQuery()) {
+                return rs.next() ? rs.getInt(1) : 0;
+            }
+        } catch (SQLException e) {
+            plugin.log(Level.SEVERE, "Failed to count progress for bulk reset: " + e.getMessage());
+            return -1;
+        }
+    }
+
+    /**
+     * Remove the next chunk of NFTs selected by a bulk reset, with their inventory slots.
+     * With a date range, the owners' progress for the achievement is reset in the same transaction.
+     * Each chunk is a short transaction on a primary key range, so other queries are never blocked for long.
+     * @param filter The bulk reset filter
+     * @param afterId Only NFTs with a higher row ID
+     * @param limit The maximum number of NFTs to remove
+     * @return The removed rows, or null if the chunk failed
+     */
+    public BulkResetChunk deleteBulkResetNFTs(BulkResetFilter filter, long afterId, int limit) {
+        try (Connection conn = getConnection("deleteBulkResetNFTs")) {
+            conn.setAutoCommit(false);
+
+            try {
+                List<Long> ids = new ArrayList<>();
+                Map<UUID, Set<String>> revokedNfts = new HashMap<>();
+                // Inventory rows saved before items carried the NFT ID are keyed by the transaction ID
+                List<String> inventoryIds = new ArrayList<>();
+
+                try (PreparedStatement stmt = conn.prepareStatement(
+                        "SELECT id, uuid, nft_id, transaction_id FROM " + nftTable + " WHERE " + bulkResetCondition(filter, true) +
+                                " AND id > ? ORDER BY id LIMIT ?")) {
+                    int index = bindBulkResetCondition(stmt, filter, true, 1);
+                    stmt.setLong(index++, afterId);
+                    stmt.setInt(index, limit);
+
+                    try (ResultSet rs = stmt.executeQuery()) {
+                        while (rs.next()) {
+                            ids.add(rs.getLong("id"));
+                            inventoryIds.add(rs.getString("nft_id"));
+                            Set<String> revoked = revokedNfts.computeIfAbsent(UUID.fromString(rs.getString("uuid")), u -> new HashSet<>());
+                            revoked.add(rs.getString("nft_id"));
+                            // Items minted before the NFT ID was stored on them carry the transaction ID
+                            String transactionId = rs.getString("transaction_id");
+                            if (transactionId != null) {
+                                revoked.add(transactionId);
+                                inventoryIds.add(transactionId);
+                            }
+                        }
+                    }
+                }
+
+                if (ids.isEmpty()) {
+                    conn.commit();
+                    return new BulkResetChunk(afterId, 0, revokedNfts, new HashSet<>());
+                }
+
+                try (PreparedStatement stmt = conn.prepareStatement(
+                        "DELETE FROM " + nftInventoryTable + " WHERE nft_id IN (" + placeholders(inventoryIds.size()) + ")")) {
+                    for (int i = 0; i < inventoryIds.size(); i++) {
+                        stmt.setString(i + 1, inventoryIds.get(i));
+                    }
+                    stmt.executeUpdate();
+                }
+
+                try (PreparedStatement stmt = conn.prepareStatement(
+                        "DELETE FROM " + nftTable + " WHERE id IN (" + placeholders(ids.size()) + ")")) {
+                    for (int i = 0; i < ids.size(); i++) {
+                        stmt.setLong(i + 1, ids.get(i));
+                    }
+                    stmt.executeUpdate();
+                }
+
+                Set<UUID> resetPlayers = new HashSet<>();
+                if (!filter.isRevokeOnly() && filter.hasDateRange()) {
+                    resetPlayers.addAll(revokedNfts.keySet());
+                    try (PreparedStatement stmt = conn.prepareStatement(
+                            "DELETE FROM " + achievementTable + " WHERE achievement_key = ? AND uuid IN (" +
+                                    placeholders(resetPlayers.size()) + ")")) {
+                        int index = 1;
+                        stmt.setString(index++, filter.getAchievementKey());
+                        for (UUID uuid : resetPlayers) {
+                            stmt.setString(index++, uuid.toString());
+                        }
+                        stmt.executeUpdate();
+                    }
+                }
+
+                conn.commit();
+                return new BulkResetChunk(ids.get(ids.size() - 1), ids.size(), revokedNfts, resetPlayers);
+            } catch (SQLException e) {
+                conn.rollback();
+                throw e;
+            } finally {
+                conn.setAutoCommit(true);
+            }
+        } catch (SQLException e) {
+            plugin.log(Level.SEVERE, "Failed to remove NFTs for bulk reset: " + e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * Remove the next chunk of achievement progress selected by a bulk reset
+     * @param filter The bulk reset filter
+     * @param afterId Only rows with a higher row ID
+     * @param limit The maximum number of rows to remove
+     * @return The removed rows, or null if the chunk failed
+     */
+    public BulkResetChunk deleteBulkResetProgress(BulkResetFilter filter, long afterId, int limit) {
+        try (Connection conn = getConnection("deleteBulkResetProgress")) {
+            conn.setAutoCommit(false);
+
+            try {
+                List<Long> ids = new ArrayList<>();
+                Set<UUID> resetPlayers = new HashSet<>();
+
+                try (PreparedStatement stmt = conn.prepareStatement(
+                        "SELECT id, uuid FROM " + achievementTable + " WHERE " + bulkResetCondition(filter, false) +
+                                " AND id > ? ORDER BY id LIMIT ?")) {
+                    int index = bindBulkResetCondition(stmt, filter, false, 1);
+                    stmt.setLong(index++, afterId);
+                    stmt.setInt(index, limit);
+
+                    try (ResultSet rs = stmt.executeQuery()) {
+                        while (rs.next()) {
+                            ids.add(rs.getLong("id"));
+                            resetPlayers.add(UUID.fromString(rs.getString("uuid")));
+                        }
+                    }
+                }
+
+                if (!ids.isEmpty()) {
+                    try (PreparedStatement stmt = conn.prepareStatement(
+                            "DELETE FROM " + achievementTable + " WHERE id IN (" + placeholders(ids.size()) + ")")) {
+                        for (int i = 0; i < ids.size(); i++) {
+                            stmt.setLong(i + 1, ids.get(i));
+                        }
+                        stmt.executeUpdate();
+                    }
+                }
+
+                conn.commit();
+                long lastId = ids.isEmpty() ? afterId : ids.get(ids.size() - 1);
+                return new BulkResetChunk(lastId, ids.size(), new HashMap<>(), resetPlayers);
+            } catch (SQLException e) {
+                conn.rollback();
+                throw e;
+            } finally {
+                conn.setAutoCommit(true);
+            }
+        } catch (SQLException e) {
+            plugin.log(Level.SEVERE, "Failed to remove progress for bulk reset: " + e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * Get the WHERE condition of a bulk reset
+     * @param filter The bulk reset filter
+     * @param nfts True for the NFT table, false for the achievement table
+     * @return The condition
+     */
+    private String bulkResetCondition(BulkResetFilter filter, boolean nfts) {
+        return bulkResetCondition(filter, nfts ? "minted_at" : null);
+    }
+
+    /**
+     * Get the WHERE condition of a bulk reset
+     * @param filter The bulk reset filter
+     * @param dateColumn The column the date range applies to, or null to ignore the date range
+     * @return The condition
+     */
+    private String bulkResetCondition(BulkResetFilter filter, String dateColumn) {
+        StringBuilder condition = new StringBuilder("achievement_key = ?");
+        if (dateColumn != null && filter.getSince() != null) {
+            condition.append(" AND ").append(dateColumn).append(" >= ?");
+        }
+        if (dateColumn != null && filter.getUntil() != null) {
+            condition.append(" AND ").append(dateColumn).append(" < ?");
+        }
+        if (!filter.getPlayers().isEmpty()) {
+            condition.append(" AND uuid IN (").append(placeholders(filter.getPlayers().size())).append(")");
+        }
+        return condition.toString();
+    }
+
+    /**
+     * Bind the parameters of a bulk reset condition
+     * @param stmt The statement
+     * @param filter The bulk reset filter
+     * @param nfts True for the NFT table, false for the achievement table
+     * @param index The index of the first parameter
+     * @return The index of the next parameter
+     * @throws SQLException If an error occurs
+     */
+    private int bindBulkResetCondition(PreparedStatement stmt, BulkResetFilter filter, boolean nfts, int index) throws SQLException {
+        stmt.setString(index++, filter.getAchievementKey());
+        if (nfts && filter.getSince() != null) {
+            stmt.setTimestamp(index++, filter.getSince());
+        }
+        if (nfts && filter.getUntil() != null) {
+            stmt.setTimestamp(index++, filter.getUntil());
+        }
+        for (UUID uuid : filter.getPlayers()) {
+            stmt.setString(index++, uuid.toString());
+        }
+        return index;
+    }
+
+    /**
+     * Cancel the pending and submitted mint requests a bulk reset covers, so they are not recorded after their
+     * NFTs were removed. A submitted request may still be minted by the backend, but confirmMint does not record
+     * a request that was cancelled. With a date range, only requests made in that range are cancelled.
+     * @param filter The bulk reset filter
+     * @return The IDs of the cancelled requests, or null if the query failed
+     */
+    public List<String> cancelBulkResetMints(BulkResetFilter filter) {
+        List<String> cancelled = new ArrayList<>();
+        String claimToken = UUID.randomUUID().toString();
+
+        try (Connection conn = getConnection("cancelBulkResetMints")) {
+            // Mark the rows in one statement so a concurrent claim never takes a cancelled row
+            try (PreparedStatement stmt = conn.prepareStatement(
+                    "UPDATE " + mintOutboxTable + " SET state = ?, claim_token = ?, last_error = ? " +
+                            "WHERE state IN (?, ?) AND " + bulkResetCondition(filter, "created_at"))) {
+
+                stmt.setString(1, MintOutboxEntry.STATE_CANCELLED);
+                stmt.setString(2, claimToken);
+                stmt.setString(3, "Cancelled by bulk " + (filter.isRevokeOnly() ? "revoke" : "reset"));
+                stmt.setString(4, MintOutboxEntry.STATE_PENDING);
+                stmt.setString(5, MintOutboxEntry.STATE_SUBMITTED);
+                bindBulkResetCondition(stmt, filter, true, 6);
+
+                if (stmt.executeUpdate() == 0) {
+                    return cancelled;
+                }
+            }
+
+            try (PreparedStatement stmt = conn.prepareStatement(
+                    "SELECT request_id FROM " + mintOutboxTable + " WHERE claim_token = ?")) {
+
+                stmt.setString(1, claimToken);
+
+                try (ResultSet rs = stmt.executeQuery()) {
+                    while (rs.next()) {
+                        cancelled.add(rs.getString("request_id"));
+                    }
+                }
+            }
+        } catch (SQLException e) {
+            plugin.log(Level.SEVERE, "Failed to cancel mint requests for bulk reset: " + e.getMessage());
+            return null;
+        }
+
+        return cancelled;
+    }
+
+    /**
+     * Get a list of parameter placeholders
+     * @param count The number of parameters
+     * @return The placeholders, separated by commas
+     */
+    private String placeholders(int count) {
+        StringBuilder placeholders = new StringBuilder();
+        for (int i = 0; i < count; i++) {
+            placeholders.append(i == 0 ? "?" : ", ?");
+        }
+        return placeholders.toString();
+    }
+
     /**
      * Get all NFTs owned by a player
      * @param uuid The player's UUID
@@ -580,7 +1008,7 @@ public class DatabaseManager {
     public List<NFTData> getPlayerNFTs(UUID uuid) {
         List<NFTData> nfts = new ArrayList<>();
 
-        try (Connection conn = getConnection();
+        try (Connection conn = getConnection("getPlayerNFTs");
              PreparedStatement stmt = conn.prepareStatement(
                      "SELECT * FROM " + nftTable + " WHERE uuid = ? ORDER BY minted_at DESC")) {
 
@@ -607,6 +1035,76 @@ public class DatabaseManager {
         return nfts;
     }
 
+    /**
+     * Get one page of a player's NFTs, newest first.
+     * Pages are keyed on (minted_at, id) rather than an offset, so later pages cost the same as the first.
+     * Only the columns the NFT list renders are selected; mint address and transaction ID are left null.
+     * @param uuid The player's UUID
+     * @param after The last NFT of the previous page, or null for the first page
+     * @param limit The maximum number of NFTs to return
+     * @return A list of NFTData objects
+     */
+    public List<NFTData> getPlayerNFTPage(UUID uuid, NFTData after, int limit) {
+        List<NFTData> nfts = new ArrayList<>();
+
+        String sql = "SELECT id, achievement_key, nft_id, minted_at FROM " + nftTable + " WHERE uuid = ?" +
+                (after != null ? " AND (minted_at < ? OR (minted_at = ? AND id < ?))" : "") +
+                " ORDER BY minted_at DESC, id DESC LIMIT ?";
+
+        try (Connection conn = getConnection("getPlayerNFTPage");
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
+
+            int index = 1;
+            stmt.setString(index++, uuid.toString());
+            if (after != null) {
+                Timestamp mintedAt = new Timestamp(after.getMintedAt().getTime());
+                stmt.setTimestamp(index++, mintedAt);
+                stmt.setTimestamp(index++, mintedAt);
+                stmt.setInt(index++, after.getId());
+            }
+            stmt.setInt(index, limit);
+
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    nfts.add(new NFTData(
+                            rs.getInt("id"),
+                            uuid,
+                            rs.getString("achievement_key"),
+                            rs.getString("nft_id"),
+                            null,
+                            null,
+                            rs.getTimestamp("minted_at")
+                    ));
+                }
+            }
+        } catch (SQLException e) {
+            plugin.log(Level.SEVERE, "Failed to get player NFT page: " + e.getMessage());
+        }
+
+        return nfts;
+    }
+
+    /**
+     * Count the NFTs owned by a player
+     * @param uuid The player's UUID
+     * @return The number of NFTs, or 0 if the query failed
+     */
+    public int countPlayerNFTs(UUID uuid) {
+        try (Connection conn = getConnection("countPlayerNFTs");
+             PreparedStatement stmt = conn.prepareStatement(
+                     "SELECT COUNT(*) FROM " + nftTable + " WHERE uuid = ?")) {
+
+            stmt.setString(1, uuid.toString());
+
+            try (ResultSet rs = stmt.executeQuery()) {
+                return rs.next() ? rs.getInt(1) : 0;
+            }
+        } catch (SQLException e) {
+            plugin.log(Level.SEVERE, "Failed to count player NFTs: " + e.getMessage());
+            return 0;
+        }
+    }
+
     /**
      * Get an NFT by its NFT ID
      * @param nftId The NFT ID
@@ -622,7 +1120,7 @@ public class DatabaseManager {
      * @return The NFTData object, or null if not found
      */
     public NFTData getNFTById(String nftId) {
-        try (Connection conn = getConnection();
+        try (Connection conn = getConnection("getNFTById");
              PreparedStatement stmt = conn.prepareStatement(
                      "SELECT * FROM " + nftTable + " WHERE nft_id = ?")) {
 
@@ -649,83 +1147,119 @@ public class DatabaseManager {
     }
 
     /**
-     * Add an NFT to a player's inventory
+     * Add an NFT to a player's inventory, replacing whatever is in the slot
      * @param uuid The player's UUID
      * @param nftId The NFT ID
      * @param slot The inventory slot
-     * @return True if successful, false otherwise
+     * @return True if successful, false if the NFT does not exist or an error occurred
      */
     public boolean addNFTToInventory(UUID uuid, String nftId, int slot) {
-        plugin.getLogger().info("Adding NFT " + nftId + " to slot " + slot + " for player " + uuid);
+        // One atomic statement on the (uuid, slot) key; inserts nothing if the NFT does not exist
+        try (Connection conn = getConnection("addNFTToInventory");
+             PreparedStatement stmt = conn.prepareStatement(inventoryUpsertSql())) {
+
+            stmt.setString(1, uuid.toString());
+            stmt.setInt(2, slot);
+            stmt.setString(3, nftId);
+
+            if (stmt.executeUpdate() > 0) {
+                return true;
+            }
 
-        // First check if this NFT exists
-        NFTData nftData = getNFTById(nftId);
-        if (nftData == null) {
             plugin.getLogger().severe("Cannot add NFT to inventory: NFT with ID " + nftId + " does not exist in the database");
             return false;
+        } catch (SQLException e) {
+            plugin.log(Level.SEVERE, "Failed to add NFT to inventory: " + e.getMessage());
+            return false;
         }
+    }
 
-        // Then check if there's already an NFT in this slot
-        try (Connection conn = getConnection();
-             PreparedStatement checkStmt = conn.prepareStatement(
-                     "SELECT nft_id FROM " + nftInventoryTable + " WHERE uuid = ? AND slot = ?")) {
-
-            checkStmt.setString(1, uuid.toString());
-            checkStmt.setInt(2, slot);
-
-            boolean slotOccupied = false;
-            String existingNftId = null;
-
-            try (ResultSet rs = checkStmt.executeQuery()) {
-                if (rs.next()) {
-                    slotOccupied = true;
-                    existingNftId = rs.getString("nft_id");
-                }
-            }
-
-            // If the slot is occupied by a different NFT, remove it first
-            if (slotOccupied && existingNftId != null) {
-                if (existingNftId.equals(nftId)) {
-                    plugin.getLogger().info("NFT " + nftId + " is already in slot " + slot + " for player " + uuid);
-                    return true; // Already in the right place
+    /**
+     * Save one page of a player's inventory in a single transaction.
+     * Slots in the page that are not in the map are emptied.
+     * @param uuid The player's UUID
+     * @param firstSlot The first slot of the page
+     * @param slotCount The number of slots in the page
+     * @param slots The NFT ID in each filled slot
+     * @return True if successful, false otherwise
+     */
+    public boolean saveInventoryPage(UUID uuid, int firstSlot, int slotCount, Map<Integer, String> slots) {
+        try (Connection conn = getConnection("saveInventoryPage")) {
+            conn.setAutoCommit(false);
+
+            try {
+                // Empty the slots of this page that no longer hold an NFT
+                StringBuilder sql = new StringBuilder("DELETE FROM " + nftInventoryTable + " WHERE uuid = ? AND slot >= ? AND slot < ?");
+                if (!slots.isEmpty()) {
+                    sql.append(" AND slot NOT IN (");
+                    for (int i = 0; i < slots.size(); i++) {
+                        sql.append(i == 0 ? "?" : ", ?");
+                    }
+                    sql.append(")");
                 }
 
-                plugin.getLogger().info("Removing existing NFT " + existingNftId + " from slot " + slot);
-                try (PreparedStatement deleteStmt = conn.prepareStatement(
-                        "DELETE FROM " + nftInventoryTable + " WHERE uuid = ? AND slot = ?")) {
-
-                    deleteStmt.setString(1, uuid.toString());
-                    deleteStmt.setInt(2, slot);
-                    deleteStmt.executeUpdate();
+                try (PreparedStatement stmt = conn.prepareStatement(sql.toString())) {
+                    int index = 1;
+                    stmt.setString(index++, uuid.toString());
+                    stmt.setInt(index++, firstSlot);
+                    stmt.setInt(index++, firstSlot + slotCount);
+                    for (int slot : slots.keySet()) {
+                        stmt.setInt(index++, slot);
+                    }
+                    stmt.executeUpdate();
                 }
-            }
-
-            // Now insert the new NFT
-            try (PreparedStatement insertStmt = conn.prepareStatement(
-                    "INSERT INTO " + nftInventoryTable + " (uuid, nft_id, slot) VALUES (?, ?, ?)")) {
 
-                insertStmt.setString(1, uuid.toString());
-                insertStmt.setString(2, nftId);
-                insertStmt.setInt(3, slot);
-
-                int rowsAffected = insertStmt.executeUpdate();
-                boolean success = rowsAffected > 0;
-
-                if (success) {
-                    plugin.getLogger().info("Successfully added NFT " + nftId + " to slot " + slot + " for player " + uuid);
-                } else {
-                    plugin.getLogger().severe("Failed to add NFT " + nftId + " to slot " + slot + " for player " + uuid);
+                if (!slots.isEmpty()) {
+                    try (PreparedStatement stmt = conn.prepareStatement(inventoryUpsertSql())) {
+                        for (Map.Entry<Integer, String> entry : slots.entrySet()) {
+                            stmt.setString(1, uuid.toString());
+                            stmt.setInt(2, entry.getKey());
+                            stmt.setString(3, entry.getValue());
+                            stmt.addBatch();
+                        }
+
+                        int missing = 0;
+                        for (int count : stmt.executeBatch()) {
+                            if (count == 0) {
+                                missing++;
+                            }
+                        }
+                        if (missing > 0) {
+                            plugin.getLogger().warning("Saved inventory page for " + uuid + " without " + missing +
+                                    " NFTs that do not exist in the database");
+                        }
+                    }
                 }
 
-                return success;
+                conn.commit();
+                return true;
+            } catch (SQLException e) {
+                conn.rollback();
+                throw e;
+            } finally {
+                conn.setAutoCommit(true);
             }
         } catch (SQLException e) {
-            plugin.getLogger().severe("Database error adding NFT to inventory: " + e.getMessage());
-            e.printStackTrace();
+            plugin.log(Level.SEVERE, "Failed to save inventory page: " + e.getMessage());
             return false;
         }
     }
 
+    /**
+     * Get the statement that places an existing NFT in an inventory slot.
+     * Parameters: uuid, slot, nft_id.
+     * Columns in the update are qualified, nft_id exists in both tables of the INSERT ... SELECT.
+     * @return The SQL statement
+     */
+    private String inventoryUpsertSql() {
+        return "INSERT INTO " + nftInventoryTable + " (uuid, slot, nft_id) " +
+                "SELECT ?, ?, n.nft_id FROM " + nftTable + " n WHERE n.nft_id = ? " +
+                "ON DUPLICATE KEY UPDATE " +
+                nftInventoryTable + ".added_at = CASE WHEN " + nftInventoryTable + ".nft_id = VALUES(nft_id) " +
+                "THEN " + nftInventoryTable + ".added_at ELSE CURRENT_TIMESTAMP END, " +
+                nftInventoryTable + ".nft_id = VALUES(nft_id)";
+    }
+
     /**
      * Remove an NFT from a player's inventory
      * @param uuid The player's UUID
@@ -733,7 +1267,7 @@ public class DatabaseManager {
      * @return True if successful, false otherwise
      */
     public boolean removeNFTFromInventory(UUID uuid, int slot) {
-        try (Connection conn = getConnection();
+        try (Connection conn = getConnection("removeNFTFromInventory");
              PreparedStatement stmt = conn.prepareStatement(
                      "DELETE FROM " + nftInventoryTable + " WHERE uuid = ? AND slot = ?")) {
 
@@ -753,7 +1287,7 @@ public class DatabaseManager {
      * @return True if successful, false otherwise
      */
     public boolean removeNFTFromInventoryByNftId(String nftId) {
-        try (Connection conn = getConnection();
+        try (Connection conn = getConnection("removeNFTFromInventoryByNftId");
              PreparedStatement stmt = conn.prepareStatement(
                      "DELETE FROM " + nftInventoryTable + " WHERE nft_id = ?")) {
 
@@ -775,7 +1309,7 @@ public class DatabaseManager {
         Map<Integer, NFTData> inventoryNFTs = new HashMap<>();
         plugin.getLogger().info("Getting inventory NFTs for player " + uuid);
 
-        try (Connection conn = getConnection()) {
+        try (Connection conn = getConnection("getPlayerInventoryNFTs")) {
             // First, check what's in the inventory table
             try (PreparedStatement checkStmt = conn.prepareStatement(
                     "SELECT slot, nft_id FROM " + nftInventoryTable + " WHERE uuid = ? ORDER BY slot")) {
@@ -833,13 +1367,96 @@ public class DatabaseManager {
         return inventoryNFTs;
     }
 
+    /**
+     * Load everything the plugin stores about a player using one connection
+     * @param uuid The player's UUID
+     * @return The player session, or null if it could not be loaded
+     */
+    public PlayerSession loadPlayerSession(UUID uuid) {
+        String walletAddress = null;
+        Map<String, Integer> progress = new HashMap<>();
+        List<NFTData> nfts = new ArrayList<>();
+        Map<Integer, NFTData> inventory = new HashMap<>();
+
+        try (Connection conn = getConnection("loadPlayerSession")) {
+            try (PreparedStatement stmt = conn.prepareStatement(
+                    "SELECT wallet_address FROM " + walletTable + " WHERE uuid = ?")) {
+                stmt.setString(1, uuid.toString());
+
+                try (ResultSet rs = stmt.executeQuery()) {
+                    if (rs.next()) {
+                        walletAddress = rs.getString("wallet_address");
+                    }
+                }
+            }
+
+            try (PreparedStatement stmt = conn.prepareStatement(
+                    "SELECT achievement_key, progress FROM " + achievementTable + " WHERE uuid = ?")) {
+                stmt.setString(1, uuid.toString());
+
+                try (ResultSet rs = stmt.executeQuery()) {
+                    while (rs.next()) {
+                        progress.put(rs.getString("achievement_key"), rs.getInt("progress"));
+                    }
+                }
+            }
+
+            try (PreparedStatement stmt = conn.prepareStatement(
+                    "SELECT * FROM " + nftTable + " WHERE uuid = ? ORDER BY minted_at DESC, id DESC")) {
+                stmt.setString(1, uuid.toString());
+
+                try (ResultSet rs = stmt.executeQuery()) {
+                    while (rs.next()) {
+                        nfts.add(readNFTData(rs));
+                    }
+                }
+            }
+
+            try (PreparedStatement stmt = conn.prepareStatement(
+                    "SELECT i.slot, n.* FROM " + nftInventoryTable + " i " +
+                            "JOIN " + nftTable + " n ON i.nft_id = n.nft_id " +
+                            "WHERE i.uuid = ?")) {
+                stmt.setString(1, uuid.toString());
+
+                try (ResultSet rs = stmt.executeQuery()) {
+                    while (rs.next()) {
+                        inventory.put(rs.getInt("slot"), readNFTData(rs));
+                    }
+                }
+            }
+        } catch (SQLException e) {
+            plugin.log(Level.SEVERE, "Failed to load player session: " + e.getMessage());
+            return null;
+        }
+
+        return new PlayerSession(uuid, walletAddress, progress, nfts, inventory);
+    }
+
+    /**
+     * Read an NFT from the current row of a result set
+     * @param rs The result set
+     * @return The NFTData object
+     * @throws SQLException If an error occurs
+     */
+    private NFTData readNFTData(ResultSet rs) throws SQLException {
+        return new NFTData(
+                rs.getInt("id"),
+                UUID.fromString(rs.getString("uuid")),
+                rs.getString("achievement_key"),
+                rs.getString("nft_id"),
+                rs.getString("mint_address"),
+                rs.getString("transaction_id"),
+                rs.getTimestamp("minted_at")
+        );
+    }
+
     /**
      * Check if an NFT is in any player's inventory
      * @param nftId The NFT ID
      * @return True if the NFT is in an inventory, false otherwise
      */
     public boolean isNFTInInventory(String nftId) {
-        try (Connection conn = getConnection();
+        try (Connection conn = getConnection("isNFTInInventory");
              PreparedStatement stmt = conn.prepareStatement(
                      "SELECT 1 FROM " + nftInventoryTable + " WHERE nft_id = ?")) {
 
@@ -853,4 +1470,316 @@ public class DatabaseManager {
             return false;
         }
     }
+
+    /**
+     * Add a mint request to the outbox
+     * @param requestId The mint request ID
+     * @param uuid The player's UUID
+     * @param playerName The player's name
+     * @param achievementKey The achievement key
+     * @param walletAddress The recipient wallet address
+     * @return True if successful, false otherwise
+     */
+    public boolean createMintRequest(String requestId, UUID uuid, String playerName, String achievementKey, String walletAddress) {
+        try (Connection conn = getConnection("createMintRequest");
+             PreparedStatement stmt = conn.prepareStatement(
+                     "INSERT INTO " + mintOutboxTable + " (request_id, uuid, player_name, achievement_key, wallet_address, state) " +
+                             "VALUES (?, ?, ?, ?, ?, ?)")) {
+
+            stmt.setString(1, requestId);
+            stmt.setString(2, uuid.toString());
+            stmt.setString(3, playerName);
+            stmt.setString(4, achievementKey);
+            stmt.setString(5, walletAddress);
+            stmt.setString(6, MintOutboxEntry.STATE_PENDING);
+
+            return stmt.executeUpdate() > 0;
+        } catch (SQLException e) {
+            plugin.log(Level.SEVERE, "Failed to create mint request: " + e.getMessage());
+            return false;
+        }
+    }
+
+    /**
+     * Claim pending mint requests that are due, marking them as submitted
+     * @param limit The maximum number of requests to claim
+     * @return The claimed requests, oldest first
+     */
+    public List<MintOutboxEntry> claimPendingMints(int limit) {
+        List<MintOutboxEntry> claimed = new ArrayList<>();
+        String claimToken = UUID.randomUUID().toString();
+
+        try (Connection conn = getConnection("claimPendingMints")) {
+            // Claim in a single statement so concurrent dispatchers never take the same row
+            try (PreparedStatement stmt = conn.prepareStatement(
+                    "UPDATE " + mintOutboxTable + " SET state = ?, claim_token = ?, claimed_at = ?, attempts = attempts + 1 " +
+                            "WHERE state = ? AND (next_attempt_at IS NULL OR next_attempt_at <= ?)" + dialect.getUpdateLimitClause("id"))) {
+
+                Timestamp now = new Timestamp(System.currentTimeMillis());
+                stmt.setString(1, MintOutboxEntry.STATE_SUBMITTED);
+                stmt.setString(2, claimToken);
+                stmt.setTimestamp(3, now);
+                stmt.setString(4, MintOutboxEntry.STATE_PENDING);
+                stmt.setTimestamp(5, now);
+                stmt.setInt(6, limit);
+
+                if (stmt.executeUpdate() == 0) {
+                    return claimed;
+                }
+            }
+
+            try (PreparedStatement stmt = conn.prepareStatement(
+                    "SELECT id, request_id, uuid, player_name, achievement_key, wallet_address, state, attempts, created_at " +
+                            "FROM " + mintOutboxTable + " WHERE claim_token = ? ORDER BY id")) {
+
+                stmt.setString(1, claimToken);
+
+                try (ResultSet rs = stmt.executeQuery()) {
+                    while (rs.next()) {
+                        claimed.add(new MintOutboxEntry(
+                                rs.getLong("id"),
+                                rs.getString("request_id"),
+                                UUID.fromString(rs.getString("uuid")),
+                                rs.getString("player_name"),
+                                rs.getString("achievement_key"),
+                                rs.getString("wallet_address"),
+                                rs.getString("state"),
+                                rs.getInt("attempts"),
+                                rs.getTimestamp("created_at")
+                        ));
+                    }
+                }
+            }
+        } catch (SQLException e) {
+            plugin.log(Level.SEVERE, "Failed to claim pending mints: " + e.getMessage());
+        }
+
+        return claimed;
+    }
+
+    /**
+     * Return a submitted mint request to the pending state so it is claimed again
+     * @param requestId The mint request ID
+     * @return True if successful, false otherwise
+     */
+    public boolean releaseMint(String requestId) {
+        try (Connection conn = getConnection("releaseMint");
+             PreparedStatement stmt = conn.prepareStatement(
+                     "UPDATE " + mintOutboxTable + " SET state = ?, claim_token = NULL, attempts = GREATEST(attempts - 1, 0) " +
+                             "WHERE request_id = ? AND state = ?")) {
+
+            stmt.setString(1, MintOutboxEntry.STATE_PENDING);
+            stmt.setString(2, requestId);
+            stmt.setString(3, MintOutboxEntry.STATE_SUBMITTED);
+
+            return stmt.executeUpdate() > 0;
+        } catch (SQLException e) {
+            plugin.log(Level.SEVERE, "Failed to release mint request: " + e.getMessage());
+            return false;
+        }
+    }
+
+    /**
+     * Return a submitted mint request to the pending state without counting the attempt,
+     * and keep it from being claimed again until a delay has passed
+     * @param requestId The mint request ID
+     * @param delayMillis The delay before the request may be claimed again in milliseconds
+     * @return True if successful, false otherwise
+     */
+    public boolean deferMint(String requestId, long delayMillis) {
+        try (Connection conn = getConnection("deferMint");
+             PreparedStatement stmt = conn.prepareStatement(
+                     "UPDATE " + mintOutboxTable + " SET state = ?, claim_token = NULL, attempts = GREATEST(attempts - 1, 0), " +
+                             "next_attempt_at = ? WHERE request_id = ? AND state = ?")) {
+
+            stmt.setString(1, MintOutboxEntry.STATE_PENDING);
+            stmt.setTimestamp(2, new Timestamp(System.currentTimeMillis() + delayMillis));
+            stmt.setString(3, requestId);
+            stmt.setString(4, MintOutboxEntry.STATE_SUBMITTED);
+
+            return stmt.executeUpdate() > 0;
+        } catch (SQLException e) {
+            plugin.log(Level.SEVERE, "Failed to defer mint request: " + e.getMessage());
+            return false;
+        }
+    }
+
+    /**
+     * Return a submitted mint request to the pending state to be retried after a delay
+     * @param requestId The mint request ID
+     * @param error The error message of the failed attempt
+     * @param delayMillis The delay before the request may be claimed again in milliseconds
+     * @return True if successful, false otherwise
+     */
+    public boolean retryMint(String requestId, String error, long delayMillis) {
+        try (Connection conn = getConnection("retryMint");
+             PreparedStatement stmt = conn.prepareStatement(
+                     "UPDATE " + mintOutboxTable + " SET state = ?, claim_token = NULL, last_error = ?, next_attempt_at = ? " +
+                             "WHERE request_id = ? AND state = ?")) {
+
+            stmt.setString(1, MintOutboxEntry.STATE_PENDING);
+            stmt.setString(2, error != null && error.length() > 512 ? error.substring(0, 512) : error);
+            stmt.setTimestamp(3, new Timestamp(System.currentTimeMillis() + delayMillis));
+            stmt.setString(4, requestId);
+            stmt.setString(5, MintOutboxEntry.STATE_SUBMITTED);
+
+            return stmt.executeUpdate() > 0;
+        } catch (SQLException e) {
+            plugin.log(Level.SEVERE, "Failed to schedule mint retry: " + e.getMessage());
+            return false;
+        }
+    }
+
+    /**
+     * Mark a mint request as failed
+     * @param requestId The mint request ID
+     * @param error The error message
+     * @return True if successful, false otherwise
+     */
+    public boolean failMint(String requestId, String error) {
+        try (Connection conn = getConnection("failMint");
+             PreparedStatement stmt = conn.prepareStatement(
+                     "UPDATE " + mintOutboxTable + " SET state = ?, claim_token = NULL, last_error = ? " +
+                             "WHERE request_id = ? AND state = ?")) {
+
+            stmt.setString(1, MintOutboxEntry.STATE_FAILED);
+            stmt.setString(2, error != null && error.length() > 512 ? error.substring(0, 512) : error);
+            stmt.setString(3, requestId);
+            stmt.setString(4, MintOutboxEntry.STATE_SUBMITTED);
+
+            return stmt.executeUpdate() > 0;
+        } catch (SQLException e) {
+            plugin.log(Level.SEVERE, "Failed to mark mint request as failed: " + e.getMessage());
+            return false;
+        }
+    }
+
+    /**
+     * Record a minted NFT and mark its mint request as confirmed in one transaction.
+     * The mint request ID is used as the NFT ID, so confirming the same request twice records one NFT.
+     * A request that was cancelled, e.g. by a bulk revoke while it was being minted, is not recorded;
+     * its mint address and transaction ID are kept on the outbox row.
+     * @param requestId The mint request ID
+     * @param uuid The player's UUID
+     * @param achievementKey The achievement key
+     * @param mintAddress The mint address
+     * @param transactionId The transaction ID
+     * @return STATE_CONFIRMED if the NFT was recorded, STATE_CANCELLED if the request was cancelled,
+     *         or null if the query failed
+     */
+    public String confirmMint(String requestId, UUID uuid, String achievementKey, String mintAddress, String transactionId) {
+        try (Connection conn = getConnection("confirmMint")) {
+            conn.setAutoCommit(false);
+
+            try {
+                // Update the outbox row first; its lock keeps a concurrent cancel from slipping in between
+                int confirmed;
+                try (PreparedStatement stmt = conn.prepareStatement(
+                        "UPDATE " + mintOutboxTable + " SET state = ?, claim_token = NULL, mint_address = ?, " +
+                                "transaction_id = ?, last_error = NULL WHERE request_id = ? AND state <> ?")) {
+                    stmt.setString(1, MintOutboxEntry.STATE_CONFIRMED);
+                    stmt.setString(2, mintAddress);
+                    stmt.setString(3, transactionId);
+                    stmt.setString(4, requestId);
+                    stmt.setString(5, MintOutboxEntry.STATE_CANCELLED);
+                    confirmed = stmt.executeUpdate();
+                }
+
+                if (confirmed == 0) {
+                    try (PreparedStatement stmt = conn.prepareStatement(
+                            "UPDATE " + mintOutboxTable + " SET mint_address = ?, transaction_id = ? WHERE request_id = ?")) {
+                        stmt.setString(1, mintAddress);
+                        stmt.setString(2, transactionId);
+                        stmt.setString(3, requestId);
+                        stmt.executeUpdate();
+                    }
+
+                    conn.commit();
+                    return MintOutboxEntry.STATE_CANCELLED;
+                }
+
+                // Only record the NFT once
+                boolean exists;
+                try (PreparedStatement stmt = conn.prepareStatement(
+                        "SELECT 1 FROM " + nftTable + " WHERE nft_id = ?")) {
+                    stmt.setString(1, requestId);
+
+                    try (ResultSet rs = stmt.executeQuery()) {
+                        exists = rs.next();
+                    }
+                }
+
+                if (!exists) {
+                    try (PreparedStatement stmt = conn.prepareStatement(
+                            "INSERT INTO " + nftTable + " (uuid, achievement_key, nft_id, mint_address, transaction_id) " +
+                                    "VALUES (?, ?, ?, ?, ?)")) {
+                        stmt.setString(1, uuid.toString());
+                        stmt.setString(2, achievementKey);
+                        stmt.setString(3, requestId);
+                        stmt.setString(4, mintAddress);
+                        stmt.setString(5, transactionId);
+                        stmt.executeUpdate();
+                    }
+                }
+
+                conn.commit();
+                return MintOutboxEntry.STATE_CONFIRMED;
+            } catch (SQLException e) {
+                conn.rollback();
+                throw e;
+            } finally {
+                conn.setAutoCommit(true);
+            }
+        } catch (SQLException e) {
+            plugin.log(Level.SEVERE, "Failed to confirm mint request: " + e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * Return submitted mint requests whose claim is older than a threshold to the pending state.
+     * This resumes requests of a server that stopped, and requests whose result could not be recorded.
+     * Recent claims are left alone, since other servers sharing the database may still be minting them.
+     * @param staleMillis The age in milliseconds after which a claim is considered abandoned
+     * @return The number of requests that will be resumed
+     */
+    public int resumeStaleMints(long staleMillis) {
+        try (Connection conn = getConnection("resumeStaleMints");
+             PreparedStatement stmt = conn.prepareStatement(
+                     "UPDATE " + mintOutboxTable + " SET state = ?, claim_token = NULL " +
+                             "WHERE state = ? AND (claimed_at IS NULL OR claimed_at < ?)")) {
+
+            stmt.setString(1, MintOutboxEntry.STATE_PENDING);
+            stmt.setString(2, MintOutboxEntry.STATE_SUBMITTED);
+            stmt.setTimestamp(3, new Timestamp(System.currentTimeMillis() - staleMillis));
+
+            return stmt.executeUpdate();
+        } catch (SQLException e) {
+            plugin.log(Level.SEVERE, "Failed to resume stale mints: " + e.getMessage());
+            return 0;
+        }
+    }
+
+    /**
+     * Count mint requests by state
+     * @return A map of state to number of requests
+     */
+    public Map<String, Integer> getMintOutboxCounts() {
+        Map<String, Integer> counts = new HashMap<>();
+
+        try (Connection conn = getConnection("getMintOutboxCounts");
+             PreparedStatement stmt = conn.prepareStatement(
+                     "SELECT state, COUNT(*) FROM " + mintOutboxTable + " GROUP BY state")) {
+
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    counts.put(rs.getString(1), rs.getInt(2));
+                }
+            }
+        } catch (SQLException e) {
+            plugin.log(Level.SEVERE, "Failed to count mint requests: " + e.getMessage());
+        }
+
+        return counts;
+    }
 }
@@ -0,0 +1,85 @@
+package com.minecraft.nftplugin.database;
+
+import com.minecraft.nftplugin.NFTPlugin;
+import com.zaxxer.hikari.HikariConfig;
+
+import java.io.File;
+
+/**
+ * Embedded H2 backend, stored in the plugin folder or kept in memory.
+ * H2 runs in MySQL compatibility mode so the plugin's table definitions, queries and upserts work unchanged.
+ * File databases use H2's default MVStore engine, which writes through its own log, so there is no journal
+ * mode to configure.
+ */
+public class H2Dialect extends SqlDialect {
+
+    /**
+     * Constructor
+     * @param plugin The NFTPlugin instance
+     */
+    public H2Dialect(NFTPlugin plugin) {
+        super(plugin);
+    }
+
+    @Override
+    public String getName() {
+        return plugin.getConfigManager().isDatabaseInMemory() ? "H2 (in-memory)" : "H2";
+    }
+
+    @Override
+    public void configure(HikariConfig config) {
+        String file = plugin.getConfigManager().getDatabaseFile();
+        String settings = ";MODE=MySQL;DATABASE_TO_LOWER=TRUE";
+
+        if (plugin.getConfigManager().isDatabaseInMemory()) {
+            // Keep the database while the server runs, not just while a connection is open
+            config.setJdbcUrl("jdbc:h2:mem:" + file + settings + ";DB_CLOSE_DELAY=-1");
+        } else {
+            config.setJdbcUrl("jdbc:h2:" + new File(plugin.getDataFolder(), file).getAbsolutePath() + settings);
+        }
+
+        config.setUsername("sa");
+        config.setPassword("");
+        config.setDriverClassName("org.h2.Driver");
+    }
+
+    @Override
+    public String getTableOptions() {
+        return "";
+    }
+
+    @Override
+    public String getUpdateLimitClause(String orderColumn) {
+        // H2 does not order UPDATE; rows are taken in primary key order
+        return " FETCH FIRST ? ROWS ONLY";
+    }
+
+    @Override
+    public String getIndexName(String table, String index) {
+        // Index names are per schema in H2, so prefix them with the table
+        return table + "_" + index;
+    }
+
+    @Override
+    public String createIndex(String table, String index, String columns, boolean unique) {
+        return "CREATE " + (unique ? "UNIQUE " : "") + "INDEX IF NOT EXISTS " + getIndexName(table, index) +
+                " ON " + table + " (" + columns + ")";
+    }
+
+    @Override
+    public String dropIndex(String table, String index) {
+        return "DROP INDEX IF EXISTS " + getIndexName(table, index);
+    }
+
+    @Override
+    public String getIndexExistsQuery() {
+        return "SELECT COUNT(*) FROM INFORMATION_SCHEMA.INDEXES " +
+                "WHERE TABLE_SCHEMA = CURRENT_SCHEMA AND LOWER(TABLE_NAME) = LOWER(?) AND LOWER(INDEX_NAME) = LOWER(?)";
+    }
+
+    @Override
+    public String getColumnExistsQuery() {
+        return "SELECT COUNT(*) FROM INFORMATION_SCHEMA.COLUMNS " +
+                "WHERE TABLE_SCHEMA = CURRENT_SCHEMA AND LOWER(TABLE_NAME) = LOWER(?) AND LOWER(COLUMN_NAME) = LOWER(?)";
+    }
+}
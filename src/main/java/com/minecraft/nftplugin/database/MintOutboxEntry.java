@@ -0,0 +1,124 @@
+package com.minecraft.nftplugin.database;
+
+import java.util.Date;
+import java.util.UUID;
+
+/**
+ * A row in the mint outbox table
+ */
+public class MintOutboxEntry {
+
+    // Outbox states
+    public static final String STATE_PENDING = "pending";
+    public static final String STATE_SUBMITTED = "submitted";
+    public static final String STATE_CONFIRMED = "confirmed";
+    public static final String STATE_FAILED = "failed";
+    public static final String STATE_CANCELLED = "cancelled";
+
+    private final long id;
+    private final String requestId;
+    private final UUID uuid;
+    private final String playerName;
+    private final String achievementKey;
+    private final String walletAddress;
+    private final String state;
+    private final int attempts;
+    private final Date createdAt;
+
+    /**
+     * Constructor
+     * @param id The row ID
+     * @param requestId The mint request ID
+     * @param uuid The player's UUID
+     * @param playerName The player's name
+     * @param achievementKey The achievement key
+     * @param walletAddress The recipient wallet address
+     * @param state The outbox state
+     * @param attempts The number of times the mint was submitted
+     * @param createdAt The date the mint was requested
+     */
+    public MintOutboxEntry(long id, String requestId, UUID uuid, String playerName, String achievementKey,
+                           String walletAddress, String state, int attempts, Date createdAt) {
+        this.id = id;
+        this.requestId = requestId;
+        this.uuid = uuid;
+        this.playerName = playerName;
+        this.achievementKey = achievementKey;
+        this.walletAddress = walletAddress;
+        this.state = state;
+        this.attempts = attempts;
+        this.createdAt = createdAt;
+    }
+
+    /**
+     * Get the row ID
+     * @return The row ID
+     */
+    public long getId() {
+        return id;
+    }
+
+    /**
+     * Get the mint request ID
+     * @return The mint request ID
+     */
+    public String getRequestId() {
+        return requestId;
+    }
+
+    /**
+     * Get the player's UUID
+     * @return The player's UUID
+     */
+    public UUID getUuid() {
+        return uuid;
+    }
+
+    /**
+     * Get the player's name
+     * @return The player's name
+     */
+    public String getPlayerName() {
+        return playerName;
+    }
+
+    /**
+     * Get the achievement key
+     * @return The achievement key
+     */
+    public String getAchievementKey() {
+        return achievementKey;
+    }
+
+    /**
+     * Get the recipient wallet address
+     * @return The recipient wallet address
+     */
+    public String getWalletAddress() {
+        return walletAddress;
+    }
+
+    /**
+     * Get the outbox state
+     * @return The outbox state
+     */
+    public String getState() {
+        return state;
+    }
+
+    /**
+     * Get the number of times the mint was submitted
+     * @return The number of attempts
+     */
+    public int getAttempts() {
+        return attempts;
+    }
+
+    /**
+     * Get the date the mint was requested
+     * @return The date the mint was requested
+     */
+    public Date getCreatedAt() {
+        return createdAt;
+    }
+}
@@ -0,0 +1,95 @@
+package com.minecraft.nftplugin.database;
+
+import com.minecraft.nftplugin.NFTPlugin;
+import com.zaxxer.hikari.HikariConfig;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * MySQL server backend
+ */
+public class MySqlDialect extends SqlDialect {
+
+    /**
+     * Constructor
+     * @param plugin The NFTPlugin instance
+     */
+    public MySqlDialect(NFTPlugin plugin) {
+        super(plugin);
+    }
+
+    @Override
+    public String getName() {
+        return "MySQL";
+    }
+
+    @Override
+    public void configure(HikariConfig config) {
+        // Get database configuration from config
+        String host = plugin.getConfigManager().getDatabaseHost();
+        int port = plugin.getConfigManager().getDatabasePort();
+        String database = plugin.getConfigManager().getDatabaseName();
+
+        config.setJdbcUrl("jdbc:mysql://" + host + ":" + port + "/" + database);
+        config.setUsername(plugin.getConfigManager().getDatabaseUsername());
+        config.setPassword(plugin.getConfigManager().getDatabasePassword());
+        config.setDriverClassName("com.mysql.cj.jdbc.Driver");
+
+        // Driver settings for high throughput; batch writes only become multi-row inserts with rewriteBatchedStatements
+        Map<String, String> properties = new LinkedHashMap<>();
+        properties.put("cachePrepStmts", "true");
+        properties.put("prepStmtCacheSize", "250");
+        properties.put("prepStmtCacheSqlLimit", "2048");
+        properties.put("useServerPrepStmts", "true");
+        properties.put("useLocalSessionState", "true");
+        properties.put("rewriteBatchedStatements", "true");
+        properties.put("cacheResultSetMetadata", "true");
+        properties.put("cacheServerConfiguration", "true");
+        properties.put("elideSetAutoCommits", "true");
+        properties.put("maintainTimeStats", "false");
+        properties.putAll(plugin.getConfigManager().getDatabaseDriverProperties());
+
+        for (Map.Entry<String, String> property : properties.entrySet()) {
+            config.addDataSourceProperty(property.getKey(), property.getValue());
+        }
+    }
+
+    @Override
+    public String getTableOptions() {
+        return " ENGINE=InnoDB DEFAULT CHARSET=utf8mb4";
+    }
+
+    @Override
+    public String getUpdateLimitClause(String orderColumn) {
+        return " ORDER BY " + orderColumn + " LIMIT ?";
+    }
+
+    @Override
+    public String getIndexName(String table, String index) {
+        // Index names are per table in MySQL
+        return index;
+    }
+
+    @Override
+    public String createIndex(String table, String index, String columns, boolean unique) {
+        return "ALTER TABLE " + table + " ADD " + (unique ? "UNIQUE " : "") + "INDEX " + index + " (" + columns + ")";
+    }
+
+    @Override
+    public String dropIndex(String table, String index) {
+        return "ALTER TABLE " + table + " DROP INDEX " + index;
+    }
+
+    @Override
+    public String getIndexExistsQuery() {
+        return "SELECT COUNT(*) FROM information_schema.STATISTICS " +
+                "WHERE TABLE_SCHEMA = DATABASE() AND TABLE_NAME = ? AND INDEX_NAME = ?";
+    }
+
+    @Override
+    public String getColumnExistsQuery() {
+        return "SELECT COUNT(*) FROM information_schema.COLUMNS " +
+                "WHERE TABLE_SCHEMA = DATABASE() AND TABLE_NAME = ? AND COLUMN_NAME = ?";
+    }
+}
@@ -0,0 +1,219 @@
+package com.minecraft.nftplugin.database;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Database state of an online player, loaded once when the player logs in.
+ * Reads are served from memory while the player is online. Progress changes are written through
+ * the ProgressLedger; minted and reset NFTs are written by the code that changes them and then
+ * applied here.
+ */
+public class PlayerSession {
+
+    private final UUID uuid;
+    private volatile String walletAddress;
+    private final Map<String, Integer> progress = new ConcurrentHashMap<>();
+    private final List<NFTData> nfts = new CopyOnWriteArrayList<>();
+    private final Map<String, NFTData> nftsById = new ConcurrentHashMap<>();
+    private final Map<String, NFTData> nftsByTransactionId = new ConcurrentHashMap<>();
+    private final Map<Integer, NFTData> inventory = new ConcurrentHashMap<>();
+
+    /**
+     * Constructor
+     * @param uuid The player's UUID
+     * @param walletAddress The registered wallet address, or null if none
+     * @param progress The achievement progress by achievement key
+     * @param nfts The player's NFTs, newest first
+     * @param inventory The NFTs in the player's NFT inventory by slot
+     */
+    public PlayerSession(UUID uuid, String walletAddress, Map<String, Integer> progress,
+                         List<NFTData> nfts, Map<Integer, NFTData> inventory) {
+        this.uuid = uuid;
+        this.walletAddress = walletAddress;
+        this.progress.putAll(progress);
+        this.nfts.addAll(nfts);
+        for (NFTData nft : nfts) {
+            index(nft);
+        }
+        this.inventory.putAll(inventory);
+    }
+
+    /**
+     * Get the player's UUID
+     * @return The player's UUID
+     */
+    public UUID getUuid() {
+        return uuid;
+    }
+
+    /**
+     * Check if the player has a registered wallet
+     * @return True if the player has a registered wallet
+     */
+    public boolean hasWallet() {
+        return walletAddress != null;
+    }
+
+    /**
+     * Get the player's registered wallet address
+     * @return The wallet address, or null if none
+     */
+    public String getWalletAddress() {
+        return walletAddress;
+    }
+
+    /**
+     * Get the stored progress for an achievement
+     * @param achievementKey The achievement key
+     * @return The progress, or 0 if there is none
+     */
+    public int getProgress(String achievementKey) {
+        return progress.getOrDefault(achievementKey, 0);
+    }
+
+    /**
+     * Update the stored progress for an achievement
+     * @param achievementKey The achievement key
+     * @param value The progress
+     */
+    public void setProgress(String achievementKey, int value) {
+        progress.put(achievementKey, value);
+    }
+
+    /**
+     * Get the player's NFTs
+     * @return The NFTs, newest first
+     */
+    public List<NFTData> getNfts() {
+        return Collections.unmodifiableList(new ArrayList<>(nfts));
+    }
+
+    /**
+     * Get one of the player's NFTs.
+     * Items given out before they carried the NFT ID hold the transaction ID instead, so that is looked up too.
+     * @param nftId The NFT ID, or the transaction ID of an older item
+     * @return The NFT, or null if the player does not own it
+     */
+    public NFTData getNft(String nftId) {
+        NFTData nft = nftsById.get(nftId);
+        return nft != null ? nft : nftsByTransactionId.get(nftId);
+    }
+
+    /**
+     * Add an NFT to the lookup maps
+     * @param nft The NFT
+     */
+    private void index(NFTData nft) {
+        nftsById.put(nft.getNftId(), nft);
+        if (nft.getTransactionId() != null) {
+            nftsByTransactionId.putIfAbsent(nft.getTransactionId(), nft);
+        }
+    }
+
+    /**
+     * Check if the player has an NFT for an achievement
+     * @param achievementKey The achievement key
+     * @return True if the player has the NFT
+     */
+    public boolean hasNft(String achievementKey) {
+        for (NFTData nft : nfts) {
+            if (nft.getAchievementKey().equals(achievementKey)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Add a newly minted NFT
+     * @param nft The NFT
+     */
+    public void addNft(NFTData nft) {
+        if (nftsById.containsKey(nft.getNftId())) {
+            return;
+        }
+        index(nft);
+        nfts.add(0, nft);
+    }
+
+    /**
+     * Forget the player's NFTs and progress for an achievement after it was reset
+     * @param achievementKey The achievement key
+     * @return The NFT IDs and transaction IDs of the forgotten NFTs, either can be the ID on an item
+     */
+    public Set<String> reset(String achievementKey) {
+        progress.remove(achievementKey);
+        Set<String> removed = new HashSet<>();
+        for (NFTData nft : nfts) {
+            if (nft.getAchievementKey().equals(achievementKey)) {
+                removed.add(nft.getNftId());
+                if (nft.getTransactionId() != null) {
+                    removed.add(nft.getTransactionId());
+                }
+            }
+        }
+        removeNfts(removed);
+        return removed;
+    }
+
+    /**
+     * Forget the player's progress for an achievement after it was reset
+     * @param achievementKey The achievement key
+     */
+    public void resetProgress(String achievementKey) {
+        progress.remove(achievementKey);
+    }
+
+    /**
+     * Forget NFTs that were revoked, including their inventory slots
+     * @param nftIds The revoked NFT IDs or transaction IDs
+     */
+    public void removeNfts(Set<String> nftIds) {
+        nfts.removeIf(nft -> matches(nft, nftIds));
+        nftsById.values().removeIf(nft -> matches(nft, nftIds));
+        nftsByTransactionId.values().removeIf(nft -> matches(nft, nftIds));
+        inventory.values().removeIf(nft -> matches(nft, nftIds));
+    }
+
+    /**
+     * Check if an NFT is known by one of a set of IDs
+     * @param nft The NFT
+     * @param ids The NFT IDs or transaction IDs
+     * @return True if the NFT ID or transaction ID is in the set
+     */
+    private static boolean matches(NFTData nft, Set<String> ids) {
+        return ids.contains(nft.getNftId()) || (nft.getTransactionId() != null && ids.contains(nft.getTransactionId()));
+    }
+
+    /**
+     * Replace one page of the player's NFT inventory after it was saved
+     * @param firstSlot The first slot of the page
+     * @param slotCount The number of slots in the page
+     * @param slots The NFT ID in each filled slot
+     */
+    public void setInventoryPage(int firstSlot, int slotCount, Map<Integer, String> slots) {
+        inventory.keySet().removeIf(slot -> slot >= firstSlot && slot < firstSlot + slotCount);
+        for (Map.Entry<Integer, String> entry : slots.entrySet()) {
+            NFTData nft = getNft(entry.getValue());
+            if (nft != null) {
+                inventory.put(entry.getKey(), nft);
+            }
+        }
+    }
+
+    /**
+     * Get the NFTs in the player's NFT inventory
+     * @return The NFTs by slot
+     */
+    public Map<Integer, NFTData> getInventory() {
+        return Collections.unmodifiableMap(inventory);
+    }
+}
@@ -0,0 +1,129 @@
+package com.minecraft.nftplugin.database;
+
+import com.minecraft.nftplugin.NFTPlugin;
+import org.bukkit.Bukkit;
+import org.bukkit.entity.Player;
+
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Keeps a PlayerSession for every online player.
+ * Sessions are loaded off the main thread before the player joins, so reads while the player is
+ * online never touch the database. Players without a session (for example after a failed load)
+ * fall back to AsyncDatabase.
+ */
+public class PlayerSessionManager {
+
+    private final NFTPlugin plugin;
+    private final Map<UUID, PlayerSession> sessions = new ConcurrentHashMap<>();
+
+    // Players whose session was preloaded for a login that has not reached PlayerLoginEvent yet
+    private final Set<UUID> pendingLogins = ConcurrentHashMap.newKeySet();
+
+    // How long a preload waits for the progress of the player's previous visit to be written
+    private static final long PROGRESS_WRITE_TIMEOUT_MILLIS = 5000;
+
+    /**
+     * Constructor
+     * @param plugin The NFTPlugin instance
+     */
+    public PlayerSessionManager(NFTPlugin plugin) {
+        this.plugin = plugin;
+    }
+
+    /**
+     * Load a player's session for a login. Until the login reaches PlayerLoginEvent, the session is kept
+     * when an older connection of the same player quits. Blocks; must not be called on the main thread.
+     * @param uuid The player's UUID
+     * @param playerName The player's name, for logging
+     */
+    public void preload(UUID uuid, String playerName) {
+        pendingLogins.add(uuid);
+        load(uuid, playerName);
+    }
+
+    /**
+     * Mark a preloaded login as finished, whether it was allowed or refused
+     * @param uuid The player's UUID
+     */
+    public void loginFinished(UUID uuid) {
+        pendingLogins.remove(uuid);
+    }
+
+    /**
+     * Load a player's session. Blocks; must not be called on the main thread.
+     * Progress buffered during the player's previous visit is written first, so it is not read back stale.
+     * @param uuid The player's UUID
+     * @param playerName The player's name, for logging
+     */
+    public void load(UUID uuid, String playerName) {
+        long start = System.currentTimeMillis();
+        plugin.getProgressLedger().awaitPlayerWrite(uuid, PROGRESS_WRITE_TIMEOUT_MILLIS);
+        PlayerSession session = plugin.getDatabaseManager().loadPlayerSession(uuid);
+        if (session == null) {
+            plugin.getLogger().warning("Could not preload data for " + playerName + "; it will be loaded on demand.");
+            return;
+        }
+
+        sessions.put(uuid, session);
+        plugin.getLogger().fine("Loaded session for " + playerName + " in " + (System.currentTimeMillis() - start) + "ms");
+    }
+
+    /**
+     * Load sessions for players who are already online, for example after a reload
+     */
+    public void loadOnlinePlayers() {
+        for (Player player : Bukkit.getOnlinePlayers()) {
+            UUID uuid = player.getUniqueId();
+            String name = player.getName();
+            plugin.getAsyncDatabase().supply(() -> {
+                load(uuid, name);
+                return null;
+            }).thenRun(() -> {
+                // Equipped NFT buffs are resolved from the session
+                if (plugin.isEnabled() && player.isOnline()) {
+                    plugin.getBuffRefreshScheduler().markDirty(player);
+                }
+            });
+        }
+    }
+
+    /**
+     * Get a player's session
+     * @param uuid The player's UUID
+     * @return The session, or null if it is not loaded
+     */
+    public PlayerSession getSession(UUID uuid) {
+        return sessions.get(uuid);
+    }
+
+    /**
+     * Forget a player's session
+     * @param uuid The player's UUID
+     */
+    public void unload(UUID uuid) {
+        sessions.remove(uuid);
+    }
+
+    /**
+     * Forget the session of a player who left, unless a newer login of the same player already loaded one,
+     * e.g. on a duplicate login or a fast relog
+     * @param uuid The player's UUID
+     */
+    public void unloadAfterQuit(UUID uuid) {
+        if (!pendingLogins.contains(uuid)) {
+            sessions.remove(uuid);
+        }
+    }
+
+    /**
+     * Get the number of loaded sessions
+     * @return The number of sessions
+     */
+    public int getSessionCount() {
+        return sessions.size();
+    }
+}
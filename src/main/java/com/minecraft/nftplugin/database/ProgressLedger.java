@@ -0,0 +1,362 @@
+package com.minecraft.nftplugin.database;
+
+import com.minecraft.nftplugin.NFTPlugin;
+import org.bukkit.Bukkit;
+import org.bukkit.scheduler.BukkitTask;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Write-behind buffer for achievement progress.
+ * Progress is kept in memory and only the latest value of each changed entry is written,
+ * in one batch per flush. Flushes run on a timer, when a player quits and right away when an
+ * achievement is completed. All methods except awaitPlayerWrite must be called on the main thread.
+ */
+public class ProgressLedger {
+
+    private final NFTPlugin plugin;
+    private final Map<Key, Entry> entries = new HashMap<>();
+    private final Map<Key, CompletableFuture<Integer>> loading = new HashMap<>();
+    // Writes of players who left, read by session preloads off the main thread
+    private final Map<UUID, CompletableFuture<Boolean>> playerWrites = new ConcurrentHashMap<>();
+    private CompletableFuture<Boolean> lastWrite = CompletableFuture.completedFuture(true);
+    private BukkitTask flushTask;
+
+    /**
+     * Constructor
+     * @param plugin The NFTPlugin instance
+     */
+    public ProgressLedger(NFTPlugin plugin) {
+        this.plugin = plugin;
+    }
+
+    /**
+     * Start flushing changed progress on a timer
+     */
+    public void start() {
+        long interval = Math.max(1, plugin.getConfigManager().getProgressFlushInterval());
+        flushTask = Bukkit.getScheduler().runTaskTimer(plugin, () -> flush(), interval, interval);
+    }
+
+    /**
+     * Get a player's progress for an achievement, loading it from the database if it is not cached
+     * @param uuid The player's UUID
+     * @param achievementKey The achievement key
+     * @return A CompletableFuture that completes on the main thread with the progress
+     */
+    public CompletableFuture<Integer> getProgress(UUID uuid, String achievementKey) {
+        Key key = new Key(uuid, achievementKey);
+        Entry entry = entries.get(key);
+        if (entry != null) {
+            return CompletableFuture.completedFuture(entry.progress);
+        }
+
+        // Online players have their progress preloaded
+        PlayerSession session = plugin.getPlayerSessionManager().getSession(uuid);
+        if (session != null) {
+            int progress = session.getProgress(achievementKey);
+            entries.put(key, new Entry(progress, false));
+            return CompletableFuture.completedFuture(progress);
+        }
+
+        CompletableFuture<Integer> pending = loading.get(key);
+        if (pending != null) {
+            return pending;
+        }
+
+        CompletableFuture<Integer> future = plugin.getAsyncDatabase().getAchievementProgress(uuid, achievementKey)
+                .thenApply(progress -> {
+                    loading.remove(key);
+
+                    // Progress set while the query was running is newer than the stored value
+                    Entry current = entries.get(key);
+                    if (current != null) {
+                        return current.progress;
+                    }
+
+                    entries.put(key, new Entry(progress, false));
+                    return progress;
+                });
+        if (!future.isDone()) {
+            loading.put(key, future);
+        }
+        return future;
+    }
+
+    /**
+     * Forget a player's cached progress for an achievement, for example after it was reset
+     * @param uuid The player's UUID
+     * @param achievementKey The achievement key
+     */
+    public void forget(UUID uuid, String achievementKey) {
+        Key key = new Key(uuid, achievementKey);
+        entries.remove(key);
+        loading.remove(key);
+    }
+
+    /**
+     * Set a player's progress for an achievement
+     * @param uuid The player's UUID
+     * @param achievementKey The achievement key
+     * @param progress The new progress
+     * @param completed Whether the achievement is completed
+     * @return A CompletableFuture that completes on the main thread with true once the progress is buffered,
+     *         or, for a completed achievement, once it is written to the database
+     */
+    public CompletableFuture<Boolean> setProgress(UUID uuid, String achievementKey, int progress, boolean completed) {
+        return setProgress(uuid, achievementKey, progress, completed, null);
+    }
+
+    /**
+     * Set a player's progress for an achievement
+     * @param uuid The player's UUID
+     * @param achievementKey The achievement key
+     * @param progress The new progress
+     * @param completed Whether the achievement is completed
+     * @param onCompleted Run on the main thread once the completion is written to the database, even if that
+     *                    only happens on a later flush because the first write failed. May be null.
+     * @return A CompletableFuture that completes on the main thread with true once the progress is buffered,
+     *         or, for a completed achievement, once it is written to the database
+     */
+    public CompletableFuture<Boolean> setProgress(UUID uuid, String achievementKey, int progress, boolean completed,
+                                                  Runnable onCompleted) {
+        Key key = new Key(uuid, achievementKey);
+        Entry entry = entries.computeIfAbsent(key, k -> new Entry(progress, completed));
+        entry.progress = progress;
+        entry.completed = entry.completed || completed;
+        entry.version++;
+        if (completed && onCompleted != null && entry.onCompleted == null) {
+            entry.onCompleted = onCompleted;
+        }
+
+        PlayerSession session = plugin.getPlayerSessionManager().getSession(uuid);
+        if (session != null) {
+            session.setProgress(achievementKey, progress);
+        }
+
+        // Completions are written right away so the NFT is never minted for unsaved progress
+        if (completed) {
+            return flush();
+        }
+        return CompletableFuture.completedFuture(true);
+    }
+
+    /**
+     * Write all changed progress to the database
+     * @return A CompletableFuture that completes on the main thread with true if the write succeeded
+     */
+    public CompletableFuture<Boolean> flush() {
+        return write(collectChanges(null));
+    }
+
+    /**
+     * Write a player's changed progress and forget it once it is saved
+     * @param uuid The player's UUID
+     */
+    public void flushPlayer(UUID uuid) {
+        CompletableFuture<Boolean> write = write(collectChanges(uuid));
+        if (!write.isDone()) {
+            playerWrites.put(uuid, write);
+        }
+        write.thenAccept(saved -> {
+            playerWrites.remove(uuid, write);
+
+            // Keep the entries if the player came back or changed them while the write was running
+            if (Bukkit.getPlayer(uuid) != null) {
+                return;
+            }
+            entries.entrySet().removeIf(e -> e.getKey().uuid.equals(uuid) && !e.getValue().isDirty());
+        });
+    }
+
+    /**
+     * Wait for the write started when a player left, so their progress can be loaded again.
+     * Blocks; must not be called on the main thread, which completes the write.
+     * @param uuid The player's UUID
+     * @param timeoutMillis The maximum time to wait in milliseconds
+     */
+    public void awaitPlayerWrite(UUID uuid, long timeoutMillis) {
+        CompletableFuture<Boolean> write = playerWrites.get(uuid);
+        if (write == null) {
+            return;
+        }
+
+        try {
+            write.get(timeoutMillis, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException | TimeoutException e) {
+            plugin.getLogger().warning("Progress of " + uuid + " may not be saved yet: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Write all changed progress on the calling thread. Used when the plugin is disabled,
+     * after the database executor has finished.
+     */
+    public void shutdown() {
+        if (flushTask != null) {
+            flushTask.cancel();
+            flushTask = null;
+        }
+
+        // Completions saved here are not rewarded, nothing can be minted while the plugin is disabled
+        Changes changes = collectChanges(null);
+        if (!changes.updates.isEmpty() && plugin.getDatabaseManager().updateAchievementProgressBatch(changes.updates)) {
+            changes.markSaved(false);
+        }
+    }
+
+    /**
+     * Collect the entries that changed since they were last written
+     * @param uuid Only collect this player's entries, or null for all players
+     * @return The changes
+     */
+    private Changes collectChanges(UUID uuid) {
+        Changes changes = new Changes();
+        for (Map.Entry<Key, Entry> e : entries.entrySet()) {
+            Entry entry = e.getValue();
+            if (entry.isDirty() && (uuid == null || e.getKey().uuid.equals(uuid))) {
+                changes.updates.add(new AchievementProgress(e.getKey().uuid, e.getKey().achievementKey, entry.progress, entry.completed));
+                changes.entries.add(entry);
+                changes.versions.add(entry.version);
+            }
+        }
+        return changes;
+    }
+
+    /**
+     * Write changes on the database executor
+     * @param changes The changes
+     * @return A CompletableFuture that completes on the main thread with true if the write succeeded
+     */
+    private CompletableFuture<Boolean> write(Changes changes) {
+        if (changes.updates.isEmpty()) {
+            return CompletableFuture.completedFuture(true);
+        }
+
+        // Writes run one after another so an older value never overwrites a newer one
+        lastWrite = lastWrite.handle((saved, error) -> null)
+                .thenCompose(ignored -> plugin.getAsyncDatabase().supply(
+                        () -> plugin.getDatabaseManager().updateAchievementProgressBatch(changes.updates)))
+                .thenApply(saved -> {
+                    // Failed writes stay dirty and are retried on the next flush, including pending completions
+                    if (saved) {
+                        changes.markSaved(true);
+                    }
+                    return saved;
+                });
+        return lastWrite;
+    }
+
+    /**
+     * Get the number of cached progress entries
+     * @return The number of entries
+     */
+    public int getCachedCount() {
+        return entries.size();
+    }
+
+    /**
+     * Get the number of entries waiting to be written
+     * @return The number of changed entries
+     */
+    public int getDirtyCount() {
+        int count = 0;
+        for (Entry entry : entries.values()) {
+            if (entry.isDirty()) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * A batch of changed entries and the versions that were written
+     */
+    private static class Changes {
+        private final List<AchievementProgress> updates = new ArrayList<>();
+        private final List<Entry> entries = new ArrayList<>();
+        private final List<Long> versions = new ArrayList<>();
+
+        /**
+         * Record that the changes were written
+         * @param notify Whether to run the listeners of completions that were written
+         */
+        private void markSaved(boolean notify) {
+            for (int i = 0; i < entries.size(); i++) {
+                Entry entry = entries.get(i);
+                entry.savedVersion = Math.max(entry.savedVersion, versions.get(i));
+
+                if (updates.get(i).isCompleted() && entry.onCompleted != null) {
+                    Runnable onCompleted = entry.onCompleted;
+                    entry.onCompleted = null;
+                    if (notify) {
+                        onCompleted.run();
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Cached progress for one player and achievement
+     */
+    private static class Entry {
+        private int progress;
+        private boolean completed;
+        private long version;
+        private long savedVersion;
+        // Waits for the completion to be written
+        private Runnable onCompleted;
+
+        private Entry(int progress, boolean completed) {
+            this.progress = progress;
+            this.completed = completed;
+        }
+
+        private boolean isDirty() {
+            return version != savedVersion;
+        }
+    }
+
+    /**
+     * Cache key of a player and achievement
+     */
+    private static class Key {
+        private final UUID uuid;
+        private final String achievementKey;
+
+        private Key(UUID uuid, String achievementKey) {
+            this.uuid = uuid;
+            this.achievementKey = achievementKey;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof Key)) {
+                return false;
+            }
+            Key other = (Key) o;
+            return uuid.equals(other.uuid) && achievementKey.equals(other.achievementKey);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(uuid, achievementKey);
+        }
+    }
+}
@@ -0,0 +1,354 @@
+package com.minecraft.nftplugin.database;
+
+import com.minecraft.nftplugin.NFTPlugin;
+import com.minecraft.nftplugin.utils.LatencyHistogram;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.Statement;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Statement timing for DatabaseManager.
+ * Connections handed out for an operation are wrapped so every statement executed on them is timed
+ * and recorded under the operation name. Statements slower than the configured threshold are logged
+ * and kept for the dump. Durations are recorded in microseconds.
+ */
+public class QueryMetrics {
+
+    // Upper bounds of the buckets in microseconds; the last bucket holds everything above
+    private static final long[] BOUNDS = {100, 250, 500, 1000, 2500, 5000, 10000, 25000, 50000, 100000, 250000, 500000, 1000000, 5000000};
+    private static final int MAX_SLOW_QUERIES = 50;
+
+    private final NFTPlugin plugin;
+    private final long slowThresholdMicros;
+    private final Map<String, OperationCounters> operations = new ConcurrentHashMap<>();
+    private final LatencyHistogram acquire = new LatencyHistogram(BOUNDS);
+    private final Deque<SlowQuery> slowQueries = new ArrayDeque<>();
+    private volatile long startedAt = System.currentTimeMillis();
+
+    /**
+     * Constructor
+     * @param plugin The NFTPlugin instance
+     */
+    public QueryMetrics(NFTPlugin plugin) {
+        this.plugin = plugin;
+        this.slowThresholdMicros = plugin.getConfigManager().getSlowQueryThreshold() * 1000L;
+    }
+
+    /**
+     * Wrap a connection so the statements executed on it are recorded under an operation
+     * @param operation The operation name, usually the DatabaseManager method
+     * @param connection The pooled connection
+     * @return The wrapped connection
+     */
+    public Connection wrap(String operation, Connection connection) {
+        return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(),
+                new Class<?>[] {Connection.class}, new ConnectionHandler(operation, connection));
+    }
+
+    /**
+     * Record how long it took to get a connection from the pool
+     * @param micros The duration in microseconds
+     */
+    public void recordAcquire(long micros) {
+        acquire.record(micros);
+    }
+
+    /**
+     * Record one executed statement
+     * @param operation The operation name
+     * @param sql The statement, or null if unknown
+     * @param micros The duration in microseconds
+     * @param failed Whether the statement threw an exception
+     */
+    public void record(String operation, String sql, long micros, boolean failed) {
+        OperationCounters counters = operations.computeIfAbsent(operation, o -> new OperationCounters());
+        counters.latency.record(micros);
+        if (failed) {
+            counters.errors.incrementAndGet();
+        }
+
+        if (slowThresholdMicros > 0 && micros >= slowThresholdMicros) {
+            plugin.getLogger().warning("Slow query in " + operation + " (" + (micros / 1000) + "ms): " + sql);
+            synchronized (slowQueries) {
+                slowQueries.addFirst(new SlowQuery(System.currentTimeMillis(), operation, sql, micros));
+                while (slowQueries.size() > MAX_SLOW_QUERIES) {
+                    slowQueries.removeLast();
+                }
+            }
+        }
+    }
+
+    /**
+     * Clear all metrics
+     */
+    public void reset() {
+        operations.clear();
+        synchronized (slowQueries) {
+            slowQueries.clear();
+        }
+        startedAt = System.currentTimeMillis();
+    }
+
+    /**
+     * Get the slow query threshold
+     * @return The threshold in milliseconds, 0 if slow queries are not logged
+     */
+    public long getSlowThresholdMillis() {
+        return slowThresholdMicros / 1000;
+    }
+
+    /**
+     * Take a snapshot of the current metrics
+     * @return The snapshot
+     */
+    public Snapshot snapshot() {
+        Map<String, OperationStats> operationStats = new TreeMap<>();
+        for (Map.Entry<String, OperationCounters> entry : operations.entrySet()) {
+            OperationCounters counters = entry.getValue();
+            operationStats.put(entry.getKey(), new OperationStats(counters.latency.snapshot(), counters.errors.get()));
+        }
+
+        List<SlowQuery> slow;
+        synchronized (slowQueries) {
+            slow = new ArrayList<>(slowQueries);
+        }
+
+        return new Snapshot(System.currentTimeMillis() - startedAt, Collections.unmodifiableMap(operationStats),
+                acquire.snapshot(), Collections.unmodifiableList(slow));
+    }
+
+    /**
+     * Call a method on the wrapped object and unwrap the exception it throws
+     * @param target The wrapped object
+     * @param method The method
+     * @param args The arguments
+     * @return The result
+     * @throws Throwable The exception thrown by the method
+     */
+    private static Object invoke(Object target, Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw e.getCause();
+        }
+    }
+
+    /**
+     * Wraps the statements created on a connection
+     */
+    private class ConnectionHandler implements InvocationHandler {
+        private final String operation;
+        private final Connection connection;
+
+        private ConnectionHandler(String operation, Connection connection) {
+            this.operation = operation;
+            this.connection = connection;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            Object result = QueryMetrics.invoke(connection, method, args);
+
+            if (result instanceof PreparedStatement && method.getName().equals("prepareStatement")) {
+                return Proxy.newProxyInstance(PreparedStatement.class.getClassLoader(), new Class<?>[] {PreparedStatement.class},
+                        new StatementHandler(operation, (String) args[0], (Statement) result));
+            }
+            if (result instanceof Statement && method.getName().equals("createStatement")) {
+                return Proxy.newProxyInstance(Statement.class.getClassLoader(), new Class<?>[] {Statement.class},
+                        new StatementHandler(operation, null, (Statement) result));
+            }
+            return result;
+        }
+    }
+
+    /**
+     * Times the execute methods of a statement
+     */
+    private class StatementHandler implements InvocationHandler {
+        private final String operation;
+        private final String sql;
+        private final Statement statement;
+
+        private StatementHandler(String operation, String sql, Statement statement) {
+            this.operation = operation;
+            this.sql = sql;
+            this.statement = statement;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            if (!method.getName().startsWith("execute")) {
+                return QueryMetrics.invoke(statement, method, args);
+            }
+
+            String executed = args != null && args.length > 0 && args[0] instanceof String ? (String) args[0] : sql;
+            long start = System.nanoTime();
+            boolean failed = true;
+            try {
+                Object result = QueryMetrics.invoke(statement, method, args);
+                failed = false;
+                return result;
+            } finally {
+                record(operation, executed, (System.nanoTime() - start) / 1000, failed);
+            }
+        }
+    }
+
+    /**
+     * Live counters for one operation
+     */
+    private static class OperationCounters {
+        private final LatencyHistogram latency = new LatencyHistogram(BOUNDS);
+        private final AtomicLong errors = new AtomicLong();
+    }
+
+    /**
+     * Statement timings for one operation
+     */
+    public static class OperationStats {
+        private final LatencyHistogram.Snapshot latency;
+        private final long errors;
+
+        private OperationStats(LatencyHistogram.Snapshot latency, long errors) {
+            this.latency = latency;
+            this.errors = errors;
+        }
+
+        /**
+         * Get the statement latency
+         * @return The latency histogram in microseconds
+         */
+        public LatencyHistogram.Snapshot getLatency() {
+            return latency;
+        }
+
+        /**
+         * Get the number of statements that threw an exception
+         * @return The number of errors
+         */
+        public long getErrors() {
+            return errors;
+        }
+
+        /**
+         * Get the estimated total time spent in the operation's statements
+         * @return The total in microseconds
+         */
+        public long getTotalMicros() {
+            return latency.getMean() * latency.getCount();
+        }
+    }
+
+    /**
+     * A statement that took longer than the slow query threshold
+     */
+    public static class SlowQuery {
+        private final long timestamp;
+        private final String operation;
+        private final String sql;
+        private final long micros;
+
+        private SlowQuery(long timestamp, String operation, String sql, long micros) {
+            this.timestamp = timestamp;
+            this.operation = operation;
+            this.sql = sql;
+            this.micros = micros;
+        }
+
+        /**
+         * Get when the statement finished
+         * @return The time in epoch milliseconds
+         */
+        public long getTimestamp() {
+            return timestamp;
+        }
+
+        /**
+         * Get the operation that ran the statement
+         * @return The operation name
+         */
+        public String getOperation() {
+            return operation;
+        }
+
+        /**
+         * Get the statement
+         * @return The SQL, or null if unknown
+         */
+        public String getSql() {
+            return sql;
+        }
+
+        /**
+         * Get how long the statement took
+         * @return The duration in microseconds
+         */
+        public long getMicros() {
+            return micros;
+        }
+    }
+
+    /**
+     * Immutable copy of the metrics
+     */
+    public static class Snapshot {
+        private final long periodMillis;
+        private final Map<String, OperationStats> operations;
+        private final LatencyHistogram.Snapshot acquire;
+        private final List<SlowQuery> slowQueries;
+
+        private Snapshot(long periodMillis, Map<String, OperationStats> operations,
+                         LatencyHistogram.Snapshot acquire, List<SlowQuery> slowQueries) {
+            this.periodMillis = periodMillis;
+            this.operations = operations;
+            this.acquire = acquire;
+            this.slowQueries = slowQueries;
+        }
+
+        /**
+         * Get the time covered by the snapshot
+         * @return The period in milliseconds
+         */
+        public long getPeriodMillis() {
+            return periodMillis;
+        }
+
+        /**
+         * Get the statement timings by operation
+         * @return The timings, sorted by operation name
+         */
+        public Map<String, OperationStats> getOperations() {
+            return operations;
+        }
+
+        /**
+         * Get the time spent waiting for a pooled connection, since startup
+         * @return The latency histogram in microseconds
+         */
+        public LatencyHistogram.Snapshot getAcquire() {
+            return acquire;
+        }
+
+        /**
+         * Get the most recent slow queries
+         * @return The slow queries, newest first
+         */
+        public List<SlowQuery> getSlowQueries() {
+            return slowQueries;
+        }
+    }
+}
@@ -0,0 +1,266 @@
+package com.minecraft.nftplugin.database;
+
+import com.minecraft.nftplugin.NFTPlugin;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.logging.Level;
+
+/**
+ * Versioned schema migrations.
+ * The applied versions are recorded in the schema_version table and every migration newer than the
+ * latest applied one runs once, in order. Migrations check the current schema before changing it,
+ * so databases that were upgraded by hand before versioning existed are handled too.
+ */
+public class SchemaMigrator {
+
+    private final NFTPlugin plugin;
+    private final DatabaseManager databaseManager;
+    private final SqlDialect dialect;
+    private final String versionTable;
+    private final List<Migration> migrations = new ArrayList<>();
+
+    /**
+     * Constructor
+     * @param plugin The NFTPlugin instance
+     * @param databaseManager The database manager
+     * @param tablePrefix The table prefix
+     */
+    public SchemaMigrator(NFTPlugin plugin, DatabaseManager databaseManager, String tablePrefix) {
+        this.plugin = plugin;
+        this.databaseManager = databaseManager;
+        this.dialect = databaseManager.getDialect();
+        this.versionTable = tablePrefix + "schema_version";
+
+        registerMigrations();
+    }
+
+    /**
+     * Register all migrations in version order. Never change or reorder a released migration; add a new one.
+     */
+    private void registerMigrations() {
+        String nftTable = databaseManager.getNftTable();
+        String nftInventoryTable = databaseManager.getNftInventoryTable();
+        String mintOutboxTable = databaseManager.getMintOutboxTable();
+        String walletTable = databaseManager.getWalletTable();
+        String achievementTable = databaseManager.getAchievementTable();
+
+        add(1, "Allow an NFT in more than one inventory slot", conn -> {
+            if (indexExists(conn, nftInventoryTable, "unique_nft_id")) {
+                execute(conn, dialect.dropIndex(nftInventoryTable, "unique_nft_id"));
+            }
+        });
+
+        add(2, "Add next_attempt_at to the mint outbox", conn -> {
+            if (!columnExists(conn, mintOutboxTable, "next_attempt_at")) {
+                execute(conn, "ALTER TABLE " + mintOutboxTable + " ADD COLUMN next_attempt_at TIMESTAMP NULL AFTER last_error");
+            }
+        });
+
+        add(3, "Index NFTs by NFT ID, owner and achievement, and owner and mint date", conn -> {
+            if (!indexExists(conn, nftTable, "unique_nft_id")) {
+                if (hasDuplicateNftIds(conn, nftTable)) {
+                    plugin.getLogger().warning(nftTable + " has duplicate nft_id values; adding a non-unique index instead.");
+                    execute(conn, dialect.createIndex(nftTable, "unique_nft_id", "nft_id", false));
+                } else {
+                    execute(conn, dialect.createIndex(nftTable, "unique_nft_id", "nft_id", true));
+                }
+            }
+            addIndex(conn, nftTable, "idx_uuid_achievement", "uuid, achievement_key");
+            addIndex(conn, nftTable, "idx_uuid_minted_at", "uuid, minted_at");
+        });
+
+        add(4, "Index wallets by player name", conn ->
+                addIndex(conn, walletTable, "idx_player_name", "player_name"));
+
+        add(5, "Index NFT inventory by NFT ID", conn ->
+                addIndex(conn, nftInventoryTable, "idx_nft_id", "nft_id"));
+
+        add(6, "Index NFTs and progress by achievement for bulk resets", conn -> {
+            addIndex(conn, nftTable, "idx_achievement", "achievement_key, id");
+            addIndex(conn, achievementTable, "idx_achievement", "achievement_key, id");
+        });
+
+        add(7, "Add claimed_at to the mint outbox", conn -> {
+            if (!columnExists(conn, mintOutboxTable, "claimed_at")) {
+                execute(conn, "ALTER TABLE " + mintOutboxTable + " ADD COLUMN claimed_at TIMESTAMP NULL AFTER claim_token");
+            }
+        });
+    }
+
+    /**
+     * Register a migration
+     * @param version The schema version the migration brings the database to
+     * @param description A short description
+     * @param step The migration
+     */
+    private void add(int version, String description, MigrationStep step) {
+        migrations.add(new Migration(version, description, step));
+    }
+
+    /**
+     * Apply all migrations that have not been applied yet
+     * @return True if the schema is up to date, false if a migration failed
+     */
+    public boolean migrate() {
+        try (Connection conn = databaseManager.getConnection("migrateSchema")) {
+            execute(conn, "CREATE TABLE IF NOT EXISTS " + versionTable + " (" +
+                    "version INT PRIMARY KEY, " +
+                    "description VARCHAR(128) NOT NULL, " +
+                    "applied_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP" +
+                    ")" + dialect.getTableOptions());
+
+            int current = getCurrentVersion(conn);
+            for (Migration migration : migrations) {
+                if (migration.version <= current) {
+                    continue;
+                }
+
+                plugin.getLogger().info("Migrating database to version " + migration.version + ": " + migration.description);
+                long start = System.currentTimeMillis();
+                migration.step.apply(conn);
+
+                try (PreparedStatement stmt = conn.prepareStatement(
+                        "INSERT INTO " + versionTable + " (version, description) VALUES (?, ?)")) {
+                    stmt.setInt(1, migration.version);
+                    stmt.setString(2, migration.description);
+                    stmt.executeUpdate();
+                }
+
+                plugin.getLogger().info("Database is at version " + migration.version +
+                        " (" + (System.currentTimeMillis() - start) + "ms)");
+            }
+
+            return true;
+        } catch (SQLException e) {
+            plugin.log(Level.SEVERE, "Failed to migrate database schema: " + e.getMessage());
+            return false;
+        }
+    }
+
+    /**
+     * Get the latest applied schema version
+     * @param conn The connection
+     * @return The version, or 0 if no migration has been applied
+     * @throws SQLException If an error occurs
+     */
+    private int getCurrentVersion(Connection conn) throws SQLException {
+        try (PreparedStatement stmt = conn.prepareStatement("SELECT MAX(version) FROM " + versionTable);
+             ResultSet rs = stmt.executeQuery()) {
+            return rs.next() ? rs.getInt(1) : 0;
+        }
+    }
+
+    /**
+     * Get the latest migration version this plugin knows about
+     * @return The version
+     */
+    public int getLatestVersion() {
+        return migrations.isEmpty() ? 0 : migrations.get(migrations.size() - 1).version;
+    }
+
+    /**
+     * Add an index if it does not exist
+     * @param conn The connection
+     * @param table The table
+     * @param index The index name
+     * @param columns The indexed columns
+     * @throws SQLException If an error occurs
+     */
+    private void addIndex(Connection conn, String table, String index, String columns) throws SQLException {
+        if (!indexExists(conn, table, index)) {
+            execute(conn, dialect.createIndex(table, index, columns, false));
+        }
+    }
+
+    /**
+     * Check if an index exists
+     * @param conn The connection
+     * @param table The table
+     * @param index The index name
+     * @return True if the index exists
+     * @throws SQLException If an error occurs
+     */
+    private boolean indexExists(Connection conn, String table, String index) throws SQLException {
+        try (PreparedStatement stmt = conn.prepareStatement(dialect.getIndexExistsQuery())) {
+            stmt.setString(1, table);
+            stmt.setString(2, dialect.getIndexName(table, index));
+
+            try (ResultSet rs = stmt.executeQuery()) {
+                return rs.next() && rs.getInt(1) > 0;
+            }
+        }
+    }
+
+    /**
+     * Check if a column exists
+     * @param conn The connection
+     * @param table The table
+     * @param column The column name
+     * @return True if the column exists
+     * @throws SQLException If an error occurs
+     */
+    private boolean columnExists(Connection conn, String table, String column) throws SQLException {
+        try (PreparedStatement stmt = conn.prepareStatement(dialect.getColumnExistsQuery())) {
+            stmt.setString(1, table);
+            stmt.setString(2, column);
+
+            try (ResultSet rs = stmt.executeQuery()) {
+                return rs.next() && rs.getInt(1) > 0;
+            }
+        }
+    }
+
+    /**
+     * Check if any NFT ID is recorded more than once
+     * @param conn The connection
+     * @param nftTable The NFT table
+     * @return True if there are duplicates
+     * @throws SQLException If an error occurs
+     */
+    private boolean hasDuplicateNftIds(Connection conn, String nftTable) throws SQLException {
+        try (PreparedStatement stmt = conn.prepareStatement(
+                "SELECT 1 FROM " + nftTable + " GROUP BY nft_id HAVING COUNT(*) > 1 LIMIT 1");
+             ResultSet rs = stmt.executeQuery()) {
+            return rs.next();
+        }
+    }
+
+    /**
+     * Execute a statement
+     * @param conn The connection
+     * @param sql The statement
+     * @throws SQLException If an error occurs
+     */
+    private void execute(Connection conn, String sql) throws SQLException {
+        try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+            stmt.executeUpdate();
+        }
+    }
+
+    /**
+     * A single schema change
+     */
+    private interface MigrationStep {
+        void apply(Connection conn) throws SQLException;
+    }
+
+    /**
+     * A registered migration
+     */
+    private static class Migration {
+        private final int version;
+        private final String description;
+        private final MigrationStep step;
+
+        private Migration(int version, String description, MigrationStep step) {
+            this.version = version;
+            this.description = description;
+            this.step = step;
+        }
+    }
+}
@@ -0,0 +1,105 @@
+package com.minecraft.nftplugin.database;
+
+import com.minecraft.nftplugin.NFTPlugin;
+import com.zaxxer.hikari.HikariConfig;
+
+/**
+ * The SQL that differs between storage backends: connection setup, table options,
+ * index DDL and schema lookups.
+ * CREATE TABLE statements, queries and upserts are not part of the dialect. They are written once in
+ * MySQL syntax (INSERT ... ON DUPLICATE KEY UPDATE with VALUES()), and embedded backends must run them
+ * in MySQL compatibility mode, as H2 does with MODE=MySQL. A backend without such a mode, like SQLite,
+ * would need the upserts moved into the dialect first, which is why H2 is the only embedded backend.
+ */
+public abstract class SqlDialect {
+
+    protected final NFTPlugin plugin;
+
+    /**
+     * Constructor
+     * @param plugin The NFTPlugin instance
+     */
+    protected SqlDialect(NFTPlugin plugin) {
+        this.plugin = plugin;
+    }
+
+    /**
+     * Get the dialect for a storage type
+     * @param plugin The NFTPlugin instance
+     * @param type The storage type from the config (mysql or h2)
+     * @return The dialect, MySQL for unknown types
+     */
+    public static SqlDialect forType(NFTPlugin plugin, String type) {
+        if ("h2".equalsIgnoreCase(type)) {
+            return new H2Dialect(plugin);
+        }
+
+        if (!"mysql".equalsIgnoreCase(type)) {
+            plugin.getLogger().warning("Unknown database type '" + type + "', using MySQL.");
+        }
+        return new MySqlDialect(plugin);
+    }
+
+    /**
+     * Get the name of the backend
+     * @return The name
+     */
+    public abstract String getName();
+
+    /**
+     * Set the JDBC URL, driver, credentials and driver properties
+     * @param config The pool configuration
+     */
+    public abstract void configure(HikariConfig config);
+
+    /**
+     * Get the options appended to CREATE TABLE statements
+     * @return The table options, may be empty
+     */
+    public abstract String getTableOptions();
+
+    /**
+     * Get the clause that limits an UPDATE to the first rows by a column
+     * @param orderColumn The column that orders the rows
+     * @return The clause, taking the row limit as a parameter
+     */
+    public abstract String getUpdateLimitClause(String orderColumn);
+
+    /**
+     * Get the name an index is stored under
+     * @param table The table
+     * @param index The index name
+     * @return The stored index name
+     */
+    public abstract String getIndexName(String table, String index);
+
+    /**
+     * Get the statement that creates an index
+     * @param table The table
+     * @param index The index name
+     * @param columns The indexed columns
+     * @param unique Whether the index is unique
+     * @return The statement
+     */
+    public abstract String createIndex(String table, String index, String columns, boolean unique);
+
+    /**
+     * Get the statement that drops an index
+     * @param table The table
+     * @param index The index name
+     * @return The statement
+     */
+    public abstract String dropIndex(String table, String index);
+
+    /**
+     * Get the query that counts indexes by table and stored index name
+     * @return The query
+     */
+    public abstract String getIndexExistsQuery();
+
+    /**
+     * Get the query that counts columns by table and column name
+     * @return The query
+     */
+    public abstract String getColumnExistsQuery();
+}
@@ -12,7 +12,9 @@ import org.bukkit.event.player.PlayerJoinEvent;
 import org.bukkit.event.player.PlayerQuitEvent;
 
 /**
- * Listener for buff-related events
+ * Listener for buff-related events.
+ * Events only mark the player for a refresh, which runs once per player on the next tick
+ * (after picked up and dropped items have actually moved).
  */
 public class BuffListener implements Listener {
 
@@ -28,7 +30,7 @@ public class BuffListener implements Listener {
     @EventHandler(priority = EventPriority.NORMAL)
     public void onPlayerJoin(PlayerJoinEvent event) {
         Player player = event.getPlayer();
-        plugin.getBuffManager().updatePlayerBuffs(player);
+        plugin.getBuffRefreshScheduler().markDirty(player);
     }
 
     /**
@@ -37,7 +39,8 @@ public class BuffListener implements Listener {
     @EventHandler(priority = EventPriority.NORMAL)
     public void onPlayerQuit(PlayerQuitEvent event) {
         Player player = event.getPlayer();
-        plugin.getBuffManager().updatePlayerBuffs(player);
+        plugin.getBuffRefreshScheduler().forget(player.getUniqueId());
+        plugin.getBuffManager().clearPlayerBuffs(player);
     }
 
     /**
@@ -47,7 +50,7 @@ public class BuffListener implements Listener {
     public void onInventoryClose(InventoryCloseEvent event) {
         if (event.getPlayer() instanceof Player) {
             Player player = (Player) event.getPlayer();
-            plugin.getBuffManager().updatePlayerBuffs(player);
+            plugin.getBuffRefreshScheduler().markDirty(player);
         }
     }
 
@@ -58,7 +61,7 @@ public class BuffListener implements Listener {
     public void onEntityPickupItem(EntityPickupItemEvent event) {
         if (event.getEntity() instanceof Player) {
             Player player = (Player) event.getEntity();
-            plugin.getBuffManager().updatePlayerBuffs(player);
+            plugin.getBuffRefreshScheduler().markDirty(player);
         }
     }
 
@@ -68,6 +71,6 @@ public class BuffListener implements Listener {
     @EventHandler(priority = EventPriority.NORMAL)
     public void onPlayerDropItem(PlayerDropItemEvent event) {
         Player player = event.getPlayer();
-        plugin.getBuffManager().updatePlayerBuffs(player);
+        plugin.getBuffRefreshScheduler().markDirty(player);
     }
 }
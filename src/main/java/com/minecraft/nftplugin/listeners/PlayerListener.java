@@ -1,13 +1,17 @@
 package com.minecraft.nftplugin.listeners;
 
 import com.minecraft.nftplugin.NFTPlugin;
+import com.minecraft.nftplugin.database.PlayerSession;
 import org.bukkit.Bukkit;
 import org.bukkit.entity.Player;
 import org.bukkit.event.EventHandler;
 import org.bukkit.event.EventPriority;
 import org.bukkit.event.Listener;
 import org.bukkit.event.entity.PlayerDeathEvent;
+import org.bukkit.event.player.AsyncPlayerPreLoginEvent;
 import org.bukkit.event.player.PlayerJoinEvent;
+import org.bukkit.event.player.PlayerLoginEvent;
+import org.bukkit.event.player.PlayerQuitEvent;
 import org.bukkit.event.player.PlayerRespawnEvent;
 import org.bukkit.inventory.ItemStack;
 
@@ -26,6 +30,36 @@ public class PlayerListener implements Listener {
         this.plugin = plugin;
     }
 
+    /**
+     * Load the player's data before they join, while the server is not waiting on it
+     */
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onAsyncPlayerPreLogin(AsyncPlayerPreLoginEvent event) {
+        if (event.getLoginResult() != AsyncPlayerPreLoginEvent.Result.ALLOWED) {
+            return;
+        }
+
+        plugin.getPlayerSessionManager().preload(event.getUniqueId(), event.getName());
+    }
+
+    /**
+     * Drop the data loaded before login if the player is not allowed to join, e.g. because of a ban,
+     * the whitelist or a full server. No quit event follows a refused login.
+     */
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onPlayerLogin(PlayerLoginEvent event) {
+        UUID uuid = event.getPlayer().getUniqueId();
+        plugin.getPlayerSessionManager().loginFinished(uuid);
+        if (event.getResult() == PlayerLoginEvent.Result.ALLOWED) {
+            return;
+        }
+
+        // Keep the session of a player who is still online with the same account
+        if (Bukkit.getPlayer(uuid) == null) {
+            plugin.getPlayerSessionManager().unload(uuid);
+        }
+    }
+
     /**
      * Send a welcome message to players when they join
      */
@@ -34,12 +68,42 @@ public class PlayerListener implements Listener {
         Player player = event.getPlayer();
 
         // Check if the player has a registered wallet
-        if (!plugin.getDatabaseManager().hasWallet(player.getUniqueId())) {
+        PlayerSession session = plugin.getPlayerSessionManager().getSession(player.getUniqueId());
+        if (session != null) {
+            sendWalletReminder(player, session.hasWallet());
+            return;
+        }
+
+        plugin.getAsyncDatabase().hasWallet(player.getUniqueId()).thenAccept(hasWallet -> {
+            if (player.isOnline()) {
+                sendWalletReminder(player, hasWallet);
+            }
+        });
+    }
+
+    /**
+     * Remind a player to register their wallet if they have not
+     * @param player The player
+     * @param hasWallet Whether the player has a registered wallet
+     */
+    private void sendWalletReminder(Player player, boolean hasWallet) {
+        if (!hasWallet) {
             player.sendMessage(plugin.getConfigManager().getMessage("prefix") + "§eWelcome! You need to register your Solana wallet to earn NFTs.");
             player.sendMessage(plugin.getConfigManager().getMessage("prefix") + "§eUse §6/registerwallet <SOL_ADDRESS>§e to register your wallet.");
         }
     }
 
+    /**
+     * Write a player's buffered achievement progress and drop their session when they leave.
+     * On a duplicate login or a fast relog, the new connection's session is already loaded and is kept.
+     */
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onPlayerQuit(PlayerQuitEvent event) {
+        UUID uuid = event.getPlayer().getUniqueId();
+        plugin.getProgressLedger().flushPlayer(uuid);
+        plugin.getPlayerSessionManager().unloadAfterQuit(uuid);
+    }
+
     /**
      * Prevent NFT items from being dropped on death
      */
@@ -31,6 +31,7 @@ public class MetadataManager {
     private final NFTPlugin plugin;
     private final Gson gson;
     private final Map<String, JsonObject> metadataCache;
+    private final UploadCache uploadCache;
 
     /**
      * Constructor
@@ -40,11 +41,20 @@ public class MetadataManager {
         this.plugin = plugin;
         this.gson = new Gson();
         this.metadataCache = new HashMap<>();
+        this.uploadCache = new UploadCache(plugin);
 
         // Initialize metadata
         loadAllMetadata();
     }
 
+    /**
+     * Get the cache of uploaded images and metadata
+     * @return The upload cache
+     */
+    public UploadCache getUploadCache() {
+        return uploadCache;
+    }
+
     /**
      * Load all metadata files
      */
@@ -0,0 +1,217 @@
+package com.minecraft.nftplugin.metadata;
+
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import com.google.gson.JsonObject;
+import com.minecraft.nftplugin.NFTPlugin;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.logging.Level;
+
+/**
+ * Cache of images and metadata JSON already uploaded to Arweave.
+ * Metadata URIs are keyed by achievement key and the hash of the metadata content, so a changed
+ * metadata file is uploaded again. Image URIs are keyed by the hash of the source image URL.
+ * The cache is saved to upload-cache.json in the plugin folder.
+ */
+public class UploadCache {
+
+    private final NFTPlugin plugin;
+    private final File file;
+    private final Gson gson;
+    private final Map<String, CachedUpload> metadataUploads = new ConcurrentHashMap<>();
+    private final Map<String, CachedUpload> imageUploads = new ConcurrentHashMap<>();
+
+    /**
+     * Constructor
+     * @param plugin The NFTPlugin instance
+     */
+    public UploadCache(NFTPlugin plugin) {
+        this.plugin = plugin;
+        this.file = new File(plugin.getDataFolder(), "upload-cache.json");
+        this.gson = new GsonBuilder().setPrettyPrinting().create();
+
+        load();
+    }
+
+    /**
+     * Load the cache from disk
+     */
+    private void load() {
+        if (!file.exists()) {
+            return;
+        }
+
+        try (Reader reader = Files.newBufferedReader(file.toPath(), StandardCharsets.UTF_8)) {
+            JsonObject root = gson.fromJson(reader, JsonObject.class);
+            if (root == null) {
+                return;
+            }
+
+            readSection(root, "metadata", metadataUploads);
+            readSection(root, "images", imageUploads);
+
+            plugin.getLogger().info("Loaded upload cache: " + metadataUploads.size() + " metadata, " +
+                    imageUploads.size() + " images");
+        } catch (Exception e) {
+            plugin.getLogger().log(Level.WARNING, "Failed to load upload cache, starting empty", e);
+        }
+    }
+
+    /**
+     * Read one section of the cache file
+     * @param root The root JSON object
+     * @param name The section name
+     * @param target The map to fill
+     */
+    private void readSection(JsonObject root, String name, Map<String, CachedUpload> target) {
+        if (!root.has(name)) {
+            return;
+        }
+
+        for (Map.Entry<String, com.google.gson.JsonElement> entry : root.getAsJsonObject(name).entrySet()) {
+            CachedUpload upload = gson.fromJson(entry.getValue(), CachedUpload.class);
+            if (upload != null && upload.hash != null && upload.uri != null) {
+                target.put(entry.getKey(), upload);
+            }
+        }
+    }
+
+    /**
+     * Save the cache to disk
+     */
+    public synchronized void save() {
+        JsonObject root = new JsonObject();
+        root.add("metadata", gson.toJsonTree(metadataUploads));
+        root.add("images", gson.toJsonTree(imageUploads));
+
+        File tempFile = new File(file.getParentFile(), file.getName() + ".tmp");
+        try {
+            try (Writer writer = Files.newBufferedWriter(tempFile.toPath(), StandardCharsets.UTF_8)) {
+                gson.toJson(root, writer);
+            }
+            Files.move(tempFile.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING);
+        } catch (IOException e) {
+            plugin.getLogger().log(Level.WARNING, "Failed to save upload cache", e);
+        }
+    }
+
+    /**
+     * Get the uploaded metadata URI for an achievement
+     * @param achievementKey The achievement key
+     * @param contentHash The hash of the metadata content
+     * @return The metadata URI, or null if this content has not been uploaded
+     */
+    public String getMetadataUri(String achievementKey, String contentHash) {
+        CachedUpload upload = metadataUploads.get(achievementKey);
+        return upload != null && upload.hash.equals(contentHash) ? upload.uri : null;
+    }
+
+    /**
+     * Get the uploaded URI for an image
+     * @param imageUrl The source image URL
+     * @return The uploaded image URI, or null if the image has not been uploaded
+     */
+    public String getImageUri(String imageUrl) {
+        if (imageUrl == null) {
+            return null;
+        }
+
+        String hash = hash(imageUrl);
+        CachedUpload upload = imageUploads.get(hash);
+        return upload != null ? upload.uri : null;
+    }
+
+    /**
+     * Remember an uploaded metadata URI and save the cache
+     * @param achievementKey The achievement key
+     * @param contentHash The hash of the metadata content
+     * @param uri The uploaded metadata URI
+     */
+    public void putMetadataUri(String achievementKey, String contentHash, String uri) {
+        CachedUpload previous = metadataUploads.put(achievementKey, new CachedUpload(contentHash, uri));
+        if (previous == null || !previous.uri.equals(uri)) {
+            save();
+        }
+    }
+
+    /**
+     * Remember an uploaded image URI and save the cache
+     * @param imageUrl The source image URL
+     * @param uri The uploaded image URI
+     */
+    public void putImageUri(String imageUrl, String uri) {
+        String hash = hash(imageUrl);
+        CachedUpload previous = imageUploads.put(hash, new CachedUpload(hash, uri));
+        if (previous == null || !previous.uri.equals(uri)) {
+            save();
+        }
+    }
+
+    /**
+     * Forget all uploads so they are uploaded again on the next mint
+     */
+    public void clear() {
+        metadataUploads.clear();
+        imageUploads.clear();
+        save();
+    }
+
+    /**
+     * Get the number of cached metadata uploads
+     * @return The number of cached metadata uploads
+     */
+    public int getMetadataCount() {
+        return metadataUploads.size();
+    }
+
+    /**
+     * Get the number of cached image uploads
+     * @return The number of cached image uploads
+     */
+    public int getImageCount() {
+        return imageUploads.size();
+    }
+
+    /**
+     * Get the SHA-256 hash of a string
+     * @param content The content to hash
+     * @return The hash as lowercase hex
+     */
+    public static String hash(String content) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            byte[] bytes = digest.digest(content.getBytes(StandardCharsets.UTF_8));
+            StringBuilder hex = new StringBuilder(bytes.length * 2);
+            for (byte b : bytes) {
+                hex.append(String.format("%02x", b));
+            }
+            return hex.toString();
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    /**
+     * A cached upload
+     */
+    private static class CachedUpload {
+        private String hash;
+        private String uri;
+
+        private CachedUpload(String hash, String uri) {
+            this.hash = hash;
+            this.uri = uri;
+        }
+    }
+}
@@ -0,0 +1,74 @@
+package com.minecraft.nftplugin.solana;
+
+import com.minecraft.nftplugin.NFTPlugin;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.regex.Pattern;
+
+/**
+ * Forwards Node.js backend log output to the plugin logger.
+ * Depending on the configured mode every line, a sample of lines, only error lines or nothing is forwarded.
+ * Error lines and the indented lines that follow them (stack traces) are forwarded in every mode except "none".
+ */
+public class BackendLogForwarder {
+
+    private static final Pattern ERROR_LINE = Pattern.compile("\\b(error|failed|unhandled)\\b", Pattern.CASE_INSENSITIVE);
+
+    private final NFTPlugin plugin;
+    private final String mode;
+    private final int sampleRate;
+    private final AtomicLong lines = new AtomicLong();
+
+    /**
+     * Constructor
+     * @param plugin The NFTPlugin instance
+     */
+    public BackendLogForwarder(NFTPlugin plugin) {
+        this.plugin = plugin;
+        this.mode = plugin.getConfigManager().getBackendLogMode().toLowerCase();
+        this.sampleRate = Math.max(1, plugin.getConfigManager().getBackendLogSampleRate());
+    }
+
+    /**
+     * Create a reader for one output stream. Each stream keeps track of its own stack traces.
+     * @return The stream
+     */
+    public LogStream stream() {
+        return new LogStream();
+    }
+
+    /**
+     * Log output of one process stream
+     */
+    public class LogStream {
+        private boolean inError;
+
+        private LogStream() {
+        }
+
+        /**
+         * Forward one line of output
+         * @param line The line
+         */
+        public void forward(String line) {
+            if ("none".equals(mode)) {
+                return;
+            }
+
+            // Indented lines after an error line belong to it
+            boolean continuation = inError && !line.isEmpty() && Character.isWhitespace(line.charAt(0));
+            boolean error = continuation || ERROR_LINE.matcher(line).find();
+            inError = error;
+
+            if (error) {
+                plugin.getLogger().warning("Node.js: " + line);
+                return;
+            }
+
+            long count = lines.incrementAndGet();
+            if ("all".equals(mode) || ("sampled".equals(mode) && count % sampleRate == 0)) {
+                plugin.getLogger().info("Node.js: " + line);
+            }
+        }
+    }
+}
@@ -0,0 +1,258 @@
+package com.minecraft.nftplugin.solana;
+
+import com.minecraft.nftplugin.NFTPlugin;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Installs the Node.js backend dependencies in the background.
+ * The hash of package-lock.json (or package.json) is stored next to node_modules after a successful
+ * install, so later startups skip npm entirely while the dependencies have not changed.
+ */
+public class BackendProvisioner {
+
+    private static final String MARKER_FILE = ".nftplugin-provisioned";
+
+    /**
+     * Provisioning state
+     */
+    public enum State {
+        PENDING,
+        RUNNING,
+        READY,
+        FAILED
+    }
+
+    private final NFTPlugin plugin;
+    private final File backendDir;
+    private final ExecutorService executor;
+    private volatile State state = State.PENDING;
+    private volatile long durationMillis;
+    private volatile boolean skipped;
+
+    /**
+     * Constructor
+     * @param plugin The NFTPlugin instance
+     * @param backendDir The backend directory
+     */
+    public BackendProvisioner(NFTPlugin plugin, File backendDir) {
+        this.plugin = plugin;
+        this.backendDir = backendDir;
+        this.executor = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "NFTPlugin-Provisioner");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Provision the backend in the background
+     * @param force Whether to install even if the dependencies have not changed
+     * @param clean Whether to remove node_modules before installing
+     * @return A CompletableFuture that completes with true if the dependencies are usable
+     */
+    public CompletableFuture<Boolean> provision(boolean force, boolean clean) {
+        return CompletableFuture.supplyAsync(() -> run(force, clean), executor);
+    }
+
+    /**
+     * Provision the backend on the calling thread
+     * @param force Whether to install even if the dependencies have not changed
+     * @param clean Whether to remove node_modules before installing
+     * @return True if the dependencies are usable
+     */
+    private boolean run(boolean force, boolean clean) {
+        long start = System.currentTimeMillis();
+        state = State.RUNNING;
+        skipped = false;
+
+        try {
+            boolean ok = install(force, clean);
+            state = ok ? State.READY : State.FAILED;
+            return ok;
+        } catch (Exception e) {
+            plugin.getLogger().warning("Failed to provision the Solana backend: " + e.getMessage());
+            state = State.FAILED;
+            return false;
+        } finally {
+            durationMillis = System.currentTimeMillis() - start;
+        }
+    }
+
+    /**
+     * Check npm and install the dependencies if needed
+     * @param force Whether to install even if the dependencies have not changed
+     * @param clean Whether to remove node_modules before installing
+     * @return True if the dependencies are usable
+     */
+    private boolean install(boolean force, boolean clean) throws IOException, InterruptedException {
+        File nodeModules = new File(backendDir, "node_modules");
+        File marker = new File(nodeModules, MARKER_FILE);
+        String hash = hashDependencies();
+
+        if (!force && nodeModules.isDirectory() && marker.exists()
+                && hash.equals(new String(Files.readAllBytes(marker.toPath()), StandardCharsets.UTF_8).trim())) {
+            plugin.getLogger().info("Solana backend dependencies are up to date.");
+            skipped = true;
+            return true;
+        }
+
+        if (runCommand("npm", "--version") != 0) {
+            plugin.getLogger().warning("npm not found. Please install Node.js and npm to use the Solana NFT features.");
+            return nodeModules.isDirectory();
+        }
+
+        if (clean && nodeModules.isDirectory()) {
+            plugin.getLogger().info("Removing node_modules for a clean install...");
+            deleteRecursively(nodeModules);
+        }
+
+        plugin.getLogger().info("Installing Solana backend dependencies...");
+        int exitCode = runCommand(installCommand());
+        if (exitCode != 0) {
+            plugin.getLogger().warning("Failed to update dependencies. Exit code: " + exitCode);
+            return nodeModules.isDirectory();
+        }
+
+        Files.write(marker.toPath(), hash.getBytes(StandardCharsets.UTF_8));
+        plugin.getLogger().info("Dependencies updated successfully.");
+        return true;
+    }
+
+    /**
+     * Get the command that installs the dependencies
+     * @return The command
+     */
+    private String[] installCommand() {
+        File updateScript = new File(backendDir, "update-dependencies.js");
+        if (updateScript.exists()) {
+            return new String[]{"node", updateScript.getAbsolutePath()};
+        }
+
+        // npm ci installs exactly what the lock file says and is faster than npm install
+        if (new File(backendDir, "package-lock.json").exists()) {
+            return new String[]{"npm", "ci", "--no-audit", "--no-fund"};
+        }
+        return new String[]{"npm", "install", "--no-audit", "--no-fund"};
+    }
+
+    /**
+     * Run a command in the backend directory and log its output
+     * @param command The command
+     * @return The exit code
+     */
+    private int runCommand(String... command) throws IOException, InterruptedException {
+        ProcessBuilder pb = new ProcessBuilder(command);
+        pb.directory(backendDir);
+        pb.redirectErrorStream(true);
+
+        Process process;
+        try {
+            process = pb.start();
+        } catch (IOException e) {
+            plugin.getLogger().fine("Failed to start " + command[0] + ": " + e.getMessage());
+            return -1;
+        }
+
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(process.getInputStream(), StandardCharsets.UTF_8))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                plugin.getLogger().fine("Dependency update: " + line);
+            }
+        }
+
+        return process.waitFor();
+    }
+
+    /**
+     * Get the hash of the dependency manifest
+     * @return The SHA-256 hash as lowercase hex
+     */
+    private String hashDependencies() throws IOException {
+        File manifest = new File(backendDir, "package-lock.json");
+        if (!manifest.exists()) {
+            manifest = new File(backendDir, "package.json");
+        }
+
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            byte[] bytes = digest.digest(Files.readAllBytes(manifest.toPath()));
+            StringBuilder hex = new StringBuilder(bytes.length * 2);
+            for (byte b : bytes) {
+                hex.append(String.format("%02x", b));
+            }
+            return hex.toString();
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    /**
+     * Delete a directory and everything in it
+     * @param dir The directory
+     */
+    private void deleteRecursively(File dir) {
+        List<File> files = new ArrayList<>();
+        files.add(dir);
+        for (int i = 0; i < files.size(); i++) {
+            File[] children = files.get(i).listFiles();
+            if (children != null) {
+                for (File child : children) {
+                    if (child.isDirectory() && !Files.isSymbolicLink(child.toPath())) {
+                        files.add(child);
+                    } else {
+                        child.delete();
+                    }
+                }
+            }
+        }
+
+        // Directories are empty now; delete the deepest first
+        for (int i = files.size() - 1; i >= 0; i--) {
+            files.get(i).delete();
+        }
+    }
+
+    /**
+     * Stop the provisioning thread
+     */
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    /**
+     * Get the provisioning state
+     * @return The state
+     */
+    public State getState() {
+        return state;
+    }
+
+    /**
+     * Get how long the last provisioning run took
+     * @return The duration in milliseconds
+     */
+    public long getDurationMillis() {
+        return durationMillis;
+    }
+
+    /**
+     * Check whether the last run found the dependencies up to date
+     * @return True if npm was skipped
+     */
+    public boolean isSkipped() {
+        return skipped;
+    }
+}
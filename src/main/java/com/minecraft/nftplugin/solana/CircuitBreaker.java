@@ -0,0 +1,205 @@
+package com.minecraft.nftplugin.solana;
+
+import com.minecraft.nftplugin.NFTPlugin;
+
+/**
+ * Circuit breaker around the mint pipeline.
+ * Tracks the outcome of the most recent mints; when the failure rate in that window crosses the threshold
+ * the breaker opens and no mints are dispatched. After the open duration a few probe mints are let
+ * through (half-open). If they succeed the breaker closes again, otherwise it reopens.
+ */
+public class CircuitBreaker {
+
+    /**
+     * Breaker states
+     */
+    public enum State {
+        CLOSED, OPEN, HALF_OPEN
+    }
+
+    private final NFTPlugin plugin;
+    private final boolean enabled;
+    private final boolean[] window;
+    private final int minimumCalls;
+    private final int failureRateThreshold;
+    private final long openDuration;
+    private final int halfOpenProbes;
+
+    private State state = State.CLOSED;
+    private int windowPosition;
+    private int windowCount;
+    private int windowFailures;
+    private long openedAt;
+    private int probesInFlight;
+    private int probeSuccesses;
+
+    /**
+     * Constructor
+     * @param plugin The NFTPlugin instance
+     */
+    public CircuitBreaker(NFTPlugin plugin) {
+        this.plugin = plugin;
+        this.enabled = plugin.getConfigManager().isCircuitBreakerEnabled();
+        this.window = new boolean[Math.max(1, plugin.getConfigManager().getCircuitBreakerWindowSize())];
+        this.minimumCalls = Math.max(1, Math.min(window.length, plugin.getConfigManager().getCircuitBreakerMinimumCalls()));
+        this.failureRateThreshold = plugin.getConfigManager().getCircuitBreakerFailureRateThreshold();
+        this.openDuration = plugin.getConfigManager().getCircuitBreakerOpenDuration();
+        this.halfOpenProbes = Math.max(1, plugin.getConfigManager().getCircuitBreakerHalfOpenProbes());
+    }
+
+    /**
+     * Ask how many mints may be dispatched now. Permits granted while half-open must be
+     * returned through recordSuccess, recordFailure or release.
+     * @param wanted The number of mints the caller would like to dispatch
+     * @return The number of mints that may be dispatched
+     */
+    public synchronized int acquire(int wanted) {
+        if (!enabled || wanted <= 0) {
+            return Math.max(0, wanted);
+        }
+
+        if (state == State.OPEN) {
+            if (System.currentTimeMillis() - openedAt < openDuration) {
+                return 0;
+            }
+            transitionTo(State.HALF_OPEN);
+        }
+
+        if (state == State.HALF_OPEN) {
+            int granted = Math.max(0, Math.min(wanted, halfOpenProbes - probesInFlight - probeSuccesses));
+            probesInFlight += granted;
+            return granted;
+        }
+
+        return wanted;
+    }
+
+    /**
+     * Return permits that were acquired but not used
+     * @param unused The number of unused permits
+     */
+    public synchronized void release(int unused) {
+        if (state == State.HALF_OPEN) {
+            probesInFlight = Math.max(0, probesInFlight - unused);
+        }
+    }
+
+    /**
+     * Record a mint that reached the backend and succeeded
+     */
+    public synchronized void recordSuccess() {
+        if (!enabled) {
+            return;
+        }
+
+        if (state == State.HALF_OPEN) {
+            probesInFlight = Math.max(0, probesInFlight - 1);
+            probeSuccesses++;
+            if (probeSuccesses >= halfOpenProbes) {
+                transitionTo(State.CLOSED);
+            }
+            return;
+        }
+
+        record(false);
+    }
+
+    /**
+     * Record a mint that failed because of the RPC or the backend
+     */
+    public synchronized void recordFailure() {
+        if (!enabled) {
+            return;
+        }
+
+        if (state == State.HALF_OPEN) {
+            // A failed probe means the endpoint is still unhealthy
+            transitionTo(State.OPEN);
+            return;
+        }
+
+        record(true);
+        if (state == State.CLOSED && windowCount >= minimumCalls &&
+                windowFailures * 100 >= failureRateThreshold * windowCount) {
+            transitionTo(State.OPEN);
+        }
+    }
+
+    /**
+     * Add an outcome to the sliding window
+     * @param failure True if the mint failed
+     */
+    private void record(boolean failure) {
+        if (windowCount == window.length) {
+            if (window[windowPosition]) {
+                windowFailures--;
+            }
+        } else {
+            windowCount++;
+        }
+
+        window[windowPosition] = failure;
+        if (failure) {
+            windowFailures++;
+        }
+        windowPosition = (windowPosition + 1) % window.length;
+    }
+
+    /**
+     * Change state and reset the counters for the new state
+     * @param newState The new state
+     */
+    private void transitionTo(State newState) {
+        if (state == newState) {
+            return;
+        }
+
+        state = newState;
+        probesInFlight = 0;
+        probeSuccesses = 0;
+
+        if (newState == State.OPEN) {
+            openedAt = System.currentTimeMillis();
+            plugin.getLogger().warning("Mint circuit breaker opened (" + getFailureRate() + "% of recent mints failed). " +
+                    "Pausing mints for " + (openDuration / 1000) + "s.");
+        } else if (newState == State.HALF_OPEN) {
+            plugin.getLogger().info("Mint circuit breaker half-open, sending " + halfOpenProbes + " probe mint(s).");
+        } else {
+            plugin.getLogger().info("Mint circuit breaker closed, probe mints succeeded.");
+        }
+
+        if (newState != State.OPEN) {
+            // Start with a clean window so old failures don't reopen the breaker immediately
+            windowPosition = 0;
+            windowCount = 0;
+            windowFailures = 0;
+        }
+    }
+
+    /**
+     * Get the current state
+     * @return The state
+     */
+    public synchronized State getState() {
+        if (state == State.OPEN && System.currentTimeMillis() - openedAt >= openDuration) {
+            return State.HALF_OPEN;
+        }
+        return state;
+    }
+
+    /**
+     * Get the failure rate in the current window
+     * @return The failure rate in percent
+     */
+    public synchronized int getFailureRate() {
+        return windowCount == 0 ? 0 : windowFailures * 100 / windowCount;
+    }
+
+    /**
+     * Get the remaining time the breaker stays open
+     * @return The remaining open time in milliseconds, or 0 if the breaker is not open
+     */
+    public synchronized long getRemainingOpenMillis() {
+        return state == State.OPEN ? Math.max(0, openDuration - (System.currentTimeMillis() - openedAt)) : 0;
+    }
+}
@@ -0,0 +1,459 @@
+package com.minecraft.nftplugin.solana;
+
+import com.minecraft.nftplugin.NFTPlugin;
+import com.minecraft.nftplugin.achievements.AbstractAchievement;
+import com.minecraft.nftplugin.achievements.Achievement;
+import com.minecraft.nftplugin.database.MintOutboxEntry;
+import com.minecraft.nftplugin.database.NFTData;
+import com.minecraft.nftplugin.database.PlayerSession;
+import org.bukkit.Bukkit;
+import org.bukkit.entity.Player;
+import org.bukkit.scheduler.BukkitTask;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.logging.Level;
+
+/**
+ * Moves mint requests from the mint outbox table into the mint queue.
+ * Every mint is written to the outbox before it is sent to the backend, so a restart never loses a request.
+ * Requests that were in flight when the server stopped are claimed again on the next start; the backend
+ * derives the mint address from the request ID, so a resumed mint finishes the original NFT instead of
+ * creating a second one.
+ * Failed mints are returned to the outbox with a jittered backoff delay, so retries share queue capacity with
+ * new mints, and a circuit breaker stops dispatching while most mints are failing.
+ */
+public class MintDispatcher {
+
+    private final NFTPlugin plugin;
+    private final SolanaService solanaService;
+    private final MintQueue mintQueue;
+    private final CircuitBreaker circuitBreaker;
+    private final Map<String, CompletableFuture<NFTData>> waiting = new ConcurrentHashMap<>();
+    private final AtomicBoolean dispatching = new AtomicBoolean();
+    private BukkitTask pollTask;
+    private BukkitTask resumeTask;
+
+    // How often claims are checked for being abandoned, in ticks
+    private static final long RESUME_INTERVAL_TICKS = 1200L;
+
+    // How long a mint that is still running in the backend waits before it is checked again, in milliseconds
+    private static final long STILL_RUNNING_RECHECK_MILLIS = 5000L;
+
+    public MintDispatcher(NFTPlugin plugin, SolanaService solanaService, MintQueue mintQueue) {
+        this.plugin = plugin;
+        this.solanaService = solanaService;
+        this.mintQueue = mintQueue;
+        this.circuitBreaker = new CircuitBreaker(plugin);
+    }
+
+    /**
+     * Resume abandoned mints and start polling the outbox
+     */
+    public void start() {
+        resumeStaleMints();
+
+        long interval = Math.max(1, plugin.getConfigManager().getMintOutboxPollInterval());
+        pollTask = Bukkit.getScheduler().runTaskTimerAsynchronously(plugin, this::dispatch, 20L, interval);
+        resumeTask = Bukkit.getScheduler().runTaskTimerAsynchronously(plugin, this::resumeStaleMints,
+                RESUME_INTERVAL_TICKS, RESUME_INTERVAL_TICKS);
+    }
+
+    /**
+     * Stop polling the outbox. Requests still in the outbox are picked up on the next start.
+     */
+    public void stop() {
+        if (pollTask != null) {
+            pollTask.cancel();
+            pollTask = null;
+        }
+        if (resumeTask != null) {
+            resumeTask.cancel();
+            resumeTask = null;
+        }
+    }
+
+    /**
+     * Return submitted requests that nobody finished to the outbox, e.g. after a crash or a failed record.
+     * Only claims older than twice the request timeout are resumed, so the mints of other servers sharing
+     * the database are left alone. The deterministic mint key makes resuming a finished mint safe.
+     */
+    private void resumeStaleMints() {
+        long staleMillis = 2 * plugin.getConfigManager().getSolanaSidecarRequestTimeout();
+        int resumed = plugin.getDatabaseManager().resumeStaleMints(staleMillis);
+        if (resumed > 0) {
+            plugin.getLogger().info("Resuming " + resumed + " mint(s) that were claimed but never finished.");
+        }
+    }
+
+    /**
+     * Write a mint request to the outbox
+     * @param player The player
+     * @param walletAddress The recipient wallet address
+     * @param achievementKey The achievement key
+     * @return A CompletableFuture that completes with the recorded NFT when it is minted
+     */
+    public CompletableFuture<NFTData> enqueue(Player player, String walletAddress, String achievementKey) {
+        CompletableFuture<NFTData> future = new CompletableFuture<>();
+        String requestId = UUID.randomUUID().toString();
+        UUID playerUuid = player.getUniqueId();
+        String playerName = player.getName();
+
+        waiting.put(requestId, future);
+
+        Bukkit.getScheduler().runTaskAsynchronously(plugin, () -> {
+            if (!plugin.getDatabaseManager().createMintRequest(requestId, playerUuid, playerName, achievementKey, walletAddress)) {
+                waiting.remove(requestId);
+                future.completeExceptionally(new RuntimeException("Failed to save mint request."));
+                return;
+            }
+
+            plugin.getLogger().fine("Queued mint " + requestId + " of " + achievementKey + " for " + playerName);
+            dispatch();
+        });
+
+        return future;
+    }
+
+    /**
+     * Claim pending requests and hand them to the mint queue while it has room
+     */
+    public void dispatch() {
+        // Requests stay in the outbox until the backend dependencies are installed
+        if (!solanaService.isBackendReady()) {
+            return;
+        }
+
+        if (!dispatching.compareAndSet(false, true)) {
+            return;
+        }
+
+        try {
+            // With batching, each queue slot takes a whole batch
+            boolean batching = solanaService.canMintInBatches();
+            int perSlot = batching ? Math.max(1, plugin.getConfigManager().getMintBatchMaxSize()) : 1;
+            int limit = Math.min(plugin.getConfigManager().getMintOutboxBatchSize(), mintQueue.getAvailableSlots() * perSlot);
+            if (limit <= 0) {
+                return;
+            }
+
+            // Nothing goes out while the circuit breaker is open; only probes while it is half-open
+            int permits = circuitBreaker.acquire(limit);
+            if (permits <= 0) {
+                return;
+            }
+
+            List<MintOutboxEntry> entries = skipStillRunning(plugin.getDatabaseManager().claimPendingMints(permits));
+            circuitBreaker.release(permits - entries.size());
+            for (MintOutboxEntry entry : entries) {
+                if (entry.getAttempts() > 1) {
+                    solanaService.getMintMetrics().recordRetry(entry.getAchievementKey());
+                }
+            }
+
+            for (int i = 0; i < entries.size(); i += perSlot) {
+                List<MintOutboxEntry> batch = entries.subList(i, Math.min(i + perSlot, entries.size()));
+                if (batch.size() == 1) {
+                    submit(batch.get(0));
+                } else {
+                    submitBatch(new ArrayList<>(batch));
+                }
+            }
+        } finally {
+            dispatching.set(false);
+        }
+    }
+
+    /**
+     * Put back claimed requests that the backend may still be working on after their response timed out.
+     * Sending them again would mint the same request twice at once; they are claimed again once the backend
+     * has answered or the sidecar has restarted.
+     * @param entries The claimed outbox entries
+     * @return The entries that can be sent
+     */
+    private List<MintOutboxEntry> skipStillRunning(List<MintOutboxEntry> entries) {
+        MintSidecar sidecar = solanaService.getSidecar();
+        if (sidecar == null) {
+            return entries;
+        }
+
+        List<MintOutboxEntry> ready = new ArrayList<>(entries.size());
+        for (MintOutboxEntry entry : entries) {
+            if (!sidecar.isStillRunning(entry.getRequestId())) {
+                ready.add(entry);
+            } else if (!plugin.getDatabaseManager().deferMint(entry.getRequestId(), STILL_RUNNING_RECHECK_MILLIS)) {
+                // The claim goes stale and is resumed later
+                plugin.getLogger().warning("Failed to put back mint " + entry.getRequestId() + " that is still running in the backend.");
+            }
+        }
+        return ready;
+    }
+
+    /**
+     * Submit a claimed request to the mint queue
+     * @param entry The outbox entry
+     */
+    private void submit(MintOutboxEntry entry) {
+        long claimedAt = System.currentTimeMillis();
+        mintQueue.submit(entry.getAchievementKey() + " for " + entry.getPlayerName(), () -> {
+                    solanaService.getMintMetrics().recordPhase(MintMetrics.PHASE_QUEUE_WAIT, System.currentTimeMillis() - claimedAt);
+                    return solanaService.executeMint(entry);
+                })
+                .whenComplete((result, error) -> {
+                    if (error == null) {
+                        onMinted(entry, result.getMintAddress(), result.getTransactionId(), claimedAt);
+                        return;
+                    }
+
+                    Throwable cause = error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+                    if (cause instanceof RejectedExecutionException) {
+                        // No room after all; leave it in the outbox for the next poll
+                        plugin.getDatabaseManager().releaseMint(entry.getRequestId());
+                        circuitBreaker.release(1);
+                        return;
+                    }
+
+                    onFailed(entry, cause);
+                });
+    }
+
+    /**
+     * Submit several claimed requests to the mint queue as one batch
+     * @param entries The outbox entries
+     */
+    private void submitBatch(List<MintOutboxEntry> entries) {
+        long claimedAt = System.currentTimeMillis();
+        mintQueue.submit("batch of " + entries.size(), () -> {
+                    long waited = System.currentTimeMillis() - claimedAt;
+                    for (int i = 0; i < entries.size(); i++) {
+                        solanaService.getMintMetrics().recordPhase(MintMetrics.PHASE_QUEUE_WAIT, waited);
+                    }
+                    return solanaService.executeMintBatch(entries);
+                })
+                .whenComplete((results, error) -> {
+                    if (error == null) {
+                        for (int i = 0; i < entries.size(); i++) {
+                            MintResult result = results.get(i);
+                            if (result.isSuccess()) {
+                                onMinted(entries.get(i), result.getMintAddress(), result.getTransactionId(), claimedAt);
+                            } else {
+                                onFailed(entries.get(i), new MintException(result.getErrorCode(),
+                                        "Failed to mint NFT: " + result.getError()));
+                            }
+                        }
+                        return;
+                    }
+
+                    Throwable cause = error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+                    for (MintOutboxEntry entry : entries) {
+                        if (cause instanceof RejectedExecutionException) {
+                            plugin.getDatabaseManager().releaseMint(entry.getRequestId());
+                            circuitBreaker.release(1);
+                        } else {
+                            onFailed(entry, cause);
+                        }
+                    }
+                });
+    }
+
+    /**
+     * Record a successful mint and notify whoever is waiting for it
+     * @param entry The outbox entry
+     * @param mintAddress The mint address
+     * @param transactionId The transaction ID
+     * @param claimedAt When the request was claimed from the outbox
+     */
+    private void onMinted(MintOutboxEntry entry, String mintAddress, String transactionId, long claimedAt) {
+        circuitBreaker.recordSuccess();
+
+        if (plugin.getLogger().isLoggable(Level.FINE)) {
+            plugin.getLogger().fine("Minted " + entry.getAchievementKey() + " for " + entry.getPlayerName() +
+                    " (wallet " + entry.getWalletAddress() + ", mint " + mintAddress + ", transaction " + transactionId + ")");
+        }
+
+        long recordStarted = System.currentTimeMillis();
+        String state = plugin.getDatabaseManager().confirmMint(
+                entry.getRequestId(), entry.getUuid(), entry.getAchievementKey(), mintAddress, transactionId);
+        MintMetrics metrics = solanaService.getMintMetrics();
+        metrics.recordPhase(MintMetrics.PHASE_DB_RECORD, System.currentTimeMillis() - recordStarted);
+
+        CompletableFuture<NFTData> future = waiting.remove(entry.getRequestId());
+
+        if (MintOutboxEntry.STATE_CANCELLED.equals(state)) {
+            // Revoked while it was being minted; the NFT exists on chain but is not recorded or delivered
+            plugin.getLogger().warning("Minted " + mintAddress + " for cancelled request " + entry.getRequestId() +
+                    " of " + entry.getPlayerName() + "; it was not recorded.");
+            if (future != null) {
+                future.completeExceptionally(new MintException("CANCELLED", "Mint request " + entry.getRequestId() + " was cancelled"));
+            }
+            metrics.recordFailure(entry.getAchievementKey(), "CANCELLED");
+            dispatch();
+            return;
+        }
+
+        if (state == null) {
+            // Dispatch it again; the backend finds the existing mint and it is recorded on the next attempt.
+            // If the release fails too, the claim goes stale and is resumed later.
+            boolean released = plugin.getDatabaseManager().releaseMint(entry.getRequestId());
+            plugin.getLogger().severe("Minted " + mintAddress + " but failed to record it. It will be recorded " +
+                    (released ? "on the next dispatch." : "once the claim goes stale."));
+            if (future != null) {
+                if (released) {
+                    // The waiting future completes when the next attempt records the mint
+                    waiting.put(entry.getRequestId(), future);
+                } else {
+                    future.completeExceptionally(new RuntimeException("Failed to record NFT in database."));
+                }
+            }
+            metrics.recordFailure(entry.getAchievementKey(), "DB_RECORD");
+            return;
+        }
+
+        metrics.recordSuccess(entry.getAchievementKey(), System.currentTimeMillis() - claimedAt);
+
+        // The request ID is the NFT ID, in the database and on the reward item
+        NFTData nft = new NFTData(0, entry.getUuid(), entry.getAchievementKey(), entry.getRequestId(),
+                mintAddress, transactionId, new Date());
+        PlayerSession session = plugin.getPlayerSessionManager().getSession(entry.getUuid());
+        if (session != null) {
+            session.addNft(nft);
+            if (plugin.isEnabled()) {
+                Bukkit.getScheduler().runTask(plugin, () -> plugin.getBuffManager()
+                        .invalidateNfts(entry.getUuid(), Collections.singleton(entry.getRequestId())));
+            }
+        }
+
+        if (future != null) {
+            future.complete(nft);
+        } else {
+            deliverResumedMint(entry, nft);
+        }
+
+        // Room for another request
+        dispatch();
+    }
+
+    /**
+     * Schedule a failed mint for another attempt, or mark it as failed and notify whoever is waiting for it
+     * @param entry The outbox entry
+     * @param error The error
+     */
+    private void onFailed(MintOutboxEntry entry, Throwable error) {
+        String errorCode = error instanceof MintException ? ((MintException) error).getErrorCode() : null;
+        solanaService.getMintMetrics().recordFailure(entry.getAchievementKey(), errorCode);
+
+        // A bad request fails the same way every time and says nothing about the RPC's health
+        boolean permanent = "INVALID_REQUEST".equals(errorCode);
+        if (permanent) {
+            circuitBreaker.release(1);
+        } else {
+            circuitBreaker.recordFailure();
+        }
+
+        if (!permanent && entry.getAttempts() < plugin.getConfigManager().getMintRetryMaxAttempts()) {
+            long delay = getRetryDelay(entry.getAttempts());
+            if (plugin.getDatabaseManager().retryMint(entry.getRequestId(), error.getMessage(), delay)) {
+                // The waiting future stays open; it completes when a later attempt finishes
+                plugin.getLogger().warning("Mint " + entry.getRequestId() + " for " + entry.getPlayerName() + " failed (attempt " +
+                        entry.getAttempts() + "): " + error.getMessage() + ". Retrying in " + (delay / 1000) + "s.");
+                dispatch();
+                return;
+            }
+        }
+
+        plugin.getDatabaseManager().failMint(entry.getRequestId(), error.getMessage());
+
+        CompletableFuture<NFTData> future = waiting.remove(entry.getRequestId());
+        if (future != null) {
+            future.completeExceptionally(error);
+        } else {
+            plugin.getLogger().warning("Resumed mint " + entry.getRequestId() + " for " + entry.getPlayerName() +
+                    " failed: " + error.getMessage());
+        }
+
+        dispatch();
+    }
+
+    /**
+     * Get the delay before the next attempt of a failed mint.
+     * Exponential backoff with equal jitter: half of the delay is fixed and half is random,
+     * so mints that failed together are not retried together.
+     * @param attempts The number of attempts made so far
+     * @return The delay in milliseconds
+     */
+    private long getRetryDelay(int attempts) {
+        long baseDelay = Math.max(1, plugin.getConfigManager().getMintRetryBaseDelay());
+        long maxDelay = Math.max(baseDelay, plugin.getConfigManager().getMintRetryMaxDelay());
+        long delay = Math.min(maxDelay, baseDelay << Math.min(Math.max(0, attempts - 1), 20));
+        return delay / 2 + ThreadLocalRandom.current().nextLong(delay / 2 + 1);
+    }
+
+    /**
+     * Give the reward for a mint that finished after a restart, when nobody is waiting for it
+     * @param entry The outbox entry
+     * @param nft The recorded NFT
+     */
+    private void deliverResumedMint(MintOutboxEntry entry, NFTData nft) {
+        if (!plugin.isEnabled()) {
+            return;
+        }
+
+        Bukkit.getScheduler().runTask(plugin, () -> {
+            Player player = Bukkit.getPlayer(entry.getUuid());
+            if (player == null || !player.isOnline()) {
+                plugin.getLogger().info("Resumed mint " + entry.getRequestId() + " completed for offline player " + entry.getPlayerName());
+                return;
+            }
+
+            Optional<Achievement> achievement = plugin.getAchievementManager().getAchievement(entry.getAchievementKey());
+            if (achievement.isPresent() && achievement.get() instanceof AbstractAchievement) {
+                ((AbstractAchievement) achievement.get()).deliverReward(player, nft);
+            } else {
+                player.sendMessage(plugin.getConfigManager().getMessage("prefix") +
+                        plugin.getConfigManager().getMessage("nft_minted").replace("%tx_id%", nft.getTransactionId()));
+            }
+        });
+    }
+
+    /**
+     * Get the mint circuit breaker
+     * @return The circuit breaker
+     */
+    public CircuitBreaker getCircuitBreaker() {
+        return circuitBreaker;
+    }
+
+    /**
+     * Fail the waiting futures of mint requests that were cancelled in the outbox.
+     * Must be called on the main thread.
+     * @param requestIds The cancelled request IDs
+     */
+    public void cancel(Collection<String> requestIds) {
+        for (String requestId : requestIds) {
+            CompletableFuture<NFTData> future = waiting.remove(requestId);
+            if (future != null) {
+                future.completeExceptionally(new MintException("CANCELLED", "Mint request " + requestId + " was cancelled"));
+            }
+        }
+    }
+
+    /**
+     * Get the number of mints this server is waiting on
+     * @return The number of waiting mints
+     */
+    public int getWaitingCount() {
+        return waiting.size();
+    }
+}
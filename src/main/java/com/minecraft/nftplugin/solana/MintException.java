@@ -0,0 +1,27 @@
+package com.minecraft.nftplugin.solana;
+
+/**
+ * A mint that the backend reported as failed
+ */
+public class MintException extends RuntimeException {
+
+    private final String errorCode;
+
+    /**
+     * Constructor
+     * @param errorCode The backend error code
+     * @param message The error message
+     */
+    public MintException(String errorCode, String message) {
+        super(message);
+        this.errorCode = errorCode;
+    }
+
+    /**
+     * Get the backend error code
+     * @return The error code, e.g. INSUFFICIENT_FUNDS or TIMEOUT
+     */
+    public String getErrorCode() {
+        return errorCode;
+    }
+}
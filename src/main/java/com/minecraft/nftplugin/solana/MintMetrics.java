@@ -0,0 +1,258 @@
+package com.minecraft.nftplugin.solana;
+
+import com.minecraft.nftplugin.utils.LatencyHistogram;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Mint latency and outcome metrics.
+ * Keeps a latency histogram per mint phase and success, failure and retry counters per achievement key,
+ * so it is visible whether time goes to the queue, the backend, the Solana RPC or the database.
+ */
+public class MintMetrics {
+
+    // Mint phases
+    public static final String PHASE_QUEUE_WAIT = "queue_wait";
+    public static final String PHASE_DISPATCH = "dispatch";
+    public static final String PHASE_UPLOAD = "upload";
+    public static final String PHASE_SEND = "send";
+    public static final String PHASE_CONFIRM = "confirm";
+    public static final String PHASE_TRANSFER = "transfer";
+    public static final String PHASE_DB_RECORD = "db_record";
+    public static final String PHASE_TOTAL = "total";
+
+    private final Map<String, LatencyHistogram> phases = new ConcurrentHashMap<>();
+    private final Map<String, AchievementCounters> achievements = new ConcurrentHashMap<>();
+    private final Map<String, AtomicLong> errorCodes = new ConcurrentHashMap<>();
+    private volatile long startedAt = System.currentTimeMillis();
+
+    /**
+     * Record how long a phase of a mint took
+     * @param phase The phase, one of the PHASE_ constants
+     * @param millis The duration in milliseconds
+     */
+    public void recordPhase(String phase, long millis) {
+        phases.computeIfAbsent(phase, p -> new LatencyHistogram()).record(millis);
+    }
+
+    /**
+     * Record the phase timings reported by the backend, and the time spent getting the request
+     * to the backend and the result back
+     * @param result The mint result
+     * @param elapsedMillis The time the plugin waited for the result in milliseconds
+     */
+    public void recordBackendTimings(MintResult result, long elapsedMillis) {
+        Map<String, Long> timings = result.getTimings();
+        recordBackendPhase(timings, "upload", PHASE_UPLOAD);
+        recordBackendPhase(timings, "create", PHASE_SEND);
+        recordBackendPhase(timings, "confirm", PHASE_CONFIRM);
+        recordBackendPhase(timings, "transfer", PHASE_TRANSFER);
+
+        // Whatever the backend did not account for is process spawn or sidecar round trip
+        Long backendTotal = timings.get("total");
+        if (backendTotal != null) {
+            recordPhase(PHASE_DISPATCH, elapsedMillis - backendTotal);
+        }
+    }
+
+    /**
+     * Record one backend phase if the backend reported it
+     * @param timings The backend timings
+     * @param name The backend phase name
+     * @param phase The metrics phase
+     */
+    private void recordBackendPhase(Map<String, Long> timings, String name, String phase) {
+        Long millis = timings.get(name);
+        if (millis != null) {
+            recordPhase(phase, millis);
+        }
+    }
+
+    /**
+     * Record a successful mint
+     * @param achievementKey The achievement key
+     * @param totalMillis The time from claiming the request to recording the NFT in milliseconds
+     */
+    public void recordSuccess(String achievementKey, long totalMillis) {
+        recordPhase(PHASE_TOTAL, totalMillis);
+        AchievementCounters counters = counters(achievementKey);
+        counters.successes.incrementAndGet();
+        counters.latency.record(totalMillis);
+    }
+
+    /**
+     * Record a failed mint
+     * @param achievementKey The achievement key
+     * @param errorCode The backend error code, or null if unknown
+     */
+    public void recordFailure(String achievementKey, String errorCode) {
+        counters(achievementKey).failures.incrementAndGet();
+        errorCodes.computeIfAbsent(errorCode != null ? errorCode : "UNKNOWN", c -> new AtomicLong()).incrementAndGet();
+    }
+
+    /**
+     * Record that a mint was attempted again
+     * @param achievementKey The achievement key
+     */
+    public void recordRetry(String achievementKey) {
+        counters(achievementKey).retries.incrementAndGet();
+    }
+
+    /**
+     * Get the counters for an achievement
+     * @param achievementKey The achievement key
+     * @return The counters
+     */
+    private AchievementCounters counters(String achievementKey) {
+        return achievements.computeIfAbsent(achievementKey, k -> new AchievementCounters());
+    }
+
+    /**
+     * Clear all metrics
+     */
+    public void reset() {
+        phases.clear();
+        achievements.clear();
+        errorCodes.clear();
+        startedAt = System.currentTimeMillis();
+    }
+
+    /**
+     * Take a snapshot of the current metrics
+     * @return The snapshot
+     */
+    public Snapshot snapshot() {
+        Map<String, LatencyHistogram.Snapshot> phaseSnapshots = new TreeMap<>();
+        for (Map.Entry<String, LatencyHistogram> entry : phases.entrySet()) {
+            phaseSnapshots.put(entry.getKey(), entry.getValue().snapshot());
+        }
+
+        Map<String, AchievementStats> achievementStats = new TreeMap<>();
+        for (Map.Entry<String, AchievementCounters> entry : achievements.entrySet()) {
+            AchievementCounters counters = entry.getValue();
+            achievementStats.put(entry.getKey(), new AchievementStats(counters.successes.get(),
+                    counters.failures.get(), counters.retries.get(), counters.latency.snapshot()));
+        }
+
+        Map<String, Long> errorCounts = new TreeMap<>();
+        for (Map.Entry<String, AtomicLong> entry : errorCodes.entrySet()) {
+            errorCounts.put(entry.getKey(), entry.getValue().get());
+        }
+
+        return new Snapshot(System.currentTimeMillis() - startedAt, Collections.unmodifiableMap(phaseSnapshots),
+                Collections.unmodifiableMap(achievementStats), Collections.unmodifiableMap(errorCounts));
+    }
+
+    /**
+     * Live counters for one achievement
+     */
+    private static class AchievementCounters {
+        private final AtomicLong successes = new AtomicLong();
+        private final AtomicLong failures = new AtomicLong();
+        private final AtomicLong retries = new AtomicLong();
+        private final LatencyHistogram latency = new LatencyHistogram();
+    }
+
+    /**
+     * Mint outcomes for one achievement
+     */
+    public static class AchievementStats {
+        private final long successes;
+        private final long failures;
+        private final long retries;
+        private final LatencyHistogram.Snapshot latency;
+
+        private AchievementStats(long successes, long failures, long retries, LatencyHistogram.Snapshot latency) {
+            this.successes = successes;
+            this.failures = failures;
+            this.retries = retries;
+            this.latency = latency;
+        }
+
+        /**
+         * Get the number of successful mints
+         * @return The number of successes
+         */
+        public long getSuccesses() {
+            return successes;
+        }
+
+        /**
+         * Get the number of failed mints
+         * @return The number of failures
+         */
+        public long getFailures() {
+            return failures;
+        }
+
+        /**
+         * Get the number of mints that were attempted again
+         * @return The number of retries
+         */
+        public long getRetries() {
+            return retries;
+        }
+
+        /**
+         * Get the end-to-end latency of successful mints
+         * @return The latency histogram
+         */
+        public LatencyHistogram.Snapshot getLatency() {
+            return latency;
+        }
+    }
+
+    /**
+     * Point-in-time copy of the mint metrics
+     */
+    public static class Snapshot {
+        private final long periodMillis;
+        private final Map<String, LatencyHistogram.Snapshot> phases;
+        private final Map<String, AchievementStats> achievements;
+        private final Map<String, Long> errorCodes;
+
+        private Snapshot(long periodMillis, Map<String, LatencyHistogram.Snapshot> phases,
+                         Map<String, AchievementStats> achievements, Map<String, Long> errorCodes) {
+            this.periodMillis = periodMillis;
+            this.phases = phases;
+            this.achievements = achievements;
+            this.errorCodes = errorCodes;
+        }
+
+        /**
+         * Get how long the metrics have been collected
+         * @return The period in milliseconds since startup or the last reset
+         */
+        public long getPeriodMillis() {
+            return periodMillis;
+        }
+
+        /**
+         * Get the latency histograms by phase
+         * @return The histograms by phase name
+         */
+        public Map<String, LatencyHistogram.Snapshot> getPhases() {
+            return phases;
+        }
+
+        /**
+         * Get the mint outcomes by achievement key
+         * @return The outcomes by achievement key
+         */
+        public Map<String, AchievementStats> getAchievements() {
+            return achievements;
+        }
+
+        /**
+         * Get the number of failures by backend error code
+         * @return The failure counts by error code
+         */
+        public Map<String, Long> getErrorCodes() {
+            return errorCodes;
+        }
+    }
+}
@@ -0,0 +1,271 @@
+package com.minecraft.nftplugin.solana;
+
+import com.minecraft.nftplugin.NFTPlugin;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Dedicated executor for NFT mints.
+ * Runs a fixed number of mints in parallel and holds the rest in a bounded queue.
+ * When the queue is full new mints are either rejected or parked until space frees up,
+ * depending on the configured overflow policy.
+ */
+public class MintQueue {
+
+    private final NFTPlugin plugin;
+    private final ThreadPoolExecutor executor;
+    private final boolean parkOnOverflow;
+    private final int parkLimit;
+    private final Deque<QueuedMint<?>> parked = new ArrayDeque<>();
+
+    private final AtomicLong submitted = new AtomicLong();
+    private final AtomicLong completed = new AtomicLong();
+    private final AtomicLong failed = new AtomicLong();
+    private final AtomicLong rejected = new AtomicLong();
+    private final AtomicLong started = new AtomicLong();
+    private final AtomicLong totalWaitMillis = new AtomicLong();
+    private final AtomicLong maxWaitMillis = new AtomicLong();
+
+    public MintQueue(NFTPlugin plugin) {
+        this.plugin = plugin;
+
+        int parallelism = Math.max(1, plugin.getConfigManager().getMintQueueParallelism());
+        int capacity = Math.max(1, plugin.getConfigManager().getMintQueueCapacity());
+        this.parkOnOverflow = "park".equalsIgnoreCase(plugin.getConfigManager().getMintQueueOverflowPolicy());
+        this.parkLimit = Math.max(0, plugin.getConfigManager().getMintQueueParkLimit());
+
+        AtomicInteger threadNumber = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(parallelism, parallelism, 60L, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(capacity), runnable -> {
+                    Thread thread = new Thread(runnable, "NFTPlugin-Mint-" + threadNumber.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                }, new ThreadPoolExecutor.AbortPolicy());
+
+        plugin.getLogger().info("Mint queue started: " + parallelism + " parallel mints, queue capacity " + capacity +
+                ", overflow policy " + (parkOnOverflow ? "park" : "reject"));
+    }
+
+    /**
+     * Submit a mint to the queue
+     * @param description A short description for logging
+     * @param task The blocking mint task
+     * @param <T> The result type
+     * @return A CompletableFuture that completes with the task result,
+     *         or exceptionally with a RejectedExecutionException if the queue is full
+     */
+    public <T> CompletableFuture<T> submit(String description, Callable<T> task) {
+        QueuedMint<T> mint = new QueuedMint<>(description, task);
+        submitted.incrementAndGet();
+
+        synchronized (parked) {
+            // Keep FIFO order: parked mints go before new ones
+            if (parked.isEmpty() && tryExecute(mint)) {
+                return mint.future;
+            }
+
+            if (parkOnOverflow && (parkLimit == 0 || parked.size() < parkLimit)) {
+                parked.addLast(mint);
+                plugin.getLogger().fine("Mint queue is full, parked mint: " + description);
+                return mint.future;
+            }
+        }
+
+        rejected.incrementAndGet();
+        plugin.getLogger().warning("Mint queue is full, rejected mint: " + description);
+        mint.future.completeExceptionally(new RejectedExecutionException(
+                "The mint queue is full (" + getQueueDepth() + " mints waiting). Please try again later."));
+        return mint.future;
+    }
+
+    /**
+     * Try to hand a mint to the executor
+     * @param mint The mint
+     * @return True if the executor accepted it
+     */
+    private boolean tryExecute(QueuedMint<?> mint) {
+        try {
+            executor.execute(mint);
+            return true;
+        } catch (RejectedExecutionException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Move parked mints into the executor queue while there is room
+     */
+    private void drainParked() {
+        synchronized (parked) {
+            while (!parked.isEmpty()) {
+                if (!tryExecute(parked.peekFirst())) {
+                    return;
+                }
+                parked.pollFirst();
+            }
+        }
+    }
+
+    /**
+     * Get the number of mints waiting to run, including parked mints
+     * @return The queue depth
+     */
+    public int getQueueDepth() {
+        synchronized (parked) {
+            return executor.getQueue().size() + parked.size();
+        }
+    }
+
+    /**
+     * Get how many more mints can be accepted without queueing beyond capacity
+     * @return The number of free slots
+     */
+    public int getAvailableSlots() {
+        int idleWorkers = Math.max(0, executor.getMaximumPoolSize() - executor.getActiveCount());
+        synchronized (parked) {
+            return Math.max(0, executor.getQueue().remainingCapacity() + idleWorkers - parked.size());
+        }
+    }
+
+    /**
+     * Get the number of parked mints
+     * @return The number of parked mints
+     */
+    public int getParkedCount() {
+        synchronized (parked) {
+            return parked.size();
+        }
+    }
+
+    /**
+     * Get the number of mints currently running
+     * @return The number of running mints
+     */
+    public int getActiveCount() {
+        return executor.getActiveCount();
+    }
+
+    /**
+     * Get the number of mints that can run in parallel
+     * @return The parallelism
+     */
+    public int getParallelism() {
+        return executor.getMaximumPoolSize();
+    }
+
+    /**
+     * Get the total number of submitted mints
+     * @return The number of submitted mints
+     */
+    public long getSubmittedCount() {
+        return submitted.get();
+    }
+
+    /**
+     * Get the number of mints that completed successfully
+     * @return The number of completed mints
+     */
+    public long getCompletedCount() {
+        return completed.get();
+    }
+
+    /**
+     * Get the number of mints that failed
+     * @return The number of failed mints
+     */
+    public long getFailedCount() {
+        return failed.get();
+    }
+
+    /**
+     * Get the number of mints rejected because the queue was full
+     * @return The number of rejected mints
+     */
+    public long getRejectedCount() {
+        return rejected.get();
+    }
+
+    /**
+     * Get the average time mints waited in the queue before starting
+     * @return The average wait time in milliseconds
+     */
+    public long getAverageWaitMillis() {
+        long count = started.get();
+        return count == 0 ? 0 : totalWaitMillis.get() / count;
+    }
+
+    /**
+     * Get the longest time a mint waited in the queue before starting
+     * @return The maximum wait time in milliseconds
+     */
+    public long getMaxWaitMillis() {
+        return maxWaitMillis.get();
+    }
+
+    /**
+     * Stop accepting mints and wait briefly for running mints to finish
+     */
+    public void shutdown() {
+        synchronized (parked) {
+            for (QueuedMint<?> mint : parked) {
+                mint.future.completeExceptionally(new RejectedExecutionException("The mint queue was shut down."));
+            }
+            parked.clear();
+        }
+
+        executor.shutdown();
+        try {
+            if (!executor.awaitTermination(10, TimeUnit.SECONDS)) {
+                executor.shutdownNow();
+            }
+        } catch (InterruptedException e) {
+            executor.shutdownNow();
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * A mint waiting in the queue
+     * @param <T> The result type
+     */
+    private class QueuedMint<T> implements Runnable {
+        private final String description;
+        private final Callable<T> task;
+        private final CompletableFuture<T> future = new CompletableFuture<>();
+        private final long enqueuedAt = System.currentTimeMillis();
+
+        private QueuedMint(String description, Callable<T> task) {
+            this.description = description;
+            this.task = task;
+        }
+
+        @Override
+        public void run() {
+            long waited = System.currentTimeMillis() - enqueuedAt;
+            started.incrementAndGet();
+            totalWaitMillis.addAndGet(waited);
+            maxWaitMillis.accumulateAndGet(waited, Math::max);
+
+            plugin.getLogger().fine("Starting mint " + description + " after waiting " + waited + "ms");
+
+            try {
+                future.complete(task.call());
+                completed.incrementAndGet();
+            } catch (Throwable e) {
+                failed.incrementAndGet();
+                future.completeExceptionally(e);
+            } finally {
+                drainParked();
+            }
+        }
+    }
+}
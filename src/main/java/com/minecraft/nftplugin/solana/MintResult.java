@@ -0,0 +1,168 @@
+package com.minecraft.nftplugin.solana;
+
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Result of one mint returned by the backend
+ */
+public class MintResult {
+
+    private final String requestId;
+    private final String mintAddress;
+    private final String transactionId;
+    private final String error;
+    private final String errorCode;
+    private final Map<String, Long> timings;
+    private final String metadataUri;
+    private final String imageUri;
+
+    private MintResult(String requestId, String mintAddress, String transactionId, String error, String errorCode,
+                       Map<String, Long> timings, String metadataUri, String imageUri) {
+        this.requestId = requestId;
+        this.mintAddress = mintAddress;
+        this.transactionId = transactionId;
+        this.error = error;
+        this.errorCode = errorCode;
+        this.timings = timings;
+        this.metadataUri = metadataUri;
+        this.imageUri = imageUri;
+    }
+
+    /**
+     * Create a failed result
+     * @param requestId The mint request ID
+     * @param error The error message
+     * @return The result
+     */
+    public static MintResult failure(String requestId, String error) {
+        return new MintResult(requestId, null, null, error, "UNKNOWN",
+                Collections.<String, Long>emptyMap(), null, null);
+    }
+
+    /**
+     * Read a result object written by the backend
+     * @param requestId The mint request ID, used if the result does not carry one
+     * @param json The result object
+     * @return The result
+     */
+    public static MintResult fromJson(String requestId, JsonObject json) {
+        String resultRequestId = getString(json, "requestId");
+        if (resultRequestId != null) {
+            requestId = resultRequestId;
+        }
+
+        Map<String, Long> timings = new LinkedHashMap<>();
+        if (json.has("timings") && json.get("timings").isJsonObject()) {
+            for (Map.Entry<String, JsonElement> entry : json.getAsJsonObject("timings").entrySet()) {
+                timings.put(entry.getKey(), entry.getValue().getAsLong());
+            }
+        }
+        timings = Collections.unmodifiableMap(timings);
+
+        // Sidecar responses carry "ok", single-mint results carry "status"
+        boolean ok = json.has("ok") ? json.get("ok").getAsBoolean() : "success".equals(getString(json, "status"));
+        if (!ok) {
+            String error = getString(json, "error");
+            String errorCode = getString(json, "errorCode");
+            return new MintResult(requestId, null, null, error != null ? error : "Unknown error",
+                    errorCode != null ? errorCode : "UNKNOWN", timings, null, null);
+        }
+
+        String mintAddress = getString(json, "mintAddress");
+        if (mintAddress == null) {
+            mintAddress = getString(json, "nftAddress");
+        }
+
+        // A resumed mint that was already transferred has no new transaction; use the mint address
+        String signature = getString(json, "signature");
+        return new MintResult(requestId, mintAddress, signature != null ? signature : mintAddress, null, null,
+                timings, getString(json, "metadataUri"), getString(json, "imageUri"));
+    }
+
+    /**
+     * Get an optional string field from a result object
+     * @param json The result object
+     * @param name The field name
+     * @return The value, or null if it is missing
+     */
+    private static String getString(JsonObject json, String name) {
+        return json.has(name) && !json.get(name).isJsonNull() ? json.get(name).getAsString() : null;
+    }
+
+    /**
+     * Check if the mint succeeded
+     * @return True if the mint succeeded
+     */
+    public boolean isSuccess() {
+        return error == null;
+    }
+
+    /**
+     * Get the mint request ID
+     * @return The mint request ID
+     */
+    public String getRequestId() {
+        return requestId;
+    }
+
+    /**
+     * Get the mint address
+     * @return The mint address, or null if the mint failed
+     */
+    public String getMintAddress() {
+        return mintAddress;
+    }
+
+    /**
+     * Get the transaction ID
+     * @return The transaction ID, or null if the mint failed
+     */
+    public String getTransactionId() {
+        return transactionId;
+    }
+
+    /**
+     * Get the error message
+     * @return The error message, or null if the mint succeeded
+     */
+    public String getError() {
+        return error;
+    }
+
+    /**
+     * Get the backend error code
+     * @return The error code, e.g. INSUFFICIENT_FUNDS or TIMEOUT, or null if the mint succeeded
+     */
+    public String getErrorCode() {
+        return errorCode;
+    }
+
+    /**
+     * Get how long each phase of the mint took in the backend
+     * @return The phase durations in milliseconds by phase name (upload, create, confirm, transfer, total)
+     */
+    public Map<String, Long> getTimings() {
+        return timings;
+    }
+
+    /**
+     * Get the metadata URI uploaded for this mint
+     * @return The metadata URI, or null if no metadata was uploaded
+     */
+    public String getMetadataUri() {
+        return metadataUri;
+    }
+
+    /**
+     * Get the image URI uploaded for this mint
+     * @return The image URI, or null if no image was uploaded
+     */
+    public String getImageUri() {
+        return imageUri;
+    }
+}
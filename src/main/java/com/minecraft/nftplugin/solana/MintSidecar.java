@@ -0,0 +1,416 @@
+package com.minecraft.nftplugin.solana;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import com.minecraft.nftplugin.NFTPlugin;
+import org.bukkit.Bukkit;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.logging.Level;
+
+/**
+ * Long-lived Node.js minting process.
+ * The backend is started once with --server and receives mint requests as line-delimited JSON on stdin.
+ * Responses are read from stdout and matched to their request by id.
+ * The process is restarted automatically if it exits while the plugin is running.
+ * A request that times out keeps running in the backend, so its mint request IDs are remembered until the
+ * backend answers or the process exits, and the dispatcher does not send them again in the meantime.
+ */
+public class MintSidecar {
+
+    private static final long MAX_RESTART_DELAY = 60000;
+
+    private final NFTPlugin plugin;
+    private final File backendDir;
+    private final List<String> command;
+    private final BackendLogForwarder backendLog;
+    private final Map<String, PendingRequest> pending = new ConcurrentHashMap<>();
+    // Mint request ID -> sidecar request ID of requests that timed out but may still be running in the backend
+    private final Map<String, String> timedOut = new ConcurrentHashMap<>();
+    private final AtomicLong nextRequestId = new AtomicLong();
+
+    private volatile Process process;
+    private volatile BufferedWriter writer;
+    private volatile boolean ready;
+    private volatile boolean running;
+    private long restartDelay;
+
+    public MintSidecar(NFTPlugin plugin, File backendDir, List<String> command, BackendLogForwarder backendLog) {
+        this.plugin = plugin;
+        this.backendDir = backendDir;
+        this.command = new ArrayList<>(command);
+        this.backendLog = backendLog;
+        this.restartDelay = plugin.getConfigManager().getSolanaSidecarRestartDelay();
+    }
+
+    /**
+     * Start the sidecar process and the timeout watchdog
+     */
+    public synchronized void start() {
+        if (running) {
+            return;
+        }
+
+        running = true;
+
+        // Fail requests that never got a response
+        Bukkit.getScheduler().runTaskTimerAsynchronously(plugin, this::expireRequests, 20L, 20L);
+
+        launch();
+    }
+
+    /**
+     * Launch the Node.js process
+     */
+    private synchronized void launch() {
+        if (!running) {
+            return;
+        }
+
+        try {
+            ProcessBuilder pb = new ProcessBuilder(command);
+            pb.directory(backendDir);
+
+            Process started = pb.start();
+            process = started;
+            writer = new BufferedWriter(new OutputStreamWriter(started.getOutputStream(), StandardCharsets.UTF_8));
+
+            Thread stdoutThread = new Thread(() -> readResponses(started), "NFTPlugin-MintSidecar-stdout");
+            stdoutThread.setDaemon(true);
+            stdoutThread.start();
+
+            Thread stderrThread = new Thread(() -> readLogs(started), "NFTPlugin-MintSidecar-stderr");
+            stderrThread.setDaemon(true);
+            stderrThread.start();
+
+            plugin.getLogger().info("Started mint sidecar process.");
+        } catch (IOException e) {
+            plugin.log(Level.SEVERE, "Failed to start mint sidecar: " + e.getMessage());
+            scheduleRestart();
+        }
+    }
+
+    /**
+     * Read responses from the sidecar until its stdout closes
+     * @param source The process to read from
+     */
+    private void readResponses(Process source) {
+        try (BufferedReader reader = new BufferedReader(
+                new InputStreamReader(source.getInputStream(), StandardCharsets.UTF_8))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                handleResponse(line);
+            }
+        } catch (IOException e) {
+            if (running) {
+                plugin.getLogger().warning("Lost connection to mint sidecar: " + e.getMessage());
+            }
+        }
+
+        onProcessExit(source);
+    }
+
+    /**
+     * Forward the sidecar's log output to the plugin logger
+     * @param source The process to read from
+     */
+    private void readLogs(Process source) {
+        try (BufferedReader reader = new BufferedReader(
+                new InputStreamReader(source.getErrorStream(), StandardCharsets.UTF_8))) {
+            BackendLogForwarder.LogStream logStream = backendLog.stream();
+            String line;
+            while ((line = reader.readLine()) != null) {
+                logStream.forward(line);
+            }
+        } catch (IOException ignored) {
+            // The stdout reader handles process exit
+        }
+    }
+
+    /**
+     * Handle a single response line
+     * @param line The JSON line
+     */
+    private void handleResponse(String line) {
+        JsonObject response;
+        try {
+            JsonElement element = JsonParser.parseString(line);
+            if (!element.isJsonObject()) {
+                plugin.getLogger().warning("Unexpected output from mint sidecar: " + line);
+                return;
+            }
+            response = element.getAsJsonObject();
+        } catch (Exception e) {
+            plugin.getLogger().warning("Unexpected output from mint sidecar: " + line);
+            return;
+        }
+
+        if (response.has("type") && "ready".equals(response.get("type").getAsString())) {
+            ready = true;
+            restartDelay = plugin.getConfigManager().getSolanaSidecarRestartDelay();
+            plugin.getLogger().info("Mint sidecar is ready.");
+            return;
+        }
+
+        if (!response.has("id")) {
+            plugin.getLogger().warning("Mint sidecar response without id: " + line);
+            return;
+        }
+
+        String id = response.get("id").getAsString();
+        PendingRequest request = pending.remove(id);
+        // The backend is done with the request's mints, even if it answered too late
+        timedOut.values().removeIf(id::equals);
+        if (request == null) {
+            // Already timed out or failed
+            return;
+        }
+
+        if (response.has("ok") && response.get("ok").getAsBoolean()) {
+            request.future.complete(response);
+        } else {
+            String error = response.has("error") ? response.get("error").getAsString() : "Unknown error";
+            String errorCode = response.has("errorCode") ? response.get("errorCode").getAsString() : "UNKNOWN";
+            request.future.completeExceptionally(new MintException(errorCode, "Failed to mint NFT: " + error));
+        }
+    }
+
+    /**
+     * Clean up after the process exits and restart it if the plugin is still running
+     * @param source The process that exited
+     */
+    private synchronized void onProcessExit(Process source) {
+        if (process != source) {
+            return;
+        }
+
+        ready = false;
+        process = null;
+        writer = null;
+
+        int exitCode = -1;
+        try {
+            exitCode = source.waitFor();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+
+        failAll("Mint sidecar exited with code " + exitCode + " before responding.");
+        // Whatever the old process was still working on is gone with it
+        timedOut.clear();
+
+        if (running) {
+            plugin.getLogger().warning("Mint sidecar exited with code " + exitCode + ". Restarting in " + restartDelay + "ms...");
+            scheduleRestart();
+        }
+    }
+
+    /**
+     * Schedule a restart with exponential backoff
+     */
+    private void scheduleRestart() {
+        if (!running) {
+            return;
+        }
+
+        long delayTicks = Math.max(1, restartDelay / 50);
+        restartDelay = Math.min(restartDelay * 2, MAX_RESTART_DELAY);
+        Bukkit.getScheduler().runTaskLaterAsynchronously(plugin, this::launch, delayTicks);
+    }
+
+    /**
+     * Send a mint request to the sidecar
+     * @param request The request fields (the id is assigned here)
+     * @return A CompletableFuture that completes with the response JSON
+     */
+    public CompletableFuture<JsonObject> submit(JsonObject request) {
+        CompletableFuture<JsonObject> future = new CompletableFuture<>();
+
+        if (!isReady()) {
+            future.completeExceptionally(new IllegalStateException("Mint sidecar is not running."));
+            return future;
+        }
+
+        String id = String.valueOf(nextRequestId.incrementAndGet());
+        request.addProperty("id", id);
+        if (!request.has("type")) {
+            request.addProperty("type", "mint");
+        }
+
+        long deadline = System.currentTimeMillis() + plugin.getConfigManager().getSolanaSidecarRequestTimeout();
+        pending.put(id, new PendingRequest(future, deadline, getMintRequestIds(request)));
+
+        try {
+            write(request.toString());
+        } catch (IOException e) {
+            pending.remove(id);
+            future.completeExceptionally(new RuntimeException("Failed to send request to mint sidecar: " + e.getMessage(), e));
+        }
+
+        return future;
+    }
+
+    /**
+     * Get the mint request IDs of a single mint or a batch request
+     * @param request The request
+     * @return The mint request IDs
+     */
+    private List<String> getMintRequestIds(JsonObject request) {
+        List<String> requestIds = new ArrayList<>();
+        if (request.has("requestId")) {
+            requestIds.add(request.get("requestId").getAsString());
+        }
+        if (request.has("items")) {
+            JsonArray items = request.getAsJsonArray("items");
+            for (JsonElement item : items) {
+                if (item.isJsonObject() && item.getAsJsonObject().has("requestId")) {
+                    requestIds.add(item.getAsJsonObject().get("requestId").getAsString());
+                }
+            }
+        }
+        return requestIds;
+    }
+
+    /**
+     * Write a line to the sidecar's stdin
+     * @param line The line to write
+     * @throws IOException If the process is not running or the write fails
+     */
+    private synchronized void write(String line) throws IOException {
+        BufferedWriter out = writer;
+        if (out == null) {
+            throw new IOException("Mint sidecar is not running");
+        }
+
+        out.write(line);
+        out.newLine();
+        out.flush();
+    }
+
+    /**
+     * Fail requests that are past their deadline.
+     * Their mints are remembered as still running until the backend answers.
+     */
+    private void expireRequests() {
+        long now = System.currentTimeMillis();
+        for (Map.Entry<String, PendingRequest> entry : pending.entrySet()) {
+            if (entry.getValue().deadline > now) {
+                continue;
+            }
+
+            // Remember the mints before giving up on the request, so a response racing in clears them again
+            for (String requestId : entry.getValue().requestIds) {
+                timedOut.put(requestId, entry.getKey());
+            }
+            if (!pending.remove(entry.getKey(), entry.getValue())) {
+                timedOut.values().removeIf(entry.getKey()::equals);
+                continue;
+            }
+
+            entry.getValue().future.completeExceptionally(
+                    new RuntimeException("Timed out waiting for mint sidecar response (request " + entry.getKey() + ")."));
+        }
+    }
+
+    /**
+     * Fail all pending requests
+     * @param message The error message
+     */
+    private void failAll(String message) {
+        List<PendingRequest> requests = new ArrayList<>(pending.values());
+        pending.clear();
+        for (PendingRequest request : requests) {
+            request.future.completeExceptionally(new RuntimeException(message));
+        }
+    }
+
+    /**
+     * Check if the sidecar is running and ready for requests
+     * @return True if the sidecar is ready
+     */
+    public boolean isReady() {
+        return running && ready && writer != null;
+    }
+
+    /**
+     * Check if the backend may still be working on a mint request whose response timed out
+     * @param requestId The mint request ID
+     * @return True if the mint must not be sent again yet
+     */
+    public boolean isStillRunning(String requestId) {
+        return timedOut.containsKey(requestId);
+    }
+
+    /**
+     * Get the number of requests waiting for a response
+     * @return The number of pending requests
+     */
+    public int getPendingCount() {
+        return pending.size();
+    }
+
+    /**
+     * Stop the sidecar process
+     */
+    public void stop() {
+        Process current;
+        synchronized (this) {
+            running = false;
+            ready = false;
+            current = process;
+        }
+
+        if (current == null) {
+            return;
+        }
+
+        try {
+            // Let the backend finish in-flight mints
+            write("{\"type\":\"shutdown\"}");
+        } catch (IOException ignored) {
+            // Process already gone
+        }
+
+        try {
+            if (!current.waitFor(10, TimeUnit.SECONDS)) {
+                current.destroy();
+            }
+        } catch (InterruptedException e) {
+            current.destroy();
+            Thread.currentThread().interrupt();
+        }
+
+        failAll("Mint sidecar was stopped.");
+        timedOut.clear();
+    }
+
+    /**
+     * A request waiting for a response
+     */
+    private static class PendingRequest {
+        private final CompletableFuture<JsonObject> future;
+        private final long deadline;
+        private final List<String> requestIds;
+
+        private PendingRequest(CompletableFuture<JsonObject> future, long deadline, List<String> requestIds) {
+            this.future = future;
+            this.deadline = deadline;
+            this.requestIds = requestIds;
+        }
+    }
+}
@@ -1,14 +1,37 @@
 package com.minecraft.nftplugin.solana;
 
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParseException;
+import com.google.gson.JsonParser;
 import com.minecraft.nftplugin.NFTPlugin;
 import com.minecraft.nftplugin.achievements.Achievement;
+import com.minecraft.nftplugin.database.MintOutboxEntry;
+import com.minecraft.nftplugin.database.NFTData;
+import com.minecraft.nftplugin.metadata.UploadCache;
 import org.bukkit.Bukkit;
 import org.bukkit.entity.Player;
 
+import java.io.BufferedReader;
 import java.io.File;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.UUID;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
 import java.util.logging.Level;
 
 /**
@@ -20,11 +43,23 @@ public class SolanaService {
     private final NFTPlugin plugin;
     private final File backendDir;
     private final File nodeJsScriptFile;
+    private final MintQueue mintQueue;
+    private final MintDispatcher mintDispatcher;
+    private final MintMetrics mintMetrics;
+    private final BackendLogForwarder backendLog;
+    private final BackendProvisioner provisioner;
+    private volatile boolean backendReady;
+    private volatile MintSidecar sidecar;
 
     public SolanaService(NFTPlugin plugin) {
         this.plugin = plugin;
         this.backendDir = new File(plugin.getDataFolder(), "solana-backend");
-        this.nodeJsScriptFile = new File(backendDir, "mint-nft.js");
+        this.nodeJsScriptFile = new File(backendDir, plugin.getConfigManager().isMockBackend() ? "mock-backend.js" : "mint-nft.js");
+        this.mintMetrics = new MintMetrics();
+        this.mintQueue = new MintQueue(plugin);
+        this.mintDispatcher = new MintDispatcher(plugin, this, mintQueue);
+        this.backendLog = new BackendLogForwarder(plugin);
+        this.provisioner = new BackendProvisioner(plugin, backendDir);
 
         // Initialize the Node.js backend
         initializeBackend();
@@ -39,89 +74,118 @@ public class SolanaService {
         // Check if the backend directory exists
         if (!backendDir.exists()) {
             plugin.getLogger().warning("Solana backend directory not found. Please restart the server.");
+            backendReady = true;
             return;
         }
 
         // Check if the script file exists
         if (!nodeJsScriptFile.exists()) {
             plugin.getLogger().warning("Solana backend script not found. Please restart the server.");
+            backendReady = true;
             return;
         }
 
         plugin.getLogger().info("Solana backend initialized. Script path: " + nodeJsScriptFile.getAbsolutePath());
 
+        // The mock backend has no dependencies and needs no wallet
+        if (plugin.getConfigManager().isMockBackend()) {
+            plugin.getLogger().warning("Using the offline mock Solana backend. No real NFTs will be minted.");
+            startSidecar();
+            backendReady = true;
+            return;
+        }
+
         // Create .env file from .env.example if it doesn't exist
         createEnvFileIfNeeded();
 
-        // Check if npm is installed
-        try {
-            ProcessBuilder pb = new ProcessBuilder("npm", "--version");
-            pb.redirectErrorStream(true);
-            Process process = pb.start();
-
-            int exitCode = process.waitFor();
-            if (exitCode != 0) {
-                plugin.getLogger().warning("npm not found. Please install Node.js and npm to use the Solana NFT features.");
+        // npm runs in the background; mints wait in the outbox until the backend is ready
+        plugin.getLogger().info("Checking Solana backend dependencies in the background...");
+        provisioner.provision(false, false).whenComplete((ok, error) -> {
+            if (Boolean.TRUE.equals(ok)) {
+                startSidecar();
             } else {
-                plugin.getLogger().info("npm is installed. Checking and updating dependencies...");
-                updateDependencies();
+                plugin.getLogger().warning("Solana backend dependencies are not installed. Mints will fail until they are.");
             }
-        } catch (Exception e) {
-            plugin.getLogger().warning("Failed to check npm installation: " + e.getMessage());
-        }
+            backendReady = true;
+            plugin.getLogger().info("Solana backend is ready (provisioned in " + provisioner.getDurationMillis() + "ms" +
+                    (provisioner.isSkipped() ? ", dependencies unchanged)." : ")."));
+
+            // Send the mints that were requested while npm was running
+            Bukkit.getScheduler().runTaskAsynchronously(plugin, mintDispatcher::dispatch);
+        });
     }
 
     /**
-     * Update dependencies for the Solana backend
-     * @param clean Whether to clean node_modules and reinstall all dependencies
+     * Check whether the backend has finished provisioning
+     * @return True if mints can be sent to the backend
      */
-    public void updateDependencies(boolean clean) {
-        File updateScriptFile = new File(backendDir, "update-dependencies.js");
+    public boolean isBackendReady() {
+        return backendReady;
+    }
 
-        if (!updateScriptFile.exists()) {
-            plugin.getLogger().warning("Update dependencies script not found: " + updateScriptFile.getAbsolutePath());
+    /**
+     * Get the backend provisioner
+     * @return The backend provisioner
+     */
+    public BackendProvisioner getProvisioner() {
+        return provisioner;
+    }
+
+    /**
+     * Start the long-lived minting process if it is enabled
+     */
+    private void startSidecar() {
+        if (!plugin.getConfigManager().isSolanaSidecarEnabled()) {
+            plugin.getLogger().info("Mint sidecar is disabled. A new Node.js process will be started for each mint.");
             return;
         }
 
-        try {
-            plugin.getLogger().info("Running dependency update script" + (clean ? " with clean install..." : "..."));
-
-            ProcessBuilder pb;
-            if (clean) {
-                pb = new ProcessBuilder("node", updateScriptFile.getAbsolutePath(), "--clean");
-            } else {
-                pb = new ProcessBuilder("node", updateScriptFile.getAbsolutePath());
-            }
-
-            pb.directory(backendDir);
-            pb.redirectErrorStream(true);
-            Process process = pb.start();
+        String privateKey = plugin.getConfigManager().getSolanaServerWalletPrivateKey();
+        if (!plugin.getConfigManager().isMockBackend() && (privateKey == null || privateKey.isEmpty())) {
+            plugin.getLogger().warning("Mint sidecar not started: server wallet private key is not configured.");
+            return;
+        }
 
-            // Read the output
-            java.io.BufferedReader reader = new java.io.BufferedReader(
-                    new java.io.InputStreamReader(process.getInputStream()));
+        sidecar = new MintSidecar(plugin, backendDir, buildBackendCommand(true), backendLog);
+        sidecar.start();
+    }
 
-            String line;
-            while ((line = reader.readLine()) != null) {
-                plugin.getLogger().info("Dependency update: " + line);
-            }
+    /**
+     * Resume unfinished mints from the outbox and start dispatching new ones
+     */
+    public void startMintDispatcher() {
+        mintDispatcher.start();
+    }
 
-            int exitCode = process.waitFor();
-            if (exitCode == 0) {
-                plugin.getLogger().info("Dependencies updated successfully.");
-            } else {
-                plugin.getLogger().warning("Failed to update dependencies. Exit code: " + exitCode);
-            }
-        } catch (Exception e) {
-            plugin.getLogger().warning("Failed to update dependencies: " + e.getMessage());
+    /**
+     * Stop the mint dispatcher, the mint queue and the minting process
+     */
+    public void shutdown() {
+        mintDispatcher.stop();
+        mintQueue.shutdown();
+        provisioner.shutdown();
+
+        if (sidecar != null) {
+            sidecar.stop();
+            sidecar = null;
         }
     }
 
+    /**
+     * Get the mint sidecar
+     * @return The mint sidecar, or null if it is not enabled
+     */
+    public MintSidecar getSidecar() {
+        return sidecar;
+    }
+
     /**
      * Update dependencies for the Solana backend
+     * @param clean Whether to clean node_modules and reinstall all dependencies
+     * @return A CompletableFuture that completes with true if the dependencies were installed
      */
-    private void updateDependencies() {
-        updateDependencies(false);
+    public CompletableFuture<Boolean> updateDependencies(boolean clean) {
+        return provisioner.provision(true, clean);
     }
 
     /**
@@ -133,9 +197,9 @@ public class SolanaService {
         if (!envFile.exists()) {
             try {
                 // Create custom .env file with clear instructions
-                java.util.List<String> lines = new java.util.ArrayList<>();
+                List<String> lines = new ArrayList<>();
                 lines.add("# Solana NFT Plugin Configuration");
-                lines.add("# Created on: " + new java.util.Date());
+                lines.add("# Created on: " + new Date());
                 lines.add("");
                 lines.add("# IMPORTANT: You must set your Solana wallet private key here");
                 lines.add("# This wallet will be used to mint NFTs and pay for transaction fees");
@@ -157,8 +221,8 @@ public class SolanaService {
                 lines.add("RETRY_COUNT=5");
 
                 // Write the file
-                java.nio.file.Path envPath = envFile.toPath();
-                java.nio.file.Files.write(envPath, lines);
+                Path envPath = envFile.toPath();
+                Files.write(envPath, lines);
 
                 plugin.getLogger().info("Created .env file in " + backendDir.getAbsolutePath());
                 plugin.getLogger().warning("IMPORTANT: You need to edit the .env file and set your Solana wallet private key!");
@@ -169,8 +233,8 @@ public class SolanaService {
         } else {
             // Check if the private key is set in the .env file
             try {
-                java.nio.file.Path envPath = envFile.toPath();
-                java.util.List<String> lines = java.nio.file.Files.readAllLines(envPath);
+                Path envPath = envFile.toPath();
+                List<String> lines = Files.readAllLines(envPath);
                 boolean hasPrivateKey = false;
 
                 for (String line : lines) {
@@ -226,10 +290,10 @@ public class SolanaService {
      * Mint an NFT for a player
      * @param player The player
      * @param achievementKey The achievement key
-     * @return A CompletableFuture that completes with the transaction ID when the NFT is minted
+     * @return A CompletableFuture that completes with the recorded NFT when it is minted
      */
-    public CompletableFuture<String> mintNft(Player player, String achievementKey) {
-        CompletableFuture<String> future = new CompletableFuture<>();
+    public CompletableFuture<NFTData> mintNft(Player player, String achievementKey) {
+        CompletableFuture<NFTData> future = new CompletableFuture<>();
 
         // Get the player's wallet address from SolanaLogin
         UUID playerUuid = player.getUniqueId();
@@ -261,12 +325,148 @@ public class SolanaService {
 
         Achievement achievement = achievementOpt.get();
 
+        // Check if metadata file exists
+        File metadataFile = new File(plugin.getDataFolder(), achievement.getMetadataFilePath());
+        if (!metadataFile.exists()) {
+            plugin.getLogger().warning("Metadata file not found for achievement: " + achievementKey);
+            plugin.getLogger().warning("Using default metadata from achievement object");
+        } else {
+            plugin.getLogger().info("Using metadata file: " + metadataFile.getAbsolutePath());
+        }
+
+        // Get server wallet private key
+        String privateKey = plugin.getConfigManager().getSolanaServerWalletPrivateKey();
+        if (!plugin.getConfigManager().isMockBackend() && (privateKey == null || privateKey.isEmpty())) {
+            String errorMsg = "Server wallet private key is not configured. Please set it in one of the following ways:\n" +
+                    "1. Add SOLANA_PRIVATE_KEY=your_private_key to plugins/NFTPlugin/solana-backend/.env file\n" +
+                    "2. Set SOLANA_PRIVATE_KEY environment variable in your system\n" +
+                    "3. Add server_wallet_private_key: 'your_private_key' to config.yml (not recommended for security reasons)";
+            plugin.getLogger().severe(errorMsg);
+            future.completeExceptionally(new IllegalStateException(errorMsg));
+            return future;
+        }
+
+        // Save the request to the outbox; the dispatcher sends it to the backend
+        return mintDispatcher.enqueue(player, walletAddress, achievementKey);
+    }
+
+    /**
+     * Mint the NFT for a claimed outbox request and wait for the result.
+     * Runs on a mint queue thread.
+     * @param entry The outbox entry
+     * @return The mint result
+     * @throws Exception If the mint fails
+     */
+    MintResult executeMint(MintOutboxEntry entry) throws Exception {
+        JsonObject request = buildMintRequest(entry);
+        long started = System.currentTimeMillis();
+
+        try {
+            MintSidecar activeSidecar = sidecar;
+            MintResult result;
+            if (activeSidecar != null && activeSidecar.isReady()) {
+                result = mintWithSidecar(activeSidecar, request);
+            } else {
+                result = mintWithProcess(request);
+            }
+
+            mintMetrics.recordBackendTimings(result, System.currentTimeMillis() - started);
+            rememberUploads(request, result);
+            return result;
+        } catch (Exception e) {
+            plugin.log(Level.SEVERE, "Failed to mint NFT: " + e.getMessage());
+            throw e;
+        }
+    }
+
+    /**
+     * Check if claimed requests can be sent to the backend in batches
+     * @return True if the sidecar is ready and batching is enabled
+     */
+    boolean canMintInBatches() {
+        MintSidecar activeSidecar = sidecar;
+        return plugin.getConfigManager().isMintBatchEnabled() && activeSidecar != null && activeSidecar.isReady();
+    }
+
+    /**
+     * Mint the NFTs for several claimed outbox requests in one backend request and wait for the results.
+     * Runs on a mint queue thread.
+     * @param entries The outbox entries
+     * @return One result per entry
+     * @throws Exception If the whole batch fails
+     */
+    List<MintResult> executeMintBatch(List<MintOutboxEntry> entries) throws Exception {
+        MintSidecar activeSidecar = sidecar;
+        if (activeSidecar == null || !activeSidecar.isReady()) {
+            throw new IllegalStateException("Mint sidecar is not running.");
+        }
+
+        JsonArray items = new JsonArray();
+        Map<String, JsonObject> requests = new HashMap<>();
+        for (MintOutboxEntry entry : entries) {
+            JsonObject item = buildMintRequest(entry);
+            items.add(item);
+            requests.put(entry.getRequestId(), item);
+        }
+
+        JsonObject request = new JsonObject();
+        request.addProperty("type", "mint_batch");
+        request.addProperty("itemsPerTransaction", plugin.getConfigManager().getMintBatchItemsPerTransaction());
+        request.add("items", items);
+
+        plugin.getLogger().info("Sending batch of " + entries.size() + " mint(s) to the backend");
+
+        long started = System.currentTimeMillis();
+        JsonObject response;
+        try {
+            response = activeSidecar.submit(request).get();
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof Exception) {
+                throw (Exception) e.getCause();
+            }
+            throw e;
+        }
+        long elapsed = System.currentTimeMillis() - started;
+
+        // Map the results back to the requests
+        Map<String, MintResult> byRequestId = new HashMap<>();
+        for (JsonElement element : response.getAsJsonArray("results")) {
+            MintResult result = MintResult.fromJson(null, element.getAsJsonObject());
+            if (result.getRequestId() == null) {
+                continue;
+            }
+
+            byRequestId.put(result.getRequestId(), result);
+            if (result.isSuccess()) {
+                mintMetrics.recordBackendTimings(result, elapsed);
+            }
+            if (requests.containsKey(result.getRequestId())) {
+                rememberUploads(requests.get(result.getRequestId()), result);
+            }
+        }
+
+        List<MintResult> results = new ArrayList<>();
+        for (MintOutboxEntry entry : entries) {
+            MintResult result = byRequestId.get(entry.getRequestId());
+            results.add(result != null ? result : MintResult.failure(entry.getRequestId(), "No result returned for request."));
+        }
+        return results;
+    }
+
+    /**
+     * Build the backend request for an outbox entry
+     * @param entry The outbox entry
+     * @return The mint request
+     */
+    private JsonObject buildMintRequest(MintOutboxEntry entry) {
+        String achievementKey = entry.getAchievementKey();
+
         // Check if we have a complete metadata URI
         String metadataUri = plugin.getConfigManager().getNftMetadataUri(achievementKey);
         final boolean useMetadataUri = metadataUri != null && !metadataUri.isEmpty();
 
         // Only log detailed information at debug level
-        if (plugin.getLogger().isLoggable(java.util.logging.Level.FINE)) {
+        if (plugin.getLogger().isLoggable(Level.FINE)) {
             if (useMetadataUri) {
                 plugin.getLogger().fine("Using complete metadata URI: " + metadataUri);
             } else {
@@ -281,160 +481,267 @@ public class SolanaService {
         String nftImageUrl = plugin.getMetadataManager().getNftImageUrl(achievementKey);
 
         // Get attributes from metadata
-        com.google.gson.JsonArray attributes = plugin.getMetadataManager().getNftAttributes(achievementKey);
+        JsonArray attributes = plugin.getMetadataManager().getNftAttributes(achievementKey);
         final String attributesJson;
         if (attributes != null) {
             attributesJson = attributes.toString();
-            plugin.getLogger().info("Found attributes in metadata: " + attributesJson);
+            plugin.getLogger().fine("Found attributes in metadata: " + attributesJson);
         } else {
             attributesJson = "[]";
         }
 
-        plugin.getLogger().info("NFT Metadata for " + achievementKey + ":");
-        plugin.getLogger().info("Name: " + nftName);
-        plugin.getLogger().info("Symbol: " + nftSymbol);
-        plugin.getLogger().info("Description: " + nftDescription);
-        plugin.getLogger().info("Image URL: " + nftImageUrl);
-        plugin.getLogger().info("Attributes: " + attributesJson);
+        if (plugin.getLogger().isLoggable(Level.FINE)) {
+            plugin.getLogger().fine("NFT Metadata for " + achievementKey + ": name=" + nftName + ", symbol=" + nftSymbol +
+                    ", description=" + nftDescription + ", image=" + nftImageUrl + ", attributes=" + attributesJson);
+        }
 
-        // Check if metadata file exists
-        File metadataFile = new File(plugin.getDataFolder(), achievement.getMetadataFilePath());
-        if (!metadataFile.exists()) {
-            plugin.getLogger().warning("Metadata file not found for achievement: " + achievementKey);
-            plugin.getLogger().warning("Using default metadata from achievement object");
+        // Build the mint request. The request ID lets the backend resume a mint that was interrupted.
+        JsonObject request = new JsonObject();
+        request.addProperty("requestId", entry.getRequestId());
+        request.addProperty("recipient", entry.getWalletAddress());
+        request.addProperty("name", nftName);
+        request.addProperty("symbol", nftSymbol);
+        request.addProperty("description", nftDescription);
+        request.addProperty("image", nftImageUrl);
+        request.addProperty("player", entry.getPlayerName());
+        request.addProperty("achievement", achievementKey);
+        if (useMetadataUri) {
+            request.addProperty("metadataUri", metadataUri);
         } else {
-            plugin.getLogger().info("Using metadata file: " + metadataFile.getAbsolutePath());
+            // Reuse an earlier upload of the same metadata instead of uploading it for every mint
+            UploadCache uploadCache = plugin.getMetadataManager().getUploadCache();
+            String contentHash = UploadCache.hash(nftName + "\n" + nftSymbol + "\n" + nftDescription + "\n" +
+                    nftImageUrl + "\n" + attributesJson);
+            String cachedUri = uploadCache.getMetadataUri(achievementKey, contentHash);
+
+            if (cachedUri != null) {
+                plugin.getLogger().fine("Using cached metadata upload for " + achievementKey + ": " + cachedUri);
+                request.addProperty("metadataUri", cachedUri);
+            } else {
+                request.addProperty("attributes", attributesJson);
+                request.addProperty("contentHash", contentHash);
+
+                String imageUri = uploadCache.getImageUri(nftImageUrl);
+                if (imageUri != null) {
+                    request.addProperty("imageUri", imageUri);
+                }
+            }
         }
 
-        // Get server wallet private key
+        return request;
+    }
+
+    /**
+     * Remember the image and metadata the backend uploaded for a mint, so later mints of the
+     * same achievement reuse them
+     * @param request The mint request
+     * @param result The mint result
+     */
+    private void rememberUploads(JsonObject request, MintResult result) {
+        if (!result.isSuccess() || !request.has("contentHash")) {
+            return;
+        }
+
+        UploadCache uploadCache = plugin.getMetadataManager().getUploadCache();
+        if (result.getImageUri() != null) {
+            uploadCache.putImageUri(request.get("image").getAsString(), result.getImageUri());
+        }
+        if (result.getMetadataUri() != null) {
+            uploadCache.putMetadataUri(request.get("achievement").getAsString(),
+                    request.get("contentHash").getAsString(), result.getMetadataUri());
+        }
+    }
+
+    /**
+     * Mint an NFT through the running sidecar and wait for the result
+     * @param activeSidecar The sidecar
+     * @param request The mint request
+     * @return The mint result
+     * @throws Exception If the mint fails
+     */
+    private MintResult mintWithSidecar(MintSidecar activeSidecar, JsonObject request) throws Exception {
+        JsonObject response;
+        try {
+            response = activeSidecar.submit(request).get();
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof Exception) {
+                throw (Exception) e.getCause();
+            }
+            throw e;
+        }
+
+        return MintResult.fromJson(request.get("requestId").getAsString(), response);
+    }
+
+    /**
+     * Build the command that starts the backend, with the settings shared by all mints
+     * @param server Whether to start the backend in server mode
+     * @return The command
+     */
+    private List<String> buildBackendCommand(boolean server) {
+        List<String> command = new ArrayList<>(Arrays.asList(
+                "node",
+                nodeJsScriptFile.getAbsolutePath()
+        ));
+        if (server) {
+            command.add("--server");
+        }
+
+        command.add("--network");
+        command.add(plugin.getConfigManager().getSolanaNetwork());
+        command.add("--rpc-url");
+        command.add(plugin.getConfigManager().getSolanaRpcUrl());
+        command.add("--retry-count");
+        command.add(String.valueOf(plugin.getConfigManager().getSolanaRetryCount()));
+
         String privateKey = plugin.getConfigManager().getSolanaServerWalletPrivateKey();
-        if (privateKey == null || privateKey.isEmpty()) {
-            String errorMsg = "Server wallet private key is not configured. Please set it in one of the following ways:\n" +
-                    "1. Add SOLANA_PRIVATE_KEY=your_private_key to plugins/NFTPlugin/solana-backend/.env file\n" +
-                    "2. Set SOLANA_PRIVATE_KEY environment variable in your system\n" +
-                    "3. Add server_wallet_private_key: 'your_private_key' to config.yml (not recommended for security reasons)";
-            plugin.getLogger().severe(errorMsg);
-            future.completeExceptionally(new IllegalStateException(errorMsg));
-            return future;
+        if (privateKey != null && !privateKey.isEmpty()) {
+            command.add("--private-key");
+            command.add(privateKey);
         }
 
-        // Get Solana network settings
-        String network = plugin.getConfigManager().getSolanaNetwork();
-        String rpcUrl = plugin.getConfigManager().getSolanaRpcUrl();
+        if (plugin.getConfigManager().isMockBackend()) {
+            command.addAll(Arrays.asList(
+                    "--latency", String.valueOf(plugin.getConfigManager().getMockLatency()),
+                    "--latency-spread", String.valueOf(plugin.getConfigManager().getMockLatencySpread()),
+                    "--failure-rate", String.valueOf(plugin.getConfigManager().getMockFailureRate()),
+                    "--failure-codes", plugin.getConfigManager().getMockFailureCodes(),
+                    "--max-per-second", String.valueOf(plugin.getConfigManager().getMockMaxPerSecond()),
+                    "--seed", plugin.getConfigManager().getMockSeed()
+            ));
+        }
 
-        // Run the minting process asynchronously
-        Bukkit.getScheduler().runTaskAsynchronously(plugin, () -> {
-            try {
-                // Prepare the command to run the Node.js script
-                ProcessBuilder pb;
-
-                if (useMetadataUri) {
-                    // If we have a metadata URI, use it directly
-                    // But also include name, description, image, and symbol to satisfy the script's validation
-                    // Also include player and achievement for better tracking
-                    pb = new ProcessBuilder(
-                            "node",
-                            nodeJsScriptFile.getAbsolutePath(),
-                            "--network", network,
-                            "--rpc-url", rpcUrl,
-                            "--private-key", privateKey,
-                            "--recipient", walletAddress,
-                            "--metadata-uri", metadataUri,
-                            "--name", nftName,
-                            "--symbol", nftSymbol,
-                            "--description", nftDescription,
-                            "--image", nftImageUrl,
-                            "--player", player.getName(),
-                            "--achievement", achievementKey
-                    );
-                } else {
-                    // Otherwise, use individual metadata fields
-                    pb = new ProcessBuilder(
-                            "node",
-                            nodeJsScriptFile.getAbsolutePath(),
-                            "--network", network,
-                            "--rpc-url", rpcUrl,
-                            "--private-key", privateKey,
-                            "--recipient", walletAddress,
-                            "--name", nftName,
-                            "--symbol", nftSymbol,
-                            "--description", nftDescription,
-                            "--image", nftImageUrl,
-                            "--player", player.getName(),
-                            "--achievement", achievementKey,
-                            "--attributes", attributesJson
-                    );
-                }
+        return command;
+    }
+
+    /**
+     * Mint an NFT by starting a Node.js process for this mint only
+     * @param request The mint request
+     * @return The mint result
+     * @throws Exception If the mint fails
+     */
+    private MintResult mintWithProcess(JsonObject request) throws Exception {
+        // Prepare the command to run the Node.js script
+        List<String> command = buildBackendCommand(false);
+        command.addAll(Arrays.asList(
+                "--recipient", request.get("recipient").getAsString(),
+                "--name", request.get("name").getAsString(),
+                "--symbol", request.get("symbol").getAsString(),
+                "--description", request.get("description").getAsString(),
+                "--image", request.get("image").getAsString(),
+                "--player", request.get("player").getAsString(),
+                "--achievement", request.get("achievement").getAsString(),
+                "--request-id", request.get("requestId").getAsString()
+        ));
+
+        if (request.has("metadataUri")) {
+            // If we have a metadata URI, use it directly
+            command.add("--metadata-uri");
+            command.add(request.get("metadataUri").getAsString());
+        } else {
+            // Otherwise, use individual metadata fields
+            command.add("--attributes");
+            command.add(request.get("attributes").getAsString());
 
-                // Set the working directory
-                pb.directory(backendDir);
-
-                // Redirect error stream to output stream
-                pb.redirectErrorStream(true);
-
-                // Start the process
-                Process process = pb.start();
-
-                // Read the output
-                java.io.BufferedReader reader = new java.io.BufferedReader(
-                        new java.io.InputStreamReader(process.getInputStream()));
-
-                StringBuilder output = new StringBuilder();
-                String line;
-                while ((line = reader.readLine()) != null) {
-                    output.append(line).append("\n");
-                    plugin.getLogger().info("Node.js: " + line);
-
-                    // Check if the line contains the transaction ID
-                    if (line.startsWith("SUCCESS:")) {
-                        String[] parts = line.split(":");
-                        if (parts.length >= 3) {
-                            String mintAddress = parts[1].trim();
-                            String transactionId = parts[2].trim();
-
-                            // Log detailed information
-                            plugin.getLogger().info("NFT minted successfully!");
-                            plugin.getLogger().info("Player: " + player.getName());
-                            plugin.getLogger().info("Wallet Address: " + walletAddress);
-                            plugin.getLogger().info("Mint Address: " + mintAddress);
-                            plugin.getLogger().info("Transaction ID: " + transactionId);
-
-                            // Generate a unique NFT ID
-                            String nftId = UUID.randomUUID().toString();
-
-                            // Record the NFT in the database
-                            boolean recorded = plugin.getDatabaseManager().recordNft(
-                                    playerUuid, achievementKey, nftId, mintAddress, transactionId);
-
-                            if (recorded) {
-                                // Complete the future with the transaction ID
-                                future.complete(transactionId);
-                            } else {
-                                future.completeExceptionally(new RuntimeException("Failed to record NFT in database."));
-                            }
+            if (request.has("contentHash")) {
+                command.add("--content-hash");
+                command.add(request.get("contentHash").getAsString());
+            }
+            if (request.has("imageUri")) {
+                command.add("--image-uri");
+                command.add(request.get("imageUri").getAsString());
+            }
+        }
+
+        ProcessBuilder pb = new ProcessBuilder(command);
+
+        // Set the working directory
+        pb.directory(backendDir);
+
+        // Start the process
+        Process process = pb.start();
+
+        // Log output goes to stderr; keep the last lines for the error message if no result is printed
+        Deque<String> logTail = new ArrayDeque<>();
+        Thread logThread = new Thread(() -> {
+            BackendLogForwarder.LogStream logStream = backendLog.stream();
+            try (BufferedReader logReader = new BufferedReader(new InputStreamReader(
+                    process.getErrorStream(), StandardCharsets.UTF_8))) {
+                String logLine;
+                while ((logLine = logReader.readLine()) != null) {
+                    logStream.forward(logLine);
+                    synchronized (logTail) {
+                        logTail.addLast(logLine);
+                        if (logTail.size() > 20) {
+                            logTail.removeFirst();
                         }
                     }
                 }
-
-                // Wait for the process to complete
-                int exitCode = process.waitFor();
-
-                // If the future is not completed yet, complete it exceptionally
-                if (!future.isDone()) {
-                    if (exitCode != 0) {
-                        future.completeExceptionally(new RuntimeException(
-                                "Failed to mint NFT. Exit code: " + exitCode + "\nOutput: " + output.toString()));
-                    } else {
-                        future.completeExceptionally(new RuntimeException(
-                                "Failed to mint NFT. No transaction ID found in output.\nOutput: " + output.toString()));
+            } catch (IOException ignored) {
+                // The process exited
+            }
+        }, "NFTPlugin-Mint-stderr");
+        logThread.setDaemon(true);
+        logThread.start();
+
+        // stdout carries only the JSON result
+        JsonObject resultJson = null;
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(
+                process.getInputStream(), StandardCharsets.UTF_8))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                try {
+                    JsonElement element = JsonParser.parseString(line);
+                    if (element.isJsonObject()) {
+                        resultJson = element.getAsJsonObject();
                     }
+                } catch (JsonParseException e) {
+                    plugin.getLogger().warning("Unexpected output from Node.js: " + line);
                 }
-            } catch (Exception e) {
-                plugin.log(Level.SEVERE, "Failed to mint NFT: " + e.getMessage());
-                future.completeExceptionally(e);
             }
-        });
+        }
+
+        // Wait for the process to complete
+        int exitCode = process.waitFor();
+        logThread.join(1000);
+
+        if (resultJson != null) {
+            MintResult result = MintResult.fromJson(request.get("requestId").getAsString(), resultJson);
+            if (!result.isSuccess()) {
+                throw new MintException(result.getErrorCode(), "Failed to mint NFT: " + result.getError());
+            }
+            return result;
+        }
+
+        String output;
+        synchronized (logTail) {
+            output = String.join("\n", logTail);
+        }
+        throw new RuntimeException(
+                "Failed to mint NFT. Exit code: " + exitCode + ", no result found in output.\nOutput: " + output);
+    }
+
+    /**
+     * Get the mint dispatcher
+     * @return The mint dispatcher
+     */
+    public MintDispatcher getMintDispatcher() {
+        return mintDispatcher;
+    }
 
-        return future;
+    /**
+     * Get the mint latency and outcome metrics
+     * @return The mint metrics
+     */
+    public MintMetrics getMintMetrics() {
+        return mintMetrics;
+    }
+
+    /**
+     * Get the mint queue
+     * @return The mint queue
+     */
+    public MintQueue getMintQueue() {
+        return mintQueue;
     }
 }
@@ -5,11 +5,15 @@ import org.bukkit.configuration.file.FileConfiguration;
 import org.bukkit.configuration.file.YamlConfiguration;
 import org.bukkit.entity.Player;
 import org.bukkit.inventory.ItemStack;
+import org.bukkit.inventory.meta.ItemMeta;
+import org.bukkit.persistence.PersistentDataType;
 
 import java.io.File;
 import java.io.IOException;
 import java.util.HashMap;
+import java.util.Iterator;
 import java.util.Map;
+import java.util.Set;
 import java.util.UUID;
 
 /**
@@ -169,6 +173,39 @@ public class SimpleNFTInventory {
         return inventory.get(slot);
     }
     
+    /**
+     * Remove revoked NFT items from a player's inventory and save it
+     * @param player The player
+     * @param nftIds The revoked NFT IDs or transaction IDs
+     * @return The number of items removed
+     */
+    public int removeNfts(Player player, Set<String> nftIds) {
+        UUID uuid = player.getUniqueId();
+
+        // Load inventory if not loaded
+        if (!inventories.containsKey(uuid)) {
+            loadInventory(player);
+        }
+
+        Map<Integer, ItemStack> inventory = inventories.get(uuid);
+        int removed = 0;
+        Iterator<ItemStack> items = inventory.values().iterator();
+        while (items.hasNext()) {
+            ItemStack item = items.next();
+            ItemMeta meta = item.getItemMeta();
+            String nftId = meta != null ? meta.getPersistentDataContainer().get(plugin.getItemManager().getNftIdKey(), PersistentDataType.STRING) : null;
+            if (nftId != null && nftIds.contains(nftId)) {
+                items.remove();
+                removed++;
+            }
+        }
+
+        if (removed > 0) {
+            saveInventory(player);
+        }
+        return removed;
+    }
+
     /**
      * Clear a player's inventory
      * @param player The player
@@ -8,6 +8,7 @@ import org.bukkit.configuration.file.FileConfiguration;
 
 import java.io.File;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.Map;
 
 public class ConfigManager {
@@ -21,9 +22,23 @@ public class ConfigManager {
     public ConfigManager(NFTPlugin plugin) {
         this.plugin = plugin;
         this.config = plugin.getConfig();
+        removeObsoleteKeys();
         cacheMessages();
     }
 
+    /**
+     * Remove keys that are no longer used from the config file
+     */
+    private void removeObsoleteKeys() {
+        // The periodic buff update was replaced by buffs.refresh_interval_ticks. Its value meant something else,
+        // so it is dropped rather than carried over.
+        if (config.isSet("buffs.update_interval")) {
+            config.set("buffs.update_interval", null);
+            plugin.saveConfig();
+            plugin.getLogger().info("Removed the obsolete buffs.update_interval setting; see buffs.refresh_interval_ticks.");
+        }
+    }
+
     /**
      * Cache messages for faster access
      */
@@ -66,6 +81,30 @@ public class ConfigManager {
         return message;
     }
 
+    /**
+     * Get the database type
+     * @return The database type (mysql or h2)
+     */
+    public String getDatabaseType() {
+        return config.getString("database.type", "mysql");
+    }
+
+    /**
+     * Get the embedded database file name, relative to the plugin folder
+     * @return The database file name
+     */
+    public String getDatabaseFile() {
+        return config.getString("database.file", "nftplugin");
+    }
+
+    /**
+     * Check if the embedded database is kept in memory only
+     * @return True if the embedded database is not written to disk
+     */
+    public boolean isDatabaseInMemory() {
+        return config.getBoolean("database.in-memory", false);
+    }
+
     /**
      * Get the database host
      * @return The database host
@@ -114,6 +153,136 @@ public class ConfigManager {
         return config.getString("database.table-prefix", "nftplugin_");
     }
 
+    /**
+     * Get the maximum number of pooled database connections
+     * @return The pool size
+     */
+    public int getDatabasePoolSize() {
+        return config.getInt("database.connection-pool-size", 10);
+    }
+
+    /**
+     * Get the number of idle connections the pool keeps open
+     * @return The minimum idle connections, or -1 to keep the pool at its full size
+     */
+    public int getDatabaseMinimumIdle() {
+        return config.getInt("database.minimum-idle", -1);
+    }
+
+    /**
+     * Get how long to wait for a pooled connection
+     * @return The connection timeout in milliseconds
+     */
+    public long getDatabaseConnectionTimeout() {
+        return config.getLong("database.connection-timeout", 10000L);
+    }
+
+    /**
+     * Get how long an idle connection above the minimum is kept
+     * @return The idle timeout in milliseconds
+     */
+    public long getDatabaseIdleTimeout() {
+        return config.getLong("database.idle-timeout", 600000L);
+    }
+
+    /**
+     * Get the maximum lifetime of a pooled connection
+     * @return The maximum lifetime in milliseconds
+     */
+    public long getDatabaseMaxLifetime() {
+        return config.getLong("database.max-lifetime", 1800000L);
+    }
+
+    /**
+     * Get how often idle connections are pinged to keep them alive
+     * @return The keepalive time in milliseconds, 0 to disable
+     */
+    public long getDatabaseKeepaliveTime() {
+        return config.getLong("database.keepalive-time", 0L);
+    }
+
+    /**
+     * Get how long a connection may be held before a possible leak is logged
+     * @return The leak detection threshold in milliseconds, 0 to disable
+     */
+    public long getDatabaseLeakDetectionThreshold() {
+        return config.getLong("database.leak-detection-threshold", 0L);
+    }
+
+    /**
+     * Get the JDBC driver properties that override the built-in defaults
+     * @return The driver properties by name
+     */
+    public Map<String, String> getDatabaseDriverProperties() {
+        Map<String, String> properties = new LinkedHashMap<>();
+        ConfigurationSection section = config.getConfigurationSection("database.driver-properties");
+        if (section != null) {
+            for (String key : section.getKeys(false)) {
+                Object value = section.get(key);
+                if (value != null) {
+                    properties.put(key, value.toString());
+                }
+            }
+        }
+        return properties;
+    }
+
+    /**
+     * Get the number of threads that run database queries for the main thread
+     * @return The number of database threads
+     */
+    public int getDatabaseExecutorThreads() {
+        return config.getInt("database.executor-threads", 4);
+    }
+
+    /**
+     * Get how often buffered achievement progress is written to the database
+     * @return The flush interval in ticks
+     */
+    public long getProgressFlushInterval() {
+        return config.getLong("database.progress-flush-interval", 200L);
+    }
+
+    /**
+     * Get how often players whose inventory changed have their buffs refreshed
+     * @return The refresh interval in ticks
+     */
+    public long getBuffRefreshInterval() {
+        return config.getLong("buffs.refresh_interval_ticks", 1L);
+    }
+
+    /**
+     * Get how long buff refreshes may run per tick before the rest are deferred to the next run
+     * @return The budget in milliseconds, 0 for no limit
+     */
+    public double getBuffRefreshBudget() {
+        return config.getDouble("buffs.refresh_budget", 2.0);
+    }
+
+    /**
+     * Get the number of rows a bulk reset removes per transaction
+     * @return The chunk size
+     */
+    public int getBulkResetChunkSize() {
+        return config.getInt("database.bulk-chunk-size", 500);
+    }
+
+    /**
+     * Get the pause between the chunks of a bulk reset
+     * @return The pause in milliseconds
+     */
+    public long getBulkResetChunkPause() {
+        return config.getLong("database.bulk-chunk-pause", 50L);
+    }
+
+    /**
+     * Get the duration above which database statements are logged as slow
+     * @return The threshold in milliseconds, 0 to disable the slow query log
+     */
+    public long getSlowQueryThreshold() {
+        return config.getLong("database.slow-query-threshold", 100L);
+    }
+
     /**
      * Get the Solana network
      * @return The Solana network
@@ -182,6 +351,262 @@ public class ConfigManager {
         return config.getDouble("solana.mint_fee", 0.01);
     }
 
+    /**
+     * Check if the long-lived mint sidecar is enabled
+     * @return True if mints should be sent to a single running Node.js process
+     */
+    public boolean isSolanaSidecarEnabled() {
+        return config.getBoolean("solana.sidecar.enabled", true);
+    }
+
+    /**
+     * Get the mint sidecar request timeout
+     * @return The request timeout in milliseconds
+     */
+    public long getSolanaSidecarRequestTimeout() {
+        return config.getLong("solana.sidecar.request_timeout", 180000L);
+    }
+
+    /**
+     * Get the delay before a crashed mint sidecar is restarted
+     * @return The restart delay in milliseconds
+     */
+    public long getSolanaSidecarRestartDelay() {
+        return config.getLong("solana.sidecar.restart_delay", 5000L);
+    }
+
+    /**
+     * Get which minting backend to run
+     * @return "node" for the real Solana backend or "mock" for the offline mock
+     */
+    public String getSolanaBackend() {
+        return config.getString("solana.backend", "node");
+    }
+
+    /**
+     * Check if the offline mock backend is used instead of the real Solana backend
+     * @return True if the mock backend is configured
+     */
+    public boolean isMockBackend() {
+        return "mock".equalsIgnoreCase(getSolanaBackend());
+    }
+
+    /**
+     * Get the median latency of a mock mint
+     * @return The median latency in milliseconds
+     */
+    public long getMockLatency() {
+        return config.getLong("solana.mock.latency", 2000L);
+    }
+
+    /**
+     * Get the log-normal spread of mock mint latency
+     * @return The spread, 0 for a fixed latency
+     */
+    public double getMockLatencySpread() {
+        return config.getDouble("solana.mock.latency_spread", 0.5);
+    }
+
+    /**
+     * Get the fraction of mock mints that fail
+     * @return The failure rate between 0 and 1
+     */
+    public double getMockFailureRate() {
+        return config.getDouble("solana.mock.failure_rate", 0.0);
+    }
+
+    /**
+     * Get the error codes returned by failed mock mints
+     * @return Comma separated error codes
+     */
+    public String getMockFailureCodes() {
+        return config.getString("solana.mock.failure_codes", "TIMEOUT,NETWORK");
+    }
+
+    /**
+     * Get the maximum number of transactions the mock backend sends per second
+     * @return The throughput limit, 0 for no limit
+     */
+    public int getMockMaxPerSecond() {
+        return config.getInt("solana.mock.max_per_second", 0);
+    }
+
+    /**
+     * Get the seed for mock addresses and randomness
+     * @return The seed
+     */
+    public String getMockSeed() {
+        return config.getString("solana.mock.seed", "mock");
+    }
+
+    /**
+     * Get the number of attempts per operation inside the Node.js backend
+     * @return The number of backend attempts
+     */
+    public int getSolanaRetryCount() {
+        return config.getInt("solana.retry_count", 2);
+    }
+
+    /**
+     * Get the number of times a mint is attempted before it is marked as failed
+     * @return The maximum number of attempts
+     */
+    public int getMintRetryMaxAttempts() {
+        return config.getInt("solana.retry.max_attempts", 5);
+    }
+
+    /**
+     * Get the delay before the first retry of a failed mint
+     * @return The base retry delay in milliseconds
+     */
+    public long getMintRetryBaseDelay() {
+        return config.getLong("solana.retry.base_delay", 5000L);
+    }
+
+    /**
+     * Get the maximum delay between retries of a failed mint
+     * @return The maximum retry delay in milliseconds
+     */
+    public long getMintRetryMaxDelay() {
+        return config.getLong("solana.retry.max_delay", 300000L);
+    }
+
+    /**
+     * Check if the mint circuit breaker is enabled
+     * @return True if the circuit breaker is enabled
+     */
+    public boolean isCircuitBreakerEnabled() {
+        return config.getBoolean("solana.circuit_breaker.enabled", true);
+    }
+
+    /**
+     * Get the number of recent mints the circuit breaker looks at
+     * @return The window size
+     */
+    public int getCircuitBreakerWindowSize() {
+        return config.getInt("solana.circuit_breaker.window_size", 20);
+    }
+
+    /**
+     * Get the minimum number of mints in the window before the circuit breaker can open
+     * @return The minimum number of mints
+     */
+    public int getCircuitBreakerMinimumCalls() {
+        return config.getInt("solana.circuit_breaker.minimum_calls", 10);
+    }
+
+    /**
+     * Get the failure rate that opens the circuit breaker
+     * @return The failure rate threshold in percent
+     */
+    public int getCircuitBreakerFailureRateThreshold() {
+        return config.getInt("solana.circuit_breaker.failure_rate_threshold", 50);
+    }
+
+    /**
+     * Get how long the circuit breaker stays open before probing
+     * @return The open duration in milliseconds
+     */
+    public long getCircuitBreakerOpenDuration() {
+        return config.getLong("solana.circuit_breaker.open_duration", 30000L);
+    }
+
+    /**
+     * Get the number of probe mints let through when the circuit breaker is half-open
+     * @return The number of probe mints
+     */
+    public int getCircuitBreakerHalfOpenProbes() {
+        return config.getInt("solana.circuit_breaker.half_open_probes", 2);
+    }
+
+    /**
+     * Get which Node.js backend log lines are forwarded to the server log
+     * @return "all", "sampled", "errors" or "none"
+     */
+    public String getBackendLogMode() {
+        return config.getString("solana.backend_log.mode", "errors");
+    }
+
+    /**
+     * Get how many backend log lines are skipped per forwarded line in "sampled" mode
+     * @return The sample rate
+     */
+    public int getBackendLogSampleRate() {
+        return config.getInt("solana.backend_log.sample_rate", 10);
+    }
+
+    /**
+     * Get the number of mints that may run at the same time
+     * @return The mint parallelism
+     */
+    public int getMintQueueParallelism() {
+        return config.getInt("solana.mint_queue.parallelism", 4);
+    }
+
+    /**
+     * Get the number of mints that may wait in the mint queue
+     * @return The mint queue capacity
+     */
+    public int getMintQueueCapacity() {
+        return config.getInt("solana.mint_queue.capacity", 200);
+    }
+
+    /**
+     * Get what happens to new mints when the mint queue is full
+     * @return "reject" or "park"
+     */
+    public String getMintQueueOverflowPolicy() {
+        return config.getString("solana.mint_queue.overflow_policy", "park");
+    }
+
+    /**
+     * Get the maximum number of parked mints when the overflow policy is "park"
+     * @return The park limit, or 0 for no limit
+     */
+    public int getMintQueueParkLimit() {
+        return config.getInt("solana.mint_queue.park_limit", 0);
+    }
+
+    /**
+     * Get the number of outbox requests claimed per dispatch
+     * @return The outbox batch size
+     */
+    public int getMintOutboxBatchSize() {
+        return config.getInt("solana.outbox.batch_size", 20);
+    }
+
+    /**
+     * Get how often the mint outbox is checked for pending requests
+     * @return The poll interval in ticks
+     */
+    public long getMintOutboxPollInterval() {
+        return config.getLong("solana.outbox.poll_interval", 40L);
+    }
+
+    /**
+     * Check if pending mints are sent to the backend in batches
+     * @return True if batch minting is enabled
+     */
+    public boolean isMintBatchEnabled() {
+        return config.getBoolean("solana.batch.enabled", true);
+    }
+
+    /**
+     * Get the maximum number of mints in one batch request
+     * @return The maximum batch size
+     */
+    public int getMintBatchMaxSize() {
+        return config.getInt("solana.batch.max_size", 10);
+    }
+
+    /**
+     * Get the number of NFTs created in one Solana transaction when minting in batches
+     * @return The number of NFTs per transaction
+     */
+    public int getMintBatchItemsPerTransaction() {
+        return config.getInt("solana.batch.items_per_transaction", 2);
+    }
+
     /**
      * Get the required blocks for an achievement
      * @param achievementKey The achievement key
@@ -0,0 +1,151 @@
+package com.minecraft.nftplugin.utils;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Thread-safe latency histogram with fixed buckets, in milliseconds by default.
+ * Percentiles are estimated from the bucket bounds, which is accurate enough to tell
+ * a 2 second phase from a 20 second one.
+ */
+public class LatencyHistogram {
+
+    // Upper bounds of the buckets in milliseconds; the last bucket holds everything above
+    private static final long[] BOUNDS = {50, 100, 250, 500, 1000, 2500, 5000, 10000, 20000, 30000, 60000, 120000};
+
+    private final long[] bounds;
+    private final AtomicLongArray buckets;
+    private final AtomicLong count = new AtomicLong();
+    private final AtomicLong sum = new AtomicLong();
+    private final AtomicLong max = new AtomicLong();
+
+    /**
+     * Create a histogram with millisecond buckets
+     */
+    public LatencyHistogram() {
+        this(BOUNDS);
+    }
+
+    /**
+     * Create a histogram with custom buckets
+     * @param bounds The ascending bucket upper bounds, in the unit that will be recorded
+     */
+    public LatencyHistogram(long[] bounds) {
+        this.bounds = bounds.clone();
+        this.buckets = new AtomicLongArray(bounds.length + 1);
+    }
+
+    /**
+     * Record one duration
+     * @param millis The duration in milliseconds, or in the unit of the custom bounds
+     */
+    public void record(long millis) {
+        millis = Math.max(0, millis);
+
+        int bucket = 0;
+        while (bucket < bounds.length && millis > bounds[bucket]) {
+            bucket++;
+        }
+
+        buckets.incrementAndGet(bucket);
+        count.incrementAndGet();
+        sum.addAndGet(millis);
+        max.accumulateAndGet(millis, Math::max);
+    }
+
+    /**
+     * Take a consistent-enough copy of the histogram for reporting
+     * @return The snapshot
+     */
+    public Snapshot snapshot() {
+        long[] counts = new long[buckets.length()];
+        for (int i = 0; i < counts.length; i++) {
+            counts[i] = buckets.get(i);
+        }
+        return new Snapshot(bounds, counts, count.get(), sum.get(), max.get());
+    }
+
+    /**
+     * Immutable copy of a histogram
+     */
+    public static class Snapshot {
+        private final long[] bounds;
+        private final long[] buckets;
+        private final long count;
+        private final long sum;
+        private final long max;
+
+        private Snapshot(long[] bounds, long[] buckets, long count, long sum, long max) {
+            this.bounds = bounds;
+            this.buckets = buckets;
+            this.count = count;
+            this.sum = sum;
+            this.max = max;
+        }
+
+        /**
+         * Get the number of recorded durations
+         * @return The count
+         */
+        public long getCount() {
+            return count;
+        }
+
+        /**
+         * Get the mean duration
+         * @return The mean in milliseconds, or 0 if nothing was recorded
+         */
+        public long getMean() {
+            return count == 0 ? 0 : sum / count;
+        }
+
+        /**
+         * Get the longest recorded duration
+         * @return The maximum in milliseconds
+         */
+        public long getMax() {
+            return max;
+        }
+
+        /**
+         * Estimate a percentile
+         * @param percentile The percentile, between 0 and 100
+         * @return The upper bound of the bucket holding the percentile in milliseconds (capped at the maximum)
+         */
+        public long getPercentile(double percentile) {
+            long total = 0;
+            for (long bucket : buckets) {
+                total += bucket;
+            }
+            if (total == 0) {
+                return 0;
+            }
+
+            long rank = (long) Math.ceil(total * percentile / 100.0);
+            long seen = 0;
+            for (int i = 0; i < buckets.length; i++) {
+                seen += buckets[i];
+                if (seen >= rank) {
+                    return i < bounds.length ? Math.min(bounds[i], max) : max;
+                }
+            }
+            return max;
+        }
+
+        /**
+         * Get the bucket upper bounds
+         * @return The bounds in milliseconds; the last bucket has no upper bound
+         */
+        public long[] getBounds() {
+            return bounds.clone();
+        }
+
+        /**
+         * Get the number of durations in each bucket
+         * @return The bucket counts, one more than the number of bounds
+         */
+        public long[] getBucketCounts() {
+            return buckets.clone();
+        }
+    }
+}
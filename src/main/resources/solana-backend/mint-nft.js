@@ -8,13 +8,34 @@
  *
  * Usage:
  * node mint-nft.js --network devnet --rpc-url https://api.devnet.solana.com --private-key <PRIVATE_KEY> --recipient <RECIPIENT_ADDRESS> --name "NFT Name" --description "NFT Description" --image "https://example.com/image.png" --player "PlayerName" --achievement "achievement_key"
+ *
+ * A single mint prints one JSON result line to stdout, e.g.
+ *   {"status":"success","requestId":"...","nftAddress":"...","mintAddress":"...","signature":"...","timings":{"upload":850,"create":2100,"confirm":400,"transfer":1900,"total":5250}}
+ *   {"status":"error","requestId":"...","errorCode":"INSUFFICIENT_FUNDS","error":"..."}
+ *
+ * Server mode:
+ * node mint-nft.js --server --network devnet --rpc-url https://api.devnet.solana.com --private-key <PRIVATE_KEY>
+ *
+ * In server mode the script stays running and reads one JSON request per line from stdin, e.g.
+ *   {"id":"1","type":"mint","recipient":"...","name":"...","description":"...","image":"...","player":"...","achievement":"..."}
+ * and writes one JSON response per line to stdout, e.g.
+ *   {"id":"1","ok":true,"nftAddress":"...","mintAddress":"...","signature":"...","timings":{...}}
+ *   {"id":"1","ok":false,"errorCode":"TIMEOUT","error":"..."}
+ * Several mints can be sent in one request:
+ *   {"id":"2","type":"mint_batch","itemsPerTransaction":2,"items":[{"requestId":"...","recipient":"...",...},...]}
+ * which is answered with one result per item:
+ *   {"id":"2","ok":true,"results":[{"requestId":"...","ok":true,"mintAddress":"...","signature":"..."},...]}
+ * Error codes: INVALID_REQUEST, INSUFFICIENT_FUNDS, TRANSACTION_TOO_LARGE, TIMEOUT, NETWORK, NOT_FOUND, UNKNOWN.
+ * All log output goes to stderr so stdout only carries results.
  */
 
 const { program } = require('commander');
 const { Connection, Keypair, PublicKey } = require('@solana/web3.js');
-const { Metaplex, keypairIdentity, bundlrStorage } = require('@metaplex-foundation/js');
+const { Metaplex, keypairIdentity, bundlrStorage, TransactionBuilder } = require('@metaplex-foundation/js');
 const bs58 = require('bs58');
+const crypto = require('crypto');
 const fs = require('fs');
+const readline = require('readline');
 const fetch = require('node-fetch');
 
 // Parse command line arguments
@@ -30,13 +51,21 @@ program
   .option('--player <n>', 'Player name')
   .option('--achievement <key>', 'Achievement key')
   .option('--attributes <json>', 'NFT attributes as JSON array', '[]')
+  .option('--image-uri <url>', 'Previously uploaded image URI; skips the image upload')
+  .option('--content-hash <hash>', 'Hash of the shared metadata content; leaves player and date out of the uploaded metadata')
   .option('--metadata-uri <url>', 'Complete metadata URI (if provided, other metadata options are ignored)')
+  .option('--request-id <id>', 'Mint request ID; the same ID always produces the same mint address, so an interrupted mint can be resumed')
   .option('--confirmation-timeout <ms>', 'Timeout for transaction confirmation in milliseconds', '60000')
   .option('--retry-count <n>', 'Number of retries for failed operations', '5')
+  .option('--server', 'Stay running and process mint requests read from stdin as line-delimited JSON')
   .parse(process.argv);
 
 const options = program.opts();
 
+// stdout is reserved for machine-readable results (one JSON object per line), so send all logging to stderr
+console.log = console.error;
+console.warn = console.error;
+
 // Check for .env file and load environment variables
 try {
   // Try to load .env from current directory
@@ -73,39 +102,41 @@ if (!options.privateKey) {
   process.exit(1);
 }
 
-if (!options.recipient) {
-  console.error('Error: Recipient address is required');
-  process.exit(1);
+// Create an error for a request that can never succeed
+function invalidRequest(message) {
+  const error = new Error(message);
+  error.code = 'INVALID_REQUEST';
+  return error;
 }
 
-// Check if we have either metadata URI or all required metadata fields
-if (!options.metadataUri && (!options.name || !options.description || !options.image)) {
-  console.error('Error: Either metadata URI or all metadata fields (name, description, image) are required');
-  process.exit(1);
-}
+// Validate a mint request (command line options or a request read in server mode)
+function validateRequest(request) {
+  if (!request.recipient) {
+    throw invalidRequest('Recipient address is required');
+  }
 
-// Validate Solana addresses
-try {
-  new PublicKey(options.recipient);
-} catch (error) {
-  console.error('Error: Invalid recipient address');
-  process.exit(1);
+  // Check if we have either metadata URI or all required metadata fields
+  if (!request.metadataUri && (!request.name || !request.description || !request.image)) {
+    throw invalidRequest('Either metadata URI or all metadata fields (name, description, image) are required');
+  }
+
+  // Validate Solana addresses
+  try {
+    new PublicKey(request.recipient);
+  } catch (error) {
+    throw invalidRequest('Invalid recipient address');
+  }
 }
 
-// Display information about the minting process
-console.log('===================================');
-console.log('Solana NFT Minting');
-console.log('===================================');
-console.log(`Network: ${options.network}`);
-console.log(`RPC URL: ${options.rpcUrl}`);
-console.log(`Recipient: ${options.recipient}`);
-console.log(`NFT Name: ${options.name}`);
-console.log(`Player: ${options.player || 'Not specified'}`);
-console.log(`Achievement: ${options.achievement || 'Not specified'}`);
-console.log(`Confirmation Timeout: ${options.confirmationTimeout}ms`);
-console.log(`Retry Count: ${options.retryCount}`);
-console.log('===================================');
-console.log('Starting minting process...');
+// Run one phase of a mint and record how long it took in milliseconds
+async function timed(timings, phase, operation) {
+  const start = Date.now();
+  try {
+    return await operation();
+  } finally {
+    timings[phase] = (timings[phase] || 0) + (Date.now() - start);
+  }
+}
 
 // Helper function to retry operations
 async function withRetry(operation, maxRetries = options.retryCount) {
@@ -130,35 +161,31 @@ async function withRetry(operation, maxRetries = options.retryCount) {
   throw lastError;
 }
 
-// Helper function to download an image from a URL and upload it to Arweave
+// Helper function to download an image from a URL and upload it to Arweave.
+// Throws if the download or upload fails, so callers can retry it.
 async function uploadImageFromUrl(metaplex, imageUrl) {
-  try {
-    console.log(`Downloading image from URL: ${imageUrl}`);
+  console.log(`Downloading image from URL: ${imageUrl}`);
 
-    // Fetch the image
-    const response = await fetch(imageUrl);
-    if (!response.ok) {
-      throw new Error(`Failed to fetch image: ${response.status} ${response.statusText}`);
-    }
+  // Fetch the image
+  const response = await fetch(imageUrl);
+  if (!response.ok) {
+    throw new Error(`Failed to fetch image: ${response.status} ${response.statusText}`);
+  }
 
-    // Get the image as a buffer
-    const imageBuffer = await response.buffer();
+  // Get the image as a buffer
+  const imageBuffer = await response.buffer();
 
-    // Get the content type
-    const contentType = response.headers.get('content-type') || 'image/png';
+  // Get the content type
+  const contentType = response.headers.get('content-type') || 'image/png';
 
-    console.log(`Image downloaded, size: ${imageBuffer.length} bytes, type: ${contentType}`);
+  console.log(`Image downloaded, size: ${imageBuffer.length} bytes, type: ${contentType}`);
 
-    // Upload the image to Arweave
-    console.log('Uploading image to Arweave...');
-    const { uri } = await metaplex.storage().upload(imageBuffer);
+  // Upload the image to Arweave
+  console.log('Uploading image to Arweave...');
+  const { uri } = await metaplex.storage().upload(imageBuffer);
 
-    console.log(`Image uploaded to Arweave: ${uri}`);
-    return uri;
-  } catch (error) {
-    console.error('Error uploading image from URL:', error.message);
-    return null;
-  }
+  console.log(`Image uploaded to Arweave: ${uri}`);
+  return uri;
 }
 
 // Check Metaplex version
@@ -176,257 +203,665 @@ try {
   console.warn('Could not determine Metaplex version:', error.message);
 }
 
-// Main function
-async function mintNft() {
+// Create the shared Solana connection and Metaplex client
+function createContext() {
+  // Connect to Solana
+  const connection = new Connection(options.rpcUrl, {
+    commitment: 'confirmed',
+    confirmTransactionInitialTimeout: options.confirmationTimeout
+  });
+
+  // Create wallet from private key
+  const privateKeyBytes = bs58.decode(options.privateKey);
+  const wallet = Keypair.fromSecretKey(privateKeyBytes);
+
+  // Initialize Metaplex
+  const metaplex = Metaplex.make(connection)
+    .use(keypairIdentity(wallet))
+    .use(bundlrStorage({
+      address: options.network === 'mainnet' ? 'https://node1.bundlr.network' : 'https://devnet.bundlr.network',
+      providerUrl: options.rpcUrl,
+      timeout: options.confirmationTimeout,
+    }));
+
+  return { connection, wallet, metaplex, uploads: new Map() };
+}
+
+// Derive the mint keypair for a request so retries of the same request always target the same mint
+function deriveMintKeypair(wallet, requestId) {
+  const seed = crypto.createHash('sha256')
+    .update(Buffer.from(wallet.secretKey))
+    .update(`mint:${requestId}`)
+    .digest();
+  return Keypair.fromSeed(seed);
+}
+
+// Look up an NFT by mint address, returning null if it does not exist yet
+async function findExistingNft(metaplex, mintAddress) {
   try {
-    // Connect to Solana
-    const connection = new Connection(options.rpcUrl, {
-      commitment: 'confirmed',
-      confirmTransactionInitialTimeout: options.confirmationTimeout
-    });
+    return await metaplex.nfts().findByMint({ mintAddress }, { commitment: 'confirmed' });
+  } catch (error) {
+    return null;
+  }
+}
 
-    // Create wallet from private key
-    const privateKeyBytes = bs58.decode(options.privateKey);
-    const wallet = Keypair.fromSecretKey(privateKeyBytes);
-
-    // Initialize Metaplex
-    const metaplex = Metaplex.make(connection)
-      .use(keypairIdentity(wallet))
-      .use(bundlrStorage({
-        address: options.network === 'mainnet' ? 'https://node1.bundlr.network' : 'https://devnet.bundlr.network',
-        providerUrl: options.rpcUrl,
-        timeout: options.confirmationTimeout,
-      }));
-
-    // Prepare NFT metadata
-    console.log('Preparing metadata...');
-    let uri;
-
-    // Check if a complete metadata URI is provided
-    if (options.metadataUri) {
-      console.log(`Using provided metadata URI: ${options.metadataUri}`);
-      uri = options.metadataUri;
-
-      // Log additional metadata information if provided with metadata URI
-      if (options.name) console.log(`NFT Name override: ${options.name}`);
-      if (options.description) console.log(`NFT Description override: ${options.description}`);
-      if (options.image) console.log(`NFT Image override: ${options.image}`);
-      if (options.player) console.log(`Player: ${options.player}`);
-      if (options.achievement) console.log(`Achievement: ${options.achievement}`);
-    } else {
-      // First, try to upload the image to Arweave if it's a URL
-      let imageUri = options.image;
+// Check if the recipient already holds the NFT
+async function recipientHoldsNft(metaplex, mintAddress, recipientAddress) {
+  try {
+    const nft = await metaplex.nfts().findByMint({ mintAddress, tokenOwner: recipientAddress }, { commitment: 'confirmed' });
+    return !!(nft.token && nft.token.amount && Number(nft.token.amount.basisPoints.toString()) > 0);
+  } catch (error) {
+    return false;
+  }
+}
+
+// Use the request's metadata URI, or upload the image and metadata.
+// Returns the metadata URI, plus the uploaded image URI when something was uploaded.
+async function uploadMetadata(context, request) {
+  const { wallet, metaplex } = context;
+
+  // Prepare NFT metadata
+  console.log('Preparing metadata...');
+  let uri;
+  let uploadedImageUri = null;
+  let imageFallback = false;
+
+  // Check if a complete metadata URI is provided
+  if (request.metadataUri) {
+    console.log(`Using provided metadata URI: ${request.metadataUri}`);
+    uri = request.metadataUri;
+
+    // Log additional metadata information if provided with metadata URI
+    if (request.name) console.log(`NFT Name override: ${request.name}`);
+    if (request.description) console.log(`NFT Description override: ${request.description}`);
+    if (request.image) console.log(`NFT Image override: ${request.image}`);
+    if (request.player) console.log(`Player: ${request.player}`);
+    if (request.achievement) console.log(`Achievement: ${request.achievement}`);
+  } else {
+    // First, try to upload the image to Arweave if it's a URL
+    let imageUri = request.image;
+    try {
+      if (request.imageUri) {
+        // Image was uploaded by an earlier mint
+        imageUri = request.imageUri;
+        console.log('Using previously uploaded image:', imageUri);
+      } else if (request.image && request.image.startsWith('http')) {
+        console.log('Trying to upload image from URL to Arweave:', request.image);
+
+        // Try to upload the image directly from the URL using our helper function
+        uploadedImageUri = await withRetry(async () => {
+          return await uploadImageFromUrl(metaplex, request.image);
+        });
+
+        imageUri = uploadedImageUri;
+        console.log('Successfully uploaded image to Arweave:', imageUri);
+      }
+    } catch (error) {
+      // The metadata still gets uploaded, but with the original URL it must not be reused for later mints
+      imageFallback = true;
+      console.error('Error in image upload process:', error.message);
+      console.log('Continuing with original image URL:', request.image);
+    }
+
+    // Generate and upload metadata
+    console.log('Generating and uploading metadata...');
+    const result = await withRetry(async () => {
+      // Parse attributes from JSON string
+      let customAttributes = [];
       try {
-        if (options.image && options.image.startsWith('http')) {
-          console.log('Trying to upload image from URL to Arweave:', options.image);
-
-          // Try to upload the image directly from the URL using our helper function
-          const uploadedImageUri = await withRetry(async () => {
-            return await uploadImageFromUrl(metaplex, options.image);
-          });
-
-          if (uploadedImageUri) {
-            imageUri = uploadedImageUri;
-            console.log('Successfully uploaded image to Arweave:', imageUri);
-          } else {
-            console.log('Failed to upload image to Arweave, using original URL');
-          }
+        if (request.attributes && request.attributes !== '[]') {
+          customAttributes = JSON.parse(request.attributes);
+          console.log('Parsed custom attributes:', customAttributes);
         }
       } catch (error) {
-        console.error('Error in image upload process:', error.message);
-        console.log('Continuing with original image URL:', options.image);
+        console.error('Error parsing attributes JSON:', error.message);
+        console.error('Using default attributes instead');
+        customAttributes = [];
       }
 
-      // Generate and upload metadata
-      console.log('Generating and uploading metadata...');
-      const result = await withRetry(async () => {
-        // Parse attributes from JSON string
-        let customAttributes = [];
-        try {
-          if (options.attributes && options.attributes !== '[]') {
-            customAttributes = JSON.parse(options.attributes);
-            console.log('Parsed custom attributes:', customAttributes);
-          }
-        } catch (error) {
-          console.error('Error parsing attributes JSON:', error.message);
-          console.error('Using default attributes instead');
-          customAttributes = [];
-        }
-
-        // Add default attributes if not present in custom attributes
-        const defaultAttributes = [
-          { trait_type: 'Player', value: options.player },
-          { trait_type: 'Achievement', value: options.achievement },
-          { trait_type: 'Date', value: new Date().toISOString() }
-        ];
-
-        // Combine custom and default attributes, avoiding duplicates
-        const traitTypes = customAttributes.map(attr => attr.trait_type);
-        const combinedAttributes = [
-          ...customAttributes,
-          ...defaultAttributes.filter(attr => !traitTypes.includes(attr.trait_type))
-        ];
-
-        // Create metadata object following Metaplex standards
-        const metadata = {
-          name: options.name,
-          symbol: options.symbol || '',
-          description: options.description,
-          image: imageUri, // Use the potentially uploaded image URI
-          external_url: '', // Optional
-          attributes: combinedAttributes,
-          properties: {
-            files: [
-              {
-                uri: imageUri, // Use the potentially uploaded image URI
-                type: 'image/png'
-              }
-            ],
-            category: 'image'
-          },
-          collection: {
-            name: 'Minecraft NFT Collection',
-            family: 'NFT Plugin'
-          },
-          seller_fee_basis_points: 0, // No royalties (0%)
-          creators: [
+      // Add default attributes if not present in custom attributes.
+      // Shared metadata (content hash given) is reused for every mint of the achievement,
+      // so it cannot carry the player or the mint date.
+      const defaultAttributes = request.contentHash ? [
+        { trait_type: 'Achievement', value: request.achievement }
+      ] : [
+        { trait_type: 'Player', value: request.player },
+        { trait_type: 'Achievement', value: request.achievement },
+        { trait_type: 'Date', value: new Date().toISOString() }
+      ];
+
+      // Combine custom and default attributes, avoiding duplicates
+      const traitTypes = customAttributes.map(attr => attr.trait_type);
+      const combinedAttributes = [
+        ...customAttributes,
+        ...defaultAttributes.filter(attr => !traitTypes.includes(attr.trait_type))
+      ];
+
+      // Create metadata object following Metaplex standards
+      const metadata = {
+        name: request.name,
+        symbol: request.symbol || '',
+        description: request.description,
+        image: imageUri, // Use the potentially uploaded image URI
+        external_url: '', // Optional
+        attributes: combinedAttributes,
+        properties: {
+          files: [
             {
-              address: wallet.publicKey.toString(),
-              share: 100
+              uri: imageUri, // Use the potentially uploaded image URI
+              type: 'image/png'
             }
-          ]
-        };
+          ],
+          category: 'image'
+        },
+        collection: {
+          name: 'Minecraft NFT Collection',
+          family: 'NFT Plugin'
+        },
+        seller_fee_basis_points: 0, // No royalties (0%)
+        creators: [
+          {
+            address: wallet.publicKey.toString(),
+            share: 100
+          }
+        ]
+      };
 
-        console.log('Metadata to upload:', JSON.stringify(metadata, null, 2));
-        return await metaplex.nfts().uploadMetadata(metadata);
-      });
+      console.log('Metadata to upload:', JSON.stringify(metadata, null, 2));
+      return await metaplex.nfts().uploadMetadata(metadata);
+    });
 
-      uri = result.uri;
-    }
+    uri = result.uri;
+  }
 
-    console.log(`Metadata uploaded: ${uri}`);
-
-    // Create the NFT with confirmation
-    console.log('Creating NFT...');
-    const { nft } = await withRetry(async () => {
-      const createInput = {
-        uri,
-        name: options.name,
-        symbol: options.symbol || '',
-        sellerFeeBasisPoints: 0, // No royalties
-        maxSupply: 1, // Unique NFT
-        isMutable: false, // Cannot be changed
-        creators: [{ address: wallet.publicKey, share: 100 }],
-        tokenOwner: wallet.publicKey, // Use the server wallet as the initial token owner
-        tokenStandard: 0, // Non-fungible token
-        updateAuthority: wallet, // The wallet that can update the metadata
-        collection: null, // No collection for now
-        uses: null // No uses for now
-      };
+  console.log(`Metadata uploaded: ${uri}`);
+  return {
+    uri,
+    uploaded: !request.metadataUri,
+    imageUri: uploadedImageUri || undefined,
+    imageFallback
+  };
+}
 
-      console.log('NFT creation parameters:', JSON.stringify({
-        ...createInput,
-        updateAuthority: wallet.publicKey.toString(),
-      }, null, 2));
+// Resolve the metadata URI for a request. Uploads of shared metadata are de-duplicated
+// by achievement and content hash, so concurrent mints of the same achievement upload once.
+function resolveMetadataUri(context, request) {
+  if (request.metadataUri || !request.contentHash) {
+    return uploadMetadata(context, request);
+  }
 
-      return await metaplex.nfts().create(createInput, { commitment: 'confirmed' }); // Wait for confirmation
-    });
+  const key = `${request.achievement}:${request.contentHash}`;
+  if (!context.uploads.has(key)) {
+    const upload = uploadMetadata(context, request);
+    context.uploads.set(key, upload);
 
-    // Log NFT details
-    console.log(`NFT created: ${nft.address.toString()}`);
-
-    // Handle mint address correctly
-    let mintPublicKey;
-    if (nft.mint instanceof PublicKey) {
-      mintPublicKey = nft.mint;
-      console.log(`Mint address (PublicKey): ${mintPublicKey.toString()}`);
-    } else if (typeof nft.mint === 'object' && nft.mint !== null) {
-      // If mint is an object, try to get the address property
-      if (nft.mint.address && nft.mint.address instanceof PublicKey) {
-        mintPublicKey = nft.mint.address;
-        console.log(`Mint address (from object): ${mintPublicKey.toString()}`);
-      } else {
-        // Create a new PublicKey from the string representation
-        const mintAddressStr = nft.mint.toString();
-        console.log(`Mint address (string): ${mintAddressStr}`);
-        mintPublicKey = new PublicKey(mintAddressStr);
+    // Metadata pointing at the original image URL is used once; the next mint tries the image upload again
+    upload.then(result => {
+      if (result.imageFallback) {
+        context.uploads.delete(key);
       }
-    } else {
-      throw new Error(`Invalid mint address type: ${typeof nft.mint}`);
+    }, () => context.uploads.delete(key));
+  }
+  return context.uploads.get(key);
+}
+
+// Add the URIs of anything uploaded for a mint to its result, so the plugin can cache them.
+// Metadata that fell back to the original image URL is not reported, so it is never cached.
+function withUploads(result, upload) {
+  if (upload && upload.uploaded && !upload.imageFallback) {
+    result.metadataUri = upload.uri;
+    if (upload.imageUri) {
+      result.imageUri = upload.imageUri;
     }
+  }
+  return result;
+}
 
-    // Log owner information if available
-    if (nft.token && nft.token.ownerAddress) {
-      console.log(`Owner: ${nft.token.ownerAddress.toString()}`);
+// Build the Metaplex create input for a request
+function buildCreateInput(wallet, request, uri, mintKeypair, tokenOwner) {
+  return {
+    uri,
+    name: request.name,
+    symbol: request.symbol || '',
+    sellerFeeBasisPoints: 0, // No royalties
+    maxSupply: 1, // Unique NFT
+    isMutable: false, // Cannot be changed
+    creators: [{ address: wallet.publicKey, share: 100 }],
+    tokenOwner,
+    useNewMint: mintKeypair || undefined, // Deterministic mint when a request ID is given
+    tokenStandard: 0, // Non-fungible token
+    updateAuthority: wallet, // The wallet that can update the metadata
+    collection: null, // No collection for now
+    uses: null // No uses for now
+  };
+}
+
+// Upload metadata if needed and create the NFT owned by the server wallet
+async function createNft(context, request, mintKeypair, timings) {
+  const { wallet, metaplex } = context;
+  const upload = await timed(timings, 'upload', () => resolveMetadataUri(context, request));
+  const uri = upload.uri;
+
+  // Create the NFT with confirmation
+  console.log('Creating NFT...');
+  const { nft, response } = await timed(timings, 'create', () => withRetry(async () => {
+    // Use the server wallet as the initial token owner
+    const createInput = buildCreateInput(wallet, request, uri, mintKeypair, wallet.publicKey);
+
+    console.log('NFT creation parameters:', JSON.stringify({
+      ...createInput,
+      useNewMint: mintKeypair ? mintKeypair.publicKey.toString() : undefined,
+      updateAuthority: wallet.publicKey.toString(),
+    }, null, 2));
+
+    return await metaplex.nfts().create(createInput, { commitment: 'confirmed' }); // Wait for confirmation
+  }));
+
+  // Log NFT details
+  console.log(`NFT created: ${nft.address.toString()}`);
+
+  // Handle mint address correctly
+  let mintPublicKey;
+  if (nft.mint instanceof PublicKey) {
+    mintPublicKey = nft.mint;
+    console.log(`Mint address (PublicKey): ${mintPublicKey.toString()}`);
+  } else if (typeof nft.mint === 'object' && nft.mint !== null) {
+    // If mint is an object, try to get the address property
+    if (nft.mint.address && nft.mint.address instanceof PublicKey) {
+      mintPublicKey = nft.mint.address;
+      console.log(`Mint address (from object): ${mintPublicKey.toString()}`);
+    } else {
+      // Create a new PublicKey from the string representation
+      const mintAddressStr = nft.mint.toString();
+      console.log(`Mint address (string): ${mintAddressStr}`);
+      mintPublicKey = new PublicKey(mintAddressStr);
     }
+  } else {
+    throw new Error(`Invalid mint address type: ${typeof nft.mint}`);
+  }
 
-    // Wait for a moment to ensure the NFT is properly created on the blockchain
-    console.log('Waiting for transaction confirmation...');
-    await new Promise(resolve => setTimeout(resolve, 10000)); // Increased wait time to 10 seconds
+  // Log owner information if available
+  if (nft.token && nft.token.ownerAddress) {
+    console.log(`Owner: ${nft.token.ownerAddress.toString()}`);
+  }
 
-    // Fetch the NFT to ensure it exists before transferring
+  return { mintPublicKey, upload, signature: response && response.signature };
+}
+
+// Mint an NFT and transfer it to the recipient
+async function mintNft(context, request) {
+  const { wallet, metaplex } = context;
+  const started = Date.now();
+  const timings = {};
+  const recipientAddress = new PublicKey(request.recipient);
+  const mintKeypair = request.requestId ? deriveMintKeypair(wallet, request.requestId) : null;
+
+  // A request that was interrupted may already have created its mint
+  let mintPublicKey = null;
+  let upload = null;
+  let signature = null;
+  let resumed = false;
+  if (mintKeypair && await findExistingNft(metaplex, mintKeypair.publicKey)) {
+    mintPublicKey = mintKeypair.publicKey;
+    resumed = true;
+    console.log(`Mint ${mintPublicKey.toString()} already exists for request ${request.requestId}, resuming`);
+  } else {
+    ({ mintPublicKey, upload, signature } = await createNft(context, request, mintKeypair, timings));
+  }
+
+  const fetchedNft = await timed(timings, 'confirm', async () => {
+    // The create was already confirmed, like the batch path; the fetch is retried if the RPC node lags behind
     console.log('Verifying NFT...');
-    const fetchedNft = await withRetry(async () => {
+    return await withRetry(async () => {
       return await metaplex.nfts().findByMint({ mintAddress: mintPublicKey }, { commitment: 'confirmed' });
     });
-    console.log(`Verified NFT: ${fetchedNft.address.toString()}`);
+  });
+  console.log(`Verified NFT: ${fetchedNft.address.toString()}`);
 
-    // Transfer the NFT to the recipient
+  // Transfer the NFT to the recipient
+  if (resumed && await recipientHoldsNft(metaplex, mintPublicKey, recipientAddress)) {
+    console.log(`NFT already transferred to: ${recipientAddress.toString()}`);
+  } else {
     console.log('Transferring NFT...');
-    const recipientAddress = new PublicKey(options.recipient);
-    await withRetry(async () => {
-      await metaplex.nfts().transfer({
+    const transfer = await timed(timings, 'transfer', () => withRetry(async () => {
+      return await metaplex.nfts().transfer({
         nftOrSft: fetchedNft,
         authority: wallet,
         fromOwner: wallet.publicKey,
         toOwner: recipientAddress,
       }, { commitment: 'confirmed' }); // Wait for confirmation
-    });
+    }));
+    if (transfer && transfer.response && transfer.response.signature) {
+      signature = transfer.response.signature;
+    }
 
     console.log(`NFT transferred to: ${recipientAddress.toString()}`);
+  }
 
-    // Output the result in a format that can be parsed by the Java code
-    // Use the verified NFT information
-    const finalMintAddress = mintPublicKey.toString();
-    const finalNftAddress = fetchedNft.address.toString();
+  timings.total = Date.now() - started;
 
-    console.log(`SUCCESS:${finalNftAddress}:${finalMintAddress}`);
+  // Use the verified NFT information
+  return withUploads({
+    nftAddress: fetchedNft.address.toString(),
+    mintAddress: mintPublicKey.toString(),
+    signature: signature || undefined,
+    resumed,
+    timings
+  }, upload);
+}
 
-    process.exit(0);
+// Check if an error means the transaction was too large to send
+function isTransactionTooLarge(error) {
+  const message = (error && error.message) || '';
+  return error instanceof RangeError || message.includes('too large') || message.includes('encoding overruns');
+}
+
+// Create a group of NFTs in one transaction, falling back to one transaction per NFT if that fails
+async function createGroup(context, group, results) {
+  const { wallet, metaplex } = context;
+  const sendStarted = Date.now();
+
+  // Result for an item whose NFT now exists
+  function minted(entry, signature) {
+    entry.timings.create = (entry.timings.create || 0) + (Date.now() - sendStarted);
+    entry.timings.total = Date.now() - entry.started;
+    return withUploads({
+      requestId: entry.item.requestId,
+      ok: true,
+      nftAddress: entry.mintKeypair.publicKey.toString(),
+      mintAddress: entry.mintKeypair.publicKey.toString(),
+      signature: signature || undefined,
+      resumed: false,
+      timings: entry.timings
+    }, entry.upload);
+  }
+
+  try {
+    const transaction = TransactionBuilder.make().setFeePayer(wallet);
+    for (const entry of group) {
+      // Mint straight to the recipient so no transfer is needed
+      const builder = await metaplex.nfts().builders().create(
+        buildCreateInput(wallet, entry.item, entry.uri, entry.mintKeypair, entry.recipient));
+      transaction.add(builder);
+    }
+
+    const { response } = await transaction.sendAndConfirm(metaplex, { commitment: 'confirmed' });
+    console.log(`Created ${group.length} NFT(s) in transaction ${response.signature}`);
+
+    for (const entry of group) {
+      results.set(entry.item.requestId, minted(entry, response.signature));
+    }
   } catch (error) {
-    console.error('Error minting NFT:', error);
+    if (group.length > 1) {
+      console.log(`Could not create ${group.length} NFTs in one transaction (${error.message}), sending them separately`);
+      for (const entry of group) {
+        entry.timings.create = (entry.timings.create || 0) + (Date.now() - sendStarted);
+      }
+      await Promise.all(group.map(entry => createGroup(context, [entry], results)));
+      return;
+    }
+
+    const entry = group[0];
 
-    // Provide more specific error messages based on the error type
-    if (error.message && error.message.includes('insufficient funds')) {
-      console.error('The server wallet does not have enough SOL to pay for the transaction.');
-      console.error('Please add more SOL to the wallet using the Solana Faucet: https://solfaucet.com/');
-    } else if (error.message && error.message.includes('network')) {
-      console.error('Network error. Please check your internet connection and the RPC URL.');
-    } else if (error.message && error.message.includes('timeout')) {
-      console.error('Request timed out. The Solana network might be congested or the RPC endpoint is slow.');
-    } else if (error.name === 'AccountNotFoundError' || (error.message && error.message.includes('not found'))) {
-      console.error('Account not found error. This usually happens when the NFT was not properly created or confirmed on the blockchain.');
-      console.error('Possible solutions:');
-      console.error('1. Make sure your server wallet has enough SOL (at least 0.05 SOL)');
-      console.error('2. Try again later as Solana DevNet might be experiencing delays');
-      console.error('3. Check if the RPC endpoint is responsive');
-    } else if (error.message && error.message.includes('Cannot read properties of null')) {
-      console.error('Null reference error. This usually happens when there is an issue with the token owner or wallet configuration.');
-      console.error('Possible solutions:');
-      console.error('1. Make sure your server wallet private key is valid');
-      console.error('2. Check if the recipient wallet address is valid');
-      console.error('3. Try reinstalling the Metaplex dependencies: npm install @metaplex-foundation/js@latest');
-    } else if (error.message && (error.message.includes('toBuffer is not a function') || error.message.includes('is not a function'))) {
-      console.error('Function not found error. This usually happens when there is a type mismatch or incompatible Metaplex version.');
-      console.error('Possible solutions:');
-      console.error('1. Update to the latest version of Metaplex: npm install @metaplex-foundation/js@latest');
-      console.error('2. Clear node_modules and reinstall: rm -rf node_modules && npm install');
-      console.error('3. Check for compatibility issues between Metaplex and Solana Web3.js');
+    // The transaction may have landed even though confirmation failed
+    if (!isTransactionTooLarge(error) && await findExistingNft(metaplex, entry.mintKeypair.publicKey)) {
+      console.log(`Mint ${entry.mintKeypair.publicKey.toString()} exists despite error: ${error.message}`);
+      results.set(entry.item.requestId, minted(entry, null));
+      return;
     }
 
+    console.error(`Error minting NFT for request ${entry.item.requestId}:`, error);
+    explainError(error);
+    results.set(entry.item.requestId, failureResult(entry.item.requestId, error));
+  }
+}
+
+// Mint several NFTs for different recipients, packing several creates into each transaction
+async function mintBatch(context, items, itemsPerTransaction) {
+  const { wallet, metaplex } = context;
+  const results = new Map();
+  const toCreate = [];
+
+  const started = Date.now();
+
+  // Prepare every item; metadata uploads and resume checks run concurrently
+  await Promise.all(items.map(async item => {
+    try {
+      validateRequest(item);
+      if (!item.requestId) {
+        throw new Error('Batch items require a requestId');
+      }
+
+      const mintKeypair = deriveMintKeypair(wallet, item.requestId);
+
+      // Resumed request: finish it the same way as a single mint
+      if (await findExistingNft(metaplex, mintKeypair.publicKey)) {
+        const result = await mintNft(context, item);
+        results.set(item.requestId, { requestId: item.requestId, ok: true, ...result });
+        return;
+      }
+
+      const timings = {};
+      // uploadMetadata retries each upload itself
+      const upload = await timed(timings, 'upload', () => resolveMetadataUri(context, item));
+      toCreate.push({ item, mintKeypair, recipient: new PublicKey(item.recipient), uri: upload.uri, upload, timings, started });
+    } catch (error) {
+      console.error(`Error preparing NFT for request ${item.requestId}:`, error.message);
+      results.set(item.requestId, failureResult(item.requestId, error));
+    }
+  }));
+
+  // Send all transactions and confirm them together
+  const perTransaction = Math.max(1, parseInt(itemsPerTransaction || '1'));
+  const groups = [];
+  for (let i = 0; i < toCreate.length; i += perTransaction) {
+    groups.push(toCreate.slice(i, i + perTransaction));
+  }
+
+  console.log(`Minting batch of ${items.length} NFT(s) in ${groups.length} transaction(s)`);
+  await Promise.all(groups.map(group => createGroup(context, group, results)));
+
+  return items.map(item => results.get(item.requestId) ||
+    failureResult(item.requestId, new Error('No result for request')));
+}
+
+// Classify an error so the plugin can tell failures that may succeed on retry from ones that never will
+function errorCode(error) {
+  const message = (error && error.message) || String(error);
+  if (error && error.code === 'INVALID_REQUEST') {
+    return 'INVALID_REQUEST';
+  } else if (message.includes('insufficient funds')) {
+    return 'INSUFFICIENT_FUNDS';
+  } else if (isTransactionTooLarge(error)) {
+    return 'TRANSACTION_TOO_LARGE';
+  } else if (message.includes('timeout') || message.includes('timed out')) {
+    return 'TIMEOUT';
+  } else if (message.includes('network') || /ECONN|ETIMEDOUT|ENOTFOUND|fetch failed|429/.test(message)) {
+    return 'NETWORK';
+  } else if ((error && error.name === 'AccountNotFoundError') || message.includes('not found')) {
+    return 'NOT_FOUND';
+  }
+  return 'UNKNOWN';
+}
+
+// Result for a failed mint
+function failureResult(requestId, error) {
+  return {
+    requestId,
+    ok: false,
+    errorCode: errorCode(error),
+    error: (error && error.message) || String(error)
+  };
+}
+
+// Print hints for common minting errors
+function explainError(error) {
+  // Provide more specific error messages based on the error type
+  if (error.message && error.message.includes('insufficient funds')) {
+    console.error('The server wallet does not have enough SOL to pay for the transaction.');
+    console.error('Please add more SOL to the wallet using the Solana Faucet: https://solfaucet.com/');
+  } else if (error.message && error.message.includes('network')) {
+    console.error('Network error. Please check your internet connection and the RPC URL.');
+  } else if (error.message && error.message.includes('timeout')) {
+    console.error('Request timed out. The Solana network might be congested or the RPC endpoint is slow.');
+  } else if (error.name === 'AccountNotFoundError' || (error.message && error.message.includes('not found'))) {
+    console.error('Account not found error. This usually happens when the NFT was not properly created or confirmed on the blockchain.');
+    console.error('Possible solutions:');
+    console.error('1. Make sure your server wallet has enough SOL (at least 0.05 SOL)');
+    console.error('2. Try again later as Solana DevNet might be experiencing delays');
+    console.error('3. Check if the RPC endpoint is responsive');
+  } else if (error.message && error.message.includes('Cannot read properties of null')) {
+    console.error('Null reference error. This usually happens when there is an issue with the token owner or wallet configuration.');
+    console.error('Possible solutions:');
+    console.error('1. Make sure your server wallet private key is valid');
+    console.error('2. Check if the recipient wallet address is valid');
+    console.error('3. Try reinstalling the Metaplex dependencies: npm install @metaplex-foundation/js@latest');
+  } else if (error.message && (error.message.includes('toBuffer is not a function') || error.message.includes('is not a function'))) {
+    console.error('Function not found error. This usually happens when there is a type mismatch or incompatible Metaplex version.');
+    console.error('Possible solutions:');
+    console.error('1. Update to the latest version of Metaplex: npm install @metaplex-foundation/js@latest');
+    console.error('2. Clear node_modules and reinstall: rm -rf node_modules && npm install');
+    console.error('3. Check for compatibility issues between Metaplex and Solana Web3.js');
+  }
+}
+
+// Mint a single NFT from the command line options
+async function runOnce() {
+  // The plugin reads this one JSON line from stdout; everything else is log output on stderr
+  function printResult(result) {
+    const { ok, ...fields } = result;
+    process.stdout.write(JSON.stringify({ status: ok ? 'success' : 'error', ...fields }) + '\n');
+  }
+
+  try {
+    validateRequest(options);
+  } catch (error) {
+    console.error(`Error: ${error.message}`);
+    printResult(failureResult(options.requestId, error));
+    process.exit(1);
+  }
+
+  // Display information about the minting process
+  console.log('===================================');
+  console.log('Solana NFT Minting');
+  console.log('===================================');
+  console.log(`Network: ${options.network}`);
+  console.log(`RPC URL: ${options.rpcUrl}`);
+  console.log(`Recipient: ${options.recipient}`);
+  console.log(`NFT Name: ${options.name}`);
+  console.log(`Player: ${options.player || 'Not specified'}`);
+  console.log(`Achievement: ${options.achievement || 'Not specified'}`);
+  console.log(`Confirmation Timeout: ${options.confirmationTimeout}ms`);
+  console.log(`Retry Count: ${options.retryCount}`);
+  console.log('===================================');
+  console.log('Starting minting process...');
+
+  try {
+    const result = await mintNft(createContext(), options);
+    printResult({ requestId: options.requestId, ok: true, ...result });
+    process.exit(0);
+  } catch (error) {
+    console.error('Error minting NFT:', error);
+    explainError(error);
+    printResult(failureResult(options.requestId, error));
     process.exit(1);
   }
 }
 
+// Keep the connection open and process mint requests from stdin until it is closed
+function runServer() {
+  const context = createContext();
+  let inFlight = 0;
+  let closing = false;
+
+  function send(message) {
+    process.stdout.write(JSON.stringify(message) + '\n');
+  }
+
+  function exitIfIdle() {
+    if (closing && inFlight === 0) {
+      process.exit(0);
+    }
+  }
+
+  const input = readline.createInterface({ input: process.stdin, terminal: false });
+
+  input.on('line', line => {
+    if (!line.trim()) {
+      return;
+    }
+
+    let request;
+    try {
+      request = JSON.parse(line);
+    } catch (error) {
+      console.error(`Ignoring malformed request: ${error.message}`);
+      return;
+    }
+
+    if (request.type === 'shutdown') {
+      closing = true;
+      input.close();
+      return;
+    }
+
+    if (request.type === 'ping') {
+      send({ id: request.id, ok: true });
+      return;
+    }
+
+    if (request.type === 'mint_batch') {
+      inFlight++;
+      const items = Array.isArray(request.items) ? request.items : [];
+      mintBatch(context, items, request.itemsPerTransaction)
+        .then(results => send({ id: request.id, ok: true, results }))
+        .catch(error => {
+          console.error(`Error minting batch ${request.id}:`, error);
+          send({ id: request.id, ...failureResult(undefined, error) });
+        })
+        .finally(() => {
+          inFlight--;
+          exitIfIdle();
+        });
+      return;
+    }
+
+    inFlight++;
+    console.log(`Minting request ${request.id} for ${request.player || request.recipient} (${request.achievement || 'no achievement'})`);
+
+    Promise.resolve()
+      .then(() => {
+        validateRequest(request);
+        return mintNft(context, request);
+      })
+      .then(result => send({ id: request.id, ok: true, ...result }))
+      .catch(error => {
+        console.error(`Error minting NFT for request ${request.id}:`, error);
+        explainError(error);
+        send({ id: request.id, ...failureResult(request.requestId, error) });
+      })
+      .finally(() => {
+        inFlight--;
+        exitIfIdle();
+      });
+  });
+
+  input.on('close', () => {
+    closing = true;
+    exitIfIdle();
+  });
+
+  process.on('unhandledRejection', error => {
+    console.error('Unhandled rejection in mint server:', error);
+  });
+
+  console.log(`Mint server started. Network: ${options.network}, RPC URL: ${options.rpcUrl}`);
+  send({ type: 'ready' });
+}
+
 // Run the main function
-mintNft();
+if (options.server) {
+  runServer();
+} else {
+  runOnce();
+}
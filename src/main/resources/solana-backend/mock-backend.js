@@ -0,0 +1,410 @@
+#!/usr/bin/env node
+
+/**
+ * Offline mock of the Solana minting backend
+ *
+ * Implements the same command line and stdin/stdout contract as mint-nft.js without touching the network,
+ * so the plugin's queueing, batching and database recording can be tested and load-tested locally.
+ * It has no dependencies beyond Node.js itself.
+ *
+ * Mint and transaction addresses are derived from the seed and the request ID, so the same request
+ * always produces the same addresses. Random latency and failures come from a PRNG seeded the same way,
+ * so a run can be repeated.
+ *
+ * Options (in addition to the mint-nft.js options, which are accepted and mostly ignored):
+ *   --latency <ms>            Median time per mint in milliseconds (default 2000)
+ *   --latency-spread <sigma>  Log-normal spread of the latency; 0 makes every mint take exactly --latency (default 0.5)
+ *   --failure-rate <0..1>     Fraction of mints that fail (default 0)
+ *   --failure-codes <codes>   Comma separated error codes used for failures (default TIMEOUT,NETWORK)
+ *   --max-per-second <n>      Max transactions sent per second by this process, 0 for no limit (default 0)
+ *   --seed <text>             Seed for addresses and randomness (default mock)
+ *
+ * Usage:
+ * node mock-backend.js --recipient <RECIPIENT_ADDRESS> --name "NFT Name" --description "..." --image "https://..." --request-id <ID>
+ * node mock-backend.js --server --latency 500 --failure-rate 0.05
+ */
+
+const crypto = require('crypto');
+const readline = require('readline');
+
+// Parse --name value pairs; flags without a value are true
+function parseArgs(argv) {
+  const parsed = {};
+  for (let i = 0; i < argv.length; i++) {
+    const arg = argv[i];
+    if (!arg.startsWith('--')) {
+      continue;
+    }
+
+    const key = arg.slice(2).replace(/-([a-z])/g, (match, letter) => letter.toUpperCase());
+    if (i + 1 < argv.length && !argv[i + 1].startsWith('--')) {
+      parsed[key] = argv[++i];
+    } else {
+      parsed[key] = true;
+    }
+  }
+  return parsed;
+}
+
+const options = parseArgs(process.argv.slice(2));
+const latency = Math.max(0, parseFloat(options.latency || '2000'));
+const latencySpread = Math.max(0, parseFloat(options.latencySpread || '0.5'));
+const failureRate = Math.min(1, Math.max(0, parseFloat(options.failureRate || '0')));
+const failureCodes = String(options.failureCodes || 'TIMEOUT,NETWORK').split(',').map(code => code.trim()).filter(Boolean);
+const maxPerSecond = Math.max(0, parseFloat(options.maxPerSecond || '0'));
+const seed = String(options.seed || 'mock');
+
+// Share of the mint latency spent in each phase
+const PHASES = { upload: 0.15, create: 0.35, confirm: 0.35, transfer: 0.15 };
+
+const BASE58_ALPHABET = '123456789ABCDEFGHJKLMNPQRSTUVWXYZabcdefghijkmnopqrstuvwxyz';
+
+// Encode bytes as base58, like Solana addresses and signatures
+function base58(bytes) {
+  let value = BigInt('0x' + Buffer.from(bytes).toString('hex'));
+  let encoded = '';
+  while (value > 0n) {
+    encoded = BASE58_ALPHABET[Number(value % 58n)] + encoded;
+    value /= 58n;
+  }
+  for (const byte of bytes) {
+    if (byte !== 0) {
+      break;
+    }
+    encoded = '1' + encoded;
+  }
+  return encoded;
+}
+
+// Deterministic 32-byte address for a label
+function fakeAddress(label) {
+  return base58(crypto.createHash('sha256').update(`${seed}:${label}`).digest());
+}
+
+// Deterministic 64-byte signature for a label
+function fakeSignature(label) {
+  return base58(crypto.createHash('sha512').update(`${seed}:${label}`).digest());
+}
+
+// Seeded PRNG (mulberry32) so latency and failures repeat between runs
+let prngState = crypto.createHash('sha256').update(seed).digest().readUInt32LE(0);
+function random() {
+  prngState = (prngState + 0x6D2B79F5) | 0;
+  let t = prngState;
+  t = Math.imul(t ^ (t >>> 15), t | 1);
+  t ^= t + Math.imul(t ^ (t >>> 7), t | 61);
+  return ((t ^ (t >>> 14)) >>> 0) / 4294967296;
+}
+
+// Draw a mint latency from a log-normal distribution around the median
+function sampleLatency() {
+  if (latencySpread === 0) {
+    return latency;
+  }
+  const u1 = Math.max(random(), Number.EPSILON);
+  const u2 = random();
+  const z = Math.sqrt(-2 * Math.log(u1)) * Math.cos(2 * Math.PI * u2);
+  return latency * Math.exp(latencySpread * z);
+}
+
+function sleep(ms) {
+  return new Promise(resolve => setTimeout(resolve, Math.max(0, Math.round(ms))));
+}
+
+// Pace sent transactions to max-per-second
+let nextSendAt = 0;
+async function takeSendSlot() {
+  if (maxPerSecond <= 0) {
+    return;
+  }
+  const now = Date.now();
+  const slot = Math.max(now, nextSendAt);
+  nextSendAt = slot + 1000 / maxPerSecond;
+  await sleep(slot - now);
+}
+
+// Run one phase and record how long it took
+async function timed(timings, phase, operation) {
+  const start = Date.now();
+  try {
+    return await operation();
+  } finally {
+    timings[phase] = (timings[phase] || 0) + (Date.now() - start);
+  }
+}
+
+function mockError(code, message) {
+  const error = new Error(message);
+  error.code = code;
+  return error;
+}
+
+// Same checks as mint-nft.js
+function validateRequest(request) {
+  if (!request.recipient) {
+    throw mockError('INVALID_REQUEST', 'Recipient address is required');
+  }
+  if (!request.metadataUri && (!request.name || !request.description || !request.image)) {
+    throw mockError('INVALID_REQUEST', 'Either metadata URI or all metadata fields (name, description, image) are required');
+  }
+  if (!/^[1-9A-HJ-NP-Za-km-z]{32,44}$/.test(request.recipient)) {
+    throw mockError('INVALID_REQUEST', 'Invalid recipient address');
+  }
+}
+
+// Fail a share of mints according to the failure rate
+function maybeFail(label) {
+  if (failureRate > 0 && random() < failureRate) {
+    const code = failureCodes[Math.floor(random() * failureCodes.length)] || 'UNKNOWN';
+    throw mockError(code, `Mock ${code.toLowerCase()} failure for ${label}`);
+  }
+}
+
+let anonymousRequests = 0;
+const minted = new Map();
+const uploads = new Map();
+
+// Pretend to upload the image and metadata, once per achievement and content hash
+async function resolveMetadataUri(request, phaseLatency) {
+  if (request.metadataUri) {
+    return { uri: request.metadataUri, uploaded: false };
+  }
+
+  const key = request.contentHash ? `${request.achievement}:${request.contentHash}` : null;
+  if (key && uploads.has(key)) {
+    return uploads.get(key);
+  }
+
+  const upload = sleep(phaseLatency).then(() => {
+    const hash = crypto.createHash('sha256').update(`${request.achievement}:${request.contentHash || request.requestId}`).digest('hex');
+    return {
+      uri: `mock://metadata/${hash}`,
+      uploaded: true,
+      imageUri: request.imageUri ? undefined : `mock://image/${crypto.createHash('sha256').update(String(request.image)).digest('hex')}`
+    };
+  });
+  if (key) {
+    uploads.set(key, upload);
+  }
+  return upload;
+}
+
+function withUploads(result, upload) {
+  if (upload && upload.uploaded) {
+    result.metadataUri = upload.uri;
+    if (upload.imageUri) {
+      result.imageUri = upload.imageUri;
+    }
+  }
+  return result;
+}
+
+// Mint one NFT and "transfer" it to the recipient
+async function mintNft(request) {
+  const started = Date.now();
+  const timings = {};
+  const requestId = request.requestId || `anonymous-${++anonymousRequests}`;
+  const mintAddress = fakeAddress(`mint:${requestId}`);
+  const total = sampleLatency();
+
+  // A request that already went through resumes instead of minting again
+  if (minted.has(requestId)) {
+    console.error(`Mint ${mintAddress} already exists for request ${requestId}, resuming`);
+    timings.total = Date.now() - started;
+    return { nftAddress: mintAddress, mintAddress, resumed: true, timings };
+  }
+
+  const upload = await timed(timings, 'upload', () => resolveMetadataUri(request, total * PHASES.upload));
+  await timed(timings, 'create', async () => {
+    await takeSendSlot();
+    await sleep(total * PHASES.create);
+    maybeFail(`request ${requestId}`);
+  });
+  await timed(timings, 'confirm', () => sleep(total * PHASES.confirm));
+  await timed(timings, 'transfer', () => sleep(total * PHASES.transfer));
+
+  minted.set(requestId, mintAddress);
+  timings.total = Date.now() - started;
+  console.error(`Mock minted ${mintAddress} for ${request.player || request.recipient} in ${timings.total}ms`);
+
+  return withUploads({
+    nftAddress: mintAddress,
+    mintAddress,
+    signature: fakeSignature(`transfer:${requestId}`),
+    resumed: false,
+    timings
+  }, upload);
+}
+
+// Mint several NFTs, several per transaction, straight to their recipients
+async function mintBatch(items, itemsPerTransaction) {
+  const started = Date.now();
+  const results = new Map();
+  const toCreate = [];
+
+  await Promise.all(items.map(async item => {
+    try {
+      validateRequest(item);
+      if (!item.requestId) {
+        throw mockError('INVALID_REQUEST', 'Batch items require a requestId');
+      }
+
+      if (minted.has(item.requestId)) {
+        results.set(item.requestId, { requestId: item.requestId, ok: true, ...await mintNft(item) });
+        return;
+      }
+
+      const timings = {};
+      const upload = await timed(timings, 'upload', () => resolveMetadataUri(item, sampleLatency() * PHASES.upload));
+      toCreate.push({ item, upload, timings });
+    } catch (error) {
+      results.set(item.requestId, failureResult(item.requestId, error));
+    }
+  }));
+
+  const perTransaction = Math.max(1, parseInt(itemsPerTransaction || '1'));
+  const groups = [];
+  for (let i = 0; i < toCreate.length; i += perTransaction) {
+    groups.push(toCreate.slice(i, i + perTransaction));
+  }
+
+  console.error(`Mock minting batch of ${items.length} NFT(s) in ${groups.length} transaction(s)`);
+  await Promise.all(groups.map(async (group, index) => {
+    const sendStarted = Date.now();
+    try {
+      await takeSendSlot();
+      await sleep(sampleLatency() * (PHASES.create + PHASES.confirm));
+      maybeFail(`transaction of ${group.length} NFT(s)`);
+
+      const signature = fakeSignature(`batch:${group.map(entry => entry.item.requestId).join(',')}`);
+      for (const entry of group) {
+        const mintAddress = fakeAddress(`mint:${entry.item.requestId}`);
+        minted.set(entry.item.requestId, mintAddress);
+        entry.timings.create = Date.now() - sendStarted;
+        entry.timings.total = Date.now() - started;
+        results.set(entry.item.requestId, withUploads({
+          requestId: entry.item.requestId,
+          ok: true,
+          nftAddress: mintAddress,
+          mintAddress,
+          signature,
+          resumed: false,
+          timings: entry.timings
+        }, entry.upload));
+      }
+    } catch (error) {
+      for (const entry of group) {
+        results.set(entry.item.requestId, failureResult(entry.item.requestId, error));
+      }
+    }
+  }));
+
+  return items.map(item => results.get(item.requestId) ||
+    failureResult(item.requestId, new Error('No result for request')));
+}
+
+function failureResult(requestId, error) {
+  return {
+    requestId,
+    ok: false,
+    errorCode: error.code || 'UNKNOWN',
+    error: error.message || String(error)
+  };
+}
+
+// Mint a single NFT from the command line options
+async function runOnce() {
+  function printResult(result) {
+    const { ok, ...fields } = result;
+    process.stdout.write(JSON.stringify({ status: ok ? 'success' : 'error', ...fields }) + '\n');
+  }
+
+  try {
+    validateRequest(options);
+    const result = await mintNft(options);
+    printResult({ requestId: options.requestId, ok: true, ...result });
+    process.exit(0);
+  } catch (error) {
+    console.error(`Mock mint failed: ${error.message}`);
+    printResult(failureResult(options.requestId, error));
+    process.exit(1);
+  }
+}
+
+// Process mint requests from stdin until it is closed
+function runServer() {
+  let inFlight = 0;
+  let closing = false;
+
+  function send(message) {
+    process.stdout.write(JSON.stringify(message) + '\n');
+  }
+
+  function exitIfIdle() {
+    if (closing && inFlight === 0) {
+      process.exit(0);
+    }
+  }
+
+  const input = readline.createInterface({ input: process.stdin, terminal: false });
+
+  input.on('line', line => {
+    if (!line.trim()) {
+      return;
+    }
+
+    let request;
+    try {
+      request = JSON.parse(line);
+    } catch (error) {
+      console.error(`Ignoring malformed request: ${error.message}`);
+      return;
+    }
+
+    if (request.type === 'shutdown') {
+      closing = true;
+      input.close();
+      return;
+    }
+
+    if (request.type === 'ping') {
+      send({ id: request.id, ok: true });
+      return;
+    }
+
+    inFlight++;
+    const work = request.type === 'mint_batch'
+      ? mintBatch(Array.isArray(request.items) ? request.items : [], request.itemsPerTransaction)
+        .then(results => ({ ok: true, results }))
+      : Promise.resolve().then(() => {
+        validateRequest(request);
+        return mintNft(request);
+      }).then(result => ({ ok: true, ...result }));
+
+    work
+      .then(response => send({ id: request.id, ...response }))
+      .catch(error => {
+        console.error(`Mock mint failed for request ${request.id}: ${error.message}`);
+        send({ id: request.id, ...failureResult(request.requestId, error) });
+      })
+      .finally(() => {
+        inFlight--;
+        exitIfIdle();
+      });
+  });
+
+  input.on('close', () => {
+    closing = true;
+    exitIfIdle();
+  });
+
+  console.error(`Mock mint server started. Latency ${latency}ms (spread ${latencySpread}), failure rate ${failureRate}, ` +
+    `max ${maxPerSecond || 'unlimited'} per second, seed "${seed}"`);
+  send({ type: 'ready' });
+}
+
+if (options.server) {
+  runServer();
+} else {
+  runOnce();
+}